@@ -0,0 +1,87 @@
+package com.inventario.benchmark;
+
+import com.inventario.database.DatabaseManager;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Base de datos SQLite de los benchmarks, con el número de ventas indicado
+ * por el parámetro "ventas"
+ *
+ * Cada tamaño se genera una sola vez como plantilla en target/benchmark-db
+ * (o en -Djmh.db.dir) y cada ejecución trabaja sobre una copia, de modo que
+ * las ventas que registra el benchmark de checkout no alteran las siguientes
+ * mediciones. Requiere forks (la opción por defecto): DatabaseManager queda
+ * ligado a la URL de la primera base de datos que abre la JVM.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+public class BaseDatosBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int ventas;
+
+    private static final Path DIRECTORIO = Paths.get(System.getProperty("jmh.db.dir", "target/benchmark-db"));
+
+    private DatabaseManager dbManager;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException, InterruptedException {
+        Files.createDirectories(DIRECTORIO);
+        Path plantilla = DIRECTORIO.resolve("plantilla-" + ventas + ".db");
+        if (!Files.exists(plantilla)) {
+            generarPlantilla(plantilla);
+        }
+
+        Path trabajo = DIRECTORIO.resolve("trabajo-" + ventas + ".db");
+        Files.deleteIfExists(Paths.get(trabajo + "-wal"));
+        Files.deleteIfExists(Paths.get(trabajo + "-shm"));
+        Files.copy(plantilla, trabajo, StandardCopyOption.REPLACE_EXISTING);
+
+        System.setProperty(DatabaseManager.PROPIEDAD_DB_URL, "jdbc:sqlite:" + trabajo.toAbsolutePath());
+        // Se mide la aplicación, no el proxy del monitor de sentencias
+        System.setProperty(DatabaseManager.PROPIEDAD_MONITOR_SQL, "false");
+        dbManager = DatabaseManager.getInstance();
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        dbManager.closeConnection();
+    }
+
+    /**
+     * Genera la plantilla en un proceso aparte con el mismo classpath
+     */
+    private void generarPlantilla(Path plantilla) throws IOException, InterruptedException {
+        Path temporal = DIRECTORIO.resolve("generando-" + ventas + ".db");
+        Files.deleteIfExists(temporal);
+
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process proceso = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                GeneradorDatosBenchmark.class.getName(), temporal.toAbsolutePath().toString(),
+                String.valueOf(ventas))
+            .redirectErrorStream(true)
+            .redirectOutput(new File(DIRECTORIO.toFile(), "generando-" + ventas + ".log"))
+            .start();
+
+        if (proceso.waitFor() != 0) {
+            throw new IllegalStateException("No se pudo generar la base de datos de " + ventas +
+                                            " ventas; ver " + DIRECTORIO.resolve("generando-" + ventas + ".log"));
+        }
+
+        // Solo se publica la plantilla completa
+        Files.move(temporal, plantilla, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
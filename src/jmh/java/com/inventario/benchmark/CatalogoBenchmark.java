@@ -0,0 +1,66 @@
+package com.inventario.benchmark;
+
+import com.inventario.dao.ProductoDAO;
+import com.inventario.model.Producto;
+import com.inventario.service.ProductoService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Carga y búsqueda del catálogo: consulta directa al DAO frente a la caché
+ * del servicio, y búsqueda LIKE frente a la búsqueda de texto completo
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogoBenchmark {
+
+    private static final String TEXTO_BUSQUEDA = "lap";
+
+    private ProductoDAO productoDAO;
+    private ProductoService productoService;
+
+    @Setup(Level.Trial)
+    public void preparar(BaseDatosBenchmark baseDatos) {
+        productoDAO = new ProductoDAO();
+        productoService = new ProductoService();
+        productoService.recargarCatalogo();
+    }
+
+    @Benchmark
+    public List<Producto> cargarCatalogoDesdeBD() {
+        return productoDAO.obtenerTodos();
+    }
+
+    @Benchmark
+    public List<Producto> cargarCatalogoDesdeCache() {
+        return productoService.obtenerTodosProductos();
+    }
+
+    @Benchmark
+    public List<Producto> buscarPorNombreLike() {
+        return productoDAO.buscar(TEXTO_BUSQUEDA, null);
+    }
+
+    @Benchmark
+    public List<Producto> buscarTextoCompleto() {
+        return productoService.buscarProductosTexto(TEXTO_BUSQUEDA, null, 100);
+    }
+}
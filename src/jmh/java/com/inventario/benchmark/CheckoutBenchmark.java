@@ -0,0 +1,61 @@
+package com.inventario.benchmark;
+
+import com.inventario.model.ItemVenta;
+import com.inventario.model.Producto;
+import com.inventario.model.Usuario;
+import com.inventario.model.Venta;
+import com.inventario.service.ProductoService;
+import com.inventario.service.VentaService;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Registro completo de una venta de dos líneas: validación, transacción con
+ * descuento de stock y refresco de la caché de productos
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    private VentaService ventaService;
+    private List<Producto> productos;
+    private Usuario vendedor;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void preparar(BaseDatosBenchmark baseDatos) {
+        ventaService = new VentaService();
+        productos = new ProductoService().obtenerTodosProductos();
+        vendedor = new Usuario();
+        vendedor.setId(1);
+        vendedor.setUsername("superadmin");
+        random = new Random(42);
+    }
+
+    @Benchmark
+    public boolean registrarVenta() {
+        Venta venta = new Venta(vendedor);
+        venta.agregarItem(new ItemVenta(productos.get(random.nextInt(productos.size())), 1));
+        venta.agregarItem(new ItemVenta(productos.get(random.nextInt(productos.size())), 2));
+        return ventaService.procesarVenta(venta);
+    }
+}
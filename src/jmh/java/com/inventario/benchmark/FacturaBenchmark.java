@@ -0,0 +1,81 @@
+package com.inventario.benchmark;
+
+import com.inventario.model.Factura;
+import com.inventario.model.ItemVenta;
+import com.inventario.model.Money;
+import com.inventario.model.Producto;
+import com.inventario.model.Usuario;
+import com.inventario.model.Venta;
+import com.inventario.service.FacturaService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generación de facturas en texto y HTML para una venta de diez líneas.
+ * No usa la base de datos, por lo que no depende del parámetro de tamaño.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FacturaBenchmark {
+
+    private static final int LINEAS = 10;
+
+    private FacturaService facturaService;
+    private Factura factura;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        facturaService = new FacturaService();
+
+        Usuario vendedor = new Usuario();
+        vendedor.setId(1);
+        vendedor.setNombre("Vendedor");
+        vendedor.setUsername("vendedor");
+
+        Venta venta = new Venta(vendedor);
+        venta.setId(1);
+        for (int i = 1; i <= LINEAS; i++) {
+            Producto producto = new Producto("Producto de prueba " + i, "Descripción " + i,
+                                             Money.dePesos(1500L * i), 100, "Otros");
+            producto.setId(i);
+            producto.setCodigo(String.format("BEN%05d", i));
+            venta.agregarItem(new ItemVenta(producto, 1 + i % 3));
+        }
+
+        factura = new Factura(venta);
+        factura.setClienteNombre("Cliente de prueba");
+        factura.setClienteDocumento("900123456");
+    }
+
+    @Benchmark
+    public String facturaTexto() {
+        return facturaService.generarFacturaTexto(factura, true);
+    }
+
+    @Benchmark
+    public String facturaHTML() {
+        return facturaService.generarFacturaHTML(factura, true);
+    }
+
+    @Benchmark
+    public byte[] facturaTextoBytes() {
+        return facturaService.generarFacturaTextoBytes(factura, true);
+    }
+}
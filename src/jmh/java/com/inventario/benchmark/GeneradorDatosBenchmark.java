@@ -0,0 +1,57 @@
+package com.inventario.benchmark;
+
+import com.inventario.database.DatabaseManager;
+import com.inventario.database.GeneradorDatosSinteticos;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Genera la base de datos de un tamaño dado para los benchmarks
+ *
+ * Se ejecuta en un proceso aparte (lo lanza BaseDatosBenchmark) porque
+ * DatabaseManager es un singleton ligado a una única URL por JVM.
+ *
+ * Uso: GeneradorDatosBenchmark &lt;archivo.db&gt; &lt;numeroVentas&gt;
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class GeneradorDatosBenchmark {
+
+    static final int PRODUCTOS = 2000;
+    static final int STOCK_INICIAL = 1_000_000;
+    private static final long SEMILLA = 20240101L;
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length != 2) {
+            System.err.println("Uso: GeneradorDatosBenchmark <archivo.db> <numeroVentas>");
+            System.exit(2);
+        }
+
+        System.setProperty(DatabaseManager.PROPIEDAD_DB_URL, "jdbc:sqlite:" + args[0]);
+        System.setProperty(DatabaseManager.PROPIEDAD_MONITOR_SQL, "false");
+        int ventas = Integer.parseInt(args[1]);
+
+        long inicio = System.currentTimeMillis();
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+
+        GeneradorDatosSinteticos generador = new GeneradorDatosSinteticos();
+        generador.setProductos(PRODUCTOS);
+        generador.setVentas(ventas);
+        generador.setSemilla(SEMILLA);
+
+        try (Connection conn = dbManager.getConnection()) {
+            generador.generar(conn);
+            // Stock suficiente para que el benchmark de checkout nunca se quede sin existencias
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("UPDATE productos SET cantidad = " + STOCK_INICIAL);
+            }
+        }
+
+        dbManager.reconstruirResumenVentas();
+        dbManager.closeConnection();
+        System.out.println("Base de datos de benchmark generada: " + ventas + " ventas en " +
+                          (System.currentTimeMillis() - inicio) + " ms");
+    }
+}
@@ -0,0 +1,67 @@
+package com.inventario.benchmark;
+
+import com.inventario.model.ProductoVendido;
+import com.inventario.model.Venta;
+import com.inventario.model.VentaResumen;
+import com.inventario.service.ReportesService;
+import com.inventario.service.VentaService;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Consultas de la pantalla de reportes sobre el historial de ventas
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportesBenchmark {
+
+    private ReportesService reportesService;
+    private VentaService ventaService;
+
+    @Setup(Level.Trial)
+    public void preparar(BaseDatosBenchmark baseDatos) {
+        reportesService = new ReportesService();
+        ventaService = new VentaService();
+    }
+
+    @Benchmark
+    public List<ProductoVendido> productosMasVendidos() {
+        return reportesService.obtenerProductosMasVendidos(10);
+    }
+
+    @Benchmark
+    public Map<String, Object> estadisticasGenerales() {
+        return reportesService.obtenerEstadisticasGenerales();
+    }
+
+    @Benchmark
+    public List<Venta> ventasUltimaSemana() {
+        LocalDate hoy = LocalDate.now();
+        return reportesService.obtenerVentasPorRango(hoy.minusDays(7), hoy);
+    }
+
+    @Benchmark
+    public List<VentaResumen> primeraPaginaVentas() {
+        return ventaService.obtenerPaginaResumenes(Integer.MAX_VALUE, 100);
+    }
+}
@@ -0,0 +1,195 @@
+package com.inventario.controller;
+
+import javax.swing.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Ejecuta las cargas de datos de los controladores fuera del hilo de eventos
+ * de Swing (EDT).
+ *
+ * Cada carga se identifica con una clave: iniciar una carga con una clave que
+ * ya está en curso cancela la anterior, y su resultado se descarta aunque la
+ * consulta termine. Los resultados y errores se entregan siempre en el EDT.
+ *
+ * Las instancias comparten un ejecutor acotado para no abrir más consultas
+ * simultáneas que conexiones de lectura tiene el pool. Los trabajos largos
+ * (exportaciones, lotes) usan un cargador con hilo propio, creado con
+ * conHiloPropio, para no ocupar los hilos de las cargas de pantalla.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class CargadorAsincrono {
+
+    private static final Logger logger = Logger.getLogger(CargadorAsincrono.class.getName());
+
+    private static final int HILOS = 2;
+    private static final int CAPACIDAD_COLA = 32;
+
+    private static final ThreadPoolExecutor compartido = crearEjecutor(HILOS, "carga-datos-");
+
+    private final ThreadPoolExecutor ejecutor;
+    private final Consumer<Boolean> indicadorProgreso;
+    private final Map<String, SwingWorker<?, ?>> cargasActivas = new HashMap<>();
+
+    /**
+     * @param indicadorProgreso Se invoca en el EDT con true al empezar la
+     *                          primera carga y con false al terminar la última
+     *                          (puede ser null)
+     */
+    public CargadorAsincrono(Consumer<Boolean> indicadorProgreso) {
+        this(compartido, indicadorProgreso);
+    }
+
+    private CargadorAsincrono(ThreadPoolExecutor ejecutor, Consumer<Boolean> indicadorProgreso) {
+        this.ejecutor = ejecutor;
+        this.indicadorProgreso = indicadorProgreso;
+    }
+
+    /**
+     * Crea un cargador con un hilo propio para trabajos largos; sus trabajos
+     * se ejecutan de a uno y no compiten con las cargas de pantalla
+     *
+     * @param nombre Prefijo del nombre del hilo
+     * @param indicadorProgreso Igual que en el constructor (puede ser null)
+     */
+    public static CargadorAsincrono conHiloPropio(String nombre, Consumer<Boolean> indicadorProgreso) {
+        return new CargadorAsincrono(crearEjecutor(1, nombre + "-"), indicadorProgreso);
+    }
+
+    /**
+     * Inicia una carga en segundo plano. Debe llamarse desde el EDT.
+     *
+     * @param clave Identificador de la carga; cancela la anterior con la misma clave
+     * @param consulta Trabajo a ejecutar fuera del EDT (acceso a BD)
+     * @param alCompletar Recibe el resultado en el EDT
+     * @param alFallar Recibe el error en el EDT
+     */
+    public <T> void cargar(String clave, Callable<T> consulta,
+                           Consumer<T> alCompletar, Consumer<Exception> alFallar) {
+        boolean estabaInactivo = cargasActivas.isEmpty();
+
+        // La carga anterior se descarta sin apagar el indicador de progreso
+        SwingWorker<?, ?> anterior = cargasActivas.remove(clave);
+        if (anterior != null) {
+            detener(anterior);
+        }
+
+        SwingWorker<T, Void> worker = new SwingWorker<>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return consulta.call();
+            }
+
+            @Override
+            protected void done() {
+                // Una carga reemplazada o cancelada ya no pinta nada
+                if (cargasActivas.get(clave) != this) {
+                    return;
+                }
+                finalizar(clave);
+
+                try {
+                    alCompletar.accept(get());
+                } catch (CancellationException e) {
+                    // Cancelada mientras terminaba; se ignora
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Throwable causa = e.getCause();
+                    alFallar.accept(causa instanceof Exception ? (Exception) causa : e);
+                }
+            }
+        };
+
+        cargasActivas.put(clave, worker);
+        if (estabaInactivo) {
+            notificarProgreso(true);
+        }
+
+        try {
+            ejecutor.execute(worker);
+        } catch (RejectedExecutionException e) {
+            finalizar(clave);
+            alFallar.accept(new IllegalStateException("Demasiadas cargas pendientes, intente de nuevo"));
+        }
+    }
+
+    /**
+     * Cancela la carga con la clave indicada, si está en curso
+     *
+     * @param clave Identificador de la carga
+     */
+    public void cancelar(String clave) {
+        SwingWorker<?, ?> anterior = cargasActivas.get(clave);
+        if (anterior != null) {
+            finalizar(clave);
+            detener(anterior);
+        }
+    }
+
+    /**
+     * Cancela todas las cargas en curso de este cargador
+     */
+    public void cancelarTodas() {
+        for (String clave : cargasActivas.keySet().toArray(new String[0])) {
+            cancelar(clave);
+        }
+    }
+
+    /**
+     * Indica si hay alguna carga en curso
+     */
+    public boolean isCargando() {
+        return !cargasActivas.isEmpty();
+    }
+
+    private void detener(SwingWorker<?, ?> worker) {
+        worker.cancel(true);
+        ejecutor.remove(worker);
+    }
+
+    private void finalizar(String clave) {
+        if (cargasActivas.remove(clave) != null && cargasActivas.isEmpty()) {
+            notificarProgreso(false);
+        }
+    }
+
+    private void notificarProgreso(boolean cargando) {
+        if (indicadorProgreso != null) {
+            indicadorProgreso.accept(cargando);
+        }
+    }
+
+    private static ThreadPoolExecutor crearEjecutor(int hilos, String prefijo) {
+        ThreadFactory fabrica = new ThreadFactory() {
+            private final AtomicInteger contador = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable tarea) {
+                Thread hilo = new Thread(tarea, prefijo + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                hilo.setUncaughtExceptionHandler((t, e) ->
+                    logger.severe("Error no controlado en " + t.getName() + ": " + e.getMessage()));
+                return hilo;
+            }
+        };
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(hilos, hilos, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(CAPACIDAD_COLA), fabrica, new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
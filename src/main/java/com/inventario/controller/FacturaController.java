@@ -2,15 +2,23 @@ package com.inventario.controller;
 
 import com.inventario.model.Usuario;
 import com.inventario.model.Venta;
+import com.inventario.model.VentaResumen;
 import com.inventario.model.Factura;
 import com.inventario.service.VentaService;
 import com.inventario.service.FacturaService;
+import com.inventario.service.FacturaLoteService;
 import com.inventario.view.FacturaFrame;
+import com.inventario.view.ModeloTablaMarcable;
 
-import javax.swing.table.DefaultTableModel;
+import javax.swing.SwingUtilities;
+import java.nio.charset.StandardCharsets;
 import java.text.NumberFormat;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Controlador para la generación de facturas
@@ -20,6 +28,8 @@ import java.util.List;
  */
 public class FacturaController {
     
+    private static final Logger logger = LoggerFactory.getLogger(FacturaController.class);
+    private static final int MAX_FALLOS_MOSTRADOS = 20;
     private FacturaFrame view;
     private FacturaService facturaService;
     private VentaService ventaService;
@@ -27,6 +37,10 @@ public class FacturaController {
     private Factura facturaActual;
     private NumberFormat formatoMoneda;
     private DateTimeFormatter formatoFecha;
+    private CargadorAsincrono cargador;
+    private CargadorAsincrono cargadorLote;
+    private FacturaLoteService facturaLoteService;
+    private int emisiones;
 
     public FacturaController(FacturaFrame view, Usuario usuarioActual) {
         this.view = view;
@@ -35,32 +49,41 @@ public class FacturaController {
         this.ventaService = new VentaService();
         this.formatoMoneda = NumberFormat.getCurrencyInstance();
         this.formatoFecha = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+        this.cargador = new CargadorAsincrono(view::mostrarCargando);
+        // El lote tiene su propia barra de avance y un hilo propio para no ocupar
+        // los de las cargas de pantalla
+        this.cargadorLote = CargadorAsincrono.conHiloPropio("factura-lote-control", null);
+        this.facturaLoteService = new FacturaLoteService();
     }
 
     /**
-     * Carga las ventas disponibles
+     * Carga las ventas disponibles. La tabla pide las páginas a medida que el
+     * usuario se desplaza; solo se leen los resúmenes y la venta completa se
+     * carga al generar la factura.
      */
     public void cargarVentas() {
-        try {
-            List<Venta> ventas = ventaService.obtenerTodasVentas();
-            DefaultTableModel modelo = view.getModeloVentas();
-            modelo.setRowCount(0);
-            
-            for (Venta venta : ventas) {
-                Object[] fila = {
-                    false, // Checkbox
-                    venta.getId(),
-                    venta.getFechaVenta().format(formatoFecha),
-                    venta.getUsuario().getNombre(),
-                    venta.getCantidadItems(),
-                    formatoMoneda.format(venta.getTotal())
-                };
-                modelo.addRow(fila);
-            }
-            
-        } catch (Exception e) {
-            view.mostrarError("Error al cargar ventas: " + e.getMessage());
-            e.printStackTrace();
+        ModeloTablaMarcable<VentaResumen> modelo = view.getModeloVentas();
+        modelo.setFormateador(this::formatearCeldaVenta);
+        modelo.cargar(
+            (antesDeId, limite) -> ventaService.obtenerPaginaResumenes(antesDeId, limite),
+            null,
+            e -> {
+                logger.error("error al cargar ventas", e);
+                view.mostrarError("Error al cargar ventas: " + e.getMessage());
+            });
+    }
+
+    /**
+     * Formatea una celda de la tabla de ventas al pintarse
+     */
+    private Object formatearCeldaVenta(VentaResumen venta, int columna) {
+        switch (columna) {
+            case 0: return venta.getId();
+            case 1: return venta.getFechaVenta().format(formatoFecha);
+            case 2: return venta.getVendedor();
+            case 3: return venta.getCantidadItems();
+            case 4: return formatoMoneda.format(venta.getTotal().toBigDecimal());
+            default: return null;
         }
     }
 
@@ -69,8 +92,6 @@ public class FacturaController {
      */
     public void generarVistaPrevia() {
         try {
-            System.out.println("\n📄 ===== GENERANDO FACTURA =====");
-            
             // Obtener venta seleccionada
             int ventaId = obtenerVentaSeleccionada();
             if (ventaId == -1) {
@@ -78,34 +99,32 @@ public class FacturaController {
                 return;
             }
             
-            System.out.println("✅ Venta seleccionada ID: " + ventaId);
-            
             // Obtener datos
             Venta venta = ventaService.obtenerVentaPorId(ventaId);
             if (venta == null) {
-                System.err.println("❌ No se pudo cargar la venta con ID: " + ventaId);
+                logger.warn("factura sin venta id={}", ventaId);
                 view.mostrarError("No se pudo cargar la venta seleccionada");
                 return;
             }
             
-            System.out.println("✅ Venta cargada:");
-            System.out.println("   ID: " + venta.getId());
-            System.out.println("   Usuario: " + venta.getUsuario().getNombre());
-            System.out.println("   Total: " + venta.getTotal());
-            System.out.println("   Fecha: " + venta.getFechaVenta());
-            System.out.println("   Items: " + (venta.getItems() != null ? venta.getItems().size() : "NULL"));
-            
-            if (venta.getItems() != null && !venta.getItems().isEmpty()) {
-                System.out.println("\n📦 Items de la venta:");
-                for (int i = 0; i < venta.getItems().size(); i++) {
-                    var item = venta.getItems().get(i);
-                    System.out.println("   " + (i+1) + ". " + item.getProducto().getNombre());
-                    System.out.println("      Cantidad: " + item.getCantidad());
-                    System.out.println("      Precio unitario: " + item.getPrecioUnitario());
-                    System.out.println("      Subtotal: " + item.getSubtotal());
+            if (venta.getItems() == null || venta.getItems().isEmpty()) {
+                logger.warn("factura de venta sin items id={}", ventaId);
+            } else if (logger.isDebugEnabled()) {
+                for (var item : venta.getItems()) {
+                    logger.debug("factura item venta={} producto={} cantidad={} precio={} subtotal={}",
+                                 ventaId, item.getProducto().getNombre(), item.getCantidad(),
+                                 item.getPrecioUnitario(), item.getSubtotal());
                 }
-            } else {
-                System.err.println("⚠️ La venta NO tiene items cargados");
+            }
+            
+            // Si la venta ya se facturó se puede mostrar la factura emitida
+            List<Factura> emitidas = facturaService.obtenerFacturasDeVenta(ventaId);
+            if (!emitidas.isEmpty() && view.confirmar(
+                    "La venta #" + ventaId + " ya tiene la factura " + emitidas.get(0).getNumeroFactura() +
+                    " (emitida el " + emitidas.get(0).getFechaEmision().format(formatoFecha) + ").\n\n" +
+                    "¿Desea ver esa factura? Si elige No se preparará una factura nueva.")) {
+                mostrarFacturaEmitida(facturaService.obtenerFacturaPorId(emitidas.get(0).getId()));
+                return;
             }
             
             // Obtener datos del cliente
@@ -113,11 +132,6 @@ public class FacturaController {
             String clienteDocumento = view.getClienteDocumento();
             boolean incluirIVA = view.isIncluirIVA();
             
-            System.out.println("\n👤 Datos del cliente:");
-            System.out.println("   Nombre: " + clienteNombre);
-            System.out.println("   Documento: " + clienteDocumento);
-            System.out.println("   Incluir IVA: " + incluirIVA);
-            
             // Validar datos
             if (clienteNombre.isEmpty()) {
                 view.mostrarError("Ingrese el nombre del cliente");
@@ -125,26 +139,16 @@ public class FacturaController {
             }
             
             // Crear factura
-            System.out.println("\n📝 Creando factura...");
             facturaActual = new Factura(venta);
             facturaActual.setClienteNombre(clienteNombre);
             facturaActual.setClienteDocumento(clienteDocumento);
             
-            System.out.println("✅ Factura creada:");
-            System.out.println("   Número: " + facturaActual.getNumeroFactura());
-            System.out.println("   Subtotal: " + facturaActual.getSubtotal());
-            System.out.println("   IVA: " + facturaActual.getIva());
-            System.out.println("   Total: " + facturaActual.getTotal());
-            
             // Generar vista previa
-            System.out.println("\n🖨️ Generando texto de factura...");
             String vistaPrevia = facturaService.generarFacturaTexto(
                 facturaActual, 
                 incluirIVA
             );
             
-            System.out.println("✅ Texto generado (" + vistaPrevia.length() + " caracteres)");
-            
             // Mostrar en la vista
             view.getTxtVistaPrevia().setText(vistaPrevia);
             
@@ -152,32 +156,195 @@ public class FacturaController {
             view.getBtnGuardarFactura().setEnabled(true);
             view.getBtnImprimirFactura().setEnabled(true);
             
-            System.out.println("✅✅✅ FACTURA GENERADA EXITOSAMENTE ✅✅✅\n");
+            logger.info("factura generada numero={} venta={} lineas={} iva={} subtotal={} total={} caracteres={}",
+                        facturaActual.getNumeroFactura(), ventaId, venta.getItems().size(), incluirIVA,
+                        facturaActual.getSubtotal(), facturaActual.getTotal(), vistaPrevia.length());
             
         } catch (Exception e) {
-            System.err.println("\n❌❌❌ ERROR AL GENERAR FACTURA ❌❌❌");
-            System.err.println("Mensaje: " + e.getMessage());
-            System.err.println("Tipo: " + e.getClass().getName());
-            e.printStackTrace();
-            System.err.println("=========================================\n");
+            logger.error("error al generar factura", e);
             view.mostrarError("Error al generar vista previa: " + e.getMessage());
         }
     }
 
+    /**
+     * Busca una factura emitida por su número y la muestra para reimprimirla
+     */
+    public void buscarFactura() {
+        String numero = view.pedirNumeroFactura();
+        if (numero == null || numero.isBlank()) {
+            return;
+        }
+        
+        Factura factura = facturaService.obtenerFacturaPorNumero(numero);
+        if (factura == null) {
+            view.mostrarError("No existe la factura " + numero.trim());
+            return;
+        }
+        mostrarFacturaEmitida(factura);
+    }
+
+    /**
+     * Muestra el documento de una factura emitida; guardarla o imprimirla
+     * usa ese documento
+     */
+    private void mostrarFacturaEmitida(Factura factura) {
+        if (factura == null) {
+            view.mostrarError("No se pudo cargar la factura");
+            return;
+        }
+        
+        facturaActual = factura;
+        view.getTxtVistaPrevia().setText(new String(factura.getContenidoTexto(), StandardCharsets.UTF_8));
+        view.getTxtVistaPrevia().setCaretPosition(0);
+        view.getBtnGuardarFactura().setEnabled(true);
+        view.getBtnImprimirFactura().setEnabled(true);
+        
+        logger.info("factura emitida consultada numero={} venta={}",
+                    factura.getNumeroFactura(), factura.getVenta().getId());
+    }
+
+    /**
+     * Emite en segundo plano la factura actual si todavía es un borrador, con
+     * el IVA marcado en la vista, y después continúa en el EDT. Se llama antes
+     * de guardarla o imprimirla; mientras se emite, Guardar e Imprimir quedan
+     * deshabilitados.
+     *
+     * @param continuacion Recibe la factura emitida en el EDT
+     */
+    private void emitirSiEsBorrador(Consumer<Factura> continuacion) {
+        Factura factura = facturaActual;
+        if (factura.isGenerada()) {
+            continuacion.accept(factura);
+            return;
+        }
+        
+        boolean incluirIVA = view.isIncluirIVA();
+        habilitarAcciones(false);
+        // Clave propia por emisión: iniciar otra no debe cancelar una que ya está registrando
+        cargador.cargar("emision-" + (++emisiones),
+            () -> facturaService.emitirFactura(factura, incluirIVA),
+            emitida -> {
+                logger.info("factura emitida numero={} venta={} total={}",
+                            emitida.getNumeroFactura(), emitida.getVenta().getId(), emitida.getTotal());
+                // Si entretanto se cambió de factura, la emitida queda registrada pero no se muestra
+                if (facturaActual != emitida) {
+                    return;
+                }
+                view.getTxtVistaPrevia().setText(new String(emitida.getContenidoTexto(), StandardCharsets.UTF_8));
+                view.getTxtVistaPrevia().setCaretPosition(0);
+                habilitarAcciones(true);
+                continuacion.accept(emitida);
+            },
+            e -> {
+                logger.error("error al emitir factura venta={}", factura.getVenta().getId(), e);
+                habilitarAcciones(facturaActual != null);
+                view.mostrarError("Error al emitir la factura: " + e.getMessage());
+            });
+    }
+
+    private void habilitarAcciones(boolean habilitar) {
+        view.getBtnGuardarFactura().setEnabled(habilitar);
+        view.getBtnImprimirFactura().setEnabled(habilitar);
+    }
+
     /**
      * Obtiene el ID de la venta seleccionada
      */
     private int obtenerVentaSeleccionada() {
-        DefaultTableModel modelo = view.getModeloVentas();
+        List<Integer> marcadas = view.getModeloVentas().getMarcadas();
+        return marcadas.isEmpty() ? -1 : marcadas.get(0);
+    }
+
+    /**
+     * Obtiene los IDs de todas las ventas marcadas
+     */
+    private List<Integer> obtenerVentasSeleccionadas() {
+        return view.getModeloVentas().getMarcadas();
+    }
+
+    /**
+     * Marca o desmarca todas las ventas, también las que la tabla todavía no
+     * cargó. Los ids se leen en segundo plano.
+     */
+    public void seleccionarTodas() {
+        cargador.cargar("seleccionarTodas",
+            () -> ventaService.obtenerIdsVentas(),
+            ids -> {
+                ModeloTablaMarcable<VentaResumen> modelo = view.getModeloVentas();
+                if (modelo.getMarcadas().containsAll(ids)) {
+                    modelo.desmarcarTodas();
+                } else {
+                    modelo.marcar(ids);
+                }
+            },
+            e -> {
+                logger.error("error al leer los ids de ventas", e);
+                view.mostrarError("Error al seleccionar las ventas: " + e.getMessage());
+            });
+    }
+
+    /**
+     * Genera en segundo plano las facturas de todas las ventas marcadas, en
+     * un directorio o en un zip
+     */
+    public void generarFacturasSeleccionadas() {
+        if (cargadorLote.isCargando()) {
+            view.mostrarError("Ya se están generando facturas");
+            return;
+        }
         
-        for (int i = 0; i < modelo.getRowCount(); i++) {
-            Boolean seleccionado = (Boolean) modelo.getValueAt(i, 0);
-            if (seleccionado != null && seleccionado) {
-                return (Integer) modelo.getValueAt(i, 1); // Columna ID
-            }
+        List<Integer> ids = obtenerVentasSeleccionadas();
+        if (ids.isEmpty()) {
+            view.mostrarError("Marque al menos una venta de la tabla");
+            return;
+        }
+        if (view.getClienteNombre().isEmpty()) {
+            view.mostrarError("Ingrese el nombre del cliente");
+            return;
+        }
+        
+        FacturaLoteService.Opciones opciones = view.pedirOpcionesLote(ids.size());
+        if (opciones == null) {
+            return;
+        }
+        
+        view.mostrarProgresoLote(0, ids.size());
+        cargadorLote.cargar("lote",
+            () -> facturaLoteService.generarLote(ids, opciones, (procesadas, total) ->
+                SwingUtilities.invokeLater(() -> view.mostrarProgresoLote(procesadas, total))),
+            this::mostrarResultadoLote,
+            e -> {
+                view.ocultarProgresoLote();
+                logger.error("error al generar lote de facturas", e);
+                view.mostrarError("Error al generar las facturas: " + e.getMessage());
+            });
+    }
+
+    /**
+     * Muestra el resumen del lote con los fallos por venta (en el EDT)
+     */
+    private void mostrarResultadoLote(FacturaLoteService.Resultado resultado) {
+        view.ocultarProgresoLote();
+        
+        StringBuilder mensaje = new StringBuilder();
+        mensaje.append("Facturas generadas: ").append(resultado.getGeneradas()).append('\n')
+               .append("Destino: ").append(resultado.getDestino().toAbsolutePath()).append('\n');
+        
+        if (resultado.getFallos().isEmpty()) {
+            view.mostrarMensaje(mensaje.toString());
+            return;
         }
         
-        return -1;
+        mensaje.append("\nNo se pudieron facturar ").append(resultado.getFallos().size()).append(" venta(s):\n");
+        int mostrados = 0;
+        for (Map.Entry<Integer, String> fallo : resultado.getFallos().entrySet()) {
+            if (mostrados++ == MAX_FALLOS_MOSTRADOS) {
+                mensaje.append("... y ").append(resultado.getFallos().size() - MAX_FALLOS_MOSTRADOS).append(" más\n");
+                break;
+            }
+            mensaje.append("  Venta #").append(fallo.getKey()).append(": ").append(fallo.getValue()).append('\n');
+        }
+        view.mostrarError(mensaje.toString());
     }
 
     /**
@@ -209,69 +376,96 @@ public class FacturaController {
             
             if (resultado == javax.swing.JFileChooser.APPROVE_OPTION) {
                 java.io.File archivoSeleccionado = fileChooser.getSelectedFile();
-                String rutaCompleta = archivoSeleccionado.getAbsolutePath();
-                
-                // Asegurar que el archivo tenga extensión .txt
-                if (!rutaCompleta.toLowerCase().endsWith(".txt")) {
-                    rutaCompleta += ".txt";
-                }
-                
-                // Guardar en archivo
-                boolean incluirIVA = view.isIncluirIVA();
-                facturaService.guardarFacturaArchivo(facturaActual, incluirIVA, rutaCompleta);
-                
-                // Marcar como generada
-                facturaActual.setGenerada(true);
-                
-                view.mostrarMensaje(String.format(
-                    "✅ Factura guardada exitosamente!\n\n" +
-                    "Número: %s\n" +
-                    "Ubicación: %s\n" +
-                    "Total: %s",
-                    facturaActual.getNumeroFactura(),
-                    rutaCompleta,
-                    formatoMoneda.format(facturaActual.getTotal())
-                ));
-                
-                // Limpiar vista previa
-                limpiarVistaPrevia();
                 
-                // Recargar ventas
-                cargarVentas();
+                // Solo al confirmar el guardado el borrador se emite con el siguiente consecutivo
+                emitirSiEsBorrador(factura -> guardarEmitida(factura, archivoSeleccionado, nombreSugerido));
             }
             
         } catch (Exception e) {
+            logger.error("error al guardar factura", e);
             view.mostrarError("Error al guardar factura: " + e.getMessage());
-            e.printStackTrace();
         }
     }
 
     /**
-     * Imprime la factura - Genera archivo y lo abre para imprimir
+     * Escribe el documento de la factura emitida en el archivo elegido; si se
+     * dejó el nombre sugerido, se cambia por el del número emitido
      */
-    public void imprimirFactura() {
+    private void guardarEmitida(Factura factura, java.io.File archivoSeleccionado, String nombreSugerido) {
         try {
-            if (facturaActual == null) {
-                view.mostrarError("Primero genere la vista previa de la factura");
-                return;
+            java.io.File archivo = archivoSeleccionado;
+            if (archivo.getName().equals(nombreSugerido)) {
+                archivo = new java.io.File(archivo.getParentFile(), facturaService.generarNombreArchivo(factura));
             }
+            String rutaCompleta = archivo.getAbsolutePath();
             
-            if (!view.confirmar("¿Desea abrir la factura para imprimir?\n\n" +
-                "Se abrirá el archivo con el programa predeterminado\n" +
-                "y podrá imprimirlo desde allí.")) {
-                return;
+            // Asegurar que el archivo tenga extensión .txt
+            if (!rutaCompleta.toLowerCase().endsWith(".txt")) {
+                rutaCompleta += ".txt";
             }
             
+            // Guardar en archivo el documento emitido
+            facturaService.guardarFacturaArchivo(factura, factura.isIncluyeIVA(), rutaCompleta);
+            
+            view.mostrarMensaje(String.format(
+                "✅ Factura guardada exitosamente!\n\n" +
+                "Número: %s\n" +
+                "Ubicación: %s\n" +
+                "Total: %s",
+                factura.getNumeroFactura(),
+                rutaCompleta,
+                formatoMoneda.format(factura.getTotal().toBigDecimal())
+            ));
+            
+            // Limpiar vista previa
+            limpiarVistaPrevia();
+            
+            // Recargar ventas
+            cargarVentas();
+            
+        } catch (Exception e) {
+            logger.error("error al guardar factura numero={}", factura.getNumeroFactura(), e);
+            view.mostrarError("Error al guardar factura: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Imprime la factura - Genera archivo y lo abre para imprimir
+     */
+    public void imprimirFactura() {
+        if (facturaActual == null) {
+            view.mostrarError("Primero genere la vista previa de la factura");
+            return;
+        }
+        
+        String aviso = facturaActual.isGenerada() ? "" :
+            "\n\nLa factura se emitirá con el siguiente número consecutivo\n" +
+            "y quedará registrada aunque no llegue a imprimirla.";
+        if (!view.confirmar("¿Desea abrir la factura para imprimir?\n\n" +
+            "Se abrirá el archivo con el programa predeterminado\n" +
+            "y podrá imprimirlo desde allí." + aviso)) {
+            return;
+        }
+        
+        // Confirmada la impresión, el borrador se emite con el siguiente consecutivo
+        emitirSiEsBorrador(this::abrirParaImprimir);
+    }
+
+    /**
+     * Escribe el HTML de la factura emitida en la carpeta temporal y lo abre
+     * con el programa predeterminado
+     */
+    private void abrirParaImprimir(Factura factura) {
+        try {
             // Generar archivo temporal HTML en la carpeta Temp del sistema
             String carpetaTemp = System.getProperty("java.io.tmpdir");
-            String nombreArchivo = facturaService.generarNombreArchivo(facturaActual);
+            String nombreArchivo = facturaService.generarNombreArchivo(factura);
             // Cambiar extensión a .html
             nombreArchivo = nombreArchivo.replace(".txt", ".html");
             String rutaCompleta = carpetaTemp + java.io.File.separator + nombreArchivo;
             
             // Guardar factura en formato HTML (mejor para imprimir)
-            boolean incluirIVA = view.isIncluirIVA();
-            facturaService.guardarFacturaHTML(facturaActual, incluirIVA, rutaCompleta);
+            facturaService.guardarFacturaHTML(factura, factura.isIncluyeIVA(), rutaCompleta);
             
             // Abrir el archivo con el programa predeterminado
             java.io.File archivo = new java.io.File(rutaCompleta);
@@ -288,7 +482,7 @@ public class FacturaController {
                         "Archivo: %s\n\n" +
                         "El archivo se ha abierto con el programa predeterminado.\n" +
                         "Use Ctrl+P o el menú Archivo → Imprimir para imprimir.",
-                        facturaActual.getNumeroFactura(),
+                        factura.getNumeroFactura(),
                         nombreArchivo
                     ));
                 } else {
@@ -301,8 +495,8 @@ public class FacturaController {
             }
             
         } catch (Exception e) {
+            logger.error("error al preparar factura para imprimir numero={}", factura.getNumeroFactura(), e);
             view.mostrarError("Error al preparar factura para imprimir: " + e.getMessage());
-            e.printStackTrace();
         }
     }
 
@@ -316,10 +510,7 @@ public class FacturaController {
         );
         
         // Desmarcar todas las ventas
-        DefaultTableModel modelo = view.getModeloVentas();
-        for (int i = 0; i < modelo.getRowCount(); i++) {
-            modelo.setValueAt(false, i, 0);
-        }
+        view.getModeloVentas().desmarcarTodas();
         
         // Deshabilitar botones
         view.getBtnGuardarFactura().setEnabled(false);
@@ -328,4 +519,13 @@ public class FacturaController {
         // Limpiar factura actual
         facturaActual = null;
     }
+
+    /**
+     * Cancela las cargas en curso (al cerrar la ventana)
+     */
+    public void cancelarCargas() {
+        cargador.cancelarTodas();
+        cargadorLote.cancelarTodas();
+        view.getModeloVentas().cancelarCargas();
+    }
 }
@@ -1,10 +1,13 @@
 package com.inventario.controller;
 
+import com.inventario.model.Money;
 import com.inventario.model.Producto;
 import com.inventario.service.ProductoService;
+import com.inventario.view.ModeloTablaPaginado;
 import com.inventario.view.ProductoFrame;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Controlador para la gestión de productos
@@ -17,7 +20,6 @@ public class ProductoController {
     
     private ProductoFrame view;
     private ProductoService service;
-    private List<Producto> productos;
 
     public ProductoController(ProductoFrame view) {
         this.view = view;
@@ -204,32 +206,55 @@ public class ProductoController {
      * Busca productos según criterios
      */
     public void buscarProductos() {
-        try {
-            String nombre = view.getNombre();
-            String categoria = view.getCategoriaSeleccionada();
-            
-            productos = service.buscarProductos(nombre, categoria);
-            actualizarTablaProductos(productos);
-            
-            if (productos.isEmpty()) {
-                view.mostrarMensaje("No se encontraron productos con los criterios especificados.");
-            }
-
-        } catch (Exception e) {
-            view.mostrarError("Error al buscar productos: " + e.getMessage());
+        String texto = view.getNombre();
+        String categoria = view.getCategoriaSeleccionada();
+        
+        ModeloTablaPaginado.ConsultaPagina<Producto> consulta;
+        if (texto == null || texto.isEmpty()) {
+            consulta = (antesDeId, limite) -> service.obtenerPaginaProductos(null, categoria, antesDeId, limite);
+        } else {
+            // Búsqueda por relevancia: se muestran solo los mejores resultados,
+            // en una única página (el orden por rango no admite paginar por id)
+            consulta = (antesDeId, limite) -> antesDeId == Integer.MAX_VALUE
+                ? service.buscarProductosTexto(texto, categoria, limite)
+                : List.of();
         }
+        
+        cargarTablaProductos(consulta,
+            filas -> {
+                if (filas == 0) {
+                    view.mostrarMensaje("No se encontraron productos con los criterios especificados.");
+                }
+            },
+            e -> view.mostrarError("Error al buscar productos: " + e.getMessage()));
     }
 
     /**
      * Carga todos los productos en la tabla
      */
     public void cargarProductos() {
-        try {
-            productos = service.obtenerTodosProductos();
-            actualizarTablaProductos(productos);
-        } catch (Exception e) {
-            view.mostrarError("Error al cargar productos: " + e.getMessage());
-        }
+        cargarTablaProductos(
+            (antesDeId, limite) -> service.obtenerPaginaProductos(null, null, antesDeId, limite),
+            filas -> { },
+            e -> view.mostrarError("Error al cargar productos: " + e.getMessage()));
+    }
+
+    /**
+     * Reinicia la tabla con la consulta indicada; las páginas se piden a
+     * medida que el usuario se desplaza
+     */
+    private void cargarTablaProductos(ModeloTablaPaginado.ConsultaPagina<Producto> consulta,
+                                      Consumer<Integer> alCargar, Consumer<Exception> alFallar) {
+        ModeloTablaPaginado<Producto> modelo = view.getModeloTabla();
+        modelo.setFormateador(this::formatearCeldaProducto);
+        modelo.cargar(consulta, alCargar, alFallar);
+    }
+
+    /**
+     * Cancela las cargas en curso (al cerrar la ventana)
+     */
+    public void cancelarCargas() {
+        view.getModeloTabla().cancelarCargas();
     }
 
     /**
@@ -300,7 +325,7 @@ public class ProductoController {
         
         // Limpiar formato del precio antes de convertir
         String precioLimpio = limpiarFormatoPrecio(view.getPrecio());
-        producto.setPrecio(new BigDecimal(precioLimpio));
+        producto.setPrecio(Money.parse(precioLimpio));
         
         producto.setCantidad(Integer.parseInt(view.getCantidad()));
         producto.setCategoria(view.getCategoriaSeleccionada());
@@ -317,14 +342,14 @@ public class ProductoController {
         
         // Limpiar formato del precio antes de convertir
         String precioLimpio = limpiarFormatoPrecio(view.getPrecio());
-        producto.setPrecio(new BigDecimal(precioLimpio));
+        producto.setPrecio(Money.parse(precioLimpio));
         
         producto.setCantidad(Integer.parseInt(view.getCantidad()));
         producto.setCategoria(view.getCategoriaSeleccionada());
     }
     
     /**
-     * Limpia el formato del precio para convertirlo a BigDecimal
+     * Limpia el formato del precio para convertirlo a Money
      * Elimina símbolos de moneda, comas y espacios
      * 
      * @param precio Precio con formato (ej: "$1,000.00" o "1.000,00")
@@ -377,20 +402,17 @@ public class ProductoController {
     }
     
     /**
-     * Actualiza la tabla de productos en la vista
+     * Formatea una celda de la tabla de productos al pintarse
      */
-    private void actualizarTablaProductos(List<Producto> productos) {
-        view.getModeloTabla().setRowCount(0);
-        for (Producto producto : productos) {
-            Object[] fila = {
-                producto.getCodigo(),
-                producto.getNombre(),
-                producto.getDescripcion(),
-                "$" + producto.getPrecio(),
-                producto.getCantidad(),
-                producto.getCategoria()
-            };
-            view.getModeloTabla().addRow(fila);
+    private Object formatearCeldaProducto(Producto producto, int columna) {
+        switch (columna) {
+            case 0: return producto.getCodigo();
+            case 1: return producto.getNombre();
+            case 2: return producto.getDescripcion();
+            case 3: return "$" + producto.getPrecio();
+            case 4: return producto.getCantidad();
+            case 5: return producto.getCategoria();
+            default: return null;
         }
     }
     
@@ -398,8 +420,8 @@ public class ProductoController {
      * Selecciona un producto de la tabla para editar
      */
     public void seleccionarProducto(int filaSeleccionada) {
-        if (filaSeleccionada >= 0 && filaSeleccionada < productos.size()) {
-            Producto producto = productos.get(filaSeleccionada);
+        Producto producto = view.getModeloTabla().getFila(filaSeleccionada);
+        if (producto != null) {
             view.setProductoSeleccionado(producto);
             
             // Llenar formulario
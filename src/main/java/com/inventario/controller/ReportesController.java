@@ -3,20 +3,27 @@ package com.inventario.controller;
 import com.inventario.model.Usuario;
 import com.inventario.model.Venta;
 import com.inventario.model.Producto;
+import com.inventario.model.Money;
+import com.inventario.model.ProductoVendido;
+import com.inventario.model.ItemVenta;
+import com.inventario.model.VentaResumen;
 import com.inventario.service.VentaService;
 import com.inventario.service.ProductoService;
 import com.inventario.service.ReportesService;
+import com.inventario.service.ExportadorReportes;
+import com.inventario.service.UsuarioService;
 import com.inventario.view.ReportesFrame;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.Color;
-import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Controlador para la gestión de reportes
@@ -26,13 +33,17 @@ import java.util.Map;
  */
 public class ReportesController {
     
+    private static final Logger logger = LoggerFactory.getLogger(ReportesController.class);
     private ReportesFrame view;
     private ReportesService reportesService;
     private VentaService ventaService;
     private ProductoService productoService;
+    private UsuarioService usuarioService;
     private Usuario usuarioActual;
     private NumberFormat formatoMoneda;
     private DateTimeFormatter formatoFecha;
+    private CargadorAsincrono cargador;
+    private CargadorAsincrono cargadorExportacion;
 
     public ReportesController(ReportesFrame view, Usuario usuarioActual) {
         this.view = view;
@@ -40,17 +51,34 @@ public class ReportesController {
         this.reportesService = new ReportesService();
         this.ventaService = new VentaService();
         this.productoService = new ProductoService();
+        this.usuarioService = new UsuarioService();
         this.formatoMoneda = NumberFormat.getCurrencyInstance();
         this.formatoFecha = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+        this.cargador = new CargadorAsincrono(view::mostrarCargando);
+        // Las exportaciones no se cancelan al cambiar de pestaña, tienen su propia barra de avance
+        // y un hilo propio para no ocupar los de las cargas de pantalla
+        this.cargadorExportacion = CargadorAsincrono.conHiloPropio("exportacion", null);
+        view.getModeloVentas().setFormateador(this::formatearCeldaVenta);
     }
 
     /**
      * Carga las estadísticas generales
      */
     public void cargarEstadisticasGenerales() {
+        cargador.cargar("estadisticas",
+            () -> reportesService.obtenerEstadisticasGenerales(),
+            this::mostrarEstadisticasGenerales,
+            e -> {
+                logger.error("error al cargar estadísticas", e);
+                view.mostrarError("Error al cargar estadísticas: " + e.getMessage());
+            });
+    }
+
+    /**
+     * Muestra las estadísticas generales (en el EDT)
+     */
+    private void mostrarEstadisticasGenerales(Map<String, Object> stats) {
         try {
-            Map<String, Object> stats = reportesService.obtenerEstadisticasGenerales();
-            
             // Actualizar labels
             actualizarStatCard(view.getLblTotalVentas(), "📊 Total Ventas", 
                 stats.get("totalVentas").toString());
@@ -64,13 +92,13 @@ public class ReportesController {
             actualizarStatCard(view.getLblProductosBajoStock(), "⚠️ Productos Bajo Stock", 
                 stats.get("productosBajoStock").toString());
             
-            BigDecimal ingresoTotal = (BigDecimal) stats.get("ingresoTotal");
+            Money ingresoTotal = (Money) stats.get("ingresoTotal");
             actualizarStatCard(view.getLblIngresoTotal(), "💰 Ingreso Total", 
-                formatoMoneda.format(ingresoTotal));
+                formatoMoneda.format(ingresoTotal.toBigDecimal()));
             
-            BigDecimal promedioVenta = (BigDecimal) stats.get("promedioVenta");
+            Money promedioVenta = (Money) stats.get("promedioVenta");
             actualizarStatCard(view.getLblPromedioVenta(), "📈 Promedio por Venta", 
-                formatoMoneda.format(promedioVenta));
+                formatoMoneda.format(promedioVenta.toBigDecimal()));
             
         } catch (Exception e) {
             view.mostrarError("Error al cargar estadísticas: " + e.getMessage());
@@ -98,39 +126,92 @@ public class ReportesController {
     }
 
     /**
-     * Carga el reporte de ventas
+     * Carga el reporte de ventas. La tabla pide las páginas a medida que el
+     * usuario se desplaza, así que solo se consulta la primera página aquí.
+     * Las páginas son resúmenes; los items se cargan al abrir una venta.
      */
     public void cargarReporteVentas() {
-        try {
-            List<Venta> ventas = ventaService.obtenerTodasVentas();
-            DefaultTableModel modelo = view.getModeloVentas();
-            modelo.setRowCount(0);
-            
-            for (Venta venta : ventas) {
-                Object[] fila = {
-                    venta.getId(),
-                    venta.getFechaVenta().format(formatoFecha),
-                    venta.getUsuario().getNombre(),
-                    venta.getCantidadItems(),
-                    formatoMoneda.format(venta.getTotal())
-                };
-                modelo.addRow(fila);
-            }
-            
-            view.mostrarMensaje("Reporte de ventas actualizado");
-            
-        } catch (Exception e) {
-            view.mostrarError("Error al cargar reporte de ventas: " + e.getMessage());
-            e.printStackTrace();
+        view.getModeloVentas().cargar(
+            (antesDeId, limite) -> ventaService.obtenerPaginaResumenes(antesDeId, limite),
+            filas -> view.mostrarMensaje("Reporte de ventas actualizado"),
+            e -> {
+                logger.error("error al cargar reporte de ventas", e);
+                view.mostrarError("Error al cargar reporte de ventas: " + e.getMessage());
+            });
+    }
+
+    /**
+     * Formatea una celda del reporte de ventas al pintarse
+     */
+    private Object formatearCeldaVenta(VentaResumen venta, int columna) {
+        switch (columna) {
+            case 0: return venta.getId();
+            case 1: return venta.getFechaVenta().format(formatoFecha);
+            case 2: return venta.getVendedor();
+            case 3: return venta.getCantidadItems();
+            case 4: return formatoMoneda.format(venta.getTotal().toBigDecimal());
+            default: return null;
+        }
+    }
+
+    /**
+     * Muestra el detalle de la venta de una fila del reporte; los items se
+     * consultan solo en este momento
+     *
+     * @param fila Fila seleccionada en la tabla de ventas
+     */
+    public void mostrarDetalleVenta(int fila) {
+        VentaResumen resumen = view.getModeloVentas().getFila(fila);
+        if (resumen == null) {
+            return;
+        }
+        cargador.cargar("detalleVenta",
+            () -> ventaService.obtenerVentaPorId(resumen.getId()),
+            this::mostrarDetalleVenta,
+            e -> {
+                logger.error("error al cargar la venta", e);
+                view.mostrarError("Error al cargar la venta: " + e.getMessage());
+            });
+    }
+
+    /**
+     * Muestra el detalle de una venta (en el EDT)
+     */
+    private void mostrarDetalleVenta(Venta venta) {
+        if (venta == null) {
+            view.mostrarError("No se encontró la venta seleccionada");
+            return;
+        }
+        StringBuilder detalle = new StringBuilder();
+        detalle.append(String.format("Venta #%d - %s%nVendedor: %s%n%n",
+            venta.getId(), venta.getFechaVenta().format(formatoFecha), venta.getUsuario().getNombre()));
+        for (ItemVenta item : venta.getItems()) {
+            detalle.append(String.format("%s x%d = %s%n",
+                item.getProducto().getNombre(), item.getCantidad(),
+                formatoMoneda.format(item.getSubtotal().toBigDecimal())));
         }
+        detalle.append(String.format("%nTotal: %s", formatoMoneda.format(venta.getTotal().toBigDecimal())));
+        view.mostrarMensaje(detalle.toString());
     }
 
     /**
      * Carga el reporte de productos
      */
     public void cargarReporteProductos() {
+        cargador.cargar("productos",
+            () -> productoService.obtenerTodosProductos(),
+            this::mostrarReporteProductos,
+            e -> {
+                logger.error("error al cargar reporte de productos", e);
+                view.mostrarError("Error al cargar reporte de productos: " + e.getMessage());
+            });
+    }
+
+    /**
+     * Muestra el reporte de productos (en el EDT)
+     */
+    private void mostrarReporteProductos(List<Producto> productos) {
         try {
-            List<Producto> productos = productoService.obtenerTodosProductos();
             DefaultTableModel modelo = view.getModeloProductos();
             modelo.setRowCount(0);
             
@@ -140,8 +221,8 @@ public class ReportesController {
                     producto.getNombre(),
                     producto.getCategoria(),
                     producto.getCantidad(),
-                    formatoMoneda.format(producto.getPrecio()),
-                    formatoMoneda.format(producto.getValorTotal())
+                    formatoMoneda.format(producto.getPrecio().toBigDecimal()),
+                    formatoMoneda.format(producto.getValorTotal().toBigDecimal())
                 };
                 modelo.addRow(fila);
             }
@@ -158,8 +239,20 @@ public class ReportesController {
      * Carga el reporte de inventario
      */
     public void cargarReporteInventario() {
+        cargador.cargar("inventario",
+            () -> productoService.obtenerTodosProductos(),
+            this::mostrarReporteInventario,
+            e -> {
+                logger.error("error al cargar reporte de inventario", e);
+                view.mostrarError("Error al cargar reporte de inventario: " + e.getMessage());
+            });
+    }
+
+    /**
+     * Muestra el reporte de inventario (en el EDT)
+     */
+    private void mostrarReporteInventario(List<Producto> productos) {
         try {
-            List<Producto> productos = productoService.obtenerTodosProductos();
             DefaultTableModel modelo = view.getModeloInventario();
             modelo.setRowCount(0);
             
@@ -223,38 +316,40 @@ public class ReportesController {
      * Carga el reporte de productos más vendidos
      */
     public void cargarTopProductos() {
+        cargador.cargar("topProductos",
+            () -> reportesService.obtenerProductosMasVendidos(10),
+            this::mostrarTopProductos,
+            e -> {
+                logger.error("error al cargar top productos", e);
+                view.mostrarError("Error al cargar top productos: " + e.getMessage());
+            });
+    }
+
+    /**
+     * Muestra el reporte de productos más vendidos (en el EDT)
+     */
+    private void mostrarTopProductos(List<ProductoVendido> topProductos) {
         try {
-            Map<String, Integer> topProductos = reportesService.obtenerProductosMasVendidos(10);
             DefaultTableModel modelo = view.getModeloTopProductos();
             modelo.setRowCount(0);
             
             int posicion = 1;
-            for (Map.Entry<String, Integer> entry : topProductos.entrySet()) {
-                String productoCodigo = entry.getKey();
-                Integer unidadesVendidas = entry.getValue();
+            for (ProductoVendido producto : topProductos) {
+                String medalla = "";
+                if (posicion == 1) medalla = "🥇";
+                else if (posicion == 2) medalla = "🥈";
+                else if (posicion == 3) medalla = "🥉";
+                else medalla = String.valueOf(posicion);
                 
-                // Buscar información del producto
-                Producto producto = productoService.obtenerProductoPorCodigo(productoCodigo);
-                if (producto != null) {
-                    BigDecimal ingresos = producto.getPrecio()
-                        .multiply(BigDecimal.valueOf(unidadesVendidas));
-                    
-                    String medalla = "";
-                    if (posicion == 1) medalla = "🥇";
-                    else if (posicion == 2) medalla = "🥈";
-                    else if (posicion == 3) medalla = "🥉";
-                    else medalla = String.valueOf(posicion);
-                    
-                    Object[] fila = {
-                        medalla,
-                        producto.getCodigo(),
-                        producto.getNombre(),
-                        unidadesVendidas,
-                        formatoMoneda.format(ingresos)
-                    };
-                    modelo.addRow(fila);
-                    posicion++;
-                }
+                Object[] fila = {
+                    medalla,
+                    producto.getCodigo(),
+                    producto.getNombre(),
+                    producto.getUnidades(),
+                    formatoMoneda.format(producto.getIngresos().toBigDecimal())
+                };
+                modelo.addRow(fila);
+                posicion++;
             }
             
         } catch (Exception e) {
@@ -264,33 +359,75 @@ public class ReportesController {
     }
 
     /**
-     * Exporta las ventas a un archivo
+     * Exporta las ventas a un archivo con el formato y los filtros que elija
+     * el usuario
      */
     public void exportarVentas() {
-        try {
-            String resultado = reportesService.exportarVentasATexto();
-            view.mostrarMensaje("Ventas exportadas exitosamente a:\n" + resultado);
-        } catch (Exception e) {
-            view.mostrarError("Error al exportar ventas: " + e.getMessage());
+        if (exportacionEnCurso()) {
+            return;
+        }
+        ExportadorReportes.Opciones opciones = view.pedirOpcionesExportacion(
+            "Exportar ventas", usuarioService.obtenerTodosUsuarios());
+        if (opciones == null) {
+            return;
         }
+        exportar("Ventas", progreso -> reportesService.exportarVentas(opciones, progreso));
     }
 
     /**
-     * Exporta los productos a un archivo
+     * Exporta los productos a un archivo con el formato que elija el usuario
      */
     public void exportarProductos() {
-        try {
-            String resultado = reportesService.exportarProductosATexto();
-            view.mostrarMensaje("Productos exportados exitosamente a:\n" + resultado);
-        } catch (Exception e) {
-            view.mostrarError("Error al exportar productos: " + e.getMessage());
+        if (exportacionEnCurso()) {
+            return;
         }
+        ExportadorReportes.Opciones opciones = view.pedirOpcionesExportacion("Exportar productos", null);
+        if (opciones == null) {
+            return;
+        }
+        exportar("Productos", progreso -> reportesService.exportarProductos(opciones, progreso));
+    }
+
+    /**
+     * Exportación que informa su avance
+     */
+    @FunctionalInterface
+    private interface Exportacion {
+        String ejecutar(ExportadorReportes.Progreso progreso) throws Exception;
+    }
+
+    /**
+     * Ejecuta una exportación en segundo plano mostrando su avance
+     */
+    private void exportar(String tipo, Exportacion exportacion) {
+        view.mostrarProgresoExportacion(0, 0);
+        cargadorExportacion.cargar("exportacion",
+            () -> exportacion.ejecutar((procesados, total) ->
+                SwingUtilities.invokeLater(() -> view.mostrarProgresoExportacion(procesados, total))),
+            archivo -> {
+                view.ocultarProgresoExportacion();
+                view.mostrarMensaje(tipo + " exportados exitosamente a:\n" + archivo);
+            },
+            e -> {
+                view.ocultarProgresoExportacion();
+                view.mostrarError("Error al exportar " + tipo.toLowerCase() + ": " + e.getMessage());
+            });
+    }
+
+    private boolean exportacionEnCurso() {
+        if (cargadorExportacion.isCargando()) {
+            view.mostrarError("Ya hay una exportación en curso");
+            return true;
+        }
+        return false;
     }
 
     /**
      * Maneja el cambio de pestaña
      */
     public void onTabChanged(int selectedIndex) {
+        // La pestaña anterior ya no es visible: sus cargas pendientes se descartan
+        cancelarCargas();
         try {
             switch (selectedIndex) {
                 case 0: // Dashboard
@@ -313,4 +450,20 @@ public class ReportesController {
             System.err.println("Error al cambiar de pestaña: " + e.getMessage());
         }
     }
+
+    /**
+     * Cancela las cargas en curso (al cerrar la ventana)
+     */
+    public void cancelarCargas() {
+        cargador.cancelarTodas();
+        view.getModeloVentas().cancelarCargas();
+    }
+
+    /**
+     * Cancela las cargas y la exportación en curso al cerrar la ventana
+     */
+    public void cerrar() {
+        cancelarCargas();
+        cargadorExportacion.cancelarTodas();
+    }
 }
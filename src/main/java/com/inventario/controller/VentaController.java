@@ -4,15 +4,18 @@ import com.inventario.model.Usuario;
 import com.inventario.model.Producto;
 import com.inventario.model.Venta;
 import com.inventario.model.ItemVenta;
+import com.inventario.model.ResultadoVenta;
+import com.inventario.model.Money;
 import com.inventario.service.VentaService;
 import com.inventario.service.ProductoService;
 import com.inventario.view.VentaFrame;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
-import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Controlador para la gestión de ventas
@@ -22,6 +25,7 @@ import java.util.List;
  */
 public class VentaController {
     
+    private static final Logger logger = LoggerFactory.getLogger(VentaController.class);
     private VentaFrame view;
     private VentaService ventaService;
     private ProductoService productoService;
@@ -29,6 +33,7 @@ public class VentaController {
     private Venta ventaActual;
     private List<Producto> productosDisponibles;
     private NumberFormat formatoMoneda;
+    private CargadorAsincrono cargador;
 
     public VentaController(VentaFrame view, Usuario usuarioActual) {
         this.view = view;
@@ -37,14 +42,25 @@ public class VentaController {
         this.productoService = new ProductoService();
         this.ventaActual = new Venta(usuarioActual);
         this.formatoMoneda = NumberFormat.getCurrencyInstance();
+        this.cargador = new CargadorAsincrono(view::mostrarCargando);
     }
 
     /**
      * Carga los productos disponibles en el combo
      */
     public void cargarProductosDisponibles() {
+        cargador.cargar("productosDisponibles",
+            () -> productoService.obtenerProductosDisponibles(),
+            this::mostrarProductosDisponibles,
+            e -> view.mostrarError("Error al cargar productos: " + e.getMessage()));
+    }
+
+    /**
+     * Llena el combo de productos disponibles (en el EDT)
+     */
+    private void mostrarProductosDisponibles(List<Producto> productos) {
         try {
-            productosDisponibles = productoService.obtenerProductosDisponibles();
+            productosDisponibles = productos;
             
             JComboBox<String> combo = view.getCmbProductos();
             combo.removeAllItems();
@@ -83,7 +99,7 @@ public class VentaController {
             // Obtener producto de la lista inicial
             Producto productoInicial = productosDisponibles.get(indiceSeleccionado);
             
-            // IMPORTANTE: Recargar el producto desde BD para tener stock actualizado
+            // IMPORTANTE: Releer el producto del catálogo (caché write-through) para tener stock actualizado
             Producto productoSeleccionado = productoService.obtenerProductoPorCodigo(productoInicial.getCodigo());
             
             if (productoSeleccionado == null) {
@@ -137,11 +153,10 @@ public class VentaController {
                     int cantidadActual = Integer.parseInt(modelo.getValueAt(i, 2).toString());
                     int nuevaCantidad = cantidadActual + cantidadSolicitada;
                     
-                    BigDecimal subtotal = productoSeleccionado.getPrecio()
-                        .multiply(BigDecimal.valueOf(nuevaCantidad));
+                    Money subtotal = productoSeleccionado.getPrecio().multiplicar(nuevaCantidad);
                     
                     modelo.setValueAt(nuevaCantidad, i, 2);
-                    modelo.setValueAt(formatoMoneda.format(subtotal), i, 3);
+                    modelo.setValueAt(formatoMoneda.format(subtotal.toBigDecimal()), i, 3);
                     
                     // Actualizar en ventaActual
                     actualizarItemEnVenta(productoSeleccionado.getCodigo(), nuevaCantidad);
@@ -158,9 +173,9 @@ public class VentaController {
                 
                 Object[] fila = {
                     productoSeleccionado.getCodigo() + " - " + productoSeleccionado.getNombre(),
-                    formatoMoneda.format(productoSeleccionado.getPrecio()),
+                    formatoMoneda.format(productoSeleccionado.getPrecio().toBigDecimal()),
                     cantidadSolicitada,
-                    formatoMoneda.format(item.getSubtotal())
+                    formatoMoneda.format(item.getSubtotal().toBigDecimal())
                 };
                 
                 modelo.addRow(fila);
@@ -246,28 +261,19 @@ public class VentaController {
      */
     public void procesarVenta() {
         try {
-            System.out.println("\n🛒 ===== VENTACONTROLLER: INICIANDO PROCESO =====");
-            
             // Validar que hay items
             if (!ventaActual.tieneItems()) {
                 view.mostrarError("El carrito está vacío");
                 return;
             }
             
-            System.out.println("📋 Información de la venta:");
-            System.out.println("   Usuario: " + usuarioActual.getUsername());
-            System.out.println("   Usuario ID: " + usuarioActual.getId());
-            System.out.println("   Items en carrito: " + ventaActual.getCantidadItems());
-            System.out.println("   Total: " + ventaActual.getTotal());
-            
-            System.out.println("\n📦 Items en la venta:");
-            for (ItemVenta item : ventaActual.getItems()) {
-                System.out.println("   - Producto: " + item.getProducto().getNombre());
-                System.out.println("     ID: " + item.getProducto().getId());
-                System.out.println("     Código: " + item.getProducto().getCodigo());
-                System.out.println("     Cantidad: " + item.getCantidad());
-                System.out.println("     Precio unitario: " + item.getPrecioUnitario());
-                System.out.println("     Subtotal: " + item.getSubtotal());
+            if (logger.isDebugEnabled()) {
+                for (ItemVenta item : ventaActual.getItems()) {
+                    logger.debug("carrito usuario={} producto={} codigo={} cantidad={} precio={} subtotal={}",
+                                 usuarioActual.getUsername(), item.getProducto().getId(),
+                                 item.getProducto().getCodigo(), item.getCantidad(),
+                                 item.getPrecioUnitario(), item.getSubtotal());
+                }
             }
             
             // Confirmar venta
@@ -277,20 +283,17 @@ public class VentaController {
                 "Total: %s\n\n" +
                 "Esta acción actualizará el inventario.",
                 ventaActual.getCantidadItems(),
-                formatoMoneda.format(ventaActual.getTotal())
+                formatoMoneda.format(ventaActual.getTotal().toBigDecimal())
             );
             
             if (!view.confirmar(mensaje)) {
-                System.out.println("❌ Usuario canceló la venta");
+                logger.debug("venta cancelada por el usuario usuario={}", usuarioActual.getUsername());
                 return;
             }
             
-            System.out.println("\n✅ Usuario confirmó la venta. Llamando a VentaService...");
-            
             // Procesar venta
-            boolean exito = ventaService.procesarVenta(ventaActual);
-            
-            System.out.println("\n📊 Resultado de VentaService.procesarVenta(): " + exito);
+            ResultadoVenta resultado = ventaService.registrarVenta(ventaActual);
+            boolean exito = resultado.isExitoso();
             
             if (exito) {
                 // Mostrar mensaje de éxito
@@ -301,7 +304,7 @@ public class VentaController {
                     "Items: %d\n\n" +
                     "El inventario ha sido actualizado.",
                     ventaActual.getId(),
-                    formatoMoneda.format(ventaActual.getTotal()),
+                    formatoMoneda.format(ventaActual.getTotal().toBigDecimal()),
                     ventaActual.getCantidadItems()
                 );
                 
@@ -315,16 +318,15 @@ public class VentaController {
                 cargarProductosDisponibles();
                 
             } else {
-                System.err.println("\n❌ VentaService retornó FALSE");
-                System.err.println("Revisa los logs arriba para ver el motivo específico");
-                view.mostrarError("No se pudo procesar la venta. Verifique el stock.\n\nRevisa la consola para más detalles.");
+                view.mostrarError("No se pudo procesar la venta.\n\n" + resultado.getMensaje());
+                if (resultado.getMotivo() == ResultadoVenta.Motivo.STOCK_INSUFICIENTE
+                        || resultado.getMotivo() == ResultadoVenta.Motivo.PRODUCTO_NO_ENCONTRADO) {
+                    cargarProductosDisponibles(); // Actualizar lista con stock real
+                }
             }
             
         } catch (Exception e) {
-            System.err.println("\n❌❌❌ EXCEPCIÓN EN VENTACONTROLLER ❌❌❌");
-            System.err.println("Mensaje: " + e.getMessage());
-            System.err.println("Tipo: " + e.getClass().getName());
-            e.printStackTrace();
+            logger.error("excepción al procesar venta usuario={}", usuarioActual.getUsername(), e);
             view.mostrarError("Error al procesar venta: " + e.getMessage());
         }
     }
@@ -333,7 +335,7 @@ public class VentaController {
      * Calcula y actualiza el total de la venta
      */
     private void calcularTotal() {
-        BigDecimal total = BigDecimal.ZERO;
+        Money total = Money.CERO;
         DefaultTableModel modelo = view.getModeloTabla();
         
         for (int i = 0; i < modelo.getRowCount(); i++) {
@@ -341,11 +343,10 @@ public class VentaController {
             
             try {
                 // Limpiar formato de moneda usando el método helper
-                BigDecimal subtotal = limpiarFormatoMoneda(subtotalStr);
-                total = total.add(subtotal);
+                Money subtotal = limpiarFormatoMoneda(subtotalStr);
+                total = total.sumar(subtotal);
             } catch (NumberFormatException e) {
-                System.err.println("Error al parsear subtotal: " + subtotalStr);
-                System.err.println("Error: " + e.getMessage());
+                logger.warn("subtotal no válido fila={} valor={}: {}", i, subtotalStr, e.getMessage());
             }
         }
         
@@ -354,12 +355,12 @@ public class VentaController {
     }
     
     /**
-     * Limpia el formato de moneda y convierte a BigDecimal
+     * Limpia el formato de moneda y convierte a Money
      * Maneja diferentes formatos: $1.234,56 o $1,234.56 o 1234.56
      */
-    private BigDecimal limpiarFormatoMoneda(String valor) {
+    private Money limpiarFormatoMoneda(String valor) {
         if (valor == null || valor.trim().isEmpty()) {
-            return BigDecimal.ZERO;
+            return Money.CERO;
         }
         
         // Remover símbolos de moneda y espacios
@@ -401,9 +402,9 @@ public class VentaController {
         // Si solo tiene puntos, se asume formato americano (ya está bien)
         
         try {
-            return new BigDecimal(limpio);
+            return Money.parse(limpio);
         } catch (NumberFormatException e) {
-            System.err.println("No se pudo convertir: " + valor + " -> " + limpio);
+            logger.debug("no se pudo convertir moneda valor={} limpio={}", valor, limpio);
             throw new NumberFormatException("Formato de moneda inválido: " + valor);
         }
     }
@@ -441,4 +442,11 @@ public class VentaController {
             }
         }
     }
+
+    /**
+     * Cancela las cargas en curso (al cerrar la ventana)
+     */
+    public void cancelarCargas() {
+        cargador.cancelarTodas();
+    }
 }
@@ -0,0 +1,188 @@
+package com.inventario.dao;
+
+import com.inventario.database.DatabaseManager;
+import com.inventario.model.LineaVentaExportada;
+import com.inventario.model.Money;
+import com.inventario.model.Producto;
+import java.io.IOException;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Data Access Object de solo lectura para las exportaciones de reportes.
+ *
+ * A diferencia de los demás DAO no devuelve listas: recorre un ResultSet de
+ * solo avance y entrega cada fila a un receptor a medida que SQLite la
+ * produce, así la memoria usada no depende del número de filas exportadas.
+ * El conteo y el recorrido se hacen en la misma transacción de lectura, de
+ * modo que el total informado coincide con las filas escritas aunque se
+ * registren ventas durante la exportación.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class ExportacionDAO {
+
+    private final DatabaseManager dbManager;
+
+    /**
+     * Recibe las filas de un recorrido; puede fallar al escribirlas
+     */
+    @FunctionalInterface
+    public interface ReceptorFilas<T> {
+        void recibir(T fila) throws IOException;
+    }
+
+    public ExportacionDAO() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    /**
+     * Recorre las líneas de las ventas de un rango, de la más reciente a la
+     * más antigua y con las líneas de cada venta en el orden en que se
+     * registraron
+     *
+     * @param desde Primer día incluido (null = sin límite)
+     * @param hasta Último día incluido (null = sin límite)
+     * @param usuarioId Vendedor (null = todos)
+     * @param alContar Recibe el número de ventas antes de la primera fila
+     * @param receptor Recibe cada línea
+     * @throws SQLException Si hay error en la consulta
+     * @throws IOException Si el receptor falla; el recorrido se interrumpe
+     */
+    public void recorrerVentas(LocalDate desde, LocalDate hasta, Integer usuarioId, IntConsumer alContar,
+                               ReceptorFilas<LineaVentaExportada> receptor) throws SQLException, IOException {
+        List<Object> parametros = new ArrayList<>();
+        String filtro = crearFiltroVentas(desde, hasta, usuarioId, parametros);
+        String sqlConteo = "SELECT COUNT(*) FROM ventas v WHERE " + filtro;
+        String sql = "SELECT v.id, v.fecha_venta, v.total, u.nombre AS vendedor, " +
+                    "(SELECT COUNT(*) FROM items_venta c WHERE c.venta_id = v.id) AS num_items, " +
+                    "iv.id AS item_id, iv.cantidad, iv.precio_unitario, iv.subtotal, " +
+                    "p.codigo, p.nombre AS producto " +
+                    "FROM ventas v " +
+                    "LEFT JOIN usuarios u ON u.id = v.usuario_id " +
+                    "LEFT JOIN items_venta iv ON iv.venta_id = v.id " +
+                    "LEFT JOIN productos p ON p.id = iv.producto_id " +
+                    "WHERE " + filtro + " ORDER BY v.fecha_venta DESC, v.id DESC, iv.id";
+
+        try (Connection conn = dbManager.getReadConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                alContar.accept(contar(conn, sqlConteo, parametros));
+
+                try (PreparedStatement stmt = prepararSoloAvance(conn, sql, parametros);
+                     ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        receptor.recibir(mapearLinea(rs));
+                    }
+                }
+            } finally {
+                conn.commit();
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Recorre los productos activos por id
+     *
+     * @param alContar Recibe el número de productos antes de la primera fila
+     * @param receptor Recibe cada producto
+     * @throws SQLException Si hay error en la consulta
+     * @throws IOException Si el receptor falla; el recorrido se interrumpe
+     */
+    public void recorrerProductos(IntConsumer alContar, ReceptorFilas<Producto> receptor)
+            throws SQLException, IOException {
+        List<Object> parametros = new ArrayList<>();
+        String sqlConteo = "SELECT COUNT(*) FROM productos WHERE activo = TRUE";
+        String sql = "SELECT * FROM productos WHERE activo = TRUE ORDER BY id";
+        ProductoDAO productoDAO = new ProductoDAO();
+
+        try (Connection conn = dbManager.getReadConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                alContar.accept(contar(conn, sqlConteo, parametros));
+
+                try (PreparedStatement stmt = prepararSoloAvance(conn, sql, parametros);
+                     ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        receptor.recibir(productoDAO.mapearResultSet(rs));
+                    }
+                }
+            } finally {
+                conn.commit();
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Arma el filtro de ventas por rango de días y vendedor. Los límites se
+     * comparan como texto igual que en VentaDAO, con el día siguiente como
+     * límite exclusivo, para que SQLite use idx_ventas_fecha o
+     * idx_ventas_usuario_fecha.
+     */
+    private String crearFiltroVentas(LocalDate desde, LocalDate hasta, Integer usuarioId, List<Object> parametros) {
+        StringBuilder filtro = new StringBuilder("1 = 1");
+        if (usuarioId != null) {
+            filtro.append(" AND v.usuario_id = ?");
+            parametros.add(usuarioId);
+        }
+        if (desde != null) {
+            filtro.append(" AND v.fecha_venta >= ?");
+            parametros.add(desde.toString());
+        }
+        if (hasta != null) {
+            filtro.append(" AND v.fecha_venta < ?");
+            parametros.add(hasta.plusDays(1).toString());
+        }
+        return filtro.toString();
+    }
+
+    private int contar(Connection conn, String sql, List<Object> parametros) throws SQLException {
+        try (PreparedStatement stmt = prepararSoloAvance(conn, sql, parametros);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Prepara una sentencia de solo avance y solo lectura. El driver de SQLite
+     * avanza la consulta fila por fila, sin cargar el resultado completo.
+     */
+    private PreparedStatement prepararSoloAvance(Connection conn, String sql, List<Object> parametros)
+            throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        for (int i = 0; i < parametros.size(); i++) {
+            stmt.setObject(i + 1, parametros.get(i));
+        }
+        return stmt;
+    }
+
+    private LineaVentaExportada mapearLinea(ResultSet rs) throws SQLException {
+        boolean tieneItem = rs.getObject("item_id") != null;
+        String producto = null;
+        if (tieneItem) {
+            producto = rs.getString("producto");
+            if (producto == null) {
+                producto = "(producto eliminado)";
+            }
+        }
+        return new LineaVentaExportada(
+            rs.getInt("id"),
+            LocalDateTime.parse(rs.getString("fecha_venta")),
+            rs.getString("vendedor"),
+            rs.getInt("num_items"),
+            Money.deDouble(rs.getDouble("total")),
+            rs.getString("codigo"),
+            producto,
+            rs.getInt("cantidad"),
+            Money.deDouble(rs.getDouble("precio_unitario")),
+            Money.deDouble(rs.getDouble("subtotal"))
+        );
+    }
+}
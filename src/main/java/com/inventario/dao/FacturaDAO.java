@@ -0,0 +1,227 @@
+package com.inventario.dao;
+
+import com.inventario.database.DatabaseManager;
+import com.inventario.model.Factura;
+import com.inventario.model.Money;
+import com.inventario.model.Venta;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Data Access Object para las facturas emitidas (tabla facturas).
+ *
+ * El id de cada factura es su consecutivo. Al emitir se reserva un bloque
+ * del consecutivo del tamaño del grupo de facturas con un solo UPDATE, y
+ * numeración, inserción y reserva se confirman en la misma transacción: el
+ * consecutivo se escribe una vez por grupo y no por factura, y si la emisión
+ * se revierte los números vuelven a quedar libres, sin huecos.
+ *
+ * Los documentos llegan ya generados: dentro de la transacción solo se les
+ * escribe el número, así la conexión de escritura se retiene lo mínimo.
+ *
+ * Cada factura guarda el documento tal como se emitió, así que reimprimirla
+ * es leer una fila por id, por número o por venta.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class FacturaDAO {
+
+    private static final Logger logger = Logger.getLogger(FacturaDAO.class.getName());
+    private static final String SECUENCIA = "facturas";
+    private static final String COLUMNAS = "id, numero_factura, venta_id, cliente_nombre, cliente_documento, " +
+                                           "fecha_emision, incluye_iva, subtotal, iva, total, observaciones";
+    private final DatabaseManager dbManager;
+
+    /**
+     * Escribe el número en el documento ya generado de una factura, dentro de
+     * la transacción de emisión; no debe consultar la BD ni hacer trabajo largo
+     */
+    @FunctionalInterface
+    public interface CompletarContenido {
+        /**
+         * @param factura Factura con su consecutivo asignado
+         */
+        void completar(Factura factura);
+    }
+
+    public FacturaDAO() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    /**
+     * Emite un grupo de facturas: reserva sus números, los escribe en sus
+     * documentos y las inserta en una sola transacción
+     *
+     * @param facturas Facturas sin emitir, con su documento ya generado
+     * @param completar Escribe el número asignado en el documento
+     * @throws SQLException Si hay error al registrar; no se emite ninguna
+     */
+    public void emitir(List<Factura> facturas, CompletarContenido completar) throws SQLException {
+        if (facturas.isEmpty()) {
+            return;
+        }
+
+        try (Connection conn = dbManager.getConnection()) {
+            conn.setAutoCommit(false);
+            boolean confirmada = false;
+            try {
+                int primero = reservarNumeros(conn, facturas.size());
+                for (int i = 0; i < facturas.size(); i++) {
+                    Factura factura = facturas.get(i);
+                    factura.setId(primero + i);
+                    completar.completar(factura);
+                }
+                insertar(conn, facturas);
+
+                conn.commit();
+                confirmada = true;
+            } finally {
+                if (!confirmada) {
+                    conn.rollback();
+                    for (Factura factura : facturas) {
+                        factura.setId(0);
+                    }
+                }
+                conn.setAutoCommit(true);
+            }
+        }
+
+        for (Factura factura : facturas) {
+            factura.setGenerada(true);
+        }
+    }
+
+    /**
+     * Reserva un bloque del consecutivo. El UPDATE toma el bloqueo de
+     * escritura de inmediato, así ninguna otra conexión reserva los mismos
+     * números.
+     *
+     * @return Primer número del bloque
+     */
+    private int reservarNumeros(Connection conn, int cantidad) throws SQLException {
+        String sql = "UPDATE secuencias SET siguiente = siguiente + ? WHERE nombre = ? RETURNING siguiente";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, cantidad);
+            pstmt.setString(2, SECUENCIA);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("No existe el consecutivo " + SECUENCIA);
+                }
+                return rs.getInt(1) - cantidad;
+            }
+        }
+    }
+
+    private void insertar(Connection conn, List<Factura> facturas) throws SQLException {
+        String sql = "INSERT INTO facturas (" + COLUMNAS + ", contenido_texto, contenido_html) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Factura factura : facturas) {
+                pstmt.setInt(1, factura.getId());
+                pstmt.setString(2, factura.getNumeroFactura());
+                pstmt.setInt(3, factura.getVenta().getId());
+                pstmt.setString(4, factura.getClienteNombre());
+                pstmt.setString(5, factura.getClienteDocumento());
+                pstmt.setString(6, factura.getFechaEmision().toString());
+                pstmt.setBoolean(7, factura.isIncluyeIVA());
+                pstmt.setDouble(8, factura.getSubtotal().toDouble());
+                pstmt.setDouble(9, factura.getIva().toDouble());
+                pstmt.setDouble(10, factura.getTotal().toDouble());
+                pstmt.setString(11, factura.getObservaciones());
+                pstmt.setBytes(12, factura.getContenidoTexto());
+                pstmt.setBytes(13, factura.getContenidoHTML());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Obtiene una factura emitida con su documento
+     *
+     * @param id Consecutivo de la factura
+     * @return Factura, o null si no existe
+     */
+    public Factura obtenerPorId(int id) {
+        return obtenerUna("SELECT " + COLUMNAS + ", contenido_texto, contenido_html FROM facturas WHERE id = ?", id);
+    }
+
+    /**
+     * Obtiene una factura emitida con su documento
+     *
+     * @param numeroFactura Número completo, p. ej. FACT-20250304-0012
+     * @return Factura, o null si no existe
+     */
+    public Factura obtenerPorNumero(String numeroFactura) {
+        return obtenerUna("SELECT " + COLUMNAS + ", contenido_texto, contenido_html FROM facturas " +
+                          "WHERE numero_factura = ?", numeroFactura);
+    }
+
+    /**
+     * Obtiene las facturas emitidas de una venta, de la más reciente a la
+     * más antigua, sin su documento
+     */
+    public List<Factura> obtenerPorVenta(int ventaId) {
+        List<Factura> facturas = new ArrayList<>();
+        String sql = "SELECT " + COLUMNAS + " FROM facturas WHERE venta_id = ? ORDER BY id DESC";
+
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, ventaId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    facturas.add(mapearResultSet(rs, false));
+                }
+            }
+        } catch (SQLException e) {
+            logger.severe("Error al obtener las facturas de la venta: " + e.getMessage());
+        }
+
+        return facturas;
+    }
+
+    private Factura obtenerUna(String sql, Object parametro) {
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setObject(1, parametro);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapearResultSet(rs, true) : null;
+            }
+        } catch (SQLException e) {
+            logger.severe("Error al obtener la factura: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Mapea una fila de facturas. La venta solo lleva su id: el documento
+     * emitido no depende de la venta actual.
+     */
+    private Factura mapearResultSet(ResultSet rs, boolean conContenido) throws SQLException {
+        Venta venta = new Venta();
+        venta.setId(rs.getInt("venta_id"));
+
+        Factura factura = new Factura();
+        factura.setVenta(venta);
+        factura.setFechaEmision(LocalDateTime.parse(rs.getString("fecha_emision")));
+        factura.setId(rs.getInt("id"));
+        factura.setNumeroFactura(rs.getString("numero_factura"));
+        factura.setClienteNombre(rs.getString("cliente_nombre"));
+        factura.setClienteDocumento(rs.getString("cliente_documento"));
+        factura.setIncluyeIVA(rs.getBoolean("incluye_iva"));
+        factura.setSubtotal(Money.deDouble(rs.getDouble("subtotal")));
+        factura.setIva(Money.deDouble(rs.getDouble("iva")));
+        factura.setTotal(Money.deDouble(rs.getDouble("total")));
+        factura.setObservaciones(rs.getString("observaciones"));
+        if (conContenido) {
+            factura.setContenidoTexto(rs.getBytes("contenido_texto"));
+            factura.setContenidoHTML(rs.getBytes("contenido_html"));
+        }
+        factura.setGenerada(true);
+        return factura;
+    }
+}
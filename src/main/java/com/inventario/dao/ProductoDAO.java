@@ -1,12 +1,16 @@
 package com.inventario.dao;
 
 import com.inventario.database.DatabaseManager;
+import com.inventario.model.Money;
 import com.inventario.model.Producto;
-import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 /**
@@ -19,6 +23,9 @@ import java.util.logging.Logger;
 public class ProductoDAO {
     
     private static final Logger logger = Logger.getLogger(ProductoDAO.class.getName());
+    
+    // Cantidad máxima de parámetros por consulta IN (límite seguro para SQLite)
+    private static final int TAMANO_LOTE_IN = 500;
     private final DatabaseManager dbManager;
 
     public ProductoDAO() {
@@ -34,7 +41,7 @@ public class ProductoDAO {
         List<Producto> productos = new ArrayList<>();
         String sql = "SELECT * FROM productos WHERE activo = TRUE ORDER BY id";
 
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -58,7 +65,7 @@ public class ProductoDAO {
     public Producto obtenerPorId(int id) {
         String sql = "SELECT * FROM productos WHERE id = ? AND activo = TRUE";
 
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
@@ -75,6 +82,118 @@ public class ProductoDAO {
         return null;
     }
 
+    /**
+     * Busca un producto activo por su código usando el índice único de la columna
+     * 
+     * @param codigo Código del producto
+     * @return Producto encontrado o null
+     */
+    public Producto obtenerPorCodigo(String codigo) {
+        if (codigo == null) {
+            return null;
+        }
+        
+        String sql = "SELECT * FROM productos WHERE codigo = ? AND activo = TRUE";
+
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, codigo);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapearResultSet(rs);
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.severe("Error al obtener producto por código: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    /**
+     * Busca varios productos activos por código en una sola consulta
+     * (se divide en lotes solo si la lista de códigos es muy grande)
+     * 
+     * @param codigos Códigos de los productos
+     * @return Mapa código -> producto con los productos encontrados
+     */
+    public Map<String, Producto> obtenerPorCodigos(Collection<String> codigos) {
+        Map<String, Producto> productos = new LinkedHashMap<>();
+        if (codigos == null || codigos.isEmpty()) {
+            return productos;
+        }
+        
+        List<String> unicos = new ArrayList<>(new LinkedHashSet<>(codigos));
+        unicos.remove(null);
+
+        try (Connection conn = dbManager.getReadConnection()) {
+            for (int inicio = 0; inicio < unicos.size(); inicio += TAMANO_LOTE_IN) {
+                List<String> lote = unicos.subList(inicio, Math.min(inicio + TAMANO_LOTE_IN, unicos.size()));
+                String sql = "SELECT * FROM productos WHERE activo = TRUE AND codigo IN (" 
+                           + marcadores(lote.size()) + ")";
+                
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < lote.size(); i++) {
+                        stmt.setString(i + 1, lote.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Producto producto = mapearResultSet(rs);
+                            productos.put(producto.getCodigo(), producto);
+                        }
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.severe("Error al obtener productos por códigos: " + e.getMessage());
+        }
+
+        return productos;
+    }
+
+    /**
+     * Busca varios productos activos por ID en una sola consulta
+     * (se divide en lotes solo si la lista de IDs es muy grande)
+     *
+     * @param ids IDs de los productos
+     * @return Mapa ID -> producto con los productos encontrados
+     * @throws SQLException Si hay error en la consulta
+     */
+    public Map<Integer, Producto> obtenerPorIds(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Producto> productos = new LinkedHashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return productos;
+        }
+
+        List<Integer> unicos = new ArrayList<>(new LinkedHashSet<>(ids));
+        unicos.remove(null);
+
+        try (Connection conn = dbManager.getReadConnection()) {
+            for (int inicio = 0; inicio < unicos.size(); inicio += TAMANO_LOTE_IN) {
+                List<Integer> lote = unicos.subList(inicio, Math.min(inicio + TAMANO_LOTE_IN, unicos.size()));
+                String sql = "SELECT * FROM productos WHERE activo = TRUE AND id IN ("
+                           + marcadores(lote.size()) + ")";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < lote.size(); i++) {
+                        stmt.setInt(i + 1, lote.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            Producto producto = mapearResultSet(rs);
+                            productos.put(producto.getId(), producto);
+                        }
+                    }
+                }
+            }
+        }
+
+        return productos;
+    }
+
     /**
      * Busca productos por nombre y categoría
      * 
@@ -86,20 +205,122 @@ public class ProductoDAO {
         List<Producto> productos = new ArrayList<>();
         StringBuilder sql = new StringBuilder("SELECT * FROM productos WHERE activo = TRUE");
         List<Object> params = new ArrayList<>();
+        agregarFiltrosBusqueda(sql, params, nombre, categoria);
+        sql.append(" ORDER BY nombre");
 
-        if (nombre != null && !nombre.trim().isEmpty()) {
-            sql.append(" AND nombre LIKE ?");
-            params.add("%" + nombre.trim() + "%");
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    productos.add(mapearResultSet(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.severe("Error al buscar productos: " + e.getMessage());
+        }
+
+        return productos;
+    }
+
+    /**
+     * Búsqueda de texto completo sobre nombre, descripción, código y categoría
+     * usando el índice FTS5 productos_fts. Cada palabra se busca como prefijo
+     * ("lap" encuentra "Laptop") y los resultados se ordenan por relevancia
+     * (bm25), pesando más las coincidencias en el nombre y el código.
+     * 
+     * @param texto Texto escrito por el usuario
+     * @param categoria Categoría a filtrar (o null)
+     * @param limite Número máximo de resultados
+     * @return Productos activos ordenados por relevancia
+     */
+    public List<Producto> buscarTexto(String texto, String categoria, int limite) {
+        List<Producto> productos = new ArrayList<>();
+        String consulta = construirConsultaTexto(texto);
+        if (consulta.isEmpty()) {
+            return productos;
         }
 
+        StringBuilder sql = new StringBuilder(
+            "SELECT p.* FROM productos_fts f JOIN productos p ON p.id = f.rowid " +
+            "WHERE productos_fts MATCH ? AND p.activo = TRUE");
+        List<Object> params = new ArrayList<>();
+        params.add(consulta);
         if (categoria != null && !categoria.trim().isEmpty()) {
-            sql.append(" AND categoria = ?");
+            sql.append(" AND p.categoria = ?");
             params.add(categoria.trim());
         }
+        // Pesos bm25 por columna: nombre, descripcion, codigo, categoria
+        sql.append(" ORDER BY bm25(productos_fts, 10.0, 2.0, 5.0, 1.0) LIMIT ?");
+        params.add(limite);
 
-        sql.append(" ORDER BY nombre");
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
 
-        try (Connection conn = dbManager.getConnection();
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    productos.add(mapearResultSet(rs));
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.severe("Error en la búsqueda de productos: " + e.getMessage());
+        }
+
+        return productos;
+    }
+
+    /**
+     * Convierte el texto del usuario en una consulta FTS5: cada palabra entre
+     * comillas (para neutralizar la sintaxis de FTS5) y con * de prefijo,
+     * unidas implícitamente con AND
+     */
+    private static String construirConsultaTexto(String texto) {
+        if (texto == null) {
+            return "";
+        }
+
+        StringBuilder consulta = new StringBuilder();
+        for (String palabra : texto.trim().split("[^\\p{L}\\p{N}]+")) {
+            if (!palabra.isEmpty()) {
+                if (consulta.length() > 0) {
+                    consulta.append(' ');
+                }
+                consulta.append('"').append(palabra).append("\"*");
+            }
+        }
+        return consulta.toString();
+    }
+
+    /**
+     * Obtiene una página de productos activos por paginación de clave
+     * (id menor que antesDeId, de mayor a menor), con los mismos filtros que buscar
+     * 
+     * @param nombre Nombre a buscar (puede ser parcial o null)
+     * @param categoria Categoría a filtrar (o null)
+     * @param antesDeId Id exclusivo desde el que se lee (Integer.MAX_VALUE para la primera página)
+     * @param limite Número máximo de productos
+     * @return Productos ordenados por id descendente
+     */
+    public List<Producto> obtenerPagina(String nombre, String categoria, int antesDeId, int limite) {
+        List<Producto> productos = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT * FROM productos WHERE activo = TRUE AND id < ?");
+        List<Object> params = new ArrayList<>();
+        params.add(antesDeId);
+        agregarFiltrosBusqueda(sql, params, nombre, categoria);
+        sql.append(" ORDER BY id DESC LIMIT ?");
+        params.add(limite);
+
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
 
             for (int i = 0; i < params.size(); i++) {
@@ -113,12 +334,27 @@ public class ProductoDAO {
             }
 
         } catch (SQLException e) {
-            logger.severe("Error al buscar productos: " + e.getMessage());
+            logger.severe("Error al obtener página de productos: " + e.getMessage());
         }
 
         return productos;
     }
 
+    /**
+     * Agrega a la consulta los filtros opcionales de nombre y categoría
+     */
+    private void agregarFiltrosBusqueda(StringBuilder sql, List<Object> params, String nombre, String categoria) {
+        if (nombre != null && !nombre.trim().isEmpty()) {
+            sql.append(" AND nombre LIKE ?");
+            params.add("%" + nombre.trim() + "%");
+        }
+
+        if (categoria != null && !categoria.trim().isEmpty()) {
+            sql.append(" AND categoria = ?");
+            params.add(categoria.trim());
+        }
+    }
+
     /**
      * Crea un nuevo producto
      * 
@@ -134,7 +370,7 @@ public class ProductoDAO {
             stmt.setString(1, producto.getCodigo());
             stmt.setString(2, producto.getNombre());
             stmt.setString(3, producto.getDescripcion());
-            stmt.setBigDecimal(4, producto.getPrecio());
+            stmt.setDouble(4, producto.getPrecio().toDouble());
             stmt.setInt(5, producto.getCantidad());
             stmt.setString(6, producto.getCategoria());
             stmt.setBoolean(7, producto.isActivo());
@@ -193,7 +429,7 @@ public class ProductoDAO {
                 stmt.setString(1, producto.getCodigo());
                 stmt.setString(2, producto.getNombre());
                 stmt.setString(3, producto.getDescripcion());
-                stmt.setBigDecimal(4, producto.getPrecio());
+                stmt.setDouble(4, producto.getPrecio().toDouble());
                 stmt.setInt(5, producto.getCantidad());
                 stmt.setString(6, producto.getCategoria());
                 stmt.setBoolean(7, producto.isActivo());
@@ -241,7 +477,7 @@ public class ProductoDAO {
         List<Producto> productos = new ArrayList<>();
         String sql = "SELECT * FROM productos WHERE cantidad < ? AND activo = TRUE ORDER BY cantidad ASC";
 
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, stockMinimo);
@@ -268,7 +504,7 @@ public class ProductoDAO {
         List<Producto> productos = new ArrayList<>();
         String sql = "SELECT * FROM productos WHERE categoria = ? AND activo = TRUE ORDER BY nombre";
 
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, categoria);
@@ -290,23 +526,22 @@ public class ProductoDAO {
      * 
      * @return Valor total del inventario
      */
-    public BigDecimal obtenerValorTotalInventario() {
+    public Money obtenerValorTotalInventario() {
         String sql = "SELECT SUM(precio * cantidad) as total FROM productos WHERE activo = TRUE";
 
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
             if (rs.next()) {
-                BigDecimal total = rs.getBigDecimal("total");
-                return total != null ? total : BigDecimal.ZERO;
+                return Money.deDouble(rs.getDouble("total"));
             }
 
         } catch (SQLException e) {
             logger.severe("Error al obtener valor total del inventario: " + e.getMessage());
         }
 
-        return BigDecimal.ZERO;
+        return Money.CERO;
     }
 
     /**
@@ -360,6 +595,23 @@ public class ProductoDAO {
         return false;
     }
 
+    /**
+     * Genera la lista de marcadores "?, ?, ..." para una cláusula IN
+     * 
+     * @param cantidad Número de marcadores
+     * @return Cadena con los marcadores separados por coma
+     */
+    private static String marcadores(int cantidad) {
+        StringBuilder sb = new StringBuilder(cantidad * 3);
+        for (int i = 0; i < cantidad; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
     /**
      * Mapea un ResultSet a un objeto Producto
      * 
@@ -367,13 +619,13 @@ public class ProductoDAO {
      * @return Producto mapeado
      * @throws SQLException Si hay error al mapear
      */
-    private Producto mapearResultSet(ResultSet rs) throws SQLException {
+    Producto mapearResultSet(ResultSet rs) throws SQLException {
         Producto producto = new Producto();
         producto.setId(rs.getInt("id"));
         producto.setCodigo(rs.getString("codigo"));
         producto.setNombre(rs.getString("nombre"));
         producto.setDescripcion(rs.getString("descripcion"));
-        producto.setPrecio(rs.getBigDecimal("precio"));
+        producto.setPrecio(Money.deDouble(rs.getDouble("precio")));
         producto.setCantidad(rs.getInt("cantidad"));
         producto.setCategoria(rs.getString("categoria"));
         producto.setActivo(rs.getBoolean("activo"));
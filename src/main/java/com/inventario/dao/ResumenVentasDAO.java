@@ -0,0 +1,288 @@
+package com.inventario.dao;
+
+import com.inventario.database.DatabaseManager;
+import com.inventario.model.ItemVenta;
+import com.inventario.model.Money;
+import com.inventario.model.ProductoVendido;
+import com.inventario.model.Venta;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Data Access Object para los resúmenes diarios de ventas
+ * (tablas ventas_diarias y ventas_diarias_vendedor).
+ *
+ * Los resúmenes se actualizan dentro de la misma transacción que registra
+ * cada venta, de modo que los reportes cuestan en proporción a los días
+ * consultados y no al total de ventas registradas.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class ResumenVentasDAO {
+
+    private static final Logger logger = Logger.getLogger(ResumenVentasDAO.class.getName());
+    private final DatabaseManager dbManager;
+
+    public ResumenVentasDAO() {
+        this.dbManager = DatabaseManager.getInstance();
+    }
+
+    /**
+     * Suma una venta a los resúmenes del día. Debe llamarse con la conexión
+     * de la transacción que registra la venta.
+     *
+     * @param conn Conexión con la transacción abierta
+     * @param venta Venta ya insertada
+     * @throws SQLException Si hay error al actualizar los resúmenes
+     */
+    public void registrar(Connection conn, Venta venta) throws SQLException {
+        String dia = venta.getFechaVenta().toLocalDate().toString();
+        String sqlVendedor = "INSERT INTO ventas_diarias_vendedor (dia, usuario_id, num_ventas, ingresos) " +
+                            "VALUES (?, ?, 1, ?) " +
+                            "ON CONFLICT (dia, usuario_id) DO UPDATE SET " +
+                            "num_ventas = num_ventas + 1, ingresos = ingresos + excluded.ingresos";
+        String sqlProducto = "INSERT INTO ventas_diarias (dia, usuario_id, producto_id, unidades, ingresos, lineas) " +
+                            "VALUES (?, ?, ?, ?, ?, 1) " +
+                            "ON CONFLICT (dia, usuario_id, producto_id) DO UPDATE SET " +
+                            "unidades = unidades + excluded.unidades, " +
+                            "ingresos = ingresos + excluded.ingresos, " +
+                            "lineas = lineas + 1";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sqlVendedor)) {
+            stmt.setString(1, dia);
+            stmt.setInt(2, venta.getUsuario().getId());
+            stmt.setDouble(3, venta.getTotal().toDouble());
+            stmt.executeUpdate();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(sqlProducto)) {
+            for (ItemVenta item : venta.getItems()) {
+                stmt.setString(1, dia);
+                stmt.setInt(2, venta.getUsuario().getId());
+                stmt.setInt(3, item.getProducto().getId());
+                stmt.setInt(4, item.getCantidad());
+                stmt.setDouble(5, item.getSubtotal().toDouble());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Resta una venta de los resúmenes del día (antes de eliminarla).
+     * Debe llamarse con la conexión de la transacción que elimina la venta.
+     *
+     * @param conn Conexión con la transacción abierta
+     * @param ventaId ID de la venta a descontar
+     * @throws SQLException Si hay error al actualizar los resúmenes
+     */
+    public void descontar(Connection conn, int ventaId) throws SQLException {
+        String sqlProducto = """
+            UPDATE ventas_diarias SET
+                unidades = unidades - (SELECT SUM(iv.cantidad) FROM items_venta iv
+                                       WHERE iv.venta_id = ? AND iv.producto_id = ventas_diarias.producto_id),
+                ingresos = ingresos - (SELECT SUM(iv.subtotal) FROM items_venta iv
+                                       WHERE iv.venta_id = ? AND iv.producto_id = ventas_diarias.producto_id),
+                lineas = lineas - (SELECT COUNT(*) FROM items_venta iv
+                                   WHERE iv.venta_id = ? AND iv.producto_id = ventas_diarias.producto_id)
+            WHERE (dia, usuario_id) = (SELECT substr(fecha_venta, 1, 10), usuario_id FROM ventas WHERE id = ?)
+              AND producto_id IN (SELECT producto_id FROM items_venta WHERE venta_id = ?)
+        """;
+        String sqlVendedor = """
+            UPDATE ventas_diarias_vendedor SET
+                num_ventas = num_ventas - 1,
+                ingresos = ingresos - (SELECT total FROM ventas WHERE id = ?)
+            WHERE (dia, usuario_id) = (SELECT substr(fecha_venta, 1, 10), usuario_id FROM ventas WHERE id = ?)
+        """;
+
+        try (PreparedStatement stmt = conn.prepareStatement(sqlProducto)) {
+            for (int i = 1; i <= 5; i++) {
+                stmt.setInt(i, ventaId);
+            }
+            stmt.executeUpdate();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(sqlVendedor)) {
+            stmt.setInt(1, ventaId);
+            stmt.setInt(2, ventaId);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Cuenta las ventas registradas en un rango de días
+     *
+     * @param desde Primer día incluido (null = sin límite)
+     * @param hasta Último día incluido (null = sin límite)
+     * @return Número de ventas
+     */
+    public int contarVentas(LocalDate desde, LocalDate hasta) {
+        String sql = "SELECT COALESCE(SUM(num_ventas), 0) FROM ventas_diarias_vendedor WHERE dia >= ? AND dia <= ?";
+
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            asignarRango(stmt, desde, hasta);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.severe("Error al contar ventas del resumen: " + e.getMessage());
+        }
+
+        return 0;
+    }
+
+    /**
+     * Suma los ingresos registrados en un rango de días
+     *
+     * @param desde Primer día incluido (null = sin límite)
+     * @param hasta Último día incluido (null = sin límite)
+     * @return Ingresos del rango
+     */
+    public Money sumarIngresos(LocalDate desde, LocalDate hasta) {
+        String sql = "SELECT SUM(ingresos) FROM ventas_diarias_vendedor WHERE dia >= ? AND dia <= ?";
+
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            asignarRango(stmt, desde, hasta);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    // SUM de un rango vacío es NULL, que getDouble lee como 0
+                    return Money.deDouble(rs.getDouble(1));
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.severe("Error al sumar ingresos del resumen: " + e.getMessage());
+        }
+
+        return Money.CERO;
+    }
+
+    /**
+     * Obtiene el número de ventas por vendedor (nombre)
+     *
+     * @return Mapa nombre del vendedor -> número de ventas
+     */
+    public Map<String, Integer> contarVentasPorVendedor() {
+        Map<String, Integer> ventas = new LinkedHashMap<>();
+        String sql = "SELECT u.nombre, SUM(r.num_ventas) AS num_ventas " +
+                    "FROM ventas_diarias_vendedor r JOIN usuarios u ON u.id = r.usuario_id " +
+                    "GROUP BY r.usuario_id ORDER BY num_ventas DESC";
+
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                ventas.merge(rs.getString("nombre"), rs.getInt("num_ventas"), Integer::sum);
+            }
+
+        } catch (SQLException e) {
+            logger.severe("Error al obtener ventas por vendedor: " + e.getMessage());
+        }
+
+        return ventas;
+    }
+
+    /**
+     * Obtiene los ingresos por vendedor (nombre)
+     *
+     * @return Mapa nombre del vendedor -> ingresos
+     */
+    public Map<String, Money> sumarIngresosPorVendedor() {
+        Map<String, Money> ingresos = new LinkedHashMap<>();
+        String sql = "SELECT u.nombre, SUM(r.ingresos) AS ingresos " +
+                    "FROM ventas_diarias_vendedor r JOIN usuarios u ON u.id = r.usuario_id " +
+                    "GROUP BY r.usuario_id ORDER BY ingresos DESC";
+
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                ingresos.merge(rs.getString("nombre"), Money.deDouble(rs.getDouble("ingresos")), Money::sumar);
+            }
+
+        } catch (SQLException e) {
+            logger.severe("Error al obtener ingresos por vendedor: " + e.getMessage());
+        }
+
+        return ingresos;
+    }
+
+    /**
+     * Obtiene los productos con más unidades vendidas. Agrupa el resumen
+     * diario por producto y solo busca el código y el nombre de los primeros
+     * "limite" productos; los ingresos son los de las líneas vendidas, no el
+     * precio actual del producto. Un producto borrado de la tabla productos
+     * sigue contando (con código nulo y nombre "(producto eliminado)"), de
+     * modo que siempre se devuelven "limite" productos si hubo tantos vendidos.
+     *
+     * @param desde Primer día incluido (null = sin límite)
+     * @param hasta Último día incluido (null = sin límite)
+     * @param usuarioId Vendedor (null = todos)
+     * @param limite Número máximo de productos
+     * @return Productos de mayor a menor número de unidades vendidas
+     */
+    public List<ProductoVendido> obtenerProductosMasVendidos(LocalDate desde, LocalDate hasta,
+                                                             Integer usuarioId, int limite) {
+        List<ProductoVendido> productos = new ArrayList<>();
+        String filtroVendedor = usuarioId != null ? "AND usuario_id = ? " : "";
+        String sql = "SELECT t.producto_id, p.codigo, COALESCE(p.nombre, '(producto eliminado)') AS nombre, " +
+                    "t.unidades, t.ingresos " +
+                    "FROM (SELECT producto_id, SUM(unidades) AS unidades, SUM(ingresos) AS ingresos " +
+                    "FROM ventas_diarias WHERE dia >= ? AND dia <= ? " + filtroVendedor +
+                    "GROUP BY producto_id ORDER BY unidades DESC, producto_id LIMIT ?) t " +
+                    "LEFT JOIN productos p ON p.id = t.producto_id " +
+                    "ORDER BY t.unidades DESC, t.producto_id";
+
+        try (Connection conn = dbManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            asignarRango(stmt, desde, hasta);
+            int indice = 3;
+            if (usuarioId != null) {
+                stmt.setInt(indice++, usuarioId);
+            }
+            stmt.setInt(indice, limite);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    productos.add(new ProductoVendido(
+                        rs.getInt("producto_id"),
+                        rs.getString("codigo"),
+                        rs.getString("nombre"),
+                        rs.getLong("unidades"),
+                        Money.deDouble(rs.getDouble("ingresos"))
+                    ));
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.severe("Error al obtener productos más vendidos: " + e.getMessage());
+        }
+
+        return productos;
+    }
+
+    /**
+     * Asigna los límites del rango; un límite nulo se reemplaza por un valor
+     * que no filtra (las fechas ISO se comparan como texto)
+     */
+    private void asignarRango(PreparedStatement stmt, LocalDate desde, LocalDate hasta) throws SQLException {
+        stmt.setString(1, desde != null ? desde.toString() : "0000-01-01");
+        stmt.setString(2, hasta != null ? hasta.toString() : "9999-12-31");
+    }
+}
@@ -33,7 +33,7 @@ public class UsuarioDAO {
         List<Usuario> usuarios = new ArrayList<>();
         String sql = "SELECT * FROM usuarios WHERE activo = TRUE ORDER BY id";
 
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
@@ -57,7 +57,7 @@ public class UsuarioDAO {
     public Usuario obtenerPorId(int id) {
         String sql = "SELECT * FROM usuarios WHERE id = ? AND activo = TRUE";
 
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
@@ -83,7 +83,7 @@ public class UsuarioDAO {
     public Usuario obtenerPorUsername(String username) {
         String sql = "SELECT * FROM usuarios WHERE username = ? AND activo = TRUE";
 
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, username);
@@ -111,7 +111,7 @@ public class UsuarioDAO {
     public Usuario autenticar(String username, String password, boolean esAdmin) {
         String sql = "SELECT * FROM usuarios WHERE username = ? AND password = ? AND activo = TRUE";
 
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, username);
@@ -238,7 +238,7 @@ public class UsuarioDAO {
     public boolean existeUsername(String username) {
         String sql = "SELECT COUNT(*) FROM usuarios WHERE username = ? AND activo = TRUE";
 
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, username);
@@ -263,7 +263,7 @@ public class UsuarioDAO {
         List<Usuario> usuarios = new ArrayList<>();
         String sql = "SELECT * FROM usuarios WHERE rol = ? AND activo = TRUE ORDER BY nombre";
 
-        try (Connection conn = dbManager.getConnection();
+        try (Connection conn = dbManager.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, rol.getCodigo());
@@ -287,7 +287,7 @@ public class UsuarioDAO {
      * @return Usuario mapeado
      * @throws SQLException Si hay error al mapear
      */
-    private Usuario mapearResultSet(ResultSet rs) throws SQLException {
+    Usuario mapearResultSet(ResultSet rs) throws SQLException {
         Usuario usuario = new Usuario();
         usuario.setId(rs.getInt("id"));
         usuario.setUsername(rs.getString("username"));
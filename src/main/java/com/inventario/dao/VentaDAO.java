@@ -5,12 +5,23 @@ import com.inventario.model.Venta;
 import com.inventario.model.ItemVenta;
 import com.inventario.model.Usuario;
 import com.inventario.model.Producto;
+import com.inventario.model.ResultadoVenta;
+import com.inventario.model.Money;
+import com.inventario.model.VentaResumen;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * DAO para operaciones de ventas en la base de datos
@@ -20,138 +31,158 @@ import java.util.List;
  */
 public class VentaDAO {
     
+    private static final Logger logger = LoggerFactory.getLogger(VentaDAO.class);
+    private static final int TAMANO_LOTE_IN = 500;
     private UsuarioDAO usuarioDAO;
     private ProductoDAO productoDAO;
+    private ResumenVentasDAO resumenVentasDAO;
 
     public VentaDAO() {
         this.usuarioDAO = new UsuarioDAO();
         this.productoDAO = new ProductoDAO();
+        this.resumenVentasDAO = new ResumenVentasDAO();
     }
 
     /**
-     * Crea una nueva venta con sus items
+     * Crea una nueva venta con sus items y descuenta el stock
+     * 
+     * @return true si la venta quedó confirmada
      */
     public boolean crear(Venta venta) {
+        return registrarVenta(venta).isExitoso();
+    }
+
+    /**
+     * Registra una venta de forma atómica: inserta la venta, descuenta el stock
+     * de cada línea, agrega los items y actualiza los resúmenes diarios en una
+     * sola transacción.
+     * 
+     * El stock se descuenta con UPDATE condicionados (cantidad >= ?), de modo que
+     * dos cajas vendiendo el mismo producto nunca sobrevenden ni pierden
+     * actualizaciones, sin tener que leer y validar cada producto antes.
+     * Si alguna línea no tiene stock suficiente se revierte todo.
+     * 
+     * @param venta Venta a registrar
+     * @return Resultado con la línea que causó el fallo, si la hay
+     */
+    public ResultadoVenta registrarVenta(Venta venta) {
         String sqlVenta = "INSERT INTO ventas (usuario_id, total, fecha_venta) VALUES (?, ?, ?)";
         String sqlItem = "INSERT INTO items_venta (venta_id, producto_id, cantidad, precio_unitario, subtotal) " +
                         "VALUES (?, ?, ?, ?, ?)";
+        String sqlStock = "UPDATE productos SET cantidad = cantidad - ? " +
+                         "WHERE id = ? AND cantidad >= ? AND activo = TRUE";
         
-        Connection conn = null;
+        // Validar que el usuario tiene ID válido
+        if (venta.getUsuario() == null || venta.getUsuario().getId() <= 0) {
+            return ResultadoVenta.fallo(ResultadoVenta.Motivo.DATOS_INVALIDOS, venta, "usuario inválido");
+        }
         
-        try {
-            System.out.println("📝 Iniciando creación de venta...");
-            System.out.println("   Usuario: " + (venta.getUsuario() != null ? venta.getUsuario().getUsername() : "NULL"));
-            System.out.println("   Usuario ID: " + (venta.getUsuario() != null ? venta.getUsuario().getId() : "NULL"));
-            System.out.println("   Total: " + venta.getTotal());
-            System.out.println("   Items: " + venta.getItems().size());
-            
-            // Validar que el usuario tiene ID válido
-            if (venta.getUsuario() == null) {
-                System.err.println("❌ ERROR CRÍTICO: El usuario es NULL");
-                return false;
-            }
-            
-            if (venta.getUsuario().getId() <= 0) {
-                System.err.println("❌ ERROR CRÍTICO: El usuario tiene ID inválido: " + venta.getUsuario().getId());
-                System.err.println("   Usuario: " + venta.getUsuario().getUsername());
-                System.err.println("   Esto indica que el usuario no fue cargado correctamente desde la BD");
-                return false;
+        if (!venta.tieneItems()) {
+            return ResultadoVenta.fallo(ResultadoVenta.Motivo.CARRITO_VACIO, venta, null);
+        }
+        
+        // Validar que todos los productos tienen IDs y cantidades válidas
+        List<ItemVenta> items = venta.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            ItemVenta item = items.get(i);
+            if (item.getProducto() == null || item.getProducto().getId() <= 0) {
+                return ResultadoVenta.falloEnLinea(ResultadoVenta.Motivo.PRODUCTO_NO_ENCONTRADO, venta, i, -1);
             }
-            
-            // Validar que todos los productos tienen IDs válidos
-            for (ItemVenta item : venta.getItems()) {
-                if (item.getProducto() == null) {
-                    System.err.println("❌ ERROR CRÍTICO: Un item tiene producto NULL");
-                    return false;
-                }
-                if (item.getProducto().getId() <= 0) {
-                    System.err.println("❌ ERROR CRÍTICO: Producto tiene ID inválido: " + item.getProducto().getId());
-                    System.err.println("   Producto: " + item.getProducto().getNombre());
-                    System.err.println("   Código: " + item.getProducto().getCodigo());
-                    return false;
-                }
+            if (item.getCantidad() <= 0) {
+                return ResultadoVenta.falloEnLinea(ResultadoVenta.Motivo.DATOS_INVALIDOS, venta, i, -1);
             }
-            
-            System.out.println("✅ Validaciones iniciales pasadas");
-            
-            conn = DatabaseManager.getInstance().getConnection();
+        }
+        
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
             conn.setAutoCommit(false); // Iniciar transacción
-            System.out.println("✅ Conexión obtenida, transacción iniciada");
             
-            // Insertar venta
-            try (PreparedStatement pstmt = conn.prepareStatement(sqlVenta)) {
-                pstmt.setInt(1, venta.getUsuario().getId());
-                pstmt.setBigDecimal(2, venta.getTotal());
-                pstmt.setString(3, venta.getFechaVenta().toString());
+            try {
+                // Insertar venta
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlVenta)) {
+                    pstmt.setInt(1, venta.getUsuario().getId());
+                    pstmt.setDouble(2, venta.getTotal().toDouble());
+                    pstmt.setString(3, venta.getFechaVenta().toString());
+                    pstmt.executeUpdate();
+                }
                 
-                System.out.println("📤 Ejecutando INSERT de venta...");
-                int rowsAffected = pstmt.executeUpdate();
-                System.out.println("✅ Venta insertada. Filas afectadas: " + rowsAffected);
-            }
-            
-            // Obtener el ID generado usando last_insert_rowid() de SQLite
-            System.out.println("🔍 Obteniendo ID de venta generado...");
-            try (Statement stmt = conn.createStatement();
-                 ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
-                if (rs.next()) {
+                // Obtener el ID generado usando last_insert_rowid() de SQLite
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+                    if (!rs.next()) {
+                        throw new SQLException("No se pudo obtener el ID de la venta");
+                    }
                     venta.setId(rs.getInt(1));
-                    System.out.println("✅ ID de venta generado: " + venta.getId());
-                } else {
-                    System.err.println("❌ No se pudo obtener el ID generado");
-                    throw new SQLException("No se pudo obtener el ID de la venta");
                 }
-            }
-            
-            // Insertar items
-            System.out.println("📤 Insertando items de venta...");
-            try (PreparedStatement pstmt = conn.prepareStatement(sqlItem)) {
-                for (ItemVenta item : venta.getItems()) {
-                    System.out.println("   - Producto ID: " + item.getProducto().getId() + 
-                                     ", Cantidad: " + item.getCantidad() + 
-                                     ", Subtotal: " + item.getSubtotal());
-                    
-                    pstmt.setInt(1, venta.getId());
-                    pstmt.setInt(2, item.getProducto().getId());
-                    pstmt.setInt(3, item.getCantidad());
-                    pstmt.setBigDecimal(4, item.getPrecioUnitario());
-                    pstmt.setBigDecimal(5, item.getSubtotal());
-                    
-                    pstmt.addBatch();
+                
+                // Descontar stock con actualizaciones condicionadas; se detiene en la
+                // primera línea que no se pueda cubrir
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlStock)) {
+                    for (int i = 0; i < items.size(); i++) {
+                        ItemVenta item = items.get(i);
+                        pstmt.setInt(1, item.getCantidad());
+                        pstmt.setInt(2, item.getProducto().getId());
+                        pstmt.setInt(3, item.getCantidad());
+                        
+                        if (pstmt.executeUpdate() == 0) {
+                            ResultadoVenta fallo = diagnosticarLinea(conn, venta, i);
+                            conn.rollback();
+                            venta.setId(0);
+                            return fallo;
+                        }
+                    }
                 }
                 
-                int[] batchResults = pstmt.executeBatch();
-                System.out.println("✅ Items insertados: " + batchResults.length);
-            }
-            
-            conn.commit(); // Confirmar transacción
-            System.out.println("✅ Transacción confirmada exitosamente");
-            return true;
-            
-        } catch (SQLException e) {
-            System.err.println("❌ ERROR SQL al crear venta:");
-            System.err.println("   Mensaje: " + e.getMessage());
-            System.err.println("   SQL State: " + e.getSQLState());
-            System.err.println("   Error Code: " + e.getErrorCode());
-            
-            if (conn != null) {
-                try {
-                    conn.rollback(); // Revertir cambios
-                    System.err.println("🔄 Transacción revertida (rollback)");
-                } catch (SQLException ex) {
-                    System.err.println("❌ Error al hacer rollback: " + ex.getMessage());
-                    ex.printStackTrace();
+                // Insertar items
+                try (PreparedStatement pstmt = conn.prepareStatement(sqlItem)) {
+                    for (ItemVenta item : items) {
+                        pstmt.setInt(1, venta.getId());
+                        pstmt.setInt(2, item.getProducto().getId());
+                        pstmt.setInt(3, item.getCantidad());
+                        pstmt.setDouble(4, item.getPrecioUnitario().toDouble());
+                        pstmt.setDouble(5, item.getSubtotal().toDouble());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
                 }
+                
+                // Actualizar los resúmenes diarios en la misma transacción
+                resumenVentasDAO.registrar(conn, venta);
+                
+                conn.commit(); // Confirmar transacción
+                return ResultadoVenta.exito(venta);
+                
+            } catch (SQLException e) {
+                conn.rollback(); // Revertir cambios
+                venta.setId(0);
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
-            e.printStackTrace();
-            return false;
             
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                } catch (SQLException e) {
-                    e.printStackTrace();
+        } catch (SQLException e) {
+            // VentaService deja el único registro de la venta fallida (el mensaje de SQLite incluye el código)
+            return ResultadoVenta.fallo(ResultadoVenta.Motivo.ERROR_BASE_DATOS, venta, e.getMessage());
+        }
+    }
+
+    /**
+     * Determina por qué falló el descuento de stock de una línea.
+     * Solo se ejecuta en el camino de error, dentro de la misma transacción.
+     */
+    private ResultadoVenta diagnosticarLinea(Connection conn, Venta venta, int indice) throws SQLException {
+        ItemVenta item = venta.getItems().get(indice);
+        String sql = "SELECT cantidad FROM productos WHERE id = ? AND activo = TRUE";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, item.getProducto().getId());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return ResultadoVenta.falloEnLinea(
+                        ResultadoVenta.Motivo.PRODUCTO_NO_ENCONTRADO, venta, indice, -1);
                 }
+                // El stock leído ya incluye los descuentos de líneas anteriores del mismo producto
+                return ResultadoVenta.falloEnLinea(
+                    ResultadoVenta.Motivo.STOCK_INSUFICIENTE, venta, indice, rs.getInt(1));
             }
         }
     }
@@ -160,129 +191,312 @@ public class VentaDAO {
      * Obtiene todas las ventas
      */
     public List<Venta> obtenerTodos() {
+        return cargarVentas("1 = 1");
+    }
+
+    /**
+     * Obtiene una venta por ID
+     */
+    public Venta obtenerPorId(int id) {
+        List<Venta> ventas = cargarVentas("v.id = ?", id);
+        return ventas.isEmpty() ? null : ventas.get(0);
+    }
+
+    /**
+     * Obtiene varias ventas completas por ID con las mismas consultas por
+     * conjuntos de cargarVentas, en lotes de TAMANO_LOTE_IN ids
+     * 
+     * @param ids IDs de las ventas (los repetidos se ignoran)
+     * @return Ventas encontradas, ordenadas por fecha descendente dentro de cada lote
+     */
+    public List<Venta> obtenerPorIds(Collection<Integer> ids) {
         List<Venta> ventas = new ArrayList<>();
-        String sql = "SELECT * FROM ventas ORDER BY fecha_venta DESC";
-        
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        List<Integer> unicos = new ArrayList<>(new LinkedHashSet<>(ids));
+        unicos.remove(null);
             
-            // Primero, leer todos los datos del ResultSet
-            while (rs.next()) {
-                Venta venta = mapearVentaSinRelaciones(rs);
-                ventas.add(venta);
+        for (int inicio = 0; inicio < unicos.size(); inicio += TAMANO_LOTE_IN) {
+            List<Integer> lote = unicos.subList(inicio, Math.min(inicio + TAMANO_LOTE_IN, unicos.size()));
+            StringBuilder marcadores = new StringBuilder();
+            for (int i = 0; i < lote.size(); i++) {
+                marcadores.append(i > 0 ? ", ?" : "?");
             }
-            
-        } catch (SQLException e) {
-            System.err.println("Error al obtener ventas: " + e.getMessage());
-            e.printStackTrace();
+            ventas.addAll(cargarVentas("v.id IN (" + marcadores + ")", lote.toArray()));
         }
+        return ventas;
+    }
+
+    /**
+     * Obtiene ventas por fecha
+     */
+    public List<Venta> obtenerPorFecha(LocalDate fecha) {
+        return obtenerPorRango(fecha.atStartOfDay(), fecha.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Obtiene las ventas del rango semiabierto [desde, hasta)
+     */
+    public List<Venta> obtenerPorRango(LocalDateTime desde, LocalDateTime hasta) {
+        return obtenerPorRango(desde, hasta, 0);
+    }
+
+    /**
+     * Obtiene las ventas del rango semiabierto [desde, hasta), de la más reciente
+     * a la más antigua.
+     * 
+     * Compara directamente la columna fecha_venta (sin DATE()) para que SQLite
+     * pueda usar idx_ventas_fecha y leer solo las filas del rango.
+     * 
+     * @param desde Inicio del rango (incluido)
+     * @param hasta Fin del rango (excluido)
+     * @param limite Máximo de ventas a devolver (0 o negativo = sin límite)
+     * @return Ventas del rango con sus relaciones
+     */
+    public List<Venta> obtenerPorRango(LocalDateTime desde, LocalDateTime hasta, int limite) {
+        String inicio = formatearLimiteFecha(desde);
+        String fin = formatearLimiteFecha(hasta);
         
-        // Luego, cargar las relaciones (usuario e items) fuera del ResultSet
-        for (Venta venta : ventas) {
-            cargarRelacionesVenta(venta);
+        if (limite > 0) {
+            // El límite se aplica dentro del filtro para que items, usuarios y
+            // productos se carguen solo para las ventas devueltas
+            return cargarVentas("v.id IN (SELECT id FROM ventas WHERE fecha_venta >= ? AND fecha_venta < ? " +
+                               "ORDER BY fecha_venta DESC LIMIT ?)", inicio, fin, limite);
         }
-        
+        return cargarVentas("v.fecha_venta >= ? AND v.fecha_venta < ?", inicio, fin);
+    }
+
+    /**
+     * Obtiene una página de ventas por paginación de clave: las ventas con id
+     * menor que antesDeId, de la más nueva a la más antigua. A diferencia de
+     * OFFSET, el coste no crece con la profundidad de la página.
+     * 
+     * @param antesDeId Id exclusivo desde el que se lee (Integer.MAX_VALUE para la primera página)
+     * @param limite Número máximo de ventas
+     * @return Ventas ordenadas por id descendente
+     */
+    public List<Venta> obtenerPagina(int antesDeId, int limite) {
+        List<Venta> ventas = cargarVentas(
+            "v.id IN (SELECT id FROM ventas WHERE id < ? ORDER BY id DESC LIMIT ?)", antesDeId, limite);
+        ventas.sort(Comparator.comparingInt(Venta::getId).reversed());
         return ventas;
     }
 
     /**
-     * Obtiene una venta por ID
+     * Obtiene los resúmenes de ventas para los listados, con la misma
+     * paginación por clave que obtenerPagina. Es una sola consulta: el nombre
+     * del vendedor sale de un JOIN y el número de items de idx_items_venta,
+     * sin cargar items, productos ni usuarios.
+     * 
+     * @param antesDeId Id exclusivo desde el que se lee (Integer.MAX_VALUE para la primera página)
+     * @param limite Número máximo de ventas (0 o negativo = sin límite)
+     * @return Resúmenes ordenados por id descendente
      */
-    public Venta obtenerPorId(int id) {
-        String sql = "SELECT * FROM ventas WHERE id = ?";
-        Venta venta = null;
-        
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
+    public List<VentaResumen> obtenerResumenes(int antesDeId, int limite) {
+        List<VentaResumen> resumenes = new ArrayList<>();
+        String sql = """
+            SELECT v.id, v.fecha_venta, v.usuario_id, v.total, u.nombre AS vendedor,
+                   (SELECT COUNT(*) FROM items_venta iv WHERE iv.venta_id = v.id) AS items
+            FROM ventas v
+            LEFT JOIN usuarios u ON u.id = v.usuario_id
+            WHERE v.id < ?
+            ORDER BY v.id DESC
+            LIMIT ?
+        """;
             
+        try (Connection conn = DatabaseManager.getInstance().getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                
+            pstmt.setInt(1, antesDeId);
+            pstmt.setInt(2, limite > 0 ? limite : -1);
             try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    venta = mapearVentaSinRelaciones(rs);
+                while (rs.next()) {
+                    resumenes.add(new VentaResumen(
+                        rs.getInt("id"),
+                        LocalDateTime.parse(rs.getString("fecha_venta")),
+                        rs.getInt("usuario_id"),
+                        rs.getString("vendedor"),
+                        rs.getInt("items"),
+                        Money.deDouble(rs.getDouble("total"))
+                    ));
                 }
             }
-            
+                
         } catch (SQLException e) {
-            System.err.println("Error al obtener venta: " + e.getMessage());
-            e.printStackTrace();
-        }
-        
-        // Cargar relaciones fuera del ResultSet
-        if (venta != null) {
-            cargarRelacionesVenta(venta);
+            logger.error("Error al obtener resúmenes de ventas", e);
         }
-        
-        return venta;
+            
+        return resumenes;
     }
 
     /**
-     * Obtiene ventas por fecha
+     * Obtiene los ids de todas las ventas, del más nuevo al más antiguo. Solo
+     * recorre la clave primaria, sin leer las filas.
      */
-    public List<Venta> obtenerPorFecha(LocalDate fecha) {
-        List<Venta> ventas = new ArrayList<>();
-        String sql = "SELECT * FROM ventas WHERE DATE(fecha_venta) = ? " +
-                    "ORDER BY fecha_venta DESC";
-        
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    public List<Integer> obtenerIds() {
+        List<Integer> ids = new ArrayList<>();
+        String sql = "SELECT id FROM ventas ORDER BY id DESC";
             
-            pstmt.setString(1, fecha.toString());
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    Venta venta = mapearVentaSinRelaciones(rs);
-                    ventas.add(venta);
-                }
+        try (Connection conn = DatabaseManager.getInstance().getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+                
+            while (rs.next()) {
+                ids.add(rs.getInt("id"));
             }
-            
+                
         } catch (SQLException e) {
-            System.err.println("Error al obtener ventas por fecha: " + e.getMessage());
-            e.printStackTrace();
-        }
-        
-        // Cargar relaciones fuera del ResultSet
-        for (Venta venta : ventas) {
-            cargarRelacionesVenta(venta);
+            logger.error("Error al obtener ids de ventas", e);
         }
-        
-        return ventas;
+            
+        return ids;
     }
 
     /**
      * Obtiene ventas por usuario
      */
     public List<Venta> obtenerPorUsuario(int usuarioId) {
+        return cargarVentas("v.usuario_id = ?", usuarioId);
+    }
+
+    /**
+     * Carga las ventas que cumplen un filtro junto con su usuario, items y productos.
+     * 
+     * En lugar de consultar usuario, items y producto por cada venta (N+1), se
+     * ejecutan cuatro consultas por conjuntos que reutilizan el mismo filtro y el
+     * grafo se arma en memoria con mapas de identidad por ID. Así cada usuario y
+     * cada producto se instancia una sola vez aunque aparezca en muchas ventas.
+     * 
+     * Los usuarios y productos se cargan aunque estén inactivos, porque una venta
+     * histórica debe seguir mostrando quién la hizo y qué se vendió.
+     * 
+     * @param filtro Condición SQL sobre la tabla ventas (alias "v")
+     * @param parametros Parámetros del filtro
+     * @return Ventas ordenadas por fecha descendente
+     */
+    private List<Venta> cargarVentas(String filtro, Object... parametros) {
+        String sqlVentas = "SELECT v.* FROM ventas v WHERE " + filtro + " ORDER BY v.fecha_venta DESC";
+        String sqlUsuarios = "SELECT * FROM usuarios WHERE id IN " +
+                            "(SELECT v.usuario_id FROM ventas v WHERE " + filtro + ")";
+        String sqlProductos = "SELECT * FROM productos WHERE id IN " +
+                             "(SELECT iv.producto_id FROM items_venta iv " +
+                             "JOIN ventas v ON v.id = iv.venta_id WHERE " + filtro + ")";
+        String sqlItems = "SELECT iv.* FROM items_venta iv " +
+                         "JOIN ventas v ON v.id = iv.venta_id WHERE " + filtro + " ORDER BY iv.id";
+        
         List<Venta> ventas = new ArrayList<>();
-        String sql = "SELECT * FROM ventas WHERE usuario_id = ? " +
-                    "ORDER BY fecha_venta DESC";
+        Map<Integer, Venta> ventasPorId = new HashMap<>();
+        Map<Integer, Usuario> usuariosPorId = new HashMap<>();
+        Map<Integer, Producto> productosPorId = new HashMap<>();
+        Map<Integer, List<ItemVenta>> itemsPorVenta = new HashMap<>();
+        Map<Integer, Money> totalesGuardados = new HashMap<>();
         
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseManager.getInstance().getReadConnection()) {
             
-            pstmt.setInt(1, usuarioId);
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
+            // 1. Ventas
+            try (PreparedStatement pstmt = prepararConFiltro(conn, sqlVentas, parametros);
+                 ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
                     Venta venta = mapearVentaSinRelaciones(rs);
                     ventas.add(venta);
+                    ventasPorId.put(venta.getId(), venta);
+                    totalesGuardados.put(venta.getId(), venta.getTotal());
+                }
+            }
+            
+            if (ventas.isEmpty()) {
+                return ventas;
+            }
+            
+            // 2. Usuarios referenciados por las ventas
+            try (PreparedStatement pstmt = prepararConFiltro(conn, sqlUsuarios, parametros);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Usuario usuario = usuarioDAO.mapearResultSet(rs);
+                    usuariosPorId.put(usuario.getId(), usuario);
+                }
+            }
+            
+            // 3. Productos referenciados por los items
+            try (PreparedStatement pstmt = prepararConFiltro(conn, sqlProductos, parametros);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Producto producto = productoDAO.mapearResultSet(rs);
+                    productosPorId.put(producto.getId(), producto);
+                }
+            }
+            
+            // 4. Items de todas las ventas
+            try (PreparedStatement pstmt = prepararConFiltro(conn, sqlItems, parametros);
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int ventaId = rs.getInt("venta_id");
+                    int productoId = rs.getInt("producto_id");
+                    
+                    Producto producto = productosPorId.get(productoId);
+                    if (producto == null) {
+                        logger.warn("producto no encontrado id={} venta={}", productoId, ventaId);
+                        producto = new Producto();
+                        producto.setId(productoId);
+                        productosPorId.put(productoId, producto);
+                    }
+                    
+                    ItemVenta item = new ItemVenta();
+                    item.setId(rs.getInt("id"));
+                    item.setVenta(ventasPorId.get(ventaId));
+                    // Asignar el producto antes que los importes: setProducto() toma
+                    // el precio actual y aquí se debe conservar el precio de la venta
+                    item.setProducto(producto);
+                    item.setCantidad(rs.getInt("cantidad"));
+                    item.setPrecioUnitario(Money.deDouble(rs.getDouble("precio_unitario")));
+                    item.setSubtotal(Money.deDouble(rs.getDouble("subtotal")));
+                    
+                    itemsPorVenta.computeIfAbsent(ventaId, k -> new ArrayList<>()).add(item);
                 }
             }
             
         } catch (SQLException e) {
-            System.err.println("Error al obtener ventas por usuario: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error al obtener ventas", e);
+            return new ArrayList<>();
         }
         
-        // Cargar relaciones fuera del ResultSet
+        // Armar el grafo en memoria
         for (Venta venta : ventas) {
-            cargarRelacionesVenta(venta);
+            Usuario usuario = usuariosPorId.get(venta.getUsuario().getId());
+            if (usuario != null) {
+                venta.setUsuario(usuario);
+            }
+            venta.setItems(itemsPorVenta.getOrDefault(venta.getId(), new ArrayList<>()));
+            venta.setTotal(totalesGuardados.get(venta.getId()));
         }
         
         return ventas;
     }
 
+    /**
+     * Convierte un límite de rango al formato de texto de fecha_venta.
+     * fecha_venta se guarda como LocalDateTime.toString() ("2025-01-31T14:05:09.123"),
+     * que se ordena cronológicamente como texto. A medianoche se usa solo la fecha
+     * ("2025-01-31"), que también queda antes de los valores con espacio que genera
+     * CURRENT_TIMESTAMP, así los rangos por día incluyen ambos formatos.
+     */
+    private String formatearLimiteFecha(LocalDateTime fecha) {
+        if (fecha.toLocalTime().equals(LocalTime.MIDNIGHT)) {
+            return fecha.toLocalDate().toString();
+        }
+        return fecha.toString();
+    }
+
+    /**
+     * Prepara una sentencia y asigna los parámetros del filtro
+     */
+    private PreparedStatement prepararConFiltro(Connection conn, String sql, Object... parametros) 
+            throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement(sql);
+        for (int i = 0; i < parametros.length; i++) {
+            pstmt.setObject(i + 1, parametros[i]);
+        }
+        return pstmt;
+    }
+
     /**
      * Mapea un ResultSet a un objeto Venta sin cargar relaciones
      * (para evitar stmt pointer is closed)
@@ -290,7 +504,7 @@ public class VentaDAO {
     private Venta mapearVentaSinRelaciones(ResultSet rs) throws SQLException {
         Venta venta = new Venta();
         venta.setId(rs.getInt("id"));
-        venta.setTotal(rs.getBigDecimal("total"));
+        venta.setTotal(Money.deDouble(rs.getDouble("total")));
         venta.setFechaVenta(LocalDateTime.parse(rs.getString("fecha_venta")));
         
         // Guardar solo el ID del usuario para cargarlo después
@@ -301,93 +515,40 @@ public class VentaDAO {
         
         return venta;
     }
-    
-    /**
-     * Carga las relaciones de una venta (usuario e items)
-     * Se ejecuta fuera del ResultSet original para evitar conflictos
-     */
-    private void cargarRelacionesVenta(Venta venta) {
-        // Cargar usuario completo
-        int usuarioId = venta.getUsuario().getId();
-        Usuario usuario = usuarioDAO.obtenerPorId(usuarioId);
-        if (usuario != null) {
-            venta.setUsuario(usuario);
-        }
-        
-        // Cargar items de la venta
-        cargarItemsVenta(venta);
-    }
 
     /**
-     * Carga los items de una venta
+     * Elimina una venta (eliminación física) junto con sus items,
+     * descontándola de los resúmenes diarios en la misma transacción
      */
-    private void cargarItemsVenta(Venta venta) {
-        String sql = "SELECT * FROM items_venta WHERE venta_id = ?";
-        
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, venta.getId());
-            
-            List<ItemVenta> items = new ArrayList<>();
-            
-            try (ResultSet rs = pstmt.executeQuery()) {
-                // Primero, leer todos los datos del ResultSet
-                while (rs.next()) {
-                    ItemVenta item = new ItemVenta();
-                    item.setId(rs.getInt("id"));
-                    item.setVenta(venta);
-                    item.setCantidad(rs.getInt("cantidad"));
-                    item.setPrecioUnitario(rs.getBigDecimal("precio_unitario"));
-                    item.setSubtotal(rs.getBigDecimal("subtotal"));
-                    
-                    // Guardar el ID del producto para cargarlo después
-                    int productoId = rs.getInt("producto_id");
-                    
-                    // Crear un producto temporal con solo el ID
-                    Producto productoTemp = new Producto();
-                    productoTemp.setId(productoId);
-                    item.setProducto(productoTemp);
-                    
-                    items.add(item);
+    public boolean eliminar(int id) {
+        try (Connection conn = DatabaseManager.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                resumenVentasDAO.descontar(conn, id);
+                
+                try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM items_venta WHERE venta_id = ?")) {
+                    pstmt.setInt(1, id);
+                    pstmt.executeUpdate();
                 }
-            }
-            
-            // Ahora, cargar los productos fuera del ResultSet
-            for (ItemVenta item : items) {
-                int productoId = item.getProducto().getId();
-                Producto producto = productoDAO.obtenerPorId(productoId);
-                if (producto != null) {
-                    item.setProducto(producto);
-                } else {
-                    System.err.println("⚠️ Advertencia: Producto con ID " + productoId + " no encontrado");
+                
+                int filas;
+                try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM ventas WHERE id = ?")) {
+                    pstmt.setInt(1, id);
+                    filas = pstmt.executeUpdate();
                 }
+                
+                conn.commit();
+                return filas > 0;
+                
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
             
-            venta.setItems(items);
-            
-        } catch (SQLException e) {
-            System.err.println("Error al cargar items de venta: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    /**
-     * Elimina una venta (eliminación física)
-     * NOTA: Esto eliminará también los items_venta por CASCADE
-     */
-    public boolean eliminar(int id) {
-        String sql = "DELETE FROM ventas WHERE id = ?";
-        
-        try (Connection conn = DatabaseManager.getInstance().getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            return pstmt.executeUpdate() > 0;
-            
         } catch (SQLException e) {
-            System.err.println("Error al eliminar venta: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Error al eliminar venta id={}", id, e);
             return false;
         }
     }
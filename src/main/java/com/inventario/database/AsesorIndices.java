@@ -0,0 +1,158 @@
+package com.inventario.database;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Analiza los planes de EXPLAIN QUERY PLAN en busca de accesos sin índice
+ *
+ * Clasifica cada paso del plan:
+ * - recorrido completo de una tabla ("SCAN productos"),
+ * - índice automático: SQLite construye un índice temporal en cada ejecución
+ *   porque falta uno permanente,
+ * - recorrido completo de un índice ("SCAN productos USING INDEX ..."),
+ * - ordenamiento en un árbol temporal (ORDER BY / GROUP BY sin índice que lo cubra).
+ *
+ * Los dos primeros casos son accesos sin índice; los otros dos son avisos.
+ * El recorrido de una subconsulta materializada no se reporta: ya es el
+ * resultado (filtrado) de otro paso del plan.
+ *
+ * Es el único clasificador de planes: {@link MonitorConsultas} lo usa para
+ * marcar en tiempo de ejecución las sentencias con accesos sin índice.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class AsesorIndices {
+
+    private static final Pattern RECORRIDO =
+        Pattern.compile("^SCAN (?:TABLE )?(\\w+)(?: AS \\w+)?(?: USING (?:COVERING )?INDEX (\\w+).*)?$");
+    private static final Pattern AUTOMATICO = Pattern.compile("^(?:SEARCH|SCAN) (?:TABLE )?(\\w+).*AUTOMATIC");
+    private static final Pattern ORDENAMIENTO = Pattern.compile("^USE TEMP B-TREE FOR (.+)$");
+    private static final Pattern SUBCONSULTA = Pattern.compile("^(?:MATERIALIZE|CO-ROUTINE) (\\w+)");
+
+    /**
+     * Tipo de acceso detectado en un paso del plan
+     */
+    public enum TipoAcceso {
+        RECORRIDO_TABLA("Recorrido completo de tabla", true),
+        INDICE_AUTOMATICO("Índice automático (falta un índice)", true),
+        RECORRIDO_INDICE("Recorrido completo de índice", false),
+        ORDENAMIENTO_TEMPORAL("Ordenamiento en árbol temporal", false);
+
+        private final String descripcion;
+        private final boolean sinIndice;
+
+        TipoAcceso(String descripcion, boolean sinIndice) {
+            this.descripcion = descripcion;
+            this.sinIndice = sinIndice;
+        }
+
+        public String getDescripcion() {
+            return descripcion;
+        }
+
+        /**
+         * Indica si el acceso no usa ningún índice permanente
+         */
+        public boolean isSinIndice() {
+            return sinIndice;
+        }
+    }
+
+    /**
+     * Paso de un plan que merece revisión
+     */
+    public static final class Hallazgo {
+        private final TipoAcceso tipo;
+        private final String tabla;
+        private final String paso;
+        private final String sql;
+
+        Hallazgo(TipoAcceso tipo, String tabla, String paso, String sql) {
+            this.tipo = tipo;
+            this.tabla = tabla;
+            this.paso = paso;
+            this.sql = sql;
+        }
+
+        public TipoAcceso getTipo() {
+            return tipo;
+        }
+
+        /**
+         * Tabla (o alias) afectada; null en los ordenamientos temporales
+         */
+        public String getTabla() {
+            return tabla;
+        }
+
+        public String getPaso() {
+            return paso;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        @Override
+        public String toString() {
+            return tipo.getDescripcion() + ": " + paso;
+        }
+    }
+
+    /**
+     * Analiza el plan de una sentencia
+     *
+     * @param sql Texto de la sentencia
+     * @param plan Columna "detail" de EXPLAIN QUERY PLAN, un paso por elemento
+     * @return Hallazgos en el orden del plan
+     */
+    public List<Hallazgo> analizar(String sql, List<String> plan) {
+        List<Hallazgo> hallazgos = new ArrayList<>();
+        Set<String> subconsultas = new HashSet<>();
+        for (String linea : plan) {
+            Matcher subconsulta = SUBCONSULTA.matcher(linea.trim());
+            if (subconsulta.find()) {
+                subconsultas.add(subconsulta.group(1));
+            }
+        }
+
+        for (String linea : plan) {
+            String paso = linea.trim();
+
+            Matcher automatico = AUTOMATICO.matcher(paso);
+            if (automatico.find()) {
+                hallazgos.add(new Hallazgo(TipoAcceso.INDICE_AUTOMATICO, automatico.group(1), paso, sql));
+                continue;
+            }
+
+            Matcher recorrido = RECORRIDO.matcher(paso);
+            if (recorrido.matches() && !paso.contains("CONSTANT ROW") && !subconsultas.contains(recorrido.group(1))) {
+                TipoAcceso tipo = recorrido.group(2) == null ? TipoAcceso.RECORRIDO_TABLA : TipoAcceso.RECORRIDO_INDICE;
+                hallazgos.add(new Hallazgo(tipo, recorrido.group(1), paso, sql));
+                continue;
+            }
+
+            if (ORDENAMIENTO.matcher(paso).matches()) {
+                hallazgos.add(new Hallazgo(TipoAcceso.ORDENAMIENTO_TEMPORAL, null, paso, sql));
+            }
+        }
+        return hallazgos;
+    }
+
+    /**
+     * Analiza todas las sentencias registradas por el monitor
+     */
+    public List<Hallazgo> analizar(MonitorConsultas monitor) {
+        List<Hallazgo> hallazgos = new ArrayList<>();
+        for (MonitorConsultas.EstadisticaConsulta estadistica : monitor.obtenerEstadisticas()) {
+            hallazgos.addAll(analizar(estadistica.getSql(), estadistica.getPlan()));
+        }
+        return hallazgos;
+    }
+}
@@ -0,0 +1,364 @@
+package com.inventario.database;
+
+import com.inventario.metricas.RegistroMetricas;
+import com.inventario.metricas.Temporizador;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import org.sqlite.SQLiteConfig;
+
+/**
+ * Pool de conexiones SQLite en modo WAL
+ * Mantiene una única conexión de escritura serializada y un grupo de
+ * conexiones de solo lectura, de modo que los reportes no bloquean las ventas.
+ *
+ * Las conexiones entregadas son envoltorios: al llamar close() vuelven al pool
+ * en lugar de cerrarse, por lo que los DAO pueden seguir usando try-with-resources.
+ * Si se indica un {@link MonitorConsultas}, también se envuelven las sentencias
+ * que crean para medirlas y capturar sus planes.
+ *
+ * Cada préstamo pedido desde un DAO se mide en {@link RegistroMetricas} con
+ * el nombre del método que pidió la conexión ("ProductoDAO.obtenerPorId"),
+ * desde que se pide (incluida la espera) hasta que se devuelve. Así los DAO
+ * no necesitan envolver cada método en un temporizador.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class ConnectionPool {
+
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+
+    private static final int BUSY_TIMEOUT_MS = 5000;
+    private static final long ESPERA_LECTOR_SEGUNDOS = 30;
+    private static final String PAQUETE_BASE_DATOS = "com.inventario.database.";
+    private static final String PAQUETE_DAO = "com.inventario.dao.";
+    private static final StackWalker pila = StackWalker.getInstance();
+    private static final RegistroMetricas metricas = RegistroMetricas.getInstance();
+    // Préstamo medido en curso en el hilo: los préstamos anidados (p. ej. el
+    // escritor reentrante) quedan dentro de esa medición
+    private static final ThreadLocal<Temporizador.Medicion> medicionEnCurso = new ThreadLocal<>();
+
+    // PRAGMAs aplicados a todas las conexiones
+    private static final String[] PRAGMAS_COMUNES = {
+        "PRAGMA cache_size = -16000",      // ~16 MB de caché de páginas
+        "PRAGMA mmap_size = 268435456",    // 256 MB de E/S mapeada en memoria
+        "PRAGMA temp_store = MEMORY"
+    };
+
+    private final String url;
+    private final int maxLectores;
+    private final ReentrantLock bloqueoEscritor = new ReentrantLock(true);
+    private final BlockingQueue<Connection> lectoresLibres;
+    private final List<Connection> lectoresCreados = new ArrayList<>();
+    private final MonitorConsultas monitor;
+    private Connection escritor;
+    private boolean cerrado;
+
+    public ConnectionPool(String url, int maxLectores) {
+        this(url, maxLectores, null);
+    }
+
+    /**
+     * @param monitor Monitor de sentencias, o null para no monitorear
+     */
+    public ConnectionPool(String url, int maxLectores, MonitorConsultas monitor) {
+        this.url = url;
+        this.maxLectores = maxLectores;
+        this.lectoresLibres = new ArrayBlockingQueue<>(maxLectores);
+        this.monitor = monitor;
+    }
+
+    /**
+     * Obtiene la conexión de escritura. Solo un hilo la usa a la vez; el mismo
+     * hilo puede volver a pedirla (reentrante) sin bloquearse.
+     *
+     * @return Conexión de escritura envuelta
+     * @throws SQLException Si hay error al abrir la conexión
+     */
+    public Connection obtenerEscritor() throws SQLException {
+        Temporizador.Medicion medicion = iniciarMedicion();
+        bloqueoEscritor.lock();
+        try {
+            synchronized (this) {
+                verificarAbierto();
+                if (escritor == null || escritor.isClosed()) {
+                    escritor = abrirEscritor();
+                }
+            }
+            return envolver(escritor, true, medicion);
+        } catch (SQLException | RuntimeException e) {
+            bloqueoEscritor.unlock();
+            terminarMedicion(medicion);
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene una conexión de solo lectura del pool
+     *
+     * @return Conexión de lectura envuelta
+     * @throws SQLException Si no hay conexión disponible o hay error al abrirla
+     */
+    public Connection obtenerLector() throws SQLException {
+        Temporizador.Medicion medicion = iniciarMedicion();
+        try {
+            return envolver(tomarLector(), false, medicion);
+        } catch (SQLException | RuntimeException e) {
+            terminarMedicion(medicion);
+            throw e;
+        }
+    }
+
+    private Connection tomarLector() throws SQLException {
+        Connection conexion = lectoresLibres.poll();
+
+        if (conexion == null) {
+            synchronized (this) {
+                verificarAbierto();
+                if (lectoresCreados.size() < maxLectores) {
+                    conexion = abrirLector();
+                    lectoresCreados.add(conexion);
+                }
+            }
+        }
+
+        if (conexion == null) {
+            try {
+                conexion = lectoresLibres.poll(ESPERA_LECTOR_SEGUNDOS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrumpido esperando una conexión de lectura", e);
+            }
+            if (conexion == null) {
+                throw new SQLException("No hay conexiones de lectura disponibles");
+            }
+        }
+
+        return conexion;
+    }
+
+    /**
+     * Cierra todas las conexiones físicas del pool
+     */
+    public synchronized void cerrar() {
+        cerrado = true;
+        for (Connection conexion : lectoresCreados) {
+            cerrarSilencioso(conexion);
+        }
+        lectoresCreados.clear();
+        lectoresLibres.clear();
+        if (escritor != null) {
+            cerrarSilencioso(escritor);
+            escritor = null;
+        }
+    }
+
+    private void verificarAbierto() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+    }
+
+    /**
+     * Abre la conexión de escritura y activa el modo WAL
+     */
+    private Connection abrirEscritor() throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        // En WAL, NORMAL es seguro ante caídas de la aplicación y evita un fsync por commit
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setBusyTimeout(BUSY_TIMEOUT_MS);
+
+        Connection conexion = DriverManager.getConnection(url, config.toProperties());
+        aplicarPragmas(conexion);
+        logger.info("Conexión de escritura abierta en modo WAL");
+        return conexion;
+    }
+
+    /**
+     * Abre una conexión de solo lectura
+     */
+    private Connection abrirLector() throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        config.setBusyTimeout(BUSY_TIMEOUT_MS);
+
+        Connection conexion = DriverManager.getConnection(url, config.toProperties());
+        aplicarPragmas(conexion);
+        return conexion;
+    }
+
+    private void aplicarPragmas(Connection conexion) throws SQLException {
+        try (Statement stmt = conexion.createStatement()) {
+            for (String pragma : PRAGMAS_COMUNES) {
+                stmt.execute(pragma);
+            }
+        }
+    }
+
+    /**
+     * Devuelve una conexión al pool restaurando su estado
+     */
+    private void liberar(Connection conexion, boolean esEscritor) {
+        if (esEscritor) {
+            try {
+                // Solo la última liberación del hilo restaura el estado de la transacción
+                if (bloqueoEscritor.getHoldCount() == 1) {
+                    restaurarEstado(conexion);
+                }
+            } finally {
+                bloqueoEscritor.unlock();
+            }
+            return;
+        }
+
+        restaurarEstado(conexion);
+        synchronized (this) {
+            if (cerrado) {
+                cerrarSilencioso(conexion);
+                return;
+            }
+        }
+        lectoresLibres.offer(conexion);
+    }
+
+    private void restaurarEstado(Connection conexion) {
+        try {
+            if (!conexion.isClosed() && !conexion.getAutoCommit()) {
+                logger.warning("Conexión devuelta con una transacción abierta; se revierte");
+                conexion.rollback();
+                conexion.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.severe("Error al restaurar el estado de la conexión: " + e.getMessage());
+        }
+    }
+
+    private void cerrarSilencioso(Connection conexion) {
+        try {
+            conexion.close();
+        } catch (SQLException e) {
+            logger.severe("Error al cerrar la conexión: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Empieza a medir un préstamo si lo pide un DAO y el hilo no tiene ya uno
+     * medido. El nombre es el del método del DAO más externo de la pila, de
+     * modo que los métodos auxiliares privados cuentan para el método público.
+     * Los constructores (que inicializan la base de datos) no se miden.
+     *
+     * @return Medición en curso, o null si el préstamo no se mide
+     */
+    private static Temporizador.Medicion iniciarMedicion() {
+        if (medicionEnCurso.get() != null) {
+            return null;
+        }
+        String metodo = pila.walk(marcos -> marcos
+            .dropWhile(marco -> marco.getClassName().startsWith(PAQUETE_BASE_DATOS))
+            .takeWhile(marco -> marco.getClassName().startsWith(PAQUETE_DAO))
+            .reduce((interno, externo) -> externo)
+            .filter(marco -> !marco.getMethodName().startsWith("<"))
+            .map(marco -> marco.getClassName().substring(PAQUETE_DAO.length()) + "." + marco.getMethodName())
+            .orElse(null));
+        if (metodo == null) {
+            return null;
+        }
+        Temporizador.Medicion medicion = metricas.medir(metodo);
+        medicionEnCurso.set(medicion);
+        return medicion;
+    }
+
+    private static void terminarMedicion(Temporizador.Medicion medicion) {
+        if (medicion != null) {
+            medicion.close();
+            if (medicionEnCurso.get() == medicion) {
+                medicionEnCurso.remove();
+            }
+        }
+    }
+
+    private Connection envolver(Connection conexion, boolean esEscritor, Temporizador.Medicion medicion) {
+        return (Connection) Proxy.newProxyInstance(
+            ConnectionPool.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            new ConexionPrestada(conexion, esEscritor, medicion)
+        );
+    }
+
+    /**
+     * Manejador del envoltorio: intercepta close() para devolver la conexión
+     */
+    private class ConexionPrestada implements InvocationHandler {
+        private final Connection conexion;
+        private final boolean esEscritor;
+        private final Temporizador.Medicion medicion;
+        private boolean liberada;
+
+        ConexionPrestada(Connection conexion, boolean esEscritor, Temporizador.Medicion medicion) {
+            this.conexion = conexion;
+            this.esEscritor = esEscritor;
+            this.medicion = medicion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!liberada) {
+                        liberada = true;
+                        try {
+                            liberar(conexion, esEscritor);
+                        } finally {
+                            terminarMedicion(medicion);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return liberada || conexion.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            if (liberada) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+
+            Object resultado;
+            try {
+                resultado = method.invoke(conexion, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if (monitor != null && resultado instanceof Statement) {
+                // prepareStatement/prepareCall reciben el SQL; createStatement lo recibe al ejecutar
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return monitor.envolver((Statement) resultado, (Connection) proxy, conexion, sql);
+            }
+            return resultado;
+        }
+    }
+}
@@ -0,0 +1,472 @@
+package com.inventario.database;
+
+import com.inventario.model.Money;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Logger;
+
+/**
+ * Genera datos sintéticos con distribuciones realistas para pruebas de carga
+ * y de larga duración: vendedores, catálogo de productos e historial de ventas.
+ *
+ * - La popularidad de los productos sigue una ley de Zipf: unos pocos productos
+ *   concentran la mayoría de las ventas y el resto forma una cola larga.
+ * - Las ventas por día siguen una curva estacional (diciembre alto, enero y
+ *   febrero bajos, repunte en noviembre), con más actividad los fines de semana
+ *   y una ligera tendencia de crecimiento; dentro del día se concentran en las
+ *   horas del almuerzo y de la tarde.
+ * - Las canastas tienen varias líneas de productos distintos (la mayoría de 1 a 3)
+ *   y cantidades pequeñas.
+ *
+ * Las ventas se generan en orden cronológico con ids explícitos, de modo que los
+ * índices por id y por fecha crecen siempre por el final, y se insertan en lotes
+ * de {@value #VENTAS_POR_TRANSACCION} ventas por transacción. Con la misma semilla
+ * y la misma configuración el resultado es idéntico (salvo la fecha de referencia,
+ * que es el día de la ejecución).
+ *
+ * Los datos se añaden a los existentes: los códigos y nombres de usuario generados
+ * continúan la numeración de ejecuciones anteriores.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class GeneradorDatosSinteticos {
+
+    private static final Logger logger = Logger.getLogger(GeneradorDatosSinteticos.class.getName());
+
+    private static final int VENTAS_POR_TRANSACCION = 20_000;
+    private static final int MAX_LINEAS = 8;
+
+    // Probabilidad acumulada de canastas de 1..MAX_LINEAS líneas
+    private static final double[] LINEAS_ACUMULADAS = acumular(38, 26, 15, 9, 6, 3, 2, 1);
+    // Probabilidad acumulada de cantidades 1..5 por línea
+    private static final double[] CANTIDAD_ACUMULADA = acumular(70, 18, 7, 3, 2);
+    // Peso de cada hora del día (0 a 23): cerrado de noche, picos a mediodía y por la tarde
+    private static final double[] PESO_HORA = {
+        0, 0, 0, 0, 0, 0, 0, 1, 3, 5, 7, 9, 12, 11, 7, 6, 7, 9, 11, 10, 7, 4, 1, 0
+    };
+    // Factor estacional por mes (enero a diciembre)
+    private static final double[] FACTOR_MES = {
+        0.75, 0.80, 0.90, 0.95, 1.05, 1.00, 1.05, 0.95, 0.95, 1.00, 1.30, 1.80
+    };
+    private static final double TENDENCIA_ANUAL = 0.15;
+
+    private static final String[] CATEGORIAS = {"Electrónica", "Ropa", "Hogar", "Deportes", "Otros"};
+    // Precio base por categoría (en pesos) y catálogo de nombres
+    private static final long[] PRECIO_BASE = {900_000, 90_000, 350_000, 150_000, 60_000};
+    private static final String[][] TIPOS = {
+        {"Laptop", "Teléfono", "Monitor", "Audífonos", "Teclado", "Tablet", "Parlante", "Cámara"},
+        {"Camiseta", "Pantalón", "Chaqueta", "Zapatos", "Gorra", "Vestido", "Buzo", "Medias"},
+        {"Sofá", "Mesa", "Lámpara", "Silla", "Cafetera", "Licuadora", "Colchón", "Olla"},
+        {"Balón", "Bicicleta", "Raqueta", "Pesas", "Guantes", "Colchoneta", "Casco", "Termo"},
+        {"Libro", "Cuaderno", "Mochila", "Reloj", "Juguete", "Paraguas", "Maleta", "Agenda"}
+    };
+    private static final String[] MARCAS = {
+        "Nike", "Apple", "Samsung", "Lenovo", "Sony", "Adidas", "Philips", "Oster", "Logitech",
+        "Xiaomi", "Puma", "Imusa", "Casio", "Totto", "Norma", "HP"
+    };
+    private static final String[] MODELOS = {
+        "Pro", "Básico", "Deportivo", "Clásico", "Moderno", "Inalámbrico", "Compacto", "Premium",
+        "Plus", "Lite", "Max", "Eco"
+    };
+    private static final String[] NOMBRES = {
+        "Ana", "Carlos", "María", "Luis", "Laura", "Andrés", "Camila", "Jorge", "Valentina", "Diego",
+        "Sofía", "Felipe", "Daniela", "Santiago", "Paula", "Miguel"
+    };
+    private static final String[] APELLIDOS = {
+        "García", "Rodríguez", "Martínez", "López", "Gómez", "Pérez", "Sánchez", "Ramírez",
+        "Torres", "Díaz", "Vargas", "Castro", "Rojas", "Moreno", "Ortiz", "Herrera"
+    };
+
+    private int usuarios = 20;
+    private int productos = 5_000;
+    private int ventas = 100_000;
+    private int dias = 365;
+    private double exponenteZipf = 1.0;
+    private long semilla = 42L;
+
+    private long ventasGeneradas;
+    private long itemsGenerados;
+
+    public void setUsuarios(int usuarios) {
+        this.usuarios = usuarios;
+    }
+
+    public void setProductos(int productos) {
+        this.productos = productos;
+    }
+
+    public void setVentas(int ventas) {
+        this.ventas = ventas;
+    }
+
+    public void setDias(int dias) {
+        this.dias = dias;
+    }
+
+    public void setExponenteZipf(double exponenteZipf) {
+        this.exponenteZipf = exponenteZipf;
+    }
+
+    public void setSemilla(long semilla) {
+        this.semilla = semilla;
+    }
+
+    public long getVentasGeneradas() {
+        return ventasGeneradas;
+    }
+
+    public long getItemsGenerados() {
+        return itemsGenerados;
+    }
+
+    /**
+     * Genera los datos en la base de datos indicada
+     *
+     * @param conn Conexión de escritura (se usa con transacciones propias)
+     * @throws SQLException Si hay error al insertar; la transacción en curso se revierte
+     */
+    public void generar(Connection conn) throws SQLException {
+        if (dias <= 0) {
+            throw new IllegalArgumentException("El número de días debe ser positivo");
+        }
+
+        Random random = new Random(semilla);
+        ventasGeneradas = 0;
+        itemsGenerados = 0;
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            insertarUsuarios(conn, random);
+            insertarProductos(conn, random);
+            conn.commit();
+
+            List<Integer> vendedores = leerEnteros(conn,
+                "SELECT id FROM usuarios WHERE activo = 1 AND rol IN ('VENDEDOR', 'ADMIN') ORDER BY id");
+            if (vendedores.isEmpty()) {
+                vendedores = leerEnteros(conn, "SELECT id FROM usuarios ORDER BY id");
+            }
+            insertarVentas(conn, random, vendedores);
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void insertarUsuarios(Connection conn, Random random) throws SQLException {
+        if (usuarios <= 0) {
+            return;
+        }
+
+        int desde = contarFilas(conn, "SELECT COUNT(*) FROM usuarios WHERE username LIKE 'sintetico%'");
+        String sql = "INSERT INTO usuarios (username, password, nombre, email, rol, activo) VALUES (?, ?, ?, ?, ?, TRUE)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= usuarios; i++) {
+                String username = String.format("sintetico%04d", desde + i);
+                stmt.setString(1, username);
+                stmt.setString(2, username + "123");
+                stmt.setString(3, elegir(NOMBRES, random) + " " + elegir(APELLIDOS, random));
+                stmt.setString(4, username + "@inventario.com");
+                // Uno de cada diez es administrador
+                stmt.setString(5, i % 10 == 0 ? "ADMIN" : "VENDEDOR");
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        logger.info("Usuarios sintéticos insertados: " + usuarios);
+    }
+
+    private void insertarProductos(Connection conn, Random random) throws SQLException {
+        if (productos <= 0) {
+            return;
+        }
+
+        int desde = contarFilas(conn, "SELECT COUNT(*) FROM productos WHERE codigo LIKE 'SIN%'");
+        String sql = "INSERT INTO productos (codigo, nombre, descripcion, precio, cantidad, categoria, activo) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, TRUE)";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int i = 1; i <= productos; i++) {
+                int categoria = random.nextInt(CATEGORIAS.length);
+                String tipo = elegir(TIPOS[categoria], random);
+                String marca = elegir(MARCAS, random);
+                String modelo = elegir(MODELOS, random);
+
+                // Precio log-normal alrededor del precio base de la categoría, redondeado a centenas
+                double factor = Math.exp(random.nextGaussian() * 0.6);
+                long precio = Math.max(100, Math.round(PRECIO_BASE[categoria] * factor / 100.0) * 100);
+
+                stmt.setString(1, String.format("SIN%06d", desde + i));
+                stmt.setString(2, tipo + " " + marca + " " + modelo);
+                stmt.setString(3, tipo + " " + marca + " línea " + modelo.toLowerCase() + " ref. " + (desde + i));
+                stmt.setDouble(4, Money.dePesos(precio).toDouble());
+                stmt.setInt(5, random.nextInt(500));
+                stmt.setString(6, CATEGORIAS[categoria]);
+                stmt.addBatch();
+
+                if (i % 10_000 == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+        logger.info("Productos sintéticos insertados: " + productos);
+    }
+
+    private void insertarVentas(Connection conn, Random random, List<Integer> vendedores) throws SQLException {
+        if (ventas <= 0) {
+            return;
+        }
+
+        // Catálogo activo: el orden de popularidad se baraja para que no dependa del id
+        List<Integer> idsProductos = new ArrayList<>();
+        List<Money> precios = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, precio FROM productos WHERE activo = 1 ORDER BY id")) {
+            while (rs.next()) {
+                idsProductos.add(rs.getInt(1));
+                precios.add(Money.deDouble(rs.getDouble(2)));
+            }
+        }
+        if (idsProductos.isEmpty()) {
+            throw new IllegalStateException("No hay productos activos para generar ventas");
+        }
+        if (vendedores.isEmpty()) {
+            throw new IllegalStateException("No hay usuarios para asignar las ventas");
+        }
+
+        int[] porRango = barajar(idsProductos.size(), random);
+        double[] popularidad = zipfAcumulada(idsProductos.size(), exponenteZipf);
+        // La actividad de los vendedores también es desigual
+        double[] actividadVendedores = zipfAcumulada(vendedores.size(), 0.5);
+
+        int siguienteId = contarFilas(conn, "SELECT COALESCE(MAX(id), 0) FROM ventas") + 1;
+        LocalDate primerDia = LocalDate.now().minusDays(dias - 1L);
+        long[] ventasPorDia = repartirPorDia(primerDia, random);
+        double[] horasAcumuladas = acumular(PESO_HORA);
+
+        String sqlVenta = "INSERT INTO ventas (id, usuario_id, total, fecha_venta) VALUES (?, ?, ?, ?)";
+        String sqlItem = "INSERT INTO items_venta (venta_id, producto_id, cantidad, precio_unitario, subtotal) " +
+                        "VALUES (?, ?, ?, ?, ?)";
+
+        long inicio = System.currentTimeMillis();
+        int[] indicesCanasta = new int[MAX_LINEAS];
+
+        try (PreparedStatement stmtVenta = conn.prepareStatement(sqlVenta);
+             PreparedStatement stmtItem = conn.prepareStatement(sqlItem)) {
+
+            int pendientes = 0;
+            for (int d = 0; d < dias; d++) {
+                LocalDate dia = primerDia.plusDays(d);
+                int[] segundos = horasDelDia((int) ventasPorDia[d], horasAcumuladas, random);
+
+                for (int segundo : segundos) {
+                    int ventaId = siguienteId++;
+                    int lineas = Math.min(muestrear(LINEAS_ACUMULADAS, random) + 1, idsProductos.size());
+                    long centavosTotal = 0;
+
+                    for (int l = 0; l < lineas; l++) {
+                        int indice = productoDistinto(popularidad, porRango, indicesCanasta, l, random);
+                        indicesCanasta[l] = indice;
+
+                        int cantidad = muestrear(CANTIDAD_ACUMULADA, random) + 1;
+                        Money precio = precios.get(indice);
+                        Money subtotal = precio.multiplicar(cantidad);
+                        centavosTotal += subtotal.getCentavos();
+
+                        stmtItem.setInt(1, ventaId);
+                        stmtItem.setInt(2, idsProductos.get(indice));
+                        stmtItem.setInt(3, cantidad);
+                        stmtItem.setDouble(4, precio.toDouble());
+                        stmtItem.setDouble(5, subtotal.toDouble());
+                        stmtItem.addBatch();
+                    }
+
+                    stmtVenta.setInt(1, ventaId);
+                    stmtVenta.setInt(2, vendedores.get(muestrear(actividadVendedores, random)));
+                    stmtVenta.setDouble(3, Money.deCentavos(centavosTotal).toDouble());
+                    stmtVenta.setString(4, dia.atStartOfDay().plusSeconds(segundo).toString());
+                    stmtVenta.addBatch();
+
+                    ventasGeneradas++;
+                    itemsGenerados += lineas;
+
+                    if (++pendientes == VENTAS_POR_TRANSACCION) {
+                        confirmarLote(conn, stmtVenta, stmtItem, inicio);
+                        pendientes = 0;
+                    }
+                }
+            }
+            if (pendientes > 0) {
+                confirmarLote(conn, stmtVenta, stmtItem, inicio);
+            }
+        }
+    }
+
+    private void confirmarLote(Connection conn, PreparedStatement stmtVenta, PreparedStatement stmtItem,
+                               long inicio) throws SQLException {
+        stmtVenta.executeBatch();
+        stmtItem.executeBatch();
+        conn.commit();
+
+        if (ventasGeneradas % (VENTAS_POR_TRANSACCION * 25L) == 0) {
+            long segundos = Math.max(1, (System.currentTimeMillis() - inicio) / 1000);
+            logger.info(String.format("Ventas generadas: %,d de %,d (%,d items, %,d items/s)",
+                                      ventasGeneradas, ventas, itemsGenerados, itemsGenerados / segundos));
+        }
+    }
+
+    /**
+     * Reparte el total de ventas entre los días según el peso de cada día,
+     * con un ruido de ±10 % para que no todos los lunes sean iguales
+     */
+    private long[] repartirPorDia(LocalDate primerDia, Random random) {
+        double[] pesos = new double[dias];
+        double suma = 0;
+        for (int d = 0; d < dias; d++) {
+            LocalDate dia = primerDia.plusDays(d);
+            double peso = FACTOR_MES[dia.getMonthValue() - 1]
+                        * factorDiaSemana(dia.getDayOfWeek())
+                        * (1.0 + TENDENCIA_ANUAL * d / 365.0)
+                        * (0.9 + 0.2 * random.nextDouble());
+            pesos[d] = peso;
+            suma += peso;
+        }
+
+        // Redondeo sobre el acumulado: la suma final es exactamente el total pedido
+        long[] porDia = new long[dias];
+        double acumulado = 0;
+        long asignadas = 0;
+        for (int d = 0; d < dias; d++) {
+            acumulado += pesos[d];
+            long hasta = Math.round(ventas * acumulado / suma);
+            porDia[d] = hasta - asignadas;
+            asignadas = hasta;
+        }
+        return porDia;
+    }
+
+    private static double factorDiaSemana(DayOfWeek dia) {
+        switch (dia) {
+            case SATURDAY:
+                return 1.35;
+            case SUNDAY:
+                return 1.10;
+            case FRIDAY:
+                return 1.15;
+            case MONDAY:
+                return 0.85;
+            default:
+                return 0.95;
+        }
+    }
+
+    /**
+     * Segundos del día (ordenados) en que ocurren las ventas de un día
+     */
+    private static int[] horasDelDia(int cantidad, double[] horasAcumuladas, Random random) {
+        int[] segundos = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            segundos[i] = muestrear(horasAcumuladas, random) * 3600 + random.nextInt(3600);
+        }
+        Arrays.sort(segundos);
+        return segundos;
+    }
+
+    /**
+     * Elige un producto según su popularidad que no esté ya en la canasta
+     */
+    private static int productoDistinto(double[] popularidad, int[] porRango, int[] canasta, int lineas,
+                                        Random random) {
+        while (true) {
+            int indice = porRango[muestrear(popularidad, random)];
+            boolean repetido = false;
+            for (int i = 0; i < lineas && !repetido; i++) {
+                repetido = canasta[i] == indice;
+            }
+            if (!repetido) {
+                return indice;
+            }
+        }
+    }
+
+    /**
+     * Distribución acumulada de Zipf: P(rango k) proporcional a 1 / k^s
+     */
+    private static double[] zipfAcumulada(int n, double exponente) {
+        double[] pesos = new double[n];
+        for (int k = 0; k < n; k++) {
+            pesos[k] = 1.0 / Math.pow(k + 1, exponente);
+        }
+        return acumular(pesos);
+    }
+
+    private static double[] acumular(double... pesos) {
+        double[] acumulada = new double[pesos.length];
+        double suma = 0;
+        for (int i = 0; i < pesos.length; i++) {
+            suma += pesos[i];
+            acumulada[i] = suma;
+        }
+        for (int i = 0; i < acumulada.length; i++) {
+            acumulada[i] /= suma;
+        }
+        return acumulada;
+    }
+
+    /**
+     * Índice elegido según una distribución acumulada (búsqueda binaria)
+     */
+    private static int muestrear(double[] acumulada, Random random) {
+        int posicion = Arrays.binarySearch(acumulada, random.nextDouble());
+        int indice = posicion >= 0 ? posicion : -posicion - 1;
+        return Math.min(indice, acumulada.length - 1);
+    }
+
+    private static int[] barajar(int n, Random random) {
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temporal = indices[i];
+            indices[i] = indices[j];
+            indices[j] = temporal;
+        }
+        return indices;
+    }
+
+    private static String elegir(String[] opciones, Random random) {
+        return opciones[random.nextInt(opciones.length)];
+    }
+
+    private static int contarFilas(Connection conn, String sql) throws SQLException {
+        return leerEnteros(conn, sql).get(0);
+    }
+
+    private static List<Integer> leerEnteros(Connection conn, String sql) throws SQLException {
+        List<Integer> valores = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                valores.add(rs.getInt(1));
+            }
+        }
+        return valores;
+    }
+}
@@ -0,0 +1,271 @@
+package com.inventario.database;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Aplica las migraciones versionadas del esquema
+ *
+ * La versión del esquema se guarda en PRAGMA user_version. Las migraciones son
+ * scripts SQL en db/migraciones (recursos del classpath), listados en orden en
+ * migraciones.txt; al arrancar solo se aplican las de versión mayor a la
+ * guardada, de modo que una base al día no ejecuta ninguna sentencia de esquema.
+ *
+ * Cada migración se aplica en su propia transacción junto con el cambio de
+ * user_version. Dentro de un script, un comentario de directiva afecta a la
+ * sentencia siguiente:
+ * - "-- @si CONSULTA": la sentencia solo se ejecuta si la consulta devuelve verdadero
+ * - "-- @lotes": la sentencia se repite, confirmando cada lote, hasta que no
+ *   modifique filas; {lote} se reemplaza por el tamaño del lote. Debe ser
+ *   idempotente, porque tras un fallo la migración se vuelve a aplicar entera.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class MigradorEsquema {
+
+    private static final Logger logger = Logger.getLogger(MigradorEsquema.class.getName());
+
+    private static final String DIRECTORIO = "db/migraciones/";
+    private static final String INDICE = DIRECTORIO + "migraciones.txt";
+    private static final Pattern NOMBRE_MIGRACION = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String DIRECTIVA_SI = "-- @si ";
+    private static final String DIRECTIVA_LOTES = "-- @lotes";
+    private static final int TAMANO_LOTE = 5000;
+
+    /**
+     * Lleva el esquema a la última versión
+     *
+     * @param conn Conexión de escritura
+     * @return Número de migraciones aplicadas
+     * @throws SQLException Si una migración falla (se revierte y el esquema
+     *         queda en la última versión aplicada)
+     */
+    public int migrar(Connection conn) throws SQLException {
+        List<Migracion> migraciones = cargarMigraciones();
+        int versionActual = obtenerVersion(conn);
+        int ultimaVersion = migraciones.isEmpty() ? 0 : migraciones.get(migraciones.size() - 1).version;
+
+        if (versionActual > ultimaVersion) {
+            logger.warning("La base de datos tiene el esquema v" + versionActual +
+                          ", más reciente que el de la aplicación (v" + ultimaVersion + ")");
+            return 0;
+        }
+        if (versionActual == ultimaVersion) {
+            logger.info("Esquema al día (v" + versionActual + ")");
+            return 0;
+        }
+
+        int aplicadas = 0;
+        for (Migracion migracion : migraciones) {
+            if (migracion.version > versionActual) {
+                aplicar(conn, migracion);
+                aplicadas++;
+            }
+        }
+        return aplicadas;
+    }
+
+    /**
+     * Versión actual del esquema (0 en una base nueva o anterior al versionado)
+     */
+    public int obtenerVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Aplica una migración y registra su nueva versión en la misma transacción
+     */
+    private void aplicar(Connection conn, Migracion migracion) throws SQLException {
+        long inicio = System.currentTimeMillis();
+        logger.info("Aplicando migración " + migracion);
+
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            for (Sentencia sentencia : migracion.sentencias) {
+                if (sentencia.condicion != null && !evaluar(stmt, sentencia.condicion)) {
+                    continue;
+                }
+                if (sentencia.porLotes) {
+                    ejecutarPorLotes(conn, sentencia.sql);
+                } else {
+                    stmt.execute(sentencia.sql);
+                }
+            }
+            stmt.execute("PRAGMA user_version = " + migracion.version);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw new SQLException("Falló la migración " + migracion + ": " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(true);
+        }
+
+        logger.info("Migración " + migracion + " aplicada en " + (System.currentTimeMillis() - inicio) + " ms");
+    }
+
+    /**
+     * Repite la sentencia confirmando cada lote, para no mantener una única
+     * transacción enorme sobre una tabla grande
+     */
+    private void ejecutarPorLotes(Connection conn, String sql) throws SQLException {
+        String sqlLote = sql.replace("{lote}", String.valueOf(TAMANO_LOTE));
+        long total = 0;
+        int lotes = 0;
+        int filas;
+        // Sentencia preparada: dentro de una transacción, Statement.executeUpdate
+        // del driver puede informar filas modificadas aunque no haya ninguna
+        try (PreparedStatement pstmt = conn.prepareStatement(sqlLote)) {
+            do {
+                filas = pstmt.executeUpdate();
+                conn.commit();
+                total += filas;
+                lotes++;
+            } while (filas > 0);
+        }
+
+        if (total > 0) {
+            logger.info("Sentencia por lotes: " + total + " filas en " + (lotes - 1) + " lote(s)");
+        }
+    }
+
+    private boolean evaluar(Statement stmt, String consulta) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery(consulta)) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    /**
+     * Lee el índice de migraciones y sus scripts
+     *
+     * @throws SQLException Si falta un script o las versiones no son consecutivas
+     */
+    List<Migracion> cargarMigraciones() throws SQLException {
+        List<Migracion> migraciones = new ArrayList<>();
+        for (String linea : leerRecurso(INDICE)) {
+            String nombre = linea.trim();
+            if (nombre.isEmpty() || nombre.startsWith("#")) {
+                continue;
+            }
+
+            Matcher matcher = NOMBRE_MIGRACION.matcher(nombre);
+            if (!matcher.matches()) {
+                throw new SQLException("Nombre de migración inválido: " + nombre);
+            }
+            int version = Integer.parseInt(matcher.group(1));
+            if (version != migraciones.size() + 1) {
+                throw new SQLException("Versión de migración fuera de orden: " + nombre);
+            }
+            migraciones.add(new Migracion(version, matcher.group(2),
+                                          dividirSentencias(leerRecurso(DIRECTORIO + nombre))));
+        }
+        return migraciones;
+    }
+
+    /**
+     * Divide un script en sentencias terminadas en ";". En los triggers el
+     * cuerpo BEGIN ... END contiene ";", así que terminan en "END;".
+     */
+    private List<Sentencia> dividirSentencias(List<String> lineas) {
+        List<Sentencia> sentencias = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        String condicion = null;
+        boolean porLotes = false;
+
+        for (String linea : lineas) {
+            String recortada = linea.trim();
+            if (actual.length() == 0) {
+                if (recortada.startsWith(DIRECTIVA_SI)) {
+                    condicion = recortada.substring(DIRECTIVA_SI.length()).trim();
+                    continue;
+                }
+                if (recortada.equals(DIRECTIVA_LOTES)) {
+                    porLotes = true;
+                    continue;
+                }
+                if (recortada.isEmpty() || recortada.startsWith("--")) {
+                    continue;
+                }
+            }
+
+            actual.append(linea).append('\n');
+            boolean esTrigger = actual.toString().trim().toUpperCase(Locale.ROOT).startsWith("CREATE TRIGGER");
+            boolean fin = esTrigger ? recortada.equalsIgnoreCase("END;") : recortada.endsWith(";");
+            if (fin) {
+                String sql = actual.toString().trim();
+                sentencias.add(new Sentencia(sql.substring(0, sql.length() - 1), condicion, porLotes));
+                actual.setLength(0);
+                condicion = null;
+                porLotes = false;
+            }
+        }
+        return sentencias;
+    }
+
+    private List<String> leerRecurso(String ruta) throws SQLException {
+        InputStream entrada = MigradorEsquema.class.getClassLoader().getResourceAsStream(ruta);
+        if (entrada == null) {
+            throw new SQLException("No se encontró el recurso de migración " + ruta);
+        }
+
+        List<String> lineas = new ArrayList<>();
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                lineas.add(linea);
+            }
+        } catch (IOException e) {
+            throw new SQLException("Error al leer " + ruta + ": " + e.getMessage(), e);
+        }
+        return lineas;
+    }
+
+    /**
+     * Script de migración ya dividido en sentencias
+     */
+    static final class Migracion {
+        final int version;
+        final String descripcion;
+        final List<Sentencia> sentencias;
+
+        Migracion(int version, String descripcion, List<Sentencia> sentencias) {
+            this.version = version;
+            this.descripcion = descripcion;
+            this.sentencias = sentencias;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("V%03d (%s)", version, descripcion);
+        }
+    }
+
+    private static final class Sentencia {
+        final String sql;
+        final String condicion;
+        final boolean porLotes;
+
+        Sentencia(String sql, String condicion, boolean porLotes) {
+            this.sql = sql;
+            this.condicion = condicion;
+            this.porLotes = porLotes;
+        }
+    }
+}
@@ -0,0 +1,489 @@
+package com.inventario.database;
+
+import com.inventario.metricas.RegistroMetricas;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Monitor de las sentencias SQL ejecutadas a través del pool de conexiones
+ *
+ * Envuelve las sentencias que crean las conexiones del pool para:
+ * - medir cada ejecución (en consultas, hasta terminar de leer el ResultSet,
+ *   porque SQLite produce las filas a medida que se piden),
+ * - registrar en el log las que superan el umbral, con sus parámetros (un
+ *   lote se mide por fila: su tiempo total no se compara con el umbral de
+ *   una sentencia ni se atribuye a los parámetros de su última fila),
+ * - capturar EXPLAIN QUERY PLAN la primera vez que aparece cada texto SQL y
+ *   marcar los planes con accesos sin índice según {@link AsesorIndices}
+ *   (recorrido completo de tabla o índice automático).
+ *
+ * {@link #generarReporte()} resume todas las sentencias vistas, con las que
+ * recorren tablas completas primero.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class MonitorConsultas {
+
+    private static final Logger logger = Logger.getLogger(MonitorConsultas.class.getName());
+
+    private static final int MAX_LARGO_PARAMETRO = 60;
+    private static final Pattern SENTENCIA_EXPLICABLE =
+        Pattern.compile("^\\s*(SELECT|INSERT|UPDATE|DELETE|WITH|REPLACE)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final long umbralNanos;
+    private final AsesorIndices asesor = new AsesorIndices();
+    private final Map<String, EstadisticaConsulta> estadisticas = new ConcurrentHashMap<>();
+    private final RegistroMetricas metricas = RegistroMetricas.getInstance();
+
+    /**
+     * @param umbralMs Duración a partir de la cual una sentencia se registra como lenta
+     */
+    public MonitorConsultas(long umbralMs) {
+        this.umbralNanos = umbralMs * 1_000_000L;
+    }
+
+    public long getUmbralMs() {
+        return umbralNanos / 1_000_000L;
+    }
+
+    /**
+     * Envuelve una sentencia recién creada por una conexión del pool
+     *
+     * @param sentencia Sentencia real
+     * @param conexionEnvuelta Conexión que verá el código que use la sentencia
+     * @param conexionReal Conexión real, usada para EXPLAIN QUERY PLAN
+     * @param sql Texto de la sentencia preparada, o null en un Statement simple
+     */
+    Statement envolver(Statement sentencia, Connection conexionEnvuelta, Connection conexionReal, String sql) {
+        Class<?> interfaz = sentencia instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(
+            MonitorConsultas.class.getClassLoader(),
+            new Class<?>[]{interfaz},
+            new SentenciaMonitoreada(sentencia, conexionEnvuelta, conexionReal, sql)
+        );
+    }
+
+    /**
+     * Estadísticas de todas las sentencias vistas desde el arranque o el último reinicio
+     */
+    public List<EstadisticaConsulta> obtenerEstadisticas() {
+        return new ArrayList<>(estadisticas.values());
+    }
+
+    /**
+     * Sentencias con accesos sin índice (recorrido completo de tabla o índice
+     * automático)
+     */
+    public List<EstadisticaConsulta> obtenerRecorridosCompletos() {
+        List<EstadisticaConsulta> recorridos = new ArrayList<>();
+        for (EstadisticaConsulta estadistica : estadisticas.values()) {
+            if (estadistica.isRecorridoCompleto()) {
+                recorridos.add(estadistica);
+            }
+        }
+        return recorridos;
+    }
+
+    /**
+     * Reporte de texto con cada sentencia vista, su plan y sus tiempos. Primero
+     * las que recorren tablas completas y, dentro de cada grupo, las de mayor
+     * tiempo total.
+     */
+    public String generarReporte() {
+        List<EstadisticaConsulta> lista = new ArrayList<>(estadisticas.values());
+        lista.sort(Comparator.comparing(EstadisticaConsulta::isRecorridoCompleto).reversed()
+                   .thenComparing(Comparator.comparingLong(EstadisticaConsulta::getTotalNanos).reversed()));
+
+        StringBuilder reporte = new StringBuilder();
+        reporte.append(String.format("Sentencias monitoreadas: %d distintas, %d con recorrido completo " +
+                                     "(umbral de consulta lenta: %d ms)%n%n",
+                                     lista.size(), obtenerRecorridosCompletos().size(), getUmbralMs()));
+
+        for (EstadisticaConsulta estadistica : lista) {
+            reporte.append(estadistica.isRecorridoCompleto() ? "[RECORRIDO COMPLETO] " : "")
+                   .append(String.format("%d ejecuciones, media %.3f ms, máx %.3f ms, lentas %d%n",
+                                         estadistica.getEjecuciones(), estadistica.getMediaNanos() / 1e6,
+                                         estadistica.getMaxNanos() / 1e6, estadistica.getLentas()))
+                   .append(estadistica.getSql().strip()).append(System.lineSeparator());
+            for (String paso : estadistica.getPlan()) {
+                reporte.append("    ").append(paso).append(System.lineSeparator());
+            }
+            reporte.append(System.lineSeparator());
+        }
+        return reporte.toString();
+    }
+
+    public void reiniciar() {
+        estadisticas.clear();
+    }
+
+    /**
+     * Registra una ejecución terminada
+     */
+    private void registrar(String sql, long nanos, Object[] parametros) {
+        if (sql == null) {
+            return;
+        }
+
+        EstadisticaConsulta estadistica = estadisticas.computeIfAbsent(sql, EstadisticaConsulta::new);
+        estadistica.registrar(nanos, 1);
+
+        if (nanos >= umbralNanos) {
+            estadistica.lentas.increment();
+            metricas.contador("consultas.lentas").incrementar();
+            logger.warning(String.format("Consulta lenta (%.1f ms): %s | parámetros: %s",
+                                         nanos / 1e6, compactar(sql), formatearParametros(parametros)));
+        }
+    }
+
+    /**
+     * Registra la ejecución de un lote. Cuenta como una ejecución por fila y
+     * solo es lento si el tiempo por fila supera el umbral.
+     */
+    private void registrarLote(String sql, long nanos, int filas) {
+        if (sql == null || filas <= 0) {
+            return;
+        }
+
+        EstadisticaConsulta estadistica = estadisticas.computeIfAbsent(sql, EstadisticaConsulta::new);
+        estadistica.registrar(nanos, filas);
+
+        long nanosPorFila = nanos / filas;
+        if (nanosPorFila >= umbralNanos) {
+            estadistica.lentas.increment();
+            metricas.contador("consultas.lentas").incrementar();
+            logger.warning(String.format("Lote lento (%.1f ms, %d filas, %.3f ms por fila): %s",
+                                         nanos / 1e6, filas, nanosPorFila / 1e6, compactar(sql)));
+        }
+    }
+
+    /**
+     * Obtiene el plan de la sentencia la primera vez que se ejecuta. Se usa la
+     * conexión real (sin monitorear) con los mismos parámetros.
+     */
+    private void capturarPlan(Connection conexionReal, String sql, Object[] parametros) {
+        if (sql == null || !SENTENCIA_EXPLICABLE.matcher(sql).find()) {
+            return;
+        }
+
+        EstadisticaConsulta estadistica = estadisticas.computeIfAbsent(sql, EstadisticaConsulta::new);
+        if (!estadistica.planCapturado.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<String> plan = new ArrayList<>();
+        try (PreparedStatement explain = conexionReal.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            for (int i = 1; i < parametros.length; i++) {
+                explain.setObject(i, parametros[i]);
+            }
+            try (ResultSet rs = explain.executeQuery()) {
+                while (rs.next()) {
+                    plan.add(rs.getString("detail"));
+                }
+            }
+        } catch (SQLException e) {
+            plan.add("(no se pudo obtener el plan: " + e.getMessage() + ")");
+        }
+
+        List<AsesorIndices.Hallazgo> sinIndice = new ArrayList<>();
+        for (AsesorIndices.Hallazgo hallazgo : asesor.analizar(sql, plan)) {
+            if (hallazgo.getTipo().isSinIndice()) {
+                sinIndice.add(hallazgo);
+            }
+        }
+        estadistica.plan = Collections.unmodifiableList(plan);
+        estadistica.recorridoCompleto = !sinIndice.isEmpty();
+
+        if (!sinIndice.isEmpty()) {
+            logger.warning(sinIndice.get(0).getTipo().getDescripcion() + " en: " + compactar(sql) + " | plan: " + plan);
+        }
+    }
+
+    private static String compactar(String sql) {
+        return sql.strip().replaceAll("\\s+", " ");
+    }
+
+    private static String formatearParametros(Object[] parametros) {
+        if (parametros.length <= 1) {
+            return "[]";
+        }
+        List<String> textos = new ArrayList<>();
+        for (int i = 1; i < parametros.length; i++) {
+            Object valor = parametros[i];
+            String texto = valor instanceof String ? "'" + valor + "'" : String.valueOf(valor);
+            textos.add(texto.length() > MAX_LARGO_PARAMETRO ? texto.substring(0, MAX_LARGO_PARAMETRO) + "..." : texto);
+        }
+        return textos.toString();
+    }
+
+    /**
+     * Tiempos acumulados y plan de un texto SQL
+     */
+    public static final class EstadisticaConsulta {
+        private final String sql;
+        private final LongAdder ejecuciones = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder lentas = new LongAdder();
+        private final AtomicBoolean planCapturado = new AtomicBoolean();
+        private volatile List<String> plan = Collections.emptyList();
+        private volatile boolean recorridoCompleto;
+
+        private EstadisticaConsulta(String sql) {
+            this.sql = sql;
+        }
+
+        /**
+         * @param filas Filas de la ejecución (más de una en un lote); el
+         *        máximo se lleva por fila
+         */
+        private void registrar(long nanos, int filas) {
+            ejecuciones.add(filas);
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos / filas, Math::max);
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getEjecuciones() {
+            return ejecuciones.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public double getMediaNanos() {
+            long cuenta = ejecuciones.sum();
+            return cuenta == 0 ? 0.0 : (double) totalNanos.sum() / cuenta;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getLentas() {
+            return lentas.sum();
+        }
+
+        public List<String> getPlan() {
+            return plan;
+        }
+
+        public boolean isRecorridoCompleto() {
+            return recorridoCompleto;
+        }
+    }
+
+    /**
+     * Manejador de las sentencias envueltas: recuerda los parámetros y mide
+     * cada ejecución
+     */
+    private class SentenciaMonitoreada implements InvocationHandler {
+        private final Statement sentencia;
+        private final Connection conexionEnvuelta;
+        private final Connection conexionReal;
+        private final String sql;
+        // parametros[i] = valor del parámetro i (base 1)
+        private Object[] parametros = new Object[1];
+        private int filasLote;
+        private Ejecucion enCurso;
+
+        SentenciaMonitoreada(Statement sentencia, Connection conexionEnvuelta, Connection conexionReal, String sql) {
+            this.sentencia = sentencia;
+            this.conexionEnvuelta = conexionEnvuelta;
+            this.conexionReal = conexionReal;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nombre = method.getName();
+
+            if (nombre.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer
+                    && sql != null) {
+                recordarParametro((Integer) args[0], nombre.equals("setNull") ? null : args[1]);
+            } else if (nombre.equals("clearParameters")) {
+                parametros = new Object[1];
+            } else if (nombre.equals("addBatch")) {
+                // Los parámetros ya quedaron en el lote; la fila siguiente empieza de cero
+                filasLote++;
+                parametros = new Object[1];
+            } else if (nombre.equals("clearBatch")) {
+                filasLote = 0;
+                parametros = new Object[1];
+            } else if (nombre.equals("getConnection")) {
+                return conexionEnvuelta;
+            } else if (nombre.equals("close")) {
+                terminarEnCurso();
+            } else if (nombre.endsWith("Batch") && nombre.startsWith("execute")) {
+                return ejecutarLote(method, args);
+            } else if (nombre.startsWith("execute")) {
+                return ejecutar(proxy, method, args);
+            }
+
+            return invocar(method, args);
+        }
+
+        private Object ejecutar(Object proxy, Method method, Object[] args) throws Throwable {
+            terminarEnCurso();
+
+            // En un Statement simple el SQL llega como primer argumento
+            String texto = sql != null ? sql : (args != null && args.length > 0 ? (String) args[0] : null);
+            Object[] valores = sql != null ? Arrays.copyOf(parametros, parametros.length) : new Object[1];
+            capturarPlan(conexionReal, texto, valores);
+
+            long inicio = System.nanoTime();
+            Object resultado;
+            try {
+                resultado = invocar(method, args);
+            } catch (Throwable e) {
+                registrar(texto, System.nanoTime() - inicio, valores);
+                throw e;
+            }
+            long transcurrido = System.nanoTime() - inicio;
+
+            if (resultado instanceof ResultSet) {
+                // La consulta sigue ejecutándose mientras se leen las filas
+                enCurso = new Ejecucion(texto, valores, transcurrido);
+                return Proxy.newProxyInstance(
+                    MonitorConsultas.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    new ResultadoMonitoreado((ResultSet) resultado, enCurso, (Statement) proxy)
+                );
+            }
+
+            registrar(texto, transcurrido, valores);
+            return resultado;
+        }
+
+        /**
+         * Ejecuta el lote acumulado con addBatch. En un Statement simple cada
+         * fila es un SQL distinto y no se registra.
+         */
+        private Object ejecutarLote(Method method, Object[] args) throws Throwable {
+            terminarEnCurso();
+
+            int filas = filasLote;
+            filasLote = 0;
+            long inicio = System.nanoTime();
+            try {
+                return invocar(method, args);
+            } finally {
+                registrarLote(sql, System.nanoTime() - inicio, filas);
+            }
+        }
+
+        private void recordarParametro(int indice, Object valor) {
+            if (indice <= 0) {
+                return;
+            }
+            if (indice >= parametros.length) {
+                parametros = Arrays.copyOf(parametros, indice + 1);
+            }
+            parametros[indice] = valor;
+        }
+
+        private void terminarEnCurso() {
+            if (enCurso != null) {
+                enCurso.terminar();
+                enCurso = null;
+            }
+        }
+
+        private Object invocar(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(sentencia, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Consulta cuyo ResultSet todavía se está leyendo
+     */
+    private class Ejecucion {
+        private final String sql;
+        private final Object[] parametros;
+        private long nanos;
+        private boolean terminada;
+
+        Ejecucion(String sql, Object[] parametros, long nanos) {
+            this.sql = sql;
+            this.parametros = parametros;
+            this.nanos = nanos;
+        }
+
+        void terminar() {
+            if (!terminada) {
+                terminada = true;
+                registrar(sql, nanos, parametros);
+            }
+        }
+    }
+
+    /**
+     * Manejador del ResultSet: suma el tiempo de cada next() a la consulta
+     */
+    private static class ResultadoMonitoreado implements InvocationHandler {
+        private final ResultSet resultado;
+        private final Ejecucion ejecucion;
+        private final Statement sentenciaEnvuelta;
+
+        ResultadoMonitoreado(ResultSet resultado, Ejecucion ejecucion, Statement sentenciaEnvuelta) {
+            this.resultado = resultado;
+            this.ejecucion = ejecucion;
+            this.sentenciaEnvuelta = sentenciaEnvuelta;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nombre = method.getName();
+            if (nombre.equals("getStatement")) {
+                // El código que usa el ResultSet debe ver la sentencia monitoreada
+                return sentenciaEnvuelta;
+            }
+            long inicio = nombre.equals("next") ? System.nanoTime() : 0;
+
+            Object valor;
+            try {
+                valor = method.invoke(resultado, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            if (inicio != 0) {
+                ejecucion.nanos += System.nanoTime() - inicio;
+                if (Boolean.FALSE.equals(valor)) {
+                    ejecucion.terminar();
+                }
+            } else if (nombre.equals("close")) {
+                ejecucion.terminar();
+            }
+            return valor;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.inventario.main;
+
+import com.inventario.database.DatabaseManager;
+import com.inventario.database.GeneradorDatosSinteticos;
+import com.inventario.util.PuenteLogging;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Comando que puebla la base de datos con datos sintéticos para pruebas de
+ * carga y de larga duración (ver GeneradorDatosSinteticos).
+ *
+ * Uso: java -cp sistema-inventario.jar com.inventario.main.GenerarDatosSinteticos [opciones]
+ *
+ * Opciones (todas opcionales):
+ *   --db=archivo.db      Base de datos destino (por defecto la de la aplicación)
+ *   --usuarios=N         Vendedores a crear (20)
+ *   --productos=N        Productos a crear (5000)
+ *   --ventas=N           Ventas a generar (100000; 4 millones dan unos 10 millones de items)
+ *   --dias=N             Días de historial hasta hoy (365)
+ *   --zipf=S             Exponente de la popularidad de productos (1.0)
+ *   --semilla=N          Semilla del generador (42)
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class GenerarDatosSinteticos {
+
+    public static void main(String[] args) {
+        PuenteLogging.instalar();
+        GeneradorDatosSinteticos generador = new GeneradorDatosSinteticos();
+
+        try {
+            for (String arg : args) {
+                configurar(generador, arg);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Uso: GenerarDatosSinteticos [--db=archivo.db] [--usuarios=N] [--productos=N] " +
+                              "[--ventas=N] [--dias=N] [--zipf=S] [--semilla=N]");
+            System.exit(2);
+        }
+
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        long inicio = System.currentTimeMillis();
+        boolean exito;
+
+        try (Connection conn = dbManager.getConnection()) {
+            generador.generar(conn);
+            exito = true;
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Error al generar los datos: " + e.getMessage());
+            exito = false;
+        }
+
+        // Los reportes se sirven de los resúmenes diarios, que las inserciones masivas no mantienen
+        exito = exito && dbManager.reconstruirResumenVentas();
+        long duracion = System.currentTimeMillis() - inicio;
+        dbManager.closeConnection();
+
+        if (exito) {
+            System.out.printf("Generadas %,d ventas con %,d items en %,d ms%n",
+                              generador.getVentasGeneradas(), generador.getItemsGenerados(), duracion);
+        } else {
+            System.err.println("No se pudieron generar los datos sintéticos");
+            System.exit(1);
+        }
+    }
+
+    private static void configurar(GeneradorDatosSinteticos generador, String arg) {
+        int separador = arg.indexOf('=');
+        if (!arg.startsWith("--") || separador < 0) {
+            throw new IllegalArgumentException("Opción no válida: " + arg);
+        }
+
+        String opcion = arg.substring(2, separador);
+        String valor = arg.substring(separador + 1);
+        try {
+            switch (opcion) {
+                case "db":
+                    System.setProperty(DatabaseManager.PROPIEDAD_DB_URL, "jdbc:sqlite:" + valor);
+                    break;
+                case "usuarios":
+                    generador.setUsuarios(Integer.parseInt(valor));
+                    break;
+                case "productos":
+                    generador.setProductos(Integer.parseInt(valor));
+                    break;
+                case "ventas":
+                    generador.setVentas(Integer.parseInt(valor));
+                    break;
+                case "dias":
+                    generador.setDias(Integer.parseInt(valor));
+                    break;
+                case "zipf":
+                    generador.setExponenteZipf(Double.parseDouble(valor));
+                    break;
+                case "semilla":
+                    generador.setSemilla(Long.parseLong(valor));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: --" + opcion);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no válido para --" + opcion + ": " + valor);
+        }
+    }
+}
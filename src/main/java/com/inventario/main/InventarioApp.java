@@ -1,7 +1,14 @@
 package com.inventario.main;
 
+import com.inventario.metricas.RegistroMetricas;
+import com.inventario.metricas.VolcadoMetricasArchivo;
+import com.inventario.util.PuenteLogging;
 import com.inventario.view.ModernLoginFrame;
+import java.io.IOException;
+import java.nio.file.Paths;
 import javax.swing.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Clase principal de la aplicación de inventario
@@ -12,7 +19,10 @@ import javax.swing.*;
  */
 public class InventarioApp {
     
+    private static final Logger logger = LoggerFactory.getLogger(InventarioApp.class);
+    
     public static void main(String[] args) {
+        PuenteLogging.instalar();
         // Configurar Look and Feel del sistema
         try {
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -24,6 +34,8 @@ public class InventarioApp {
         System.setProperty("swing.aatext", "true");
         System.setProperty("awt.useSystemAAFontSettings", "on");
         
+        iniciarVolcadoMetricas();
+        
         // Ejecutar la aplicación en el Event Dispatch Thread
         SwingUtilities.invokeLater(() -> {
             try {
@@ -40,5 +52,17 @@ public class InventarioApp {
             }
         });
     }
+    
+    /**
+     * Vuelca las métricas de rendimiento cada minuto en logs/metricas*.log
+     */
+    private static void iniciarVolcadoMetricas() {
+        try {
+            RegistroMetricas metricas = RegistroMetricas.getInstance();
+            metricas.agregarPublicador(new VolcadoMetricasArchivo(Paths.get("logs")));
+            metricas.iniciarPublicacion(60);
+        } catch (IOException e) {
+            logger.warn("No se pudo abrir el archivo de métricas; no se volcarán las métricas", e);
+        }
+    }
 }
-
@@ -0,0 +1,34 @@
+package com.inventario.main;
+
+import com.inventario.database.DatabaseManager;
+import com.inventario.util.PuenteLogging;
+
+/**
+ * Comando de mantenimiento que reconstruye los resúmenes diarios de ventas
+ * (ventas_diarias y ventas_diarias_vendedor) a partir del histórico.
+ *
+ * Uso: java -cp sistema-inventario.jar com.inventario.main.ReconstruirResumenVentas
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class ReconstruirResumenVentas {
+
+    public static void main(String[] args) {
+        PuenteLogging.instalar();
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+
+        long inicio = System.currentTimeMillis();
+        boolean exito = dbManager.reconstruirResumenVentas();
+        long duracion = System.currentTimeMillis() - inicio;
+
+        dbManager.closeConnection();
+
+        if (exito) {
+            System.out.println("Resumen de ventas reconstruido en " + duracion + " ms");
+        } else {
+            System.err.println("No se pudo reconstruir el resumen de ventas");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.inventario.main;
+
+import com.inventario.dao.ExportacionDAO;
+import com.inventario.dao.FacturaDAO;
+import com.inventario.dao.ProductoDAO;
+import com.inventario.dao.ResumenVentasDAO;
+import com.inventario.dao.UsuarioDAO;
+import com.inventario.dao.VentaDAO;
+import com.inventario.database.AsesorIndices;
+import com.inventario.database.DatabaseManager;
+import com.inventario.database.MonitorConsultas;
+import com.inventario.model.Producto;
+import com.inventario.model.Rol;
+import com.inventario.model.Usuario;
+import com.inventario.util.PuenteLogging;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Asesor de índices: ejecuta el catálogo de consultas de lectura de los DAO
+ * sobre una base de datos, captura el plan de cada sentencia con el monitor
+ * de consultas y reporta los accesos sin índice.
+ *
+ * Se ejecutan los métodos reales de los DAO (no copias de su SQL), así que el
+ * catálogo siempre refleja las consultas que hace la aplicación. Las
+ * escrituras no se ejecutan para no modificar la base: todas acceden por clave
+ * primaria.
+ *
+ * Uso: java -cp sistema-inventario.jar com.inventario.main.RevisarIndices [--db=archivo.db]
+ *
+ * Termina con código 1 si alguna consulta que no debería recorrer tablas
+ * completas lo hace (útil para verificar una base con datos de carga).
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class RevisarIndices {
+
+    /**
+     * Consulta del catálogo
+     */
+    private static final class Consulta {
+        final String nombre;
+        final boolean admiteRecorrido;
+        final Runnable ejecucion;
+
+        /**
+         * @param admiteRecorrido true si la consulta lee por definición toda la tabla
+         *        (listados completos, totales del inventario)
+         */
+        Consulta(String nombre, boolean admiteRecorrido, Runnable ejecucion) {
+            this.nombre = nombre;
+            this.admiteRecorrido = admiteRecorrido;
+            this.ejecucion = ejecucion;
+        }
+    }
+
+    public static void main(String[] args) {
+        PuenteLogging.instalar();
+        for (String arg : args) {
+            if (arg.startsWith("--db=")) {
+                System.setProperty(DatabaseManager.PROPIEDAD_DB_URL, "jdbc:sqlite:" + arg.substring(5));
+            } else {
+                System.err.println("Opción no válida: " + arg);
+                System.err.println("Uso: RevisarIndices [--db=archivo.db]");
+                System.exit(2);
+            }
+        }
+        // El asesor trabaja con los planes que captura el monitor
+        System.setProperty(DatabaseManager.PROPIEDAD_MONITOR_SQL, "true");
+
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        MonitorConsultas monitor = dbManager.getMonitorConsultas();
+        AsesorIndices asesor = new AsesorIndices();
+
+        int problemas = 0;
+        for (Consulta consulta : crearCatalogo()) {
+            monitor.reiniciar();
+            consulta.ejecucion.run();
+
+            List<AsesorIndices.Hallazgo> hallazgos = asesor.analizar(monitor);
+            boolean sinIndice = !consulta.admiteRecorrido &&
+                hallazgos.stream().anyMatch(hallazgo -> hallazgo.getTipo().isSinIndice());
+            String estado = hallazgos.isEmpty() ? "[OK]      " : sinIndice ? "[REVISAR] " : "[AVISO]   ";
+            System.out.println(estado + consulta.nombre +
+                              (consulta.admiteRecorrido ? " (admite recorrido completo)" : ""));
+
+            Set<String> sentenciasVistas = new LinkedHashSet<>();
+            for (AsesorIndices.Hallazgo hallazgo : hallazgos) {
+                if (sentenciasVistas.add(hallazgo.getSql())) {
+                    System.out.println("    " + compactar(hallazgo.getSql()));
+                }
+                System.out.println("        - " + hallazgo);
+                if (hallazgo.getTipo().isSinIndice() && !consulta.admiteRecorrido) {
+                    problemas++;
+                }
+            }
+        }
+
+        dbManager.closeConnection();
+        System.out.println();
+        if (problemas > 0) {
+            System.out.println(problemas + " acceso(s) sin índice en consultas que deberían usar uno");
+            System.exit(1);
+        }
+        System.out.println("Todas las consultas selectivas usan índices");
+    }
+
+    /**
+     * Catálogo de consultas de lectura con parámetros tomados de la propia base
+     */
+    private static List<Consulta> crearCatalogo() {
+        ProductoDAO productoDAO = new ProductoDAO();
+        UsuarioDAO usuarioDAO = new UsuarioDAO();
+        VentaDAO ventaDAO = new VentaDAO();
+        ResumenVentasDAO resumenDAO = new ResumenVentasDAO();
+        ExportacionDAO exportacionDAO = new ExportacionDAO();
+        FacturaDAO facturaDAO = new FacturaDAO();
+
+        List<Producto> muestra = productoDAO.obtenerPagina(null, null, Integer.MAX_VALUE, 1);
+        Producto producto = muestra.isEmpty() ? new Producto() : muestra.get(0);
+        String codigo = producto.getCodigo() != null ? producto.getCodigo() : "PROD001";
+        String categoria = producto.getCategoria() != null ? producto.getCategoria() : "Otros";
+        String nombre = producto.getNombre() != null ? producto.getNombre().split(" ")[0] : "a";
+
+        List<Usuario> usuarios = usuarioDAO.obtenerTodos();
+        Usuario usuario = usuarios.isEmpty() ? new Usuario() : usuarios.get(usuarios.size() - 1);
+        LocalDate hoy = LocalDate.now();
+
+        List<Consulta> catalogo = new ArrayList<>();
+        catalogo.add(new Consulta("ProductoDAO.obtenerTodos", true, productoDAO::obtenerTodos));
+        catalogo.add(new Consulta("ProductoDAO.obtenerPorId", false, () -> productoDAO.obtenerPorId(producto.getId())));
+        catalogo.add(new Consulta("ProductoDAO.obtenerPorCodigo", false, () -> productoDAO.obtenerPorCodigo(codigo)));
+        catalogo.add(new Consulta("ProductoDAO.obtenerPorCodigos", false,
+                                  () -> productoDAO.obtenerPorCodigos(List.of(codigo, "SIN-CODIGO"))));
+        catalogo.add(new Consulta("ProductoDAO.obtenerPorIds", false,
+                                  () -> recorrer(() -> productoDAO.obtenerPorIds(List.of(producto.getId(), -1)))));
+        catalogo.add(new Consulta("ProductoDAO.buscar (nombre)", true, () -> productoDAO.buscar(nombre, null)));
+        catalogo.add(new Consulta("ProductoDAO.buscar (categoría)", false, () -> productoDAO.buscar(null, categoria)));
+        catalogo.add(new Consulta("ProductoDAO.buscarTexto", false, () -> productoDAO.buscarTexto(nombre, null, 20)));
+        catalogo.add(new Consulta("ProductoDAO.obtenerPagina", false,
+                                  () -> productoDAO.obtenerPagina(null, null, Integer.MAX_VALUE, 50)));
+        catalogo.add(new Consulta("ProductoDAO.obtenerConStockBajo", false, () -> productoDAO.obtenerConStockBajo(5)));
+        catalogo.add(new Consulta("ProductoDAO.obtenerPorCategoria", false,
+                                  () -> productoDAO.obtenerPorCategoria(categoria)));
+        catalogo.add(new Consulta("ProductoDAO.obtenerValorTotalInventario", true,
+                                  productoDAO::obtenerValorTotalInventario));
+
+        catalogo.add(new Consulta("UsuarioDAO.obtenerTodos", true, usuarioDAO::obtenerTodos));
+        catalogo.add(new Consulta("UsuarioDAO.obtenerPorId", false, () -> usuarioDAO.obtenerPorId(usuario.getId())));
+        catalogo.add(new Consulta("UsuarioDAO.obtenerPorUsername", false,
+                                  () -> usuarioDAO.obtenerPorUsername(usuario.getUsername())));
+        catalogo.add(new Consulta("UsuarioDAO.existeUsername", false,
+                                  () -> usuarioDAO.existeUsername(usuario.getUsername())));
+        catalogo.add(new Consulta("UsuarioDAO.obtenerPorRol", false, () -> usuarioDAO.obtenerPorRol(Rol.VENDEDOR)));
+
+        catalogo.add(new Consulta("VentaDAO.obtenerPorId", false, () -> ventaDAO.obtenerPorId(1)));
+        catalogo.add(new Consulta("VentaDAO.obtenerPorIds", false, () -> ventaDAO.obtenerPorIds(List.of(1, 2, 3))));
+        catalogo.add(new Consulta("VentaDAO.obtenerPorFecha", false, () -> ventaDAO.obtenerPorFecha(hoy)));
+        catalogo.add(new Consulta("VentaDAO.obtenerPorRango (límite)", false,
+                                  () -> ventaDAO.obtenerPorRango(hoy.minusDays(30).atStartOfDay(),
+                                                                 LocalDateTime.now(), 100)));
+        catalogo.add(new Consulta("VentaDAO.obtenerPagina", false, () -> ventaDAO.obtenerPagina(Integer.MAX_VALUE, 50)));
+        catalogo.add(new Consulta("VentaDAO.obtenerResumenes", false, () -> ventaDAO.obtenerResumenes(Integer.MAX_VALUE, 100)));
+        catalogo.add(new Consulta("VentaDAO.obtenerIds", true, ventaDAO::obtenerIds));
+        catalogo.add(new Consulta("VentaDAO.obtenerPorUsuario", false, () -> ventaDAO.obtenerPorUsuario(usuario.getId())));
+
+        catalogo.add(new Consulta("ResumenVentasDAO.contarVentas", false, () -> resumenDAO.contarVentas(hoy, hoy)));
+        catalogo.add(new Consulta("ResumenVentasDAO.sumarIngresos", false,
+                                  () -> resumenDAO.sumarIngresos(hoy.minusDays(30), hoy)));
+        catalogo.add(new Consulta("ResumenVentasDAO.obtenerProductosMasVendidos (rango)", false,
+                                  () -> resumenDAO.obtenerProductosMasVendidos(hoy.minusDays(30), hoy, null, 10)));
+        catalogo.add(new Consulta("ResumenVentasDAO.obtenerProductosMasVendidos (historial)", true,
+                                  () -> resumenDAO.obtenerProductosMasVendidos(null, null, usuario.getId(), 10)));
+        catalogo.add(new Consulta("ResumenVentasDAO.contarVentasPorVendedor", true,
+                                  resumenDAO::contarVentasPorVendedor));
+        catalogo.add(new Consulta("ResumenVentasDAO.sumarIngresosPorVendedor", true,
+                                  resumenDAO::sumarIngresosPorVendedor));
+
+        catalogo.add(new Consulta("FacturaDAO.obtenerPorId", false, () -> facturaDAO.obtenerPorId(1)));
+        catalogo.add(new Consulta("FacturaDAO.obtenerPorNumero", false,
+                                  () -> facturaDAO.obtenerPorNumero("FACT-20250101-0001")));
+        catalogo.add(new Consulta("FacturaDAO.obtenerPorVenta", false, () -> facturaDAO.obtenerPorVenta(1)));
+
+        catalogo.add(new Consulta("ExportacionDAO.recorrerVentas (rango y vendedor)", false,
+                                  () -> recorrer(() -> exportacionDAO.recorrerVentas(
+                                      hoy.minusDays(30), hoy, usuario.getId(), total -> { }, linea -> { }))));
+        catalogo.add(new Consulta("ExportacionDAO.recorrerVentas (historial)", true,
+                                  () -> recorrer(() -> exportacionDAO.recorrerVentas(
+                                      null, null, null, total -> { }, linea -> { }))));
+        catalogo.add(new Consulta("ExportacionDAO.recorrerProductos", true,
+                                  () -> recorrer(() -> exportacionDAO.recorrerProductos(total -> { }, fila -> { }))));
+        return catalogo;
+    }
+
+    /**
+     * Consulta que, a diferencia de los demás DAO, propaga los errores
+     */
+    @FunctionalInterface
+    private interface Recorrido {
+        void ejecutar() throws Exception;
+    }
+
+    private static void recorrer(Recorrido recorrido) {
+        try {
+            recorrido.ejecutar();
+        } catch (Exception e) {
+            System.err.println("Error en el recorrido: " + e.getMessage());
+        }
+    }
+
+    private static String compactar(String sql) {
+        String texto = sql.strip().replaceAll("\\s+", " ");
+        return texto.length() > 160 ? texto.substring(0, 160) + "..." : texto;
+    }
+}
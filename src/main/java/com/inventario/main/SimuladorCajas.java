@@ -0,0 +1,553 @@
+package com.inventario.main;
+
+import com.inventario.database.DatabaseManager;
+import com.inventario.model.ItemVenta;
+import com.inventario.model.Producto;
+import com.inventario.model.ResultadoVenta;
+import com.inventario.model.Rol;
+import com.inventario.model.Usuario;
+import com.inventario.model.Venta;
+import com.inventario.service.ProductoService;
+import com.inventario.service.UsuarioService;
+import com.inventario.service.VentaService;
+import com.inventario.util.HistogramaLatencia;
+import com.inventario.util.PuenteLogging;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulador de carga de cajas registradoras sin interfaz gráfica
+ *
+ * Lanza N cajeros concurrentes que registran ventas a través de VentaService,
+ * igual que VentaFrame, con canastas y pausas entre ventas configurables. Con
+ * --procesos mayor que 1 los cajeros se reparten entre varias JVM, cada una con
+ * su propio pool de conexiones, como varias terminales sobre la misma base de
+ * datos: solo así aparece la contención entre procesos (SQLITE_BUSY).
+ *
+ * Al terminar informa del rendimiento, los percentiles de latencia de cada venta
+ * (incluidos sus reintentos), los reintentos por SQLITE_BUSY y las anomalías
+ * detectadas comparando el stock antes y después: sobreventas (stock negativo o
+ * más unidades vendidas que las disponibles), actualizaciones perdidas (el stock
+ * no baja exactamente lo vendido) y ventas confirmadas que no quedaron registradas.
+ * La verificación supone que nadie más escribe en la base de datos durante la prueba.
+ *
+ * Uso: java -cp sistema-inventario.jar com.inventario.main.SimuladorCajas [opciones]
+ *
+ * Opciones (todas opcionales):
+ *   --db=archivo.db      Base de datos (por defecto la de la aplicación)
+ *   --cajeros=N          Cajeros concurrentes en total (4)
+ *   --procesos=N         JVM entre las que se reparten los cajeros (1)
+ *   --duracion=S         Segundos de prueba (30)
+ *   --productos=N        Productos activos sobre los que se vende, los de menor id (20)
+ *   --lineas=MIN-MAX     Líneas por canasta (1-4)
+ *   --unidades=MIN-MAX   Unidades por línea (1-3)
+ *   --pausa=MS           Pausa media entre ventas de un cajero, exponencial (0)
+ *   --stock=N            Fija el stock de esos productos antes de empezar (sin cambios)
+ *   --reintentos=N       Reintentos de una venta rechazada por SQLITE_BUSY (3)
+ *   --semilla=N          Semilla de las canastas (42)
+ *
+ * Devuelve 1 si se detectó alguna anomalía.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class SimuladorCajas {
+
+    private static final String MARCA_RESULTADO = "RESULTADO-SIMULADOR ";
+    private static final String OPCION_HIJO = "--hijo";
+
+    private int cajeros = 4;
+    private int procesos = 1;
+    private int duracionSegundos = 30;
+    private int productos = 20;
+    private int lineasMin = 1;
+    private int lineasMax = 4;
+    private int unidadesMin = 1;
+    private int unidadesMax = 3;
+    private int pausaMs = 0;
+    private int stock = -1;
+    private int reintentos = 3;
+    private long semilla = 42L;
+    private boolean hijo;
+    private final List<String> argumentos = new ArrayList<>();
+
+    public static void main(String[] args) {
+        PuenteLogging.instalar();
+        // Se mide la aplicación, no el proxy del monitor de sentencias
+        System.setProperty(DatabaseManager.PROPIEDAD_MONITOR_SQL, "false");
+        SimuladorCajas simulador = new SimuladorCajas();
+        try {
+            for (String arg : args) {
+                simulador.configurar(arg);
+            }
+            simulador.validar();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Uso: SimuladorCajas [--db=archivo.db] [--cajeros=N] [--procesos=N] [--duracion=S] " +
+                              "[--productos=N] [--lineas=MIN-MAX] [--unidades=MIN-MAX] [--pausa=MS] " +
+                              "[--stock=N] [--reintentos=N] [--semilla=N]");
+            System.exit(2);
+        }
+
+        PrintStream consola = System.out;
+
+        int codigo;
+        try {
+            codigo = simulador.hijo ? simulador.ejecutarHijo(consola) : simulador.ejecutar(consola);
+        } catch (Exception e) {
+            consola.println("Error en la simulación: " + e.getMessage());
+            codigo = 1;
+        } finally {
+            DatabaseManager.getInstance().closeConnection();
+        }
+        System.exit(codigo);
+    }
+
+    /**
+     * Prepara la prueba, reparte los cajeros y verifica el resultado
+     */
+    private int ejecutar(PrintStream consola) throws Exception {
+        List<Producto> catalogo = seleccionarProductos();
+        if (stock >= 0) {
+            fijarStock(catalogo);
+        }
+
+        Map<Integer, Integer> stockInicial = leerStock(catalogo);
+        int ultimaVentaInicial = leerUltimaVenta();
+
+        consola.printf("Simulando %d cajeros en %d proceso(s) durante %d s sobre %d productos%n",
+                       cajeros, procesos, duracionSegundos, catalogo.size());
+
+        long inicio = System.nanoTime();
+        Resultado resultado = procesos == 1 ? ejecutarCajeros(catalogo, cajeros, semilla) : ejecutarProcesos();
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        consola.println();
+        consola.printf("Ventas confirmadas:      %,d (%.1f ventas/s)%n", resultado.confirmadas,
+                       resultado.confirmadas / segundos);
+        consola.printf("Unidades vendidas:       %,d%n", resultado.unidades);
+        consola.printf("Rechazadas por stock:    %,d%n", resultado.sinStock);
+        consola.printf("Errores:                 %,d%n", resultado.errores);
+        consola.printf("Reintentos SQLITE_BUSY:  %,d%n", resultado.reintentos);
+
+        HistogramaLatencia latencias = resultado.latencias;
+        consola.printf("Latencia por venta (ms): media=%.2f p50=%.2f p99=%.2f p99.9=%.2f máx=%.2f%n",
+                       latencias.getMedia() / 1e6, ms(latencias.getPercentil(50)),
+                       ms(latencias.getPercentil(99)), ms(latencias.getPercentil(99.9)),
+                       ms(latencias.getMaximo()));
+
+        return verificar(consola, catalogo, stockInicial, ultimaVentaInicial, resultado) ? 0 : 1;
+    }
+
+    /**
+     * Proceso hijo: ejecuta sus cajeros e imprime el resultado para el padre
+     */
+    private int ejecutarHijo(PrintStream consola) throws Exception {
+        Resultado resultado = ejecutarCajeros(seleccionarProductos(), cajeros, semilla);
+        consola.println(MARCA_RESULTADO + resultado.serializar());
+        return 0;
+    }
+
+    private Resultado ejecutarCajeros(List<Producto> catalogo, int numeroCajeros, long semillaBase)
+            throws Exception {
+        List<Usuario> vendedores = seleccionarVendedores();
+        VentaService ventaService = new VentaService();
+        long fin = System.nanoTime() + TimeUnit.SECONDS.toNanos(duracionSegundos);
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(numeroCajeros);
+        try {
+            List<Future<Resultado>> futuros = new ArrayList<>();
+            for (int i = 0; i < numeroCajeros; i++) {
+                Usuario cajero = vendedores.get(i % vendedores.size());
+                Random random = new Random(semillaBase + i);
+                futuros.add(ejecutor.submit(() -> atenderClientes(ventaService, cajero, catalogo, random, fin)));
+            }
+
+            Resultado total = new Resultado();
+            for (Future<Resultado> futuro : futuros) {
+                total.combinar(futuro.get());
+            }
+            return total;
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Bucle de un cajero: registra ventas hasta que se acaba el tiempo
+     */
+    private Resultado atenderClientes(VentaService ventaService, Usuario cajero, List<Producto> catalogo,
+                                      Random random, long fin) throws InterruptedException {
+        Resultado resultado = new Resultado();
+
+        while (System.nanoTime() < fin) {
+            Venta venta = armarCanasta(cajero, catalogo, random);
+
+            long inicio = System.nanoTime();
+            ResultadoVenta respuesta = ventaService.registrarVenta(venta);
+            for (int intento = 0; intento < reintentos && esBloqueo(respuesta); intento++) {
+                resultado.reintentos++;
+                Thread.sleep(1 + random.nextInt(10));
+                venta.setId(0);
+                respuesta = ventaService.registrarVenta(venta);
+            }
+            resultado.latencias.registrar(System.nanoTime() - inicio);
+
+            if (respuesta.isExitoso()) {
+                resultado.confirmadas++;
+                for (ItemVenta item : venta.getItems()) {
+                    resultado.unidades += item.getCantidad();
+                }
+            } else if (respuesta.getMotivo() == ResultadoVenta.Motivo.STOCK_INSUFICIENTE) {
+                resultado.sinStock++;
+            } else {
+                resultado.errores++;
+            }
+
+            if (pausaMs > 0) {
+                // Pausa exponencial: los clientes llegan como un proceso de Poisson
+                Thread.sleep((long) (-pausaMs * Math.log(1.0 - random.nextDouble())));
+            }
+        }
+        return resultado;
+    }
+
+    private Venta armarCanasta(Usuario cajero, List<Producto> catalogo, Random random) {
+        Venta venta = new Venta(cajero);
+        int lineas = Math.min(entre(lineasMin, lineasMax, random), catalogo.size());
+
+        // Productos distintos en cada línea, como al escanear una canasta real
+        List<Producto> disponibles = new ArrayList<>(catalogo);
+        for (int i = 0; i < lineas; i++) {
+            Producto producto = disponibles.remove(random.nextInt(disponibles.size()));
+            venta.agregarItem(new ItemVenta(producto, entre(unidadesMin, unidadesMax, random)));
+        }
+        return venta;
+    }
+
+    private static boolean esBloqueo(ResultadoVenta respuesta) {
+        String detalle = respuesta.getDetalle();
+        return respuesta.getMotivo() == ResultadoVenta.Motivo.ERROR_BASE_DATOS && detalle != null
+            && (detalle.contains("SQLITE_BUSY") || detalle.contains("SQLITE_LOCKED"));
+    }
+
+    /**
+     * Lanza los procesos hijos con el mismo classpath y suma sus resultados
+     */
+    private Resultado ejecutarProcesos() throws IOException, InterruptedException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> hijos = new ArrayList<>();
+
+        for (int p = 0; p < procesos; p++) {
+            // Reparto de cajeros lo más parejo posible
+            int cajerosHijo = cajeros / procesos + (p < cajeros % procesos ? 1 : 0);
+            if (cajerosHijo == 0) {
+                continue;
+            }
+
+            List<String> comando = new ArrayList<>();
+            comando.add(java);
+            if (System.getProperty(DatabaseManager.PROPIEDAD_DB_URL) != null) {
+                comando.add("-D" + DatabaseManager.PROPIEDAD_DB_URL + "=" +
+                            System.getProperty(DatabaseManager.PROPIEDAD_DB_URL));
+            }
+            comando.add("-cp");
+            comando.add(System.getProperty("java.class.path"));
+            comando.add(SimuladorCajas.class.getName());
+            comando.addAll(argumentos);
+            comando.add("--cajeros=" + cajerosHijo);
+            comando.add("--semilla=" + (semilla + 1000L * p));
+            comando.add(OPCION_HIJO);
+
+            hijos.add(new ProcessBuilder(comando)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start());
+        }
+
+        Resultado total = new Resultado();
+        for (Process hijo : hijos) {
+            String resultado = null;
+            try (BufferedReader lector = new BufferedReader(
+                    new InputStreamReader(hijo.getInputStream(), StandardCharsets.UTF_8))) {
+                String linea;
+                while ((linea = lector.readLine()) != null) {
+                    if (linea.startsWith(MARCA_RESULTADO)) {
+                        resultado = linea.substring(MARCA_RESULTADO.length());
+                    }
+                }
+            }
+            if (hijo.waitFor() != 0 || resultado == null) {
+                throw new IllegalStateException("Un proceso de cajeros terminó sin resultado");
+            }
+            total.combinar(Resultado.deserializar(resultado));
+        }
+        return total;
+    }
+
+    /**
+     * Compara el stock y las ventas registradas con lo que confirmaron los cajeros
+     *
+     * @return true si no hay anomalías
+     */
+    private boolean verificar(PrintStream consola, List<Producto> catalogo, Map<Integer, Integer> stockInicial,
+                              int ultimaVentaInicial, Resultado resultado) throws SQLException {
+        Map<Integer, Integer> stockFinal = leerStock(catalogo);
+        Map<Integer, Integer> vendidas = new HashMap<>();
+        int ventasRegistradas;
+
+        try (Connection conn = DatabaseManager.getInstance().getReadConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT producto_id, SUM(cantidad) FROM items_venta WHERE venta_id > ? GROUP BY producto_id")) {
+                stmt.setInt(1, ultimaVentaInicial);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        vendidas.put(rs.getInt(1), rs.getInt(2));
+                    }
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT COUNT(*) FROM ventas WHERE id > ?")) {
+                stmt.setInt(1, ultimaVentaInicial);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    ventasRegistradas = rs.next() ? rs.getInt(1) : 0;
+                }
+            }
+        }
+
+        int sobreventas = 0;
+        int actualizacionesPerdidas = 0;
+        for (Producto producto : catalogo) {
+            int inicial = stockInicial.get(producto.getId());
+            int fin = stockFinal.get(producto.getId());
+            int vendido = vendidas.getOrDefault(producto.getId(), 0);
+
+            if (fin < 0 || vendido > inicial) {
+                sobreventas++;
+                consola.printf("  Sobreventa en %s: stock inicial %d, vendidas %d, stock final %d%n",
+                               producto.getCodigo(), inicial, vendido, fin);
+            }
+            if (inicial - fin != vendido) {
+                actualizacionesPerdidas++;
+                consola.printf("  Actualización perdida en %s: el stock bajó %d pero se vendieron %d%n",
+                               producto.getCodigo(), inicial - fin, vendido);
+            }
+        }
+        long sinRegistrar = Math.max(0, resultado.confirmadas - ventasRegistradas);
+        long sinConfirmar = Math.max(0, ventasRegistradas - resultado.confirmadas);
+
+        consola.printf("Anomalías: sobreventas=%d, actualizaciones perdidas=%d, " +
+                       "ventas confirmadas sin registrar=%d, registradas sin confirmar=%d%n",
+                       sobreventas, actualizacionesPerdidas, sinRegistrar, sinConfirmar);
+        return sobreventas == 0 && actualizacionesPerdidas == 0 && sinRegistrar == 0 && sinConfirmar == 0;
+    }
+
+    private List<Producto> seleccionarProductos() {
+        List<Producto> catalogo = new ArrayList<>();
+        for (Producto producto : new ProductoService().obtenerTodosProductos()) {
+            if (catalogo.size() == productos) {
+                break;
+            }
+            catalogo.add(producto);
+        }
+        if (catalogo.isEmpty()) {
+            throw new IllegalStateException("No hay productos activos");
+        }
+        return catalogo;
+    }
+
+    private List<Usuario> seleccionarVendedores() {
+        List<Usuario> vendedores = new ArrayList<>();
+        for (Usuario usuario : new UsuarioService().obtenerTodosUsuarios()) {
+            if (usuario.isActivo() && usuario.getRol() == Rol.VENDEDOR) {
+                vendedores.add(usuario);
+            }
+        }
+        if (vendedores.isEmpty()) {
+            throw new IllegalStateException("No hay vendedores activos");
+        }
+        return vendedores;
+    }
+
+    private void fijarStock(List<Producto> catalogo) throws SQLException {
+        try (Connection conn = DatabaseManager.getInstance().getConnection();
+             PreparedStatement stmt = conn.prepareStatement("UPDATE productos SET cantidad = ? WHERE id = ?")) {
+            for (Producto producto : catalogo) {
+                stmt.setInt(1, stock);
+                stmt.setInt(2, producto.getId());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        new ProductoService().recargarCatalogo();
+    }
+
+    private Map<Integer, Integer> leerStock(List<Producto> catalogo) throws SQLException {
+        Map<Integer, Integer> stockPorId = new LinkedHashMap<>();
+        try (Connection conn = DatabaseManager.getInstance().getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT cantidad FROM productos WHERE id = ?")) {
+            for (Producto producto : catalogo) {
+                stmt.setInt(1, producto.getId());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    stockPorId.put(producto.getId(), rs.next() ? rs.getInt(1) : 0);
+                }
+            }
+        }
+        return stockPorId;
+    }
+
+    private int leerUltimaVenta() throws SQLException {
+        try (Connection conn = DatabaseManager.getInstance().getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT COALESCE(MAX(id), 0) FROM ventas");
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void configurar(String arg) {
+        if (OPCION_HIJO.equals(arg)) {
+            hijo = true;
+            return;
+        }
+
+        int separador = arg.indexOf('=');
+        if (!arg.startsWith("--") || separador < 0) {
+            throw new IllegalArgumentException("Opción no válida: " + arg);
+        }
+
+        String opcion = arg.substring(2, separador);
+        String valor = arg.substring(separador + 1);
+        try {
+            switch (opcion) {
+                case "db":
+                    System.setProperty(DatabaseManager.PROPIEDAD_DB_URL, "jdbc:sqlite:" + valor);
+                    break;
+                case "cajeros":
+                    cajeros = Integer.parseInt(valor);
+                    return;
+                case "procesos":
+                    procesos = Integer.parseInt(valor);
+                    return;
+                case "duracion":
+                    duracionSegundos = Integer.parseInt(valor);
+                    break;
+                case "productos":
+                    productos = Integer.parseInt(valor);
+                    break;
+                case "lineas":
+                    int[] lineas = rango(valor);
+                    lineasMin = lineas[0];
+                    lineasMax = lineas[1];
+                    break;
+                case "unidades":
+                    int[] unidades = rango(valor);
+                    unidadesMin = unidades[0];
+                    unidadesMax = unidades[1];
+                    break;
+                case "pausa":
+                    pausaMs = Integer.parseInt(valor);
+                    break;
+                case "stock":
+                    // Solo el proceso padre fija el stock, una vez
+                    stock = Integer.parseInt(valor);
+                    return;
+                case "reintentos":
+                    reintentos = Integer.parseInt(valor);
+                    break;
+                case "semilla":
+                    semilla = Long.parseLong(valor);
+                    return;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: --" + opcion);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no válido para --" + opcion + ": " + valor);
+        }
+        // Opciones que se transmiten tal cual a los procesos hijos
+        argumentos.add(arg);
+    }
+
+    private void validar() {
+        if (cajeros <= 0 || procesos <= 0 || duracionSegundos <= 0 || productos <= 0) {
+            throw new IllegalArgumentException("Cajeros, procesos, duración y productos deben ser positivos");
+        }
+        if (lineasMin <= 0 || unidadesMin <= 0 || pausaMs < 0 || reintentos < 0) {
+            throw new IllegalArgumentException("Líneas y unidades deben ser positivas; pausa y reintentos no negativos");
+        }
+    }
+
+    private static int[] rango(String valor) {
+        int guion = valor.indexOf('-');
+        int minimo = Integer.parseInt(guion < 0 ? valor : valor.substring(0, guion));
+        int maximo = guion < 0 ? minimo : Integer.parseInt(valor.substring(guion + 1));
+        if (maximo < minimo) {
+            throw new IllegalArgumentException("Rango no válido: " + valor);
+        }
+        return new int[]{minimo, maximo};
+    }
+
+    private static int entre(int minimo, int maximo, Random random) {
+        return minimo + random.nextInt(maximo - minimo + 1);
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * Contadores de uno o varios cajeros
+     */
+    private static final class Resultado {
+        private long confirmadas;
+        private long sinStock;
+        private long errores;
+        private long reintentos;
+        private long unidades;
+        private HistogramaLatencia latencias = new HistogramaLatencia();
+
+        void combinar(Resultado otro) {
+            confirmadas += otro.confirmadas;
+            sinStock += otro.sinStock;
+            errores += otro.errores;
+            reintentos += otro.reintentos;
+            unidades += otro.unidades;
+            latencias.combinar(otro.latencias);
+        }
+
+        String serializar() {
+            return confirmadas + " " + sinStock + " " + errores + " " + reintentos + " " + unidades + " " +
+                   latencias.serializar();
+        }
+
+        static Resultado deserializar(String texto) {
+            String[] partes = texto.split(" ");
+            if (partes.length != 6) {
+                throw new IllegalArgumentException("Resultado con formato inválido");
+            }
+            Resultado resultado = new Resultado();
+            resultado.confirmadas = Long.parseLong(partes[0]);
+            resultado.sinStock = Long.parseLong(partes[1]);
+            resultado.errores = Long.parseLong(partes[2]);
+            resultado.reintentos = Long.parseLong(partes[3]);
+            resultado.unidades = Long.parseLong(partes[4]);
+            resultado.latencias = HistogramaLatencia.deserializar(partes[5]);
+            return resultado;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.inventario.metricas;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador monótono de eventos (ventas confirmadas, rechazos, etc.)
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class Contador {
+
+    private final String nombre;
+    private final LongAdder cuenta = new LongAdder();
+
+    Contador(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public void incrementar() {
+        cuenta.increment();
+    }
+
+    public void incrementar(long cantidad) {
+        cuenta.add(cantidad);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public long getCuenta() {
+        return cuenta.sum();
+    }
+
+    void reiniciar() {
+        cuenta.reset();
+    }
+
+    ValorMetrica instantanea() {
+        long total = cuenta.sum();
+        return new ValorMetrica(nombre, ValorMetrica.Tipo.CONTADOR, total, 0, 0, 0, 0, 0);
+    }
+}
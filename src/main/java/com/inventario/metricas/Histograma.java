@@ -0,0 +1,48 @@
+package com.inventario.metricas;
+
+import com.inventario.util.HistogramaLatencia;
+
+/**
+ * Distribución de valores enteros (por ejemplo, líneas por venta o filas
+ * devueltas), con percentiles
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class Histograma {
+
+    private final String nombre;
+    private final ValorMetrica.Tipo tipo;
+    private HistogramaLatencia valores = new HistogramaLatencia();
+
+    Histograma(String nombre) {
+        this(nombre, ValorMetrica.Tipo.HISTOGRAMA);
+    }
+
+    Histograma(String nombre, ValorMetrica.Tipo tipo) {
+        this.nombre = nombre;
+        this.tipo = tipo;
+    }
+
+    /**
+     * Registra un valor. El bloqueo solo cubre unas pocas operaciones sobre
+     * un arreglo, por lo que la contención es despreciable frente a una consulta.
+     */
+    public synchronized void registrar(long valor) {
+        valores.registrar(valor);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    synchronized void reiniciar() {
+        valores = new HistogramaLatencia();
+    }
+
+    synchronized ValorMetrica instantanea() {
+        return new ValorMetrica(nombre, tipo, valores.getTotal(), valores.getMedia(),
+                                valores.getPercentil(50), valores.getPercentil(99),
+                                valores.getPercentil(99.9), valores.getMaximo());
+    }
+}
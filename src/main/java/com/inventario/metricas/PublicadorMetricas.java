@@ -0,0 +1,20 @@
+package com.inventario.metricas;
+
+import java.util.List;
+
+/**
+ * Destino al que el registro envía periódicamente sus métricas (un archivo,
+ * un servidor de monitoreo, etc.)
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public interface PublicadorMetricas {
+
+    /**
+     * Publica el estado de las métricas. Se invoca desde un hilo de fondo.
+     *
+     * @param metricas Valores acumulados desde el arranque o el último reinicio
+     */
+    void publicar(List<ValorMetrica> metricas);
+}
@@ -0,0 +1,155 @@
+package com.inventario.metricas;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Registro central de métricas de la aplicación: contadores, temporizadores e
+ * histogramas identificados por nombre ("ProductoDAO.obtenerTodos",
+ * "ventas.confirmadas", ...).
+ *
+ * Las métricas se crean la primera vez que se piden y se acumulan desde el
+ * arranque (o el último reinicio). Los publicadores registrados reciben una
+ * instantánea periódica desde un hilo de fondo.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class RegistroMetricas {
+
+    private static final Logger logger = Logger.getLogger(RegistroMetricas.class.getName());
+    private static RegistroMetricas instance;
+
+    private final Map<String, Contador> contadores = new ConcurrentHashMap<>();
+    private final Map<String, Histograma> histogramas = new ConcurrentHashMap<>();
+    private final List<PublicadorMetricas> publicadores = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService programador;
+    private ScheduledFuture<?> publicacion;
+
+    private RegistroMetricas() {
+    }
+
+    /**
+     * Obtiene la instancia única del registro (Singleton)
+     */
+    public static synchronized RegistroMetricas getInstance() {
+        if (instance == null) {
+            instance = new RegistroMetricas();
+        }
+        return instance;
+    }
+
+    public Contador contador(String nombre) {
+        return contadores.computeIfAbsent(nombre, Contador::new);
+    }
+
+    /**
+     * @throws IllegalArgumentException Si ya existe un histograma con ese nombre
+     */
+    public Temporizador temporizador(String nombre) {
+        Histograma metrica = histogramas.computeIfAbsent(nombre, Temporizador::new);
+        if (!(metrica instanceof Temporizador)) {
+            throw new IllegalArgumentException("La métrica " + nombre + " no es un temporizador");
+        }
+        return (Temporizador) metrica;
+    }
+
+    /**
+     * @throws IllegalArgumentException Si ya existe un temporizador con ese nombre
+     */
+    public Histograma histograma(String nombre) {
+        Histograma metrica = histogramas.computeIfAbsent(nombre, Histograma::new);
+        if (metrica instanceof Temporizador) {
+            throw new IllegalArgumentException("La métrica " + nombre + " es un temporizador");
+        }
+        return metrica;
+    }
+
+    /**
+     * Atajo para medir un bloque con el temporizador indicado
+     */
+    public Temporizador.Medicion medir(String nombre) {
+        return temporizador(nombre).iniciar();
+    }
+
+    /**
+     * Valores actuales de todas las métricas, ordenados por nombre
+     */
+    public List<ValorMetrica> obtenerInstantanea() {
+        List<ValorMetrica> valores = new ArrayList<>();
+        for (Contador contador : contadores.values()) {
+            valores.add(contador.instantanea());
+        }
+        for (Histograma histograma : histogramas.values()) {
+            valores.add(histograma.instantanea());
+        }
+        valores.sort(Comparator.comparing(ValorMetrica::getNombre));
+        return valores;
+    }
+
+    /**
+     * Pone a cero todas las métricas (se conservan los nombres)
+     */
+    public void reiniciar() {
+        contadores.values().forEach(Contador::reiniciar);
+        histogramas.values().forEach(Histograma::reiniciar);
+    }
+
+    public void agregarPublicador(PublicadorMetricas publicador) {
+        publicadores.add(publicador);
+    }
+
+    public void quitarPublicador(PublicadorMetricas publicador) {
+        publicadores.remove(publicador);
+    }
+
+    /**
+     * Publica las métricas cada cierto tiempo en un hilo de fondo (reemplaza
+     * una publicación anterior)
+     *
+     * @param periodoSegundos Intervalo entre publicaciones
+     */
+    public synchronized void iniciarPublicacion(long periodoSegundos) {
+        detenerPublicacion();
+        if (programador == null) {
+            programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, "publicacion-metricas");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+        publicacion = programador.scheduleAtFixedRate(this::publicar, periodoSegundos, periodoSegundos,
+                                                       TimeUnit.SECONDS);
+    }
+
+    public synchronized void detenerPublicacion() {
+        if (publicacion != null) {
+            publicacion.cancel(false);
+            publicacion = null;
+        }
+    }
+
+    /**
+     * Envía una instantánea a todos los publicadores; el fallo de uno no
+     * impide que los demás la reciban
+     */
+    public void publicar() {
+        List<ValorMetrica> valores = obtenerInstantanea();
+        for (PublicadorMetricas publicador : publicadores) {
+            try {
+                publicador.publicar(valores);
+            } catch (RuntimeException e) {
+                logger.warning("Error al publicar métricas: " + e.getMessage());
+            }
+        }
+    }
+}
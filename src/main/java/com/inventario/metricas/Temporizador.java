@@ -0,0 +1,51 @@
+package com.inventario.metricas;
+
+/**
+ * Mide cuántas veces se ejecuta una operación y cuánto tarda (en nanosegundos)
+ *
+ * Uso habitual:
+ * <pre>
+ * try (Temporizador.Medicion medicion = metricas.medir("FacturaService.emitirFactura")) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class Temporizador extends Histograma {
+
+    Temporizador(String nombre) {
+        super(nombre, ValorMetrica.Tipo.TEMPORIZADOR);
+    }
+
+    /**
+     * Empieza a medir; la duración se registra al cerrar la medición
+     */
+    public Medicion iniciar() {
+        return new Medicion(this);
+    }
+
+    /**
+     * Medición en curso. close() no lanza excepciones, así que puede usarse en
+     * try-with-resources sin alterar las excepciones del método medido.
+     */
+    public static final class Medicion implements AutoCloseable {
+        private final Temporizador temporizador;
+        private final long inicio;
+        private boolean cerrada;
+
+        private Medicion(Temporizador temporizador) {
+            this.temporizador = temporizador;
+            this.inicio = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            if (!cerrada) {
+                cerrada = true;
+                temporizador.registrar(System.nanoTime() - inicio);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.inventario.metricas;
+
+/**
+ * Valor de una métrica en un instante, tal como se muestra o se vuelca
+ *
+ * Para los temporizadores media, percentiles y máximo están en nanosegundos;
+ * para los contadores solo tiene sentido la cuenta.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class ValorMetrica {
+
+    /**
+     * Tipos de métrica del registro
+     */
+    public enum Tipo {
+        CONTADOR("Contador"),
+        TEMPORIZADOR("Temporizador"),
+        HISTOGRAMA("Histograma");
+
+        private final String descripcion;
+
+        Tipo(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        public String getDescripcion() {
+            return descripcion;
+        }
+    }
+
+    private final String nombre;
+    private final Tipo tipo;
+    private final long cuenta;
+    private final double media;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long maximo;
+
+    public ValorMetrica(String nombre, Tipo tipo, long cuenta, double media, long p50, long p99,
+                        long p999, long maximo) {
+        this.nombre = nombre;
+        this.tipo = tipo;
+        this.cuenta = cuenta;
+        this.media = media;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.maximo = maximo;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public long getCuenta() {
+        return cuenta;
+    }
+
+    public double getMedia() {
+        return media;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public long getMaximo() {
+        return maximo;
+    }
+
+    @Override
+    public String toString() {
+        if (tipo == Tipo.CONTADOR) {
+            return String.format("%s cuenta=%d", nombre, cuenta);
+        }
+        if (tipo == Tipo.TEMPORIZADOR) {
+            return String.format("%s cuenta=%d media=%.3fms p50=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms",
+                                 nombre, cuenta, media / 1e6, p50 / 1e6, p99 / 1e6, p999 / 1e6, maximo / 1e6);
+        }
+        return String.format("%s cuenta=%d media=%.2f p50=%d p99=%d p99.9=%d max=%d",
+                             nombre, cuenta, media, p50, p99, p999, maximo);
+    }
+}
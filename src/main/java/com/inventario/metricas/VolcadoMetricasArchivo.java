@@ -0,0 +1,65 @@
+package com.inventario.metricas;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Publicador que añade cada instantánea de métricas a un archivo de texto
+ * rotativo (metricas0.log, metricas1.log, ...): al superar el tamaño máximo
+ * se abre un archivo nuevo y se descarta el más antiguo.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class VolcadoMetricasArchivo implements PublicadorMetricas {
+
+    private static final int TAMANO_MAXIMO_BYTES = 5 * 1024 * 1024;
+    private static final int ARCHIVOS = 5;
+
+    private final Logger volcado;
+
+    /**
+     * @param directorio Directorio de los archivos (se crea si no existe)
+     * @throws IOException Si no se puede crear el directorio o abrir el archivo
+     */
+    public VolcadoMetricasArchivo(Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+        FileHandler archivo = new FileHandler(directorio.resolve("metricas%g.log").toString(),
+                                              TAMANO_MAXIMO_BYTES, ARCHIVOS, true);
+        archivo.setEncoding("UTF-8");
+        archivo.setFormatter(new Formatter() {
+            @Override
+            public String format(LogRecord registro) {
+                return registro.getMessage() + System.lineSeparator();
+            }
+        });
+
+        // Logger propio que no propaga a la consola
+        volcado = Logger.getLogger(VolcadoMetricasArchivo.class.getName() + "." + directorio.toAbsolutePath());
+        volcado.setUseParentHandlers(false);
+        volcado.setLevel(Level.INFO);
+        volcado.addHandler(archivo);
+    }
+
+    @Override
+    public void publicar(List<ValorMetrica> metricas) {
+        if (metricas.isEmpty()) {
+            return;
+        }
+
+        StringBuilder texto = new StringBuilder();
+        texto.append("# ").append(LocalDateTime.now().withNano(0)).append(System.lineSeparator());
+        for (ValorMetrica metrica : metricas) {
+            texto.append(metrica).append(System.lineSeparator());
+        }
+        volcado.info(texto.toString());
+    }
+}
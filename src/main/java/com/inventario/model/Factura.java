@@ -1,6 +1,5 @@
 package com.inventario.model;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -10,17 +9,26 @@ import java.time.LocalDateTime;
  * @version 1.0
  */
 public class Factura {
+
+    /**
+     * Tarifa general del IVA, en porcentaje
+     */
+    public static final int PORCENTAJE_IVA = 19;
+
     private int id;
     private Venta venta;
     private String numeroFactura;
     private String clienteNombre;
     private String clienteDocumento;
     private LocalDateTime fechaEmision;
-    private BigDecimal subtotal;
-    private BigDecimal iva;
-    private BigDecimal total;
+    private Money subtotal;
+    private Money iva;
+    private Money total;
     private String observaciones;
     private boolean generada;
+    private boolean incluyeIVA;
+    private byte[] contenidoTexto;
+    private byte[] contenidoHTML;
 
     // Constructores
     public Factura() {
@@ -37,26 +45,25 @@ public class Factura {
     }
 
     /**
-     * Genera un número de factura único
+     * Genera el número de factura a partir del consecutivo (el id). Mientras
+     * la factura no se emite lleva el sufijo BORRADOR en lugar del consecutivo.
      */
     private void generarNumeroFactura() {
         // Formato: FACT-YYYYMMDD-NNNN
-        String fecha = LocalDateTime.now().toString().substring(0, 10).replace("-", "");
-        int numero = id > 0 ? id : (int) (Math.random() * 9999) + 1;
-        this.numeroFactura = String.format("FACT-%s-%04d", fecha, numero);
+        String fecha = fechaEmision.toLocalDate().toString().replace("-", "");
+        this.numeroFactura = id > 0 ? String.format("FACT-%s-%04d", fecha, id) : "FACT-" + fecha + "-BORRADOR";
     }
 
     /**
-     * Calcula el IVA (19%) y el total
+     * Calcula el IVA (19%, redondeado al centavo) y el total
      */
     private void calcularIvaYTotal() {
         if (subtotal != null) {
-            // IVA del 19%
-            this.iva = subtotal.multiply(BigDecimal.valueOf(0.19));
-            this.total = subtotal.add(iva);
+            this.iva = subtotal.porcentaje(PORCENTAJE_IVA);
+            this.total = subtotal.sumar(iva);
         } else {
-            this.iva = BigDecimal.ZERO;
-            this.total = BigDecimal.ZERO;
+            this.iva = Money.CERO;
+            this.total = Money.CERO;
         }
     }
 
@@ -114,28 +121,28 @@ public class Factura {
         this.fechaEmision = fechaEmision;
     }
 
-    public BigDecimal getSubtotal() {
+    public Money getSubtotal() {
         return subtotal;
     }
 
-    public void setSubtotal(BigDecimal subtotal) {
+    public void setSubtotal(Money subtotal) {
         this.subtotal = subtotal;
         calcularIvaYTotal();
     }
 
-    public BigDecimal getIva() {
+    public Money getIva() {
         return iva;
     }
 
-    public void setIva(BigDecimal iva) {
+    public void setIva(Money iva) {
         this.iva = iva;
     }
 
-    public BigDecimal getTotal() {
+    public Money getTotal() {
         return total;
     }
 
-    public void setTotal(BigDecimal total) {
+    public void setTotal(Money total) {
         this.total = total;
     }
 
@@ -155,6 +162,36 @@ public class Factura {
         this.generada = generada;
     }
 
+    public boolean isIncluyeIVA() {
+        return incluyeIVA;
+    }
+
+    public void setIncluyeIVA(boolean incluyeIVA) {
+        this.incluyeIVA = incluyeIVA;
+    }
+
+    /**
+     * Documento de texto tal como se emitió (UTF-8), o null si no se ha emitido
+     */
+    public byte[] getContenidoTexto() {
+        return contenidoTexto;
+    }
+
+    public void setContenidoTexto(byte[] contenidoTexto) {
+        this.contenidoTexto = contenidoTexto;
+    }
+
+    /**
+     * Documento HTML tal como se emitió (UTF-8), o null si no se ha emitido
+     */
+    public byte[] getContenidoHTML() {
+        return contenidoHTML;
+    }
+
+    public void setContenidoHTML(byte[] contenidoHTML) {
+        this.contenidoHTML = contenidoHTML;
+    }
+
     /**
      * Recalcula IVA y total
      */
@@ -1,7 +1,5 @@
 package com.inventario.model;
 
-import java.math.BigDecimal;
-
 /**
  * Modelo de datos para representar un item de venta
  * 
@@ -13,8 +11,8 @@ public class ItemVenta {
     private Venta venta;
     private Producto producto;
     private int cantidad;
-    private BigDecimal precioUnitario;
-    private BigDecimal subtotal;
+    private Money precioUnitario;
+    private Money subtotal;
 
     // Constructores
     public ItemVenta() {
@@ -65,20 +63,20 @@ public class ItemVenta {
         calcularSubtotal();
     }
 
-    public BigDecimal getPrecioUnitario() {
+    public Money getPrecioUnitario() {
         return precioUnitario;
     }
 
-    public void setPrecioUnitario(BigDecimal precioUnitario) {
+    public void setPrecioUnitario(Money precioUnitario) {
         this.precioUnitario = precioUnitario;
         calcularSubtotal();
     }
 
-    public BigDecimal getSubtotal() {
+    public Money getSubtotal() {
         return subtotal;
     }
 
-    public void setSubtotal(BigDecimal subtotal) {
+    public void setSubtotal(Money subtotal) {
         this.subtotal = subtotal;
     }
 
@@ -87,9 +85,9 @@ public class ItemVenta {
      */
     private void calcularSubtotal() {
         if (precioUnitario != null && cantidad > 0) {
-            this.subtotal = precioUnitario.multiply(BigDecimal.valueOf(cantidad));
+            this.subtotal = precioUnitario.multiplicar(cantidad);
         } else {
-            this.subtotal = BigDecimal.ZERO;
+            this.subtotal = Money.CERO;
         }
     }
 
@@ -0,0 +1,96 @@
+package com.inventario.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila del recorrido de exportación de ventas: los datos de la venta
+ * repetidos en cada una de sus líneas. Una venta sin items produce una sola
+ * fila sin producto.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public final class LineaVentaExportada {
+
+    private final int ventaId;
+    private final LocalDateTime fechaVenta;
+    private final String vendedor;
+    private final int cantidadItems;
+    private final Money totalVenta;
+    private final String codigoProducto;
+    private final String nombreProducto;
+    private final int cantidad;
+    private final Money precioUnitario;
+    private final Money subtotal;
+
+    public LineaVentaExportada(int ventaId, LocalDateTime fechaVenta, String vendedor, int cantidadItems,
+                               Money totalVenta, String codigoProducto, String nombreProducto,
+                               int cantidad, Money precioUnitario, Money subtotal) {
+        this.ventaId = ventaId;
+        this.fechaVenta = fechaVenta;
+        this.vendedor = vendedor;
+        this.cantidadItems = cantidadItems;
+        this.totalVenta = totalVenta;
+        this.codigoProducto = codigoProducto;
+        this.nombreProducto = nombreProducto;
+        this.cantidad = cantidad;
+        this.precioUnitario = precioUnitario;
+        this.subtotal = subtotal;
+    }
+
+    public int getVentaId() {
+        return ventaId;
+    }
+
+    public LocalDateTime getFechaVenta() {
+        return fechaVenta;
+    }
+
+    public String getVendedor() {
+        return vendedor;
+    }
+
+    /**
+     * Número de líneas de la venta
+     */
+    public int getCantidadItems() {
+        return cantidadItems;
+    }
+
+    public Money getTotalVenta() {
+        return totalVenta;
+    }
+
+    /**
+     * Indica si la fila corresponde a una línea (false en ventas sin items)
+     */
+    public boolean tieneItem() {
+        return nombreProducto != null;
+    }
+
+    public String getCodigoProducto() {
+        return codigoProducto;
+    }
+
+    public String getNombreProducto() {
+        return nombreProducto;
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    public Money getPrecioUnitario() {
+        return precioUnitario;
+    }
+
+    public Money getSubtotal() {
+        return subtotal;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LineaVentaExportada{venta=%d, producto='%s', cantidad=%d, subtotal=%s}",
+                           ventaId, codigoProducto, cantidad, subtotal);
+    }
+}
@@ -0,0 +1,173 @@
+package com.inventario.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valor monetario inmutable expresado en centavos
+ *
+ * Se guarda como un long de centavos, de modo que sumar y multiplicar por
+ * cantidades es aritmética entera exacta y no crea objetos intermedios como
+ * BigDecimal. Reglas de redondeo:
+ * - sumar, restar y multiplicar por una cantidad entera son exactas
+ * - porcentaje y dividir redondean al centavo más cercano, con la mitad
+ *   alejándose de cero (HALF_UP), una sola vez por operación
+ * - de(BigDecimal) y parse(String) redondean igual a dos decimales
+ * - un desbordamiento lanza ArithmeticException en lugar de dar un valor erróneo
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money CERO = new Money(0);
+
+    private static final int DECIMALES = 2;
+    private static final long CENTAVOS_POR_PESO = 100;
+
+    private final long centavos;
+
+    private Money(long centavos) {
+        this.centavos = centavos;
+    }
+
+    /**
+     * @param centavos Valor en centavos
+     */
+    public static Money deCentavos(long centavos) {
+        return centavos == 0 ? CERO : new Money(centavos);
+    }
+
+    /**
+     * @param pesos Valor en pesos enteros
+     */
+    public static Money dePesos(long pesos) {
+        return deCentavos(Math.multiplyExact(pesos, CENTAVOS_POR_PESO));
+    }
+
+    /**
+     * Convierte un BigDecimal redondeando a centavos (HALF_UP)
+     *
+     * @return El valor, o CERO si es null
+     */
+    public static Money de(BigDecimal valor) {
+        if (valor == null) {
+            return CERO;
+        }
+        return deCentavos(valor.setScale(DECIMALES, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Convierte un valor leído de una columna DECIMAL de SQLite, que se
+     * almacena como REAL. Con dos decimales el redondeo al centavo es exacto.
+     */
+    public static Money deDouble(double valor) {
+        return deCentavos(Math.round(valor * CENTAVOS_POR_PESO));
+    }
+
+    /**
+     * Interpreta un texto como "1500" o "1500.50"
+     *
+     * @throws NumberFormatException Si el texto no es un número
+     */
+    public static Money parse(String texto) {
+        return de(new BigDecimal(texto.trim()));
+    }
+
+    public long getCentavos() {
+        return centavos;
+    }
+
+    public Money sumar(Money otro) {
+        return deCentavos(Math.addExact(centavos, otro.centavos));
+    }
+
+    public Money restar(Money otro) {
+        return deCentavos(Math.subtractExact(centavos, otro.centavos));
+    }
+
+    /**
+     * Multiplica por una cantidad entera (precio por unidades)
+     */
+    public Money multiplicar(long cantidad) {
+        return deCentavos(Math.multiplyExact(centavos, cantidad));
+    }
+
+    /**
+     * Porcentaje del valor redondeado al centavo, p. ej. porcentaje(19) para el IVA
+     */
+    public Money porcentaje(long porcentaje) {
+        return deCentavos(dividirRedondeado(Math.multiplyExact(centavos, porcentaje), 100));
+    }
+
+    /**
+     * Porcentaje con decimales (descuentos ingresados por el usuario)
+     */
+    public Money porcentaje(BigDecimal porcentaje) {
+        return de(toBigDecimal().multiply(porcentaje).movePointLeft(2));
+    }
+
+    /**
+     * Divide en partes iguales redondeando al centavo (promedios)
+     */
+    public Money dividir(long divisor) {
+        return deCentavos(dividirRedondeado(centavos, divisor));
+    }
+
+    public boolean esCero() {
+        return centavos == 0;
+    }
+
+    public boolean esPositivo() {
+        return centavos > 0;
+    }
+
+    /**
+     * Valor con dos decimales, para formatear o para APIs que requieren BigDecimal
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(centavos, DECIMALES);
+    }
+
+    /**
+     * Valor para guardar en una columna DECIMAL de SQLite
+     */
+    public double toDouble() {
+        return centavos / (double) CENTAVOS_POR_PESO;
+    }
+
+    /**
+     * División entera redondeando la mitad lejos de cero
+     */
+    private static long dividirRedondeado(long dividendo, long divisor) {
+        long cociente = dividendo / divisor;
+        long resto = dividendo % divisor;
+        if (Math.abs(resto) * 2 >= Math.abs(divisor)) {
+            cociente += (dividendo < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return cociente;
+    }
+
+    @Override
+    public int compareTo(Money otro) {
+        return Long.compare(centavos, otro.centavos);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Money && ((Money) obj).centavos == centavos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(centavos);
+    }
+
+    /**
+     * Valor sin formato con dos decimales, p. ej. "1500.50"
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
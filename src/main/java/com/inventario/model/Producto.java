@@ -1,6 +1,5 @@
 package com.inventario.model;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 /**
@@ -14,7 +13,7 @@ public class Producto {
     private String codigo;
     private String nombre;
     private String descripcion;
-    private BigDecimal precio;
+    private Money precio;
     private int cantidad;
     private String categoria;
     private LocalDateTime fechaRegistro;
@@ -26,7 +25,7 @@ public class Producto {
         this.activo = true;
     }
 
-    public Producto(String nombre, String descripcion, BigDecimal precio, int cantidad, String categoria) {
+    public Producto(String nombre, String descripcion, Money precio, int cantidad, String categoria) {
         this();
         this.nombre = nombre;
         this.descripcion = descripcion;
@@ -35,6 +34,22 @@ public class Producto {
         this.categoria = categoria;
     }
 
+    /**
+     * Constructor de copia
+     * @param otro Producto a copiar
+     */
+    public Producto(Producto otro) {
+        this.id = otro.id;
+        this.codigo = otro.codigo;
+        this.nombre = otro.nombre;
+        this.descripcion = otro.descripcion;
+        this.precio = otro.precio;
+        this.cantidad = otro.cantidad;
+        this.categoria = otro.categoria;
+        this.fechaRegistro = otro.fechaRegistro;
+        this.activo = otro.activo;
+    }
+
     // Getters y Setters
     public int getId() {
         return id;
@@ -68,11 +83,11 @@ public class Producto {
         this.descripcion = descripcion;
     }
 
-    public BigDecimal getPrecio() {
+    public Money getPrecio() {
         return precio;
     }
 
-    public void setPrecio(BigDecimal precio) {
+    public void setPrecio(Money precio) {
         this.precio = precio;
     }
 
@@ -111,8 +126,8 @@ public class Producto {
     /**
      * Calcula el valor total del producto (precio * cantidad)
      */
-    public BigDecimal getValorTotal() {
-        return precio.multiply(BigDecimal.valueOf(cantidad));
+    public Money getValorTotal() {
+        return precio.multiplicar(cantidad);
     }
 
     /**
@@ -0,0 +1,50 @@
+package com.inventario.model;
+
+/**
+ * Fila del reporte de productos más vendidos: unidades e ingresos de un
+ * producto, sumados con el precio al que se vendió cada línea
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public final class ProductoVendido {
+
+    private final int productoId;
+    private final String codigo;
+    private final String nombre;
+    private final long unidades;
+    private final Money ingresos;
+
+    public ProductoVendido(int productoId, String codigo, String nombre, long unidades, Money ingresos) {
+        this.productoId = productoId;
+        this.codigo = codigo;
+        this.nombre = nombre;
+        this.unidades = unidades;
+        this.ingresos = ingresos;
+    }
+
+    public int getProductoId() {
+        return productoId;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public long getUnidades() {
+        return unidades;
+    }
+
+    public Money getIngresos() {
+        return ingresos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ProductoVendido{codigo='%s', unidades=%d, ingresos=%s}", codigo, unidades, ingresos);
+    }
+}
@@ -0,0 +1,134 @@
+package com.inventario.model;
+
+/**
+ * Resultado del registro de una venta
+ * Indica si la venta se confirmó y, si falló, qué línea del carrito lo causó
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class ResultadoVenta {
+
+    /**
+     * Motivos por los que una venta puede ser rechazada
+     */
+    public enum Motivo {
+        CONFIRMADA("Venta confirmada"),
+        CARRITO_VACIO("La venta no tiene items"),
+        DATOS_INVALIDOS("Datos de la venta inválidos"),
+        PRODUCTO_NO_ENCONTRADO("Producto no encontrado o inactivo"),
+        STOCK_INSUFICIENTE("Stock insuficiente"),
+        ERROR_BASE_DATOS("Error en la base de datos");
+
+        private final String descripcion;
+
+        Motivo(String descripcion) {
+            this.descripcion = descripcion;
+        }
+
+        public String getDescripcion() {
+            return descripcion;
+        }
+    }
+
+    private final Motivo motivo;
+    private final Venta venta;
+    private final int indiceLinea;
+    private final ItemVenta itemFallido;
+    private final int stockDisponible;
+    private final String detalle;
+
+    private ResultadoVenta(Motivo motivo, Venta venta, int indiceLinea, ItemVenta itemFallido,
+                           int stockDisponible, String detalle) {
+        this.motivo = motivo;
+        this.venta = venta;
+        this.indiceLinea = indiceLinea;
+        this.itemFallido = itemFallido;
+        this.stockDisponible = stockDisponible;
+        this.detalle = detalle;
+    }
+
+    /**
+     * Crea un resultado exitoso
+     */
+    public static ResultadoVenta exito(Venta venta) {
+        return new ResultadoVenta(Motivo.CONFIRMADA, venta, -1, null, -1, null);
+    }
+
+    /**
+     * Crea un resultado fallido que no depende de una línea concreta
+     */
+    public static ResultadoVenta fallo(Motivo motivo, Venta venta, String detalle) {
+        return new ResultadoVenta(motivo, venta, -1, null, -1, detalle);
+    }
+
+    /**
+     * Crea un resultado fallido causado por una línea del carrito
+     *
+     * @param indiceLinea Posición (base 0) del item en la venta
+     * @param stockDisponible Stock encontrado en BD, o -1 si no se conoce
+     */
+    public static ResultadoVenta falloEnLinea(Motivo motivo, Venta venta, int indiceLinea,
+                                              int stockDisponible) {
+        ItemVenta item = venta.getItems().get(indiceLinea);
+        return new ResultadoVenta(motivo, venta, indiceLinea, item, stockDisponible, null);
+    }
+
+    public boolean isExitoso() {
+        return motivo == Motivo.CONFIRMADA;
+    }
+
+    public Motivo getMotivo() {
+        return motivo;
+    }
+
+    public Venta getVenta() {
+        return venta;
+    }
+
+    public int getIndiceLinea() {
+        return indiceLinea;
+    }
+
+    public ItemVenta getItemFallido() {
+        return itemFallido;
+    }
+
+    public int getStockDisponible() {
+        return stockDisponible;
+    }
+
+    public String getDetalle() {
+        return detalle;
+    }
+
+    /**
+     * Mensaje legible para mostrar al usuario
+     */
+    public String getMensaje() {
+        if (isExitoso()) {
+            return motivo.getDescripcion();
+        }
+
+        StringBuilder sb = new StringBuilder(motivo.getDescripcion());
+        if (itemFallido != null && itemFallido.getProducto() != null) {
+            Producto producto = itemFallido.getProducto();
+            sb.append(String.format(" en la línea %d: %s - %s",
+                indiceLinea + 1, producto.getCodigo(), producto.getNombre()));
+            if (motivo == Motivo.STOCK_INSUFICIENTE && stockDisponible >= 0) {
+                sb.append(String.format(" (disponible: %d, solicitado: %d)",
+                    stockDisponible, itemFallido.getCantidad()));
+            }
+        }
+        if (detalle != null) {
+            sb.append(": ").append(detalle);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ResultadoVenta{motivo=%s, linea=%d, mensaje='%s'}",
+                           motivo, indiceLinea, getMensaje());
+    }
+}
@@ -1,6 +1,5 @@
 package com.inventario.model;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,13 +14,13 @@ public class Venta {
     private int id;
     private Usuario usuario;
     private List<ItemVenta> items;
-    private BigDecimal total;
+    private Money total;
     private LocalDateTime fechaVenta;
 
     // Constructores
     public Venta() {
         this.items = new ArrayList<>();
-        this.total = BigDecimal.ZERO;
+        this.total = Money.CERO;
         this.fechaVenta = LocalDateTime.now();
     }
 
@@ -56,11 +55,11 @@ public class Venta {
         calcularTotal();
     }
 
-    public BigDecimal getTotal() {
+    public Money getTotal() {
         return total;
     }
 
-    public void setTotal(BigDecimal total) {
+    public void setTotal(Money total) {
         this.total = total;
     }
 
@@ -89,12 +88,14 @@ public class Venta {
     }
 
     /**
-     * Calcula el total de la venta
+     * Calcula el total de la venta sumando los centavos de cada item
      */
     private void calcularTotal() {
-        this.total = items.stream()
-                .map(ItemVenta::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long centavos = 0;
+        for (ItemVenta item : items) {
+            centavos = Math.addExact(centavos, item.getSubtotal().getCentavos());
+        }
+        this.total = Money.deCentavos(centavos);
     }
 
     /**
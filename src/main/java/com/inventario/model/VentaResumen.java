@@ -0,0 +1,67 @@
+package com.inventario.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resumen de una venta para las pantallas de listado: solo las columnas que
+ * se muestran, sin items, productos ni el usuario completo. El detalle se
+ * carga con VentaService.obtenerVentaPorId al abrir la venta.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public final class VentaResumen {
+
+    private final int id;
+    private final LocalDateTime fechaVenta;
+    private final int usuarioId;
+    private final String vendedor;
+    private final int cantidadItems;
+    private final Money total;
+
+    public VentaResumen(int id, LocalDateTime fechaVenta, int usuarioId, String vendedor,
+                        int cantidadItems, Money total) {
+        this.id = id;
+        this.fechaVenta = fechaVenta;
+        this.usuarioId = usuarioId;
+        this.vendedor = vendedor;
+        this.cantidadItems = cantidadItems;
+        this.total = total;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public LocalDateTime getFechaVenta() {
+        return fechaVenta;
+    }
+
+    public int getUsuarioId() {
+        return usuarioId;
+    }
+
+    /**
+     * Nombre del vendedor
+     */
+    public String getVendedor() {
+        return vendedor;
+    }
+
+    /**
+     * Número de líneas de la venta
+     */
+    public int getCantidadItems() {
+        return cantidadItems;
+    }
+
+    public Money getTotal() {
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("VentaResumen{id=%d, total=%s, items=%d, fecha=%s}",
+                           id, total, cantidadItems, fechaVenta);
+    }
+}
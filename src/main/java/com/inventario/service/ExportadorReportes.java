@@ -0,0 +1,652 @@
+package com.inventario.service;
+
+import com.inventario.dao.ExportacionDAO;
+import com.inventario.metricas.RegistroMetricas;
+import com.inventario.metricas.Temporizador;
+import com.inventario.model.LineaVentaExportada;
+import com.inventario.model.Producto;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.text.NumberFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exporta ventas y productos a archivo sin cargarlos en memoria.
+ *
+ * Las filas llegan una a una desde ExportacionDAO y se escriben de inmediato
+ * en un canal de archivo con buffer (opcionalmente comprimido con gzip), así
+ * la memoria usada es la misma para diez ventas que para un millón. Formatos:
+ * - TEXTO: el reporte legible de siempre
+ * - CSV: una fila por línea de venta (o por producto), separada por comas
+ * - JSON_LINEAS: un objeto JSON por venta (con sus items) o por producto
+ *
+ * Una exportación se puede cancelar interrumpiendo el hilo que la ejecuta;
+ * el archivo incompleto se elimina.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class ExportadorReportes {
+
+    private static final RegistroMetricas metricas = RegistroMetricas.getInstance();
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    /** Cada cuántas ventas o productos se informa el avance */
+    private static final int INTERVALO_PROGRESO = 500;
+    private static final String SEPARADOR = "========================================\n";
+    private static final String SEPARADOR_VENTA = "----------------------------------------\n";
+    private static final DateTimeFormatter FORMATO_ARCHIVO = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+    private static final DateTimeFormatter FORMATO_GENERACION = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    private static final DateTimeFormatter FORMATO_FECHA_VENTA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    /**
+     * Formato del archivo exportado
+     */
+    public enum Formato {
+        TEXTO("Texto (reporte)", "txt"),
+        CSV("CSV", "csv"),
+        JSON_LINEAS("JSON Lines", "jsonl");
+
+        private final String descripcion;
+        private final String extension;
+
+        Formato(String descripcion, String extension) {
+            this.descripcion = descripcion;
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        @Override
+        public String toString() {
+            return descripcion;
+        }
+    }
+
+    /**
+     * Opciones de una exportación. Los filtros solo se aplican a las ventas.
+     */
+    public static final class Opciones {
+        private final Formato formato;
+        private final boolean comprimir;
+        private final LocalDate desde;
+        private final LocalDate hasta;
+        private final Integer usuarioId;
+
+        /**
+         * @param formato Formato del archivo
+         * @param comprimir true para escribir el archivo con gzip (.gz)
+         * @param desde Primer día incluido (null = sin límite)
+         * @param hasta Último día incluido (null = sin límite)
+         * @param usuarioId Vendedor (null = todos)
+         */
+        public Opciones(Formato formato, boolean comprimir, LocalDate desde, LocalDate hasta, Integer usuarioId) {
+            this.formato = formato;
+            this.comprimir = comprimir;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.usuarioId = usuarioId;
+        }
+
+        /**
+         * Reporte de texto sin comprimir y sin filtros
+         */
+        public static Opciones texto() {
+            return new Opciones(Formato.TEXTO, false, null, null, null);
+        }
+
+        public Formato getFormato() {
+            return formato;
+        }
+
+        public boolean isComprimir() {
+            return comprimir;
+        }
+
+        public LocalDate getDesde() {
+            return desde;
+        }
+
+        public LocalDate getHasta() {
+            return hasta;
+        }
+
+        public Integer getUsuarioId() {
+            return usuarioId;
+        }
+    }
+
+    /**
+     * Recibe el avance de una exportación desde el hilo que la ejecuta
+     */
+    @FunctionalInterface
+    public interface Progreso {
+        /**
+         * @param procesados Ventas o productos escritos hasta ahora
+         * @param total Total a escribir
+         */
+        void actualizar(int procesados, int total);
+    }
+
+    private final ExportacionDAO exportacionDAO;
+    private final Path directorio;
+
+    /**
+     * Exportador que escribe en el directorio de trabajo
+     */
+    public ExportadorReportes() {
+        this(Paths.get(""));
+    }
+
+    /**
+     * @param directorio Directorio donde se crean los archivos
+     */
+    public ExportadorReportes(Path directorio) {
+        this.exportacionDAO = new ExportacionDAO();
+        this.directorio = directorio;
+    }
+
+    /**
+     * Exporta las ventas que cumplen los filtros de las opciones
+     *
+     * @param opciones Formato, compresión y filtros
+     * @param progreso Recibe el avance (puede ser null)
+     * @return Ruta del archivo creado
+     * @throws IOException Si hay error al escribir, al consultar o si se cancela
+     */
+    public String exportarVentas(Opciones opciones, Progreso progreso) throws IOException {
+        try (Temporizador.Medicion medicion = metricas.medir("ExportadorReportes.exportarVentas")) {
+            return exportar("reporte_ventas_", opciones, salida -> {
+                EscritorVentas escritor = crearEscritorVentas(opciones.getFormato(), salida);
+                Avance avance = new Avance(progreso);
+                exportacionDAO.recorrerVentas(opciones.getDesde(), opciones.getHasta(), opciones.getUsuarioId(),
+                    total -> avance.total = total,
+                    linea -> {
+                        if (linea.getVentaId() != escritor.ventaActual) {
+                            avance.contar();
+                        }
+                        escritor.escribir(linea, avance.total);
+                    });
+                escritor.terminar(avance.total);
+                avance.terminar();
+            });
+        }
+    }
+
+    /**
+     * Exporta los productos activos
+     *
+     * @param opciones Formato y compresión (los filtros no se aplican)
+     * @param progreso Recibe el avance (puede ser null)
+     * @return Ruta del archivo creado
+     * @throws IOException Si hay error al escribir, al consultar o si se cancela
+     */
+    public String exportarProductos(Opciones opciones, Progreso progreso) throws IOException {
+        try (Temporizador.Medicion medicion = metricas.medir("ExportadorReportes.exportarProductos")) {
+            return exportar("reporte_productos_", opciones, salida -> {
+                EscritorProductos escritor = new EscritorProductos(opciones.getFormato(), salida);
+                Avance avance = new Avance(progreso);
+                exportacionDAO.recorrerProductos(
+                    total -> avance.total = total,
+                    producto -> {
+                        avance.contar();
+                        escritor.escribir(producto, avance.total);
+                    });
+                escritor.terminar();
+                avance.terminar();
+            });
+        }
+    }
+
+    /**
+     * Trabajo de escritura sobre el archivo abierto
+     */
+    @FunctionalInterface
+    private interface Escritura {
+        void escribir(Writer salida) throws IOException, SQLException;
+    }
+
+    /**
+     * Crea el archivo, ejecuta la escritura y lo cierra; si algo falla el
+     * archivo incompleto se elimina
+     */
+    private String exportar(String prefijo, Opciones opciones, Escritura escritura) throws IOException {
+        String nombre = prefijo + LocalDateTime.now().format(FORMATO_ARCHIVO) + "." +
+                       opciones.getFormato().getExtension() + (opciones.isComprimir() ? ".gz" : "");
+        Path archivo = directorio.resolve(nombre);
+
+        boolean completo = false;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             Writer salida = crearSalida(canal, opciones.isComprimir())) {
+            escritura.escribir(salida);
+            completo = true;
+        } catch (SQLException e) {
+            throw new IOException("Error al leer los datos: " + e.getMessage(), e);
+        } finally {
+            if (!completo) {
+                Files.deleteIfExists(archivo);
+            }
+        }
+        return archivo.toString();
+    }
+
+    private Writer crearSalida(FileChannel canal, boolean comprimir) throws IOException {
+        OutputStream salida = Channels.newOutputStream(canal);
+        salida = comprimir ? new GZIPOutputStream(salida, TAMANO_BUFFER) : new BufferedOutputStream(salida, TAMANO_BUFFER);
+        return new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANO_BUFFER);
+    }
+
+    /**
+     * Cuenta las ventas o productos escritos, informa el avance cada
+     * INTERVALO_PROGRESO elementos y detiene la exportación si el hilo fue
+     * interrumpido
+     */
+    private static final class Avance {
+        private final Progreso progreso;
+        private int total;
+        private int procesados;
+
+        Avance(Progreso progreso) {
+            this.progreso = progreso;
+        }
+
+        void contar() throws InterruptedIOException {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Exportación cancelada");
+            }
+            procesados++;
+            if (progreso != null && procesados % INTERVALO_PROGRESO == 0) {
+                progreso.actualizar(procesados, total);
+            }
+        }
+
+        void terminar() {
+            if (progreso != null) {
+                progreso.actualizar(procesados, total);
+            }
+        }
+    }
+
+    private EscritorVentas crearEscritorVentas(Formato formato, Writer salida) {
+        switch (formato) {
+            case CSV:
+                return new VentasCsv(salida);
+            case JSON_LINEAS:
+                return new VentasJson(salida);
+            default:
+                return new VentasTexto(salida);
+        }
+    }
+
+    /**
+     * Escribe las líneas de venta en el orden del recorrido; las líneas de
+     * una misma venta llegan seguidas
+     */
+    private abstract static class EscritorVentas {
+        protected final Writer salida;
+        /** Venta de la última línea recibida (0 antes de la primera) */
+        int ventaActual;
+
+        EscritorVentas(Writer salida) {
+            this.salida = salida;
+        }
+
+        void escribir(LineaVentaExportada linea, int total) throws IOException {
+            if (linea.getVentaId() != ventaActual) {
+                if (ventaActual == 0) {
+                    iniciar(total);
+                } else {
+                    cerrarVenta();
+                }
+                ventaActual = linea.getVentaId();
+                abrirVenta(linea);
+            }
+            if (linea.tieneItem()) {
+                escribirItem(linea);
+            }
+        }
+
+        void terminar(int total) throws IOException {
+            if (ventaActual == 0) {
+                iniciar(total);
+            } else {
+                cerrarVenta();
+            }
+            finalizar();
+        }
+
+        void iniciar(int total) throws IOException {
+        }
+
+        abstract void abrirVenta(LineaVentaExportada venta) throws IOException;
+
+        abstract void escribirItem(LineaVentaExportada item) throws IOException;
+
+        void cerrarVenta() throws IOException {
+        }
+
+        void finalizar() throws IOException {
+        }
+    }
+
+    /**
+     * Reporte de texto con el mismo diseño que el reporte original
+     */
+    private static final class VentasTexto extends EscritorVentas {
+        private final NumberFormat formatoMonto = crearFormatoMonto();
+
+        VentasTexto(Writer salida) {
+            super(salida);
+        }
+
+        @Override
+        void iniciar(int total) throws IOException {
+            escribirEncabezado(salida, "    REPORTE DE VENTAS\n", "Total de ventas: ", total);
+        }
+
+        @Override
+        void abrirVenta(LineaVentaExportada venta) throws IOException {
+            salida.append("Venta #").append(Integer.toString(venta.getVentaId())).append('\n')
+                  .append("Fecha: ").append(venta.getFechaVenta().format(FORMATO_FECHA_VENTA)).append('\n')
+                  .append("Vendedor: ").append(String.valueOf(venta.getVendedor())).append('\n')
+                  .append("Items: ").append(Integer.toString(venta.getCantidadItems())).append('\n')
+                  .append("Total: $").append(formatoMonto.format(venta.getTotalVenta().toBigDecimal())).append('\n')
+                  .append(SEPARADOR_VENTA);
+        }
+
+        @Override
+        void escribirItem(LineaVentaExportada item) throws IOException {
+            salida.append("  - ").append(item.getNombreProducto())
+                  .append(" x").append(Integer.toString(item.getCantidad()))
+                  .append(" = $").append(formatoMonto.format(item.getSubtotal().toBigDecimal())).append('\n');
+        }
+
+        @Override
+        void cerrarVenta() throws IOException {
+            salida.append('\n');
+        }
+
+        @Override
+        void finalizar() throws IOException {
+            escribirPie(salida);
+        }
+    }
+
+    /**
+     * CSV: una fila por línea de venta con los datos de la venta repetidos;
+     * las ventas sin items tienen las columnas del item vacías
+     */
+    private static final class VentasCsv extends EscritorVentas {
+        private LineaVentaExportada venta;
+
+        VentasCsv(Writer salida) {
+            super(salida);
+        }
+
+        @Override
+        void iniciar(int total) throws IOException {
+            salida.append("venta_id,fecha,vendedor,total_venta,codigo,producto,cantidad,precio_unitario,subtotal\n");
+        }
+
+        @Override
+        void abrirVenta(LineaVentaExportada venta) throws IOException {
+            this.venta = venta;
+            if (!venta.tieneItem()) {
+                escribirColumnasVenta(venta);
+                salida.append(",,,,\n");
+            }
+        }
+
+        @Override
+        void escribirItem(LineaVentaExportada item) throws IOException {
+            escribirColumnasVenta(venta);
+            salida.append(',');
+            campoCsv(salida, item.getCodigoProducto());
+            salida.append(',');
+            campoCsv(salida, item.getNombreProducto());
+            salida.append(',').append(Integer.toString(item.getCantidad()))
+                  .append(',').append(item.getPrecioUnitario().toString())
+                  .append(',').append(item.getSubtotal().toString()).append('\n');
+        }
+
+        private void escribirColumnasVenta(LineaVentaExportada venta) throws IOException {
+            salida.append(Integer.toString(venta.getVentaId())).append(',')
+                  .append(venta.getFechaVenta().toString()).append(',');
+            campoCsv(salida, venta.getVendedor());
+            salida.append(',').append(venta.getTotalVenta().toString());
+        }
+    }
+
+    /**
+     * JSON Lines: un objeto por venta con sus items, escrito a medida que
+     * llegan las líneas
+     */
+    private static final class VentasJson extends EscritorVentas {
+        private boolean primerItem;
+
+        VentasJson(Writer salida) {
+            super(salida);
+        }
+
+        @Override
+        void abrirVenta(LineaVentaExportada venta) throws IOException {
+            salida.append("{\"id\":").append(Integer.toString(venta.getVentaId()))
+                  .append(",\"fecha\":\"").append(venta.getFechaVenta().toString())
+                  .append("\",\"vendedor\":");
+            textoJson(salida, venta.getVendedor());
+            salida.append(",\"total\":").append(venta.getTotalVenta().toString())
+                  .append(",\"items\":[");
+            primerItem = true;
+        }
+
+        @Override
+        void escribirItem(LineaVentaExportada item) throws IOException {
+            if (!primerItem) {
+                salida.append(',');
+            }
+            primerItem = false;
+            salida.append("{\"codigo\":");
+            textoJson(salida, item.getCodigoProducto());
+            salida.append(",\"producto\":");
+            textoJson(salida, item.getNombreProducto());
+            salida.append(",\"cantidad\":").append(Integer.toString(item.getCantidad()))
+                  .append(",\"precio_unitario\":").append(item.getPrecioUnitario().toString())
+                  .append(",\"subtotal\":").append(item.getSubtotal().toString()).append('}');
+        }
+
+        @Override
+        void cerrarVenta() throws IOException {
+            salida.append("]}\n");
+        }
+    }
+
+    /**
+     * Escribe productos en cualquiera de los formatos
+     */
+    private static final class EscritorProductos {
+        private final Formato formato;
+        private final Writer salida;
+        private final NumberFormat formatoMonto = crearFormatoMonto();
+        private boolean iniciado;
+
+        EscritorProductos(Formato formato, Writer salida) {
+            this.formato = formato;
+            this.salida = salida;
+        }
+
+        void escribir(Producto producto, int total) throws IOException {
+            if (!iniciado) {
+                iniciar(total);
+            }
+            switch (formato) {
+                case CSV:
+                    salida.append(Integer.toString(producto.getId())).append(',');
+                    campoCsv(salida, producto.getCodigo());
+                    salida.append(',');
+                    campoCsv(salida, producto.getNombre());
+                    salida.append(',');
+                    campoCsv(salida, producto.getCategoria());
+                    salida.append(',').append(Integer.toString(producto.getCantidad()))
+                          .append(',').append(producto.getPrecio().toString())
+                          .append(',').append(producto.getValorTotal().toString())
+                          .append(',').append(estadoStock(producto)).append('\n');
+                    break;
+                case JSON_LINEAS:
+                    salida.append("{\"id\":").append(Integer.toString(producto.getId())).append(",\"codigo\":");
+                    textoJson(salida, producto.getCodigo());
+                    salida.append(",\"nombre\":");
+                    textoJson(salida, producto.getNombre());
+                    salida.append(",\"categoria\":");
+                    textoJson(salida, producto.getCategoria());
+                    salida.append(",\"stock\":").append(Integer.toString(producto.getCantidad()))
+                          .append(",\"precio\":").append(producto.getPrecio().toString())
+                          .append(",\"valor_total\":").append(producto.getValorTotal().toString())
+                          .append(",\"estado\":\"").append(estadoStock(producto)).append("\"}\n");
+                    break;
+                default:
+                    salida.append("Código: ").append(String.valueOf(producto.getCodigo())).append('\n')
+                          .append("Nombre: ").append(producto.getNombre()).append('\n')
+                          .append("Categoría: ").append(String.valueOf(producto.getCategoria())).append('\n')
+                          .append("Stock: ").append(Integer.toString(producto.getCantidad())).append(" unidades\n")
+                          .append("Precio: $").append(formatoMonto.format(producto.getPrecio().toBigDecimal())).append('\n')
+                          .append("Valor Total: $").append(formatoMonto.format(producto.getValorTotal().toBigDecimal()))
+                          .append('\n')
+                          .append("Estado: ").append(estadoStock(producto)).append('\n')
+                          .append(SEPARADOR_VENTA).append('\n');
+                    break;
+            }
+        }
+
+        void terminar() throws IOException {
+            if (!iniciado) {
+                iniciar(0);
+            }
+            if (formato == Formato.TEXTO) {
+                escribirPie(salida);
+            }
+        }
+
+        private void iniciar(int total) throws IOException {
+            iniciado = true;
+            if (formato == Formato.TEXTO) {
+                escribirEncabezado(salida, "    REPORTE DE PRODUCTOS\n", "Total de productos: ", total);
+            } else if (formato == Formato.CSV) {
+                salida.append("id,codigo,nombre,categoria,stock,precio,valor_total,estado\n");
+            }
+        }
+
+        private static String estadoStock(Producto producto) {
+            return producto.getCantidad() == 0 ? "SIN STOCK" :
+                   producto.getCantidad() < 5 ? "STOCK BAJO" :
+                   producto.getCantidad() < 10 ? "STOCK MEDIO" : "STOCK OK";
+        }
+    }
+
+    private static void escribirEncabezado(Writer salida, String titulo, String etiquetaTotal, int total)
+            throws IOException {
+        salida.append(SEPARADOR).append(titulo).append(SEPARADOR)
+              .append("Fecha de generación: ").append(LocalDateTime.now().format(FORMATO_GENERACION)).append('\n')
+              .append(etiquetaTotal).append(Integer.toString(total)).append('\n')
+              .append(SEPARADOR).append('\n');
+    }
+
+    private static void escribirPie(Writer salida) throws IOException {
+        salida.append(SEPARADOR).append("FIN DEL REPORTE\n").append(SEPARADOR);
+    }
+
+    /**
+     * Formato de montos del reporte de texto, equivalente a "%,.2f"
+     */
+    private static NumberFormat crearFormatoMonto() {
+        NumberFormat formato = NumberFormat.getNumberInstance();
+        formato.setMinimumFractionDigits(2);
+        formato.setMaximumFractionDigits(2);
+        return formato;
+    }
+
+    /**
+     * Escribe un campo CSV, entre comillas solo si contiene separadores,
+     * comillas o saltos de línea (RFC 4180)
+     */
+    private static void campoCsv(Writer salida, String valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        boolean comillas = false;
+        for (int i = 0; i < valor.length() && !comillas; i++) {
+            char c = valor.charAt(i);
+            comillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!comillas) {
+            salida.append(valor);
+            return;
+        }
+        salida.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                salida.append('"');
+            }
+            salida.append(c);
+        }
+        salida.append('"');
+    }
+
+    /**
+     * Escribe un texto como cadena JSON (o null)
+     */
+    private static void textoJson(Writer salida, String valor) throws IOException {
+        if (valor == null) {
+            salida.append("null");
+            return;
+        }
+        salida.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"':
+                    salida.append("\\\"");
+                    break;
+                case '\\':
+                    salida.append("\\\\");
+                    break;
+                case '\n':
+                    salida.append("\\n");
+                    break;
+                case '\r':
+                    salida.append("\\r");
+                    break;
+                case '\t':
+                    salida.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        salida.append("\\u00");
+                        salida.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        salida.append(c);
+                    }
+            }
+        }
+        salida.append('"');
+    }
+}
@@ -0,0 +1,386 @@
+package com.inventario.service;
+
+import com.inventario.dao.FacturaDAO;
+import com.inventario.metricas.RegistroMetricas;
+import com.inventario.metricas.Temporizador;
+import com.inventario.model.Factura;
+import com.inventario.model.Venta;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Genera las facturas de varias ventas en una sola operación (cierre del día).
+ *
+ * Las ventas se cargan con las consultas por conjuntos de VentaDAO, no una
+ * por venta. Las facturas se emiten en bloques de TAMANO_BLOQUE: cada bloque
+ * genera sus documentos (sin número) en un ejecutor acotado compartido y
+ * después, en una transacción corta, reserva sus números, los escribe en los
+ * documentos y se registra (ver FacturaDAO); luego el hilo que llama escribe
+ * los documentos emitidos en un directorio o en un único archivo zip. Una venta que falla (no existe, no tiene items,
+ * error al generarla) no detiene el lote: queda en el reporte de fallos del
+ * resultado y no consume número.
+ *
+ * Si el lote se cancela o falla la escritura, los bloques ya registrados
+ * quedan emitidos y se pueden reimprimir desde FacturaService.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class FacturaLoteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FacturaLoteService.class);
+    private static final RegistroMetricas metricas = RegistroMetricas.getInstance();
+
+    private static final int HILOS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final int CAPACIDAD_COLA = 64;
+    /** Facturas emitidas por transacción (y números reservados por bloque) */
+    private static final int TAMANO_BLOQUE = 100;
+
+    private static final ThreadPoolExecutor ejecutor = crearEjecutor();
+
+    /**
+     * Formato de las facturas generadas
+     */
+    public enum Formato {
+        TEXTO("Texto (.txt)", "txt"),
+        HTML("HTML para imprimir (.html)", "html");
+
+        private final String descripcion;
+        private final String extension;
+
+        Formato(String descripcion, String extension) {
+            this.descripcion = descripcion;
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        @Override
+        public String toString() {
+            return descripcion;
+        }
+    }
+
+    /**
+     * Opciones de un lote de facturas
+     */
+    public static final class Opciones {
+        private final Formato formato;
+        private final Path destino;
+        private final boolean zip;
+        private final String clienteNombre;
+        private final String clienteDocumento;
+        private final boolean incluirIVA;
+
+        /**
+         * @param formato Formato de las facturas
+         * @param destino Directorio de salida, o el archivo .zip si zip es true
+         * @param zip true para escribir todas las facturas en un solo zip
+         * @param clienteNombre Cliente que figura en todas las facturas
+         * @param clienteDocumento Documento del cliente
+         * @param incluirIVA true para calcular el IVA
+         */
+        public Opciones(Formato formato, Path destino, boolean zip, String clienteNombre,
+                        String clienteDocumento, boolean incluirIVA) {
+            this.formato = formato;
+            this.destino = destino;
+            this.zip = zip;
+            this.clienteNombre = clienteNombre;
+            this.clienteDocumento = clienteDocumento;
+            this.incluirIVA = incluirIVA;
+        }
+
+        public Formato getFormato() {
+            return formato;
+        }
+
+        public Path getDestino() {
+            return destino;
+        }
+
+        public boolean isZip() {
+            return zip;
+        }
+
+        public String getClienteNombre() {
+            return clienteNombre;
+        }
+
+        public String getClienteDocumento() {
+            return clienteDocumento;
+        }
+
+        public boolean isIncluirIVA() {
+            return incluirIVA;
+        }
+    }
+
+    /**
+     * Recibe el avance del lote desde el hilo que lo ejecuta
+     */
+    @FunctionalInterface
+    public interface Progreso {
+        /**
+         * @param procesadas Facturas escritas o fallidas hasta ahora
+         * @param total Ventas del lote
+         */
+        void actualizar(int procesadas, int total);
+    }
+
+    /**
+     * Resultado de un lote
+     */
+    public static final class Resultado {
+        private final Path destino;
+        private final int generadas;
+        private final Map<Integer, String> fallos;
+
+        Resultado(Path destino, int generadas, Map<Integer, String> fallos) {
+            this.destino = destino;
+            this.generadas = generadas;
+            this.fallos = fallos;
+        }
+
+        /**
+         * Directorio o zip donde se escribieron las facturas
+         */
+        public Path getDestino() {
+            return destino;
+        }
+
+        public int getGeneradas() {
+            return generadas;
+        }
+
+        /**
+         * Ventas que no se pudieron facturar: id de la venta -> motivo
+         */
+        public Map<Integer, String> getFallos() {
+            return fallos;
+        }
+    }
+
+    private final VentaService ventaService;
+    private final FacturaService facturaService;
+    private final FacturaDAO facturaDAO;
+
+    public FacturaLoteService() {
+        this.ventaService = new VentaService();
+        this.facturaService = new FacturaService();
+        this.facturaDAO = new FacturaDAO();
+    }
+
+    /**
+     * Genera las facturas de las ventas indicadas
+     *
+     * @param ventaIds Ventas a facturar (los repetidos se ignoran)
+     * @param opciones Formato, destino y datos del cliente
+     * @param progreso Recibe el avance (puede ser null)
+     * @return Facturas generadas y fallos por venta
+     * @throws IOException Si no se puede registrar o escribir, o si se cancela;
+     *                     un zip incompleto se elimina
+     */
+    public Resultado generarLote(List<Integer> ventaIds, Opciones opciones, Progreso progreso) throws IOException {
+        try (Temporizador.Medicion medicion = metricas.medir("FacturaLoteService.generarLote")) {
+            List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(ventaIds));
+            Map<Integer, String> fallos = new LinkedHashMap<>();
+
+            Map<Integer, Venta> ventasPorId = new HashMap<>();
+            for (Venta venta : ventaService.obtenerVentasPorIds(ids)) {
+                ventasPorId.put(venta.getId(), venta);
+            }
+
+            if (opciones.isZip()) {
+                boolean completo = false;
+                try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(opciones.getDestino())))) {
+                    int generadas = generar(ids, ventasPorId, opciones, fallos, progreso, factura -> {
+                        zip.putNextEntry(new ZipEntry(nombreArchivo(factura, opciones)));
+                        zip.write(contenido(factura, opciones));
+                        zip.closeEntry();
+                    });
+                    completo = true;
+                    return new Resultado(opciones.getDestino(), generadas, fallos);
+                } finally {
+                    if (!completo) {
+                        Files.deleteIfExists(opciones.getDestino());
+                    }
+                }
+            }
+
+            Files.createDirectories(opciones.getDestino());
+            int generadas = generar(ids, ventasPorId, opciones, fallos, progreso, factura ->
+                Files.write(opciones.getDestino().resolve(nombreArchivo(factura, opciones)), contenido(factura, opciones)));
+            return new Resultado(opciones.getDestino(), generadas, fallos);
+        }
+    }
+
+    /**
+     * Escritura de una factura emitida en el destino
+     */
+    @FunctionalInterface
+    private interface Escritura {
+        void escribir(Factura factura) throws IOException;
+    }
+
+    /**
+     * Emite las facturas por bloques y escribe cada bloque en este hilo una
+     * vez registrado
+     *
+     * @return Número de facturas escritas
+     */
+    private int generar(List<Integer> ids, Map<Integer, Venta> ventasPorId, Opciones opciones,
+                        Map<Integer, String> fallos, Progreso progreso, Escritura escritura) throws IOException {
+        int total = ids.size();
+        int procesadas = 0;
+        int generadas = 0;
+        List<Factura> bloque = new ArrayList<>(TAMANO_BLOQUE);
+
+        for (int i = 0; i < ids.size(); i++) {
+            Integer id = ids.get(i);
+            Venta venta = ventasPorId.get(id);
+            if (venta == null) {
+                fallos.put(id, "La venta no existe");
+                procesadas++;
+            } else if (venta.getItems() == null || venta.getItems().isEmpty()) {
+                fallos.put(id, "La venta no tiene items");
+                procesadas++;
+            } else {
+                Factura factura = new Factura(venta);
+                factura.setClienteNombre(opciones.getClienteNombre());
+                factura.setClienteDocumento(opciones.getClienteDocumento());
+                bloque.add(factura);
+            }
+
+            if (bloque.size() == TAMANO_BLOQUE || (i == ids.size() - 1 && !bloque.isEmpty())) {
+                List<Factura> emitidas = emitir(bloque, opciones, fallos);
+                procesadas += bloque.size() - emitidas.size();
+                for (Factura factura : emitidas) {
+                    escritura.escribir(factura);
+                    generadas++;
+                    procesadas++;
+                    if (progreso != null) {
+                        progreso.actualizar(procesadas, total);
+                    }
+                }
+                bloque.clear();
+            }
+        }
+
+        if (progreso != null) {
+            progreso.actualizar(total, total);
+        }
+        logger.info("lote de facturas generadas={} fallidas={} formato={} destino={}",
+                    generadas, fallos.size(), opciones.getFormato(), opciones.getDestino());
+        return generadas;
+    }
+
+    /**
+     * Genera los documentos de un bloque y emite en una transacción las
+     * facturas que se pudieron generar
+     *
+     * @return Facturas emitidas; las que fallaron quedan en fallos
+     */
+    private List<Factura> emitir(List<Factura> bloque, Opciones opciones, Map<Integer, String> fallos)
+            throws IOException {
+        Map<Factura, FacturaService.ContenidoPreparado> contenidos = prepararContenido(bloque, opciones, fallos);
+        List<Factura> listas = new ArrayList<>(contenidos.keySet());
+        try {
+            facturaDAO.emitir(listas, factura -> contenidos.get(factura).completar(factura));
+            return listas;
+        } catch (SQLException e) {
+            throw new IOException("Error al registrar las facturas: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Genera en el ejecutor el documento (sin número) de las facturas
+     *
+     * @return Documento de cada factura que se pudo generar, en el orden del bloque
+     */
+    private Map<Factura, FacturaService.ContenidoPreparado> prepararContenido(List<Factura> facturas, Opciones opciones,
+                                                                            Map<Integer, String> fallos)
+            throws IOException {
+        List<Future<FacturaService.ContenidoPreparado>> tareas = new ArrayList<>(facturas.size());
+        Map<Factura, FacturaService.ContenidoPreparado> contenidos = new LinkedHashMap<>();
+        try {
+            for (Factura factura : facturas) {
+                tareas.add(ejecutor.submit(() -> facturaService.prepararContenido(factura, opciones.isIncluirIVA())));
+            }
+            for (int i = 0; i < tareas.size(); i++) {
+                try {
+                    contenidos.put(facturas.get(i), tareas.get(i).get());
+                } catch (ExecutionException e) {
+                    Factura factura = facturas.get(i);
+                    Throwable causa = e.getCause();
+                    logger.warn("factura de lote fallida venta={}", factura.getVenta().getId(), causa);
+                    fallos.put(factura.getVenta().getId(),
+                               causa.getMessage() != null ? causa.getMessage() : causa.toString());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Generación de facturas cancelada");
+        } finally {
+            // Si se canceló, las tareas pendientes ya no sirven
+            for (Future<?> tarea : tareas) {
+                tarea.cancel(true);
+            }
+        }
+        return contenidos;
+    }
+
+    private static byte[] contenido(Factura factura, Opciones opciones) {
+        return opciones.getFormato() == Formato.HTML ? factura.getContenidoHTML() : factura.getContenidoTexto();
+    }
+
+    private static String nombreArchivo(Factura factura, Opciones opciones) {
+        // El id de la venta identifica la factura dentro del lote
+        return "factura_" + factura.getNumeroFactura().replace("-", "_") +
+               "_venta" + factura.getVenta().getId() + "." + opciones.getFormato().getExtension();
+    }
+
+    private static ThreadPoolExecutor crearEjecutor() {
+        ThreadFactory fabrica = new ThreadFactory() {
+            private final AtomicInteger contador = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable tarea) {
+                Thread hilo = new Thread(tarea, "factura-lote-" + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            }
+        };
+
+        // Con la cola llena el hilo que envía genera la factura él mismo en
+        // lugar de rechazarla
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(HILOS, HILOS, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(CAPACIDAD_COLA), fabrica, new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
@@ -1,16 +1,33 @@
 package com.inventario.service;
 
+import com.inventario.dao.FacturaDAO;
 import com.inventario.model.Factura;
 import com.inventario.model.ItemVenta;
-import java.io.FileWriter;
+import com.inventario.model.Money;
+import com.inventario.metricas.RegistroMetricas;
+import com.inventario.metricas.Temporizador;
+import com.inventario.util.FormatoMoneda;
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.text.NumberFormat;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 /**
  * Servicio para generación y gestión de facturas
+ *
+ * Las facturas se renderizan con plantillas precompiladas (ver Plantilla) y
+ * el formato de moneda es FormatoMoneda, así que el servicio no tiene estado
+ * mutable y una misma instancia se puede usar desde varios hilos.
+ *
+ * Una factura emitida recibe el siguiente consecutivo y se guarda con su
+ * documento (ver FacturaDAO); guardarla o imprimirla de nuevo usa ese
+ * documento y no la venta actual. El documento se genera antes de emitir,
+ * con el número como campo diferido de la plantilla: dentro de la
+ * transacción de emisión solo se escribe el número en los bytes ya generados.
  * 
  * @author Equipo de Desarrollo
  * @version 1.0
@@ -22,124 +39,195 @@ public class FacturaService {
     private static final String DIRECCION_EMPRESA = "Calle 123 #45-67, Medellín";
     private static final String TELEFONO_EMPRESA = "(604) 123-4567";
     private static final String EMAIL_EMPRESA = "ventas@inventario.com";
+
+    private static final int LARGO_MAXIMO_PRODUCTO = 40;
     
-    private NumberFormat formatoMoneda;
-    private DateTimeFormatter formatoFecha;
+    private static final RegistroMetricas metricas = RegistroMetricas.getInstance();
+    private static final FormatoMoneda formatoMoneda = FormatoMoneda.predeterminado();
+    private static final DateTimeFormatter formatoFecha = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    private static final Plantilla<DatosFactura> plantillaTexto =
+        definirFactura(false).compilar(Plantilla.leerRecurso("plantillas/factura.txt"), Plantilla.Escape.NINGUNO);
+    private static final Plantilla<DatosFactura> plantillaHTML =
+        definirFactura(true).compilar(Plantilla.leerRecurso("plantillas/factura.html"), Plantilla.Escape.HTML);
+
+    private FacturaDAO facturaDAO;
+
+    /**
+     * Factura y opciones con las que se renderiza
+     */
+    private static final class DatosFactura {
+        final Factura factura;
+        final boolean incluirIVA;
+
+        DatosFactura(Factura factura, boolean incluirIVA) {
+            this.factura = factura;
+            this.incluirIVA = incluirIVA;
+        }
+    }
+
+    /**
+     * Campos de las plantillas de factura
+     *
+     * @param html true si el nombre del producto se escribe completo (en el
+     *             texto se recorta para que quepa en su columna)
+     */
+    private static Plantilla.Definicion<DatosFactura> definirFactura(boolean html) {
+        Plantilla.Definicion<ItemVenta> item = new Plantilla.Definicion<ItemVenta>()
+            .texto("producto", i -> html ? i.getProducto().getNombre() : recortarNombre(i.getProducto().getNombre()))
+            .entero("cantidad", ItemVenta::getCantidad)
+            .moneda("precioUnitario", ItemVenta::getPrecioUnitario, formatoMoneda)
+            .moneda("subtotal", ItemVenta::getSubtotal, formatoMoneda);
+
+        return new Plantilla.Definicion<DatosFactura>()
+            .constante("empresa", NOMBRE_EMPRESA)
+            .constante("nit", NIT_EMPRESA)
+            .constante("direccion", DIRECCION_EMPRESA)
+            .constante("telefono", TELEFONO_EMPRESA)
+            .constante("email", EMAIL_EMPRESA)
+            .constante("etiquetaIVA", "IVA (" + Factura.PORCENTAJE_IVA + "%):")
+            .diferido("numero", d -> d.factura.getNumeroFactura())
+            .fecha("fecha", d -> d.factura.getFechaEmision(), formatoFecha)
+            .texto("vendedor", d -> d.factura.getVenta().getUsuario().getNombre())
+            .texto("clienteNombre", d -> d.factura.getClienteNombre())
+            .texto("clienteDocumento", d -> d.factura.getClienteDocumento())
+            .lista("items", d -> d.factura.getVenta().getItems(), item)
+            .moneda("subtotal", d -> d.factura.getSubtotal(), formatoMoneda)
+            .condicion("conIVA", d -> d.incluirIVA)
+            .moneda("iva", d -> d.factura.getIva(), formatoMoneda)
+            .moneda("total", d -> d.factura.getTotal(), formatoMoneda)
+            .condicion("observaciones", d -> d.factura.getObservaciones() != null &&
+                                             !d.factura.getObservaciones().isEmpty())
+            .texto("textoObservaciones", d -> d.factura.getObservaciones());
+    }
 
-    public FacturaService() {
-        this.formatoMoneda = NumberFormat.getCurrencyInstance();
-        this.formatoFecha = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+    private static String recortarNombre(String nombre) {
+        if (nombre.length() > LARGO_MAXIMO_PRODUCTO) {
+            return nombre.substring(0, LARGO_MAXIMO_PRODUCTO - 3) + "...";
+        }
+        return nombre;
+    }
+
+    /**
+     * Calcula subtotal, IVA y total a partir de los items y los asigna a la factura
+     */
+    private DatosFactura prepararFactura(Factura factura, boolean incluirIVA) {
+        long centavosSubtotal = 0;
+        for (ItemVenta item : factura.getVenta().getItems()) {
+            centavosSubtotal = Math.addExact(centavosSubtotal, item.getSubtotal().getCentavos());
+        }
+        Money subtotal = Money.deCentavos(centavosSubtotal);
+        Money iva = incluirIVA ? subtotal.porcentaje(Factura.PORCENTAJE_IVA) : Money.CERO;
+
+        factura.setSubtotal(subtotal);
+        factura.setIva(iva);
+        factura.setTotal(subtotal.sumar(iva));
+        return new DatosFactura(factura, incluirIVA);
     }
 
     /**
      * Genera el texto completo de la factura
      */
     public String generarFacturaTexto(Factura factura, boolean incluirIVA) {
-        StringBuilder sb = new StringBuilder();
-        
-        // Encabezado
-        sb.append("═══════════════════════════════════════════════════════════════════\n");
-        sb.append("                         FACTURA DE VENTA\n");
-        sb.append("═══════════════════════════════════════════════════════════════════\n\n");
-        
-        // Información de la empresa
-        sb.append(String.format("%-30s %s\n", "Empresa:", NOMBRE_EMPRESA));
-        sb.append(String.format("%-30s %s\n", "NIT:", NIT_EMPRESA));
-        sb.append(String.format("%-30s %s\n", "Dirección:", DIRECCION_EMPRESA));
-        sb.append(String.format("%-30s %s\n", "Teléfono:", TELEFONO_EMPRESA));
-        sb.append(String.format("%-30s %s\n", "Email:", EMAIL_EMPRESA));
-        sb.append("\n");
-        sb.append("───────────────────────────────────────────────────────────────────\n\n");
-        
-        // Información de la factura
-        sb.append(String.format("%-30s %s\n", "Número de Factura:", factura.getNumeroFactura()));
-        sb.append(String.format("%-30s %s\n", "Fecha de Emisión:", 
-            factura.getFechaEmision().format(formatoFecha)));
-        sb.append(String.format("%-30s %s\n", "Vendedor:", 
-            factura.getVenta().getUsuario().getNombre()));
-        sb.append("\n");
-        
-        // Información del cliente
-        sb.append("DATOS DEL CLIENTE:\n");
-        sb.append(String.format("%-30s %s\n", "Nombre:", factura.getClienteNombre()));
-        sb.append(String.format("%-30s %s\n", "Documento:", factura.getClienteDocumento()));
-        sb.append("\n");
-        sb.append("───────────────────────────────────────────────────────────────────\n\n");
-        
-        // Tabla de items
-        sb.append("DETALLE DE LA COMPRA:\n\n");
-        sb.append(String.format("%-40s %8s %12s %15s\n", 
-            "PRODUCTO", "CANT.", "PRECIO UNIT.", "SUBTOTAL"));
-        sb.append("───────────────────────────────────────────────────────────────────\n");
-        
-        BigDecimal subtotalGeneral = BigDecimal.ZERO;
-        
-        for (ItemVenta item : factura.getVenta().getItems()) {
-            String nombreProducto = item.getProducto().getNombre();
-            if (nombreProducto.length() > 40) {
-                nombreProducto = nombreProducto.substring(0, 37) + "...";
-            }
-            
-            sb.append(String.format("%-40s %8d %12s %15s\n",
-                nombreProducto,
-                item.getCantidad(),
-                formatoMoneda.format(item.getPrecioUnitario()),
-                formatoMoneda.format(item.getSubtotal())
-            ));
-            
-            subtotalGeneral = subtotalGeneral.add(item.getSubtotal());
+        try (Temporizador.Medicion medicion = metricas.medir("FacturaService.generarFacturaTexto")) {
+            return plantillaTexto.renderizar(prepararFactura(factura, incluirIVA));
         }
-        
-        sb.append("───────────────────────────────────────────────────────────────────\n\n");
-        
-        // Totales
-        sb.append("TOTALES:\n\n");
-        sb.append(String.format("%-50s %15s\n", "Subtotal:", 
-            formatoMoneda.format(subtotalGeneral)));
-        
-        if (incluirIVA) {
-            BigDecimal iva = subtotalGeneral.multiply(BigDecimal.valueOf(0.19));
-            BigDecimal total = subtotalGeneral.add(iva);
-            
-            sb.append(String.format("%-50s %15s\n", "IVA (19%):", 
-                formatoMoneda.format(iva)));
-            sb.append("───────────────────────────────────────────────────────────────────\n");
-            sb.append(String.format("%-50s %15s\n", "TOTAL A PAGAR:", 
-                formatoMoneda.format(total)));
-            
-            // Actualizar factura
-            factura.setSubtotal(subtotalGeneral);
-            factura.setIva(iva);
-            factura.setTotal(total);
-        } else {
-            sb.append("───────────────────────────────────────────────────────────────────\n");
-            sb.append(String.format("%-50s %15s\n", "TOTAL A PAGAR:", 
-                formatoMoneda.format(subtotalGeneral)));
-            
-            // Actualizar factura
-            factura.setSubtotal(subtotalGeneral);
-            factura.setIva(BigDecimal.ZERO);
-            factura.setTotal(subtotalGeneral);
+    }
+
+    /**
+     * Genera el texto de la factura como bytes UTF-8
+     */
+    public byte[] generarFacturaTextoBytes(Factura factura, boolean incluirIVA) {
+        try (Temporizador.Medicion medicion = metricas.medir("FacturaService.generarFacturaTexto")) {
+            return plantillaTexto.renderizarBytes(prepararFactura(factura, incluirIVA));
         }
-        
-        sb.append("\n");
-        sb.append("═══════════════════════════════════════════════════════════════════\n\n");
-        
-        // Pie de página
-        sb.append("                     ¡GRACIAS POR SU COMPRA!\n\n");
-        sb.append("        Esta factura es un documento válido para efectos legales\n");
-        sb.append("               y tributarios según la legislación vigente.\n\n");
-        
-        if (factura.getObservaciones() != null && !factura.getObservaciones().isEmpty()) {
-            sb.append("OBSERVACIONES:\n");
-            sb.append(factura.getObservaciones()).append("\n\n");
+    }
+
+    /**
+     * Documento de una factura generado en texto y HTML, con el número
+     * pendiente de escribir
+     */
+    public static final class ContenidoPreparado {
+        private final Plantilla.Documento texto;
+        private final Plantilla.Documento html;
+
+        private ContenidoPreparado(Plantilla.Documento texto, Plantilla.Documento html) {
+            this.texto = texto;
+            this.html = html;
+        }
+
+        /**
+         * Escribe el número actual de la factura en el documento y se lo asigna
+         */
+        public void completar(Factura factura) {
+            factura.setContenidoTexto(texto.completar(campo -> factura.getNumeroFactura()));
+            factura.setContenidoHTML(html.completar(campo -> factura.getNumeroFactura()));
         }
-        
-        sb.append("───────────────────────────────────────────────────────────────────\n");
-        sb.append("                Sistema de Inventario v1.0 - 2025\n");
-        sb.append("═══════════════════════════════════════════════════════════════════\n");
-        
-        return sb.toString();
+    }
+
+    /**
+     * Genera el documento de la factura en texto y HTML sin su número; se
+     * completa con ContenidoPreparado.completar una vez numerada
+     */
+    public ContenidoPreparado prepararContenido(Factura factura, boolean incluirIVA) {
+        try (Temporizador.Medicion medicion = metricas.medir("FacturaService.prepararContenido")) {
+            factura.setIncluyeIVA(incluirIVA);
+            DatosFactura datos = prepararFactura(factura, incluirIVA);
+            return new ContenidoPreparado(plantillaTexto.renderizarDocumento(datos),
+                                          plantillaHTML.renderizarDocumento(datos));
+        }
+    }
+
+    /**
+     * Emite la factura: genera su documento, le asigna el siguiente
+     * consecutivo y la guarda con el documento ya numerado
+     *
+     * @return La misma factura, ya emitida
+     * @throws IOException Si no se pudo registrar; la factura queda como borrador
+     */
+    public Factura emitirFactura(Factura factura, boolean incluirIVA) throws IOException {
+        try (Temporizador.Medicion medicion = metricas.medir("FacturaService.emitirFactura")) {
+            ContenidoPreparado contenido = prepararContenido(factura, incluirIVA);
+            facturaDAO().emitir(List.of(factura), contenido::completar);
+            return factura;
+        } catch (SQLException e) {
+            throw new IOException("Error al registrar la factura: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Obtiene una factura emitida con su documento
+     *
+     * @return Factura, o null si no existe
+     */
+    public Factura obtenerFacturaPorId(int id) {
+        return facturaDAO().obtenerPorId(id);
+    }
+
+    /**
+     * Obtiene una factura emitida por su número, con su documento
+     *
+     * @return Factura, o null si no existe
+     */
+    public Factura obtenerFacturaPorNumero(String numeroFactura) {
+        return facturaDAO().obtenerPorNumero(numeroFactura.trim().toUpperCase());
+    }
+
+    /**
+     * Facturas emitidas de una venta, la más reciente primero (sin documento)
+     */
+    public List<Factura> obtenerFacturasDeVenta(int ventaId) {
+        return facturaDAO().obtenerPorVenta(ventaId);
+    }
+
+    /**
+     * La base de datos se abre al primer uso: generar documentos no la necesita
+     */
+    private synchronized FacturaDAO facturaDAO() {
+        if (facturaDAO == null) {
+            facturaDAO = new FacturaDAO();
+        }
+        return facturaDAO;
     }
 
     /**
@@ -157,22 +245,19 @@ public class FacturaService {
     public String guardarFacturaArchivo(Factura factura, boolean incluirIVA) throws IOException {
         String nombreArchivo = generarNombreArchivo(factura);
         
-        try (FileWriter writer = new FileWriter(nombreArchivo)) {
-            String contenido = generarFacturaTexto(factura, incluirIVA);
-            writer.write(contenido);
-        }
-        
+        guardarFacturaArchivo(factura, incluirIVA, nombreArchivo);
         return nombreArchivo;
     }
     
     /**
-     * Guarda la factura en una ruta específica
+     * Guarda la factura en una ruta específica. Si ya se emitió se guarda el
+     * documento emitido.
      */
     public String guardarFacturaArchivo(Factura factura, boolean incluirIVA, String rutaCompleta) throws IOException {
-        try (FileWriter writer = new FileWriter(rutaCompleta)) {
-            String contenido = generarFacturaTexto(factura, incluirIVA);
-            writer.write(contenido);
-        }
+        byte[] contenido = factura.getContenidoTexto() != null
+            ? factura.getContenidoTexto()
+            : generarFacturaTextoBytes(factura, incluirIVA);
+        Files.write(Paths.get(rutaCompleta), contenido);
         
         return rutaCompleta;
     }
@@ -181,120 +266,29 @@ public class FacturaService {
      * Genera la factura en formato HTML para mejor impresión
      */
     public String generarFacturaHTML(Factura factura, boolean incluirIVA) {
-        StringBuilder sb = new StringBuilder();
-        
-        sb.append("<!DOCTYPE html>\n");
-        sb.append("<html>\n<head>\n");
-        sb.append("<meta charset='UTF-8'>\n");
-        sb.append("<title>Factura ").append(factura.getNumeroFactura()).append("</title>\n");
-        sb.append("<style>\n");
-        sb.append("body { font-family: 'Courier New', monospace; margin: 20px; background: white; }\n");
-        sb.append(".factura { max-width: 800px; margin: 0 auto; padding: 20px; }\n");
-        sb.append(".header { text-align: center; border-bottom: 3px double #000; padding-bottom: 10px; margin-bottom: 15px; }\n");
-        sb.append(".header h1 { margin: 0; font-size: 24px; }\n");
-        sb.append(".info { margin: 10px 0; }\n");
-        sb.append(".info-label { display: inline-block; width: 200px; font-weight: bold; }\n");
-        sb.append("table { width: 100%; border-collapse: collapse; margin: 15px 0; }\n");
-        sb.append("th { background: #333; color: white; padding: 8px; text-align: left; }\n");
-        sb.append("td { padding: 6px; border-bottom: 1px solid #ddd; }\n");
-        sb.append(".totales { text-align: right; margin-top: 20px; font-size: 14px; }\n");
-        sb.append(".total-line { margin: 5px 0; }\n");
-        sb.append(".total-final { font-size: 18px; font-weight: bold; border-top: 2px solid #000; padding-top: 10px; }\n");
-        sb.append(".footer { text-align: center; margin-top: 30px; border-top: 1px solid #000; padding-top: 10px; font-size: 12px; }\n");
-        sb.append("@media print { body { margin: 0; } .no-print { display: none; } }\n");
-        sb.append("</style>\n</head>\n<body>\n");
-        
-        sb.append("<div class='factura'>\n");
-        
-        // Encabezado
-        sb.append("<div class='header'>\n");
-        sb.append("<h1>FACTURA DE VENTA</h1>\n");
-        sb.append("<p><strong>").append(NOMBRE_EMPRESA).append("</strong></p>\n");
-        sb.append("<p>NIT: ").append(NIT_EMPRESA).append("</p>\n");
-        sb.append("<p>").append(DIRECCION_EMPRESA).append("</p>\n");
-        sb.append("<p>Tel: ").append(TELEFONO_EMPRESA).append(" | Email: ").append(EMAIL_EMPRESA).append("</p>\n");
-        sb.append("</div>\n");
-        
-        // Información de la factura
-        sb.append("<div class='info'>\n");
-        sb.append("<p><span class='info-label'>Número de Factura:</span>").append(factura.getNumeroFactura()).append("</p>\n");
-        sb.append("<p><span class='info-label'>Fecha de Emisión:</span>")
-          .append(factura.getFechaEmision().format(formatoFecha)).append("</p>\n");
-        sb.append("<p><span class='info-label'>Vendedor:</span>")
-          .append(factura.getVenta().getUsuario().getNombre()).append("</p>\n");
-        sb.append("<p><span class='info-label'>Cliente:</span>").append(factura.getClienteNombre()).append("</p>\n");
-        sb.append("<p><span class='info-label'>Documento:</span>").append(factura.getClienteDocumento()).append("</p>\n");
-        sb.append("</div>\n");
-        
-        // Tabla de productos
-        sb.append("<h3>Detalle de la Compra</h3>\n");
-        sb.append("<table>\n");
-        sb.append("<tr><th>Producto</th><th style='text-align:center'>Cantidad</th><th style='text-align:right'>Precio Unit.</th><th style='text-align:right'>Subtotal</th></tr>\n");
-        
-        BigDecimal subtotalGeneral = BigDecimal.ZERO;
-        
-        for (ItemVenta item : factura.getVenta().getItems()) {
-            sb.append("<tr>\n");
-            sb.append("<td>").append(item.getProducto().getNombre()).append("</td>\n");
-            sb.append("<td style='text-align:center'>").append(item.getCantidad()).append("</td>\n");
-            sb.append("<td style='text-align:right'>").append(formatoMoneda.format(item.getPrecioUnitario())).append("</td>\n");
-            sb.append("<td style='text-align:right'>").append(formatoMoneda.format(item.getSubtotal())).append("</td>\n");
-            sb.append("</tr>\n");
-            
-            subtotalGeneral = subtotalGeneral.add(item.getSubtotal());
+        try (Temporizador.Medicion medicion = metricas.medir("FacturaService.generarFacturaHTML")) {
+            return plantillaHTML.renderizar(prepararFactura(factura, incluirIVA));
         }
-        
-        sb.append("</table>\n");
-        
-        // Totales
-        sb.append("<div class='totales'>\n");
-        sb.append("<div class='total-line'><strong>Subtotal:</strong> ").append(formatoMoneda.format(subtotalGeneral)).append("</div>\n");
-        
-        if (incluirIVA) {
-            BigDecimal iva = subtotalGeneral.multiply(BigDecimal.valueOf(0.19));
-            BigDecimal total = subtotalGeneral.add(iva);
-            
-            sb.append("<div class='total-line'><strong>IVA (19%):</strong> ").append(formatoMoneda.format(iva)).append("</div>\n");
-            sb.append("<div class='total-final'><strong>TOTAL A PAGAR:</strong> ").append(formatoMoneda.format(total)).append("</div>\n");
-            
-            factura.setSubtotal(subtotalGeneral);
-            factura.setIva(iva);
-            factura.setTotal(total);
-        } else {
-            sb.append("<div class='total-final'><strong>TOTAL A PAGAR:</strong> ").append(formatoMoneda.format(subtotalGeneral)).append("</div>\n");
-            
-            factura.setSubtotal(subtotalGeneral);
-            factura.setIva(BigDecimal.ZERO);
-            factura.setTotal(subtotalGeneral);
-        }
-        
-        sb.append("</div>\n");
-        
-        // Observaciones
-        if (factura.getObservaciones() != null && !factura.getObservaciones().isEmpty()) {
-            sb.append("<p><strong>Observaciones:</strong><br>").append(factura.getObservaciones()).append("</p>\n");
+    }
+
+    /**
+     * Genera la factura HTML como bytes UTF-8
+     */
+    public byte[] generarFacturaHTMLBytes(Factura factura, boolean incluirIVA) {
+        try (Temporizador.Medicion medicion = metricas.medir("FacturaService.generarFacturaHTML")) {
+            return plantillaHTML.renderizarBytes(prepararFactura(factura, incluirIVA));
         }
-        
-        // Pie de página
-        sb.append("<div class='footer'>\n");
-        sb.append("<p><strong>¡GRACIAS POR SU COMPRA!</strong></p>\n");
-        sb.append("<p>Esta factura es un documento válido para efectos legales y tributarios</p>\n");
-        sb.append("<p style='margin-top:10px; font-size:10px;'>Sistema de Inventario v2.0 - 2025</p>\n");
-        sb.append("</div>\n");
-        
-        sb.append("</div>\n</body>\n</html>");
-        
-        return sb.toString();
     }
     
     /**
-     * Guarda la factura en formato HTML
+     * Guarda la factura en formato HTML. Si ya se emitió se guarda el
+     * documento emitido.
      */
     public String guardarFacturaHTML(Factura factura, boolean incluirIVA, String rutaCompleta) throws IOException {
-        try (FileWriter writer = new FileWriter(rutaCompleta)) {
-            String contenido = generarFacturaHTML(factura, incluirIVA);
-            writer.write(contenido);
-        }
+        byte[] contenido = factura.getContenidoHTML() != null
+            ? factura.getContenidoHTML()
+            : generarFacturaHTMLBytes(factura, incluirIVA);
+        Files.write(Paths.get(rutaCompleta), contenido);
         
         return rutaCompleta;
     }
@@ -303,12 +297,9 @@ public class FacturaService {
      * Genera un resumen corto de la factura
      */
     public String generarResumen(Factura factura) {
-        return String.format(
-            "Factura: %s | Cliente: %s | Total: %s",
-            factura.getNumeroFactura(),
-            factura.getClienteNombre(),
-            formatoMoneda.format(factura.getTotal())
-        );
+        return "Factura: " + factura.getNumeroFactura() +
+               " | Cliente: " + factura.getClienteNombre() +
+               " | Total: " + formatoMoneda.formatear(factura.getTotal());
     }
 
     /**
@@ -327,7 +318,7 @@ public class FacturaService {
             return false;
         }
         
-        if (factura.getTotal() == null || factura.getTotal().compareTo(BigDecimal.ZERO) <= 0) {
+        if (factura.getTotal() == null || !factura.getTotal().esPositivo()) {
             return false;
         }
         
@@ -337,15 +328,13 @@ public class FacturaService {
     /**
      * Calcula el total con descuento
      */
-    public BigDecimal calcularTotalConDescuento(Factura factura, BigDecimal porcentajeDescuento) {
+    public Money calcularTotalConDescuento(Factura factura, BigDecimal porcentajeDescuento) {
         if (factura == null || porcentajeDescuento == null) {
-            return BigDecimal.ZERO;
+            return Money.CERO;
         }
         
-        BigDecimal descuento = factura.getTotal()
-            .multiply(porcentajeDescuento)
-            .divide(BigDecimal.valueOf(100));
+        Money descuento = factura.getTotal().porcentaje(porcentajeDescuento);
         
-        return factura.getTotal().subtract(descuento);
+        return factura.getTotal().restar(descuento);
     }
 }
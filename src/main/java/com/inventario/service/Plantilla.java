@@ -0,0 +1,634 @@
+package com.inventario.service;
+
+import com.inventario.model.Money;
+import com.inventario.util.FormatoMoneda;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Plantilla de texto precompilada
+ *
+ * Se compila una sola vez: el texto fijo (y las constantes) se guarda ya
+ * codificado en UTF-8 y cada marcador queda asociado a la función que lee su
+ * valor del modelo. Al renderizar solo se copian esos bytes y se escriben los
+ * valores en un buffer reutilizable por hilo, sin String.format ni cadenas
+ * intermedias. Una plantilla compilada es inmutable y se puede usar desde
+ * varios hilos a la vez.
+ *
+ * Sintaxis:
+ * - {{campo}}            valor
+ * - {{campo:15}}         valor alineado a la derecha en 15 caracteres
+ * - {{campo:-40}}        valor alineado a la izquierda en 40 caracteres
+ * - {{#campo}}...{{/campo}}  lista (repite el bloque por elemento) o condición
+ * - {{^campo}}...{{/campo}}  bloque que se escribe si la condición es falsa
+ *
+ * Una línea que solo contiene una etiqueta de bloque no produce salida. En
+ * las plantillas HTML los valores se escapan; las constantes no.
+ *
+ * Un campo diferido se puede dejar como hueco: renderizarDocumento devuelve
+ * el documento con la posición de cada hueco y Documento.completar escribe
+ * después su valor copiando los bytes ya generados, sin volver a renderizar.
+ *
+ * @param <T> Tipo del modelo que recibe la plantilla
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public final class Plantilla<T> {
+
+    private static final ThreadLocal<Salida> salidas = ThreadLocal.withInitial(Salida::new);
+
+    /**
+     * Escape de los valores
+     */
+    public enum Escape {
+        NINGUNO,
+        HTML
+    }
+
+    private final Nodo<T>[] nodos;
+    private final boolean html;
+
+    private Plantilla(Nodo<T>[] nodos, boolean html) {
+        this.nodos = nodos;
+        this.html = html;
+    }
+
+    /**
+     * Renderiza el modelo como texto
+     *
+     * Decodifica los bytes generados; para escribir en archivos conviene
+     * renderizarBytes o renderizar(modelo, OutputStream).
+     */
+    public String renderizar(T modelo) {
+        Salida salida = salidas.get();
+        salida.reiniciar();
+        renderizar(modelo, salida);
+        return salida.toString();
+    }
+
+    /**
+     * Renderiza el modelo como bytes UTF-8
+     */
+    public byte[] renderizarBytes(T modelo) {
+        Salida salida = salidas.get();
+        salida.reiniciar();
+        renderizar(modelo, salida);
+        return salida.toByteArray();
+    }
+
+    /**
+     * Renderiza el modelo en UTF-8 directamente en un flujo de salida
+     */
+    public void renderizar(T modelo, OutputStream destino) throws IOException {
+        Salida salida = salidas.get();
+        salida.reiniciar();
+        renderizar(modelo, salida);
+        salida.escribirEn(destino);
+    }
+
+    /**
+     * Renderiza el modelo dejando como huecos los campos diferidos
+     */
+    public Documento renderizarDocumento(T modelo) {
+        Salida salida = salidas.get();
+        salida.reiniciar();
+        salida.conHuecos = true;
+        try {
+            renderizar(modelo, salida);
+        } finally {
+            salida.conHuecos = false;
+        }
+        return new Documento(salida.toByteArray(), Arrays.copyOf(salida.posicionesHuecos, salida.huecos),
+                             Arrays.copyOf(salida.nombresHuecos, salida.huecos), html);
+    }
+
+    private void renderizar(T modelo, Salida salida) {
+        for (Nodo<T> nodo : nodos) {
+            nodo.escribir(modelo, salida);
+        }
+    }
+
+    /**
+     * Lee una plantilla del classpath
+     *
+     * @param ruta Ruta del recurso, p. ej. "plantillas/factura.txt"
+     */
+    public static String leerRecurso(String ruta) {
+        try (InputStream entrada = Plantilla.class.getClassLoader().getResourceAsStream(ruta)) {
+            if (entrada == null) {
+                throw new IllegalStateException("No se encontró la plantilla " + ruta);
+            }
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer la plantilla " + ruta, e);
+        }
+    }
+
+    /**
+     * Documento renderizado con huecos en los campos diferidos. Es inmutable.
+     */
+    public static final class Documento {
+        private final byte[] bytes;
+        private final int[] posiciones;
+        private final String[] nombres;
+        private final boolean html;
+
+        private Documento(byte[] bytes, int[] posiciones, String[] nombres, boolean html) {
+            this.bytes = bytes;
+            this.posiciones = posiciones;
+            this.nombres = nombres;
+            this.html = html;
+        }
+
+        /**
+         * Escribe el valor de cada hueco (escapado como los demás valores)
+         *
+         * @param valores Valor de cada campo diferido, por nombre
+         * @return Documento completo en UTF-8
+         */
+        public byte[] completar(Function<String, String> valores) {
+            Salida salida = salidas.get();
+            salida.reiniciar();
+            int desde = 0;
+            for (int i = 0; i < posiciones.length; i++) {
+                salida.escribir(bytes, desde, posiciones[i] - desde);
+                salida.valor().append(valores.apply(nombres[i]));
+                salida.escribirValor(0, html);
+                desde = posiciones[i];
+            }
+            salida.escribir(bytes, desde, bytes.length - desde);
+            return salida.toByteArray();
+        }
+    }
+
+    /**
+     * Definición de los campos que puede usar una plantilla
+     *
+     * @param <T> Tipo del modelo
+     */
+    public static final class Definicion<T> {
+        private final Map<String, String> constantes = new HashMap<>();
+        private final Map<String, EscritorValor<T>> valores = new HashMap<>();
+        private final Set<String> diferidos = new HashSet<>();
+        private final Map<String, Predicate<T>> condiciones = new HashMap<>();
+        private final Map<String, Lista<T, ?>> listas = new HashMap<>();
+
+        /**
+         * Valor fijo; se copia en el texto de la plantilla al compilar
+         */
+        public Definicion<T> constante(String nombre, String valor) {
+            constantes.put(nombre, valor);
+            return this;
+        }
+
+        /**
+         * Texto leído del modelo
+         */
+        public Definicion<T> texto(String nombre, Function<T, String> lector) {
+            valores.put(nombre, (modelo, destino) -> destino.append(lector.apply(modelo)));
+            return this;
+        }
+
+        /**
+         * Texto leído del modelo que renderizarDocumento deja como hueco para
+         * escribirlo después; no admite ancho
+         */
+        public Definicion<T> diferido(String nombre, Function<T, String> lector) {
+            diferidos.add(nombre);
+            return texto(nombre, lector);
+        }
+
+        /**
+         * Número entero leído del modelo
+         */
+        public Definicion<T> entero(String nombre, ToLongFunction<T> lector) {
+            valores.put(nombre, (modelo, destino) -> destino.append(lector.applyAsLong(modelo)));
+            return this;
+        }
+
+        /**
+         * Monto leído del modelo, con el formato de moneda indicado
+         */
+        public Definicion<T> moneda(String nombre, Function<T, Money> lector, FormatoMoneda formato) {
+            valores.put(nombre, (modelo, destino) -> formato.escribir(lector.apply(modelo).getCentavos(), destino));
+            return this;
+        }
+
+        /**
+         * Fecha u hora leída del modelo
+         */
+        public Definicion<T> fecha(String nombre, Function<T, TemporalAccessor> lector, DateTimeFormatter formato) {
+            valores.put(nombre, (modelo, destino) -> formato.formatTo(lector.apply(modelo), destino));
+            return this;
+        }
+
+        /**
+         * Condición para los bloques {{#nombre}} y {{^nombre}}
+         */
+        public Definicion<T> condicion(String nombre, Predicate<T> condicion) {
+            condiciones.put(nombre, condicion);
+            return this;
+        }
+
+        /**
+         * Lista para el bloque {{#nombre}}; dentro del bloque los campos son
+         * los de la definición de los elementos
+         */
+        public <E> Definicion<T> lista(String nombre, Function<T, ? extends Iterable<E>> lector,
+                                       Definicion<E> elementos) {
+            listas.put(nombre, new Lista<>(lector, elementos));
+            return this;
+        }
+
+        /**
+         * Compila una plantilla con estos campos
+         *
+         * @throws IllegalArgumentException Si la plantilla usa un campo no
+         *         definido o tiene bloques mal cerrados
+         */
+        public Plantilla<T> compilar(String texto, Escape escape) {
+            Compilador compilador = new Compilador(quitarLineasDeBloque(texto), escape);
+            Plantilla<T> plantilla = new Plantilla<>(compilador.compilar(this, null), escape == Escape.HTML);
+            if (compilador.posicion < compilador.texto.length()) {
+                throw new IllegalArgumentException("Cierre de bloque sin apertura en la posición " + compilador.posicion);
+            }
+            return plantilla;
+        }
+    }
+
+    /**
+     * Lista y definición de sus elementos
+     */
+    private static final class Lista<T, E> {
+        final Function<T, ? extends Iterable<E>> lector;
+        final Definicion<E> elementos;
+
+        Lista(Function<T, ? extends Iterable<E>> lector, Definicion<E> elementos) {
+            this.lector = lector;
+            this.elementos = elementos;
+        }
+
+        Nodo<T> crearNodo(Nodo<E>[] cuerpo) {
+            return (modelo, salida) -> {
+                for (E elemento : lector.apply(modelo)) {
+                    for (Nodo<E> nodo : cuerpo) {
+                        nodo.escribir(elemento, salida);
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * Escribe el valor de un campo en el StringBuilder de la salida
+     */
+    @FunctionalInterface
+    private interface EscritorValor<T> {
+        void escribir(T modelo, StringBuilder destino);
+    }
+
+    /**
+     * Parte compilada de una plantilla
+     */
+    @FunctionalInterface
+    private interface Nodo<T> {
+        void escribir(T modelo, Salida salida);
+    }
+
+    /**
+     * Analiza el texto de una plantilla en un solo recorrido
+     */
+    private static final class Compilador {
+        final String texto;
+        final Escape escape;
+        int posicion;
+
+        Compilador(String texto, Escape escape) {
+            this.texto = texto;
+            this.escape = escape;
+        }
+
+        /**
+         * Compila hasta el final del texto o hasta el cierre del bloque indicado
+         */
+        @SuppressWarnings("unchecked")
+        <T> Nodo<T>[] compilar(Definicion<T> definicion, String bloque) {
+            List<Nodo<T>> nodos = new ArrayList<>();
+            StringBuilder fijo = new StringBuilder();
+
+            while (posicion < texto.length()) {
+                int apertura = texto.indexOf("{{", posicion);
+                if (apertura < 0) {
+                    fijo.append(texto, posicion, texto.length());
+                    posicion = texto.length();
+                    break;
+                }
+                fijo.append(texto, posicion, apertura);
+                int cierre = texto.indexOf("}}", apertura);
+                if (cierre < 0) {
+                    throw new IllegalArgumentException("Marcador sin cerrar en la posición " + apertura);
+                }
+                String etiqueta = texto.substring(apertura + 2, cierre).trim();
+                posicion = cierre + 2;
+
+                char tipo = etiqueta.isEmpty() ? ' ' : etiqueta.charAt(0);
+                if (tipo == '/') {
+                    if (!etiqueta.substring(1).equals(bloque)) {
+                        throw new IllegalArgumentException("Cierre inesperado {{" + etiqueta + "}}");
+                    }
+                    agregarFijo(nodos, fijo);
+                    return nodos.toArray(new Nodo[0]);
+                }
+                if (tipo == '#' || tipo == '^') {
+                    agregarFijo(nodos, fijo);
+                    nodos.add(compilarBloque(definicion, etiqueta.substring(1), tipo == '^'));
+                    continue;
+                }
+                compilarCampo(definicion, etiqueta, nodos, fijo);
+            }
+
+            if (bloque != null) {
+                throw new IllegalArgumentException("Falta el cierre {{/" + bloque + "}}");
+            }
+            agregarFijo(nodos, fijo);
+            return nodos.toArray(new Nodo[0]);
+        }
+
+        private <T> Nodo<T> compilarBloque(Definicion<T> definicion, String nombre, boolean invertido) {
+            Predicate<T> condicion = definicion.condiciones.get(nombre);
+            if (condicion != null) {
+                Nodo<T>[] cuerpo = compilar(definicion, nombre);
+                return (modelo, salida) -> {
+                    if (condicion.test(modelo) != invertido) {
+                        for (Nodo<T> nodo : cuerpo) {
+                            nodo.escribir(modelo, salida);
+                        }
+                    }
+                };
+            }
+            Lista<T, ?> lista = definicion.listas.get(nombre);
+            if (lista == null || invertido) {
+                throw new IllegalArgumentException("Bloque no definido: " + nombre);
+            }
+            return compilarLista(lista, nombre);
+        }
+
+        private <T, E> Nodo<T> compilarLista(Lista<T, E> lista, String nombre) {
+            return lista.crearNodo(compilar(lista.elementos, nombre));
+        }
+
+        private <T> void compilarCampo(Definicion<T> definicion, String etiqueta, List<Nodo<T>> nodos,
+                                       StringBuilder fijo) {
+            String nombre = etiqueta;
+            int ancho = 0;
+            int separador = etiqueta.indexOf(':');
+            if (separador >= 0) {
+                nombre = etiqueta.substring(0, separador).trim();
+                try {
+                    ancho = Integer.parseInt(etiqueta.substring(separador + 1).trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Ancho no válido en {{" + etiqueta + "}}");
+                }
+            }
+
+            String constante = definicion.constantes.get(nombre);
+            if (constante != null) {
+                // Las constantes se funden con el texto fijo que las rodea
+                int relleno = Math.abs(ancho) - constante.length();
+                if (ancho > 0) {
+                    fijo.append(" ".repeat(Math.max(relleno, 0)));
+                }
+                fijo.append(constante);
+                if (ancho < 0) {
+                    fijo.append(" ".repeat(Math.max(relleno, 0)));
+                }
+                return;
+            }
+
+            EscritorValor<T> valor = definicion.valores.get(nombre);
+            if (valor == null) {
+                throw new IllegalArgumentException("Campo no definido: " + nombre);
+            }
+            agregarFijo(nodos, fijo);
+            boolean html = escape == Escape.HTML;
+            if (definicion.diferidos.contains(nombre)) {
+                if (ancho != 0) {
+                    throw new IllegalArgumentException("Un campo diferido no admite ancho: {{" + etiqueta + "}}");
+                }
+                String campo = nombre;
+                nodos.add((modelo, salida) -> {
+                    if (salida.conHuecos) {
+                        salida.marcarHueco(campo);
+                    } else {
+                        valor.escribir(modelo, salida.valor());
+                        salida.escribirValor(0, html);
+                    }
+                });
+                return;
+            }
+            int anchoCampo = ancho;
+            nodos.add((modelo, salida) -> {
+                StringBuilder destino = salida.valor();
+                valor.escribir(modelo, destino);
+                salida.escribirValor(anchoCampo, html);
+            });
+        }
+
+        private <T> void agregarFijo(List<Nodo<T>> nodos, StringBuilder fijo) {
+            if (fijo.length() == 0) {
+                return;
+            }
+            byte[] bytes = fijo.toString().getBytes(StandardCharsets.UTF_8);
+            fijo.setLength(0);
+            nodos.add((modelo, salida) -> salida.escribir(bytes));
+        }
+    }
+
+    /**
+     * Quita las líneas que solo contienen una etiqueta de bloque
+     * ({{#x}}, {{^x}} o {{/x}}) para que no dejen líneas vacías
+     */
+    private static String quitarLineasDeBloque(String texto) {
+        StringBuilder resultado = new StringBuilder(texto.length());
+        int inicio = 0;
+        while (inicio < texto.length()) {
+            int fin = texto.indexOf('\n', inicio);
+            int siguiente = fin < 0 ? texto.length() : fin + 1;
+            String linea = texto.substring(inicio, fin < 0 ? texto.length() : fin).trim();
+            boolean soloBloque = linea.startsWith("{{") && linea.endsWith("}}") &&
+                linea.indexOf("{{", 2) < 0 && linea.length() > 4 && "#^/".indexOf(linea.charAt(2)) >= 0;
+            if (!soloBloque) {
+                resultado.append(texto, inicio, siguiente);
+            } else {
+                resultado.append(linea);
+            }
+            inicio = siguiente;
+        }
+        return resultado.toString();
+    }
+
+    /**
+     * Buffer de salida reutilizable: bytes UTF-8 ya escritos y un
+     * StringBuilder donde se arma el valor del campo en curso
+     */
+    private static final class Salida {
+        /** Capacidad a partir de la cual el buffer no se conserva entre usos */
+        private static final int CAPACIDAD_MAXIMA_RETENIDA = 1 << 20;
+
+        private byte[] bytes = new byte[8192];
+        private int tamano;
+        private final StringBuilder valor = new StringBuilder(64);
+        /** true mientras renderizarDocumento deja huecos en los campos diferidos */
+        private boolean conHuecos;
+        private int[] posicionesHuecos = new int[4];
+        private String[] nombresHuecos = new String[4];
+        private int huecos;
+
+        void reiniciar() {
+            if (bytes.length > CAPACIDAD_MAXIMA_RETENIDA) {
+                bytes = new byte[8192];
+            }
+            tamano = 0;
+            huecos = 0;
+        }
+
+        void marcarHueco(String nombre) {
+            if (huecos == posicionesHuecos.length) {
+                posicionesHuecos = Arrays.copyOf(posicionesHuecos, huecos * 2);
+                nombresHuecos = Arrays.copyOf(nombresHuecos, huecos * 2);
+            }
+            posicionesHuecos[huecos] = tamano;
+            nombresHuecos[huecos++] = nombre;
+        }
+
+        StringBuilder valor() {
+            valor.setLength(0);
+            return valor;
+        }
+
+        void escribir(byte[] fragmento) {
+            escribir(fragmento, 0, fragmento.length);
+        }
+
+        void escribir(byte[] fragmento, int desde, int largo) {
+            asegurar(largo);
+            System.arraycopy(fragmento, desde, bytes, tamano, largo);
+            tamano += largo;
+        }
+
+        /**
+         * Escribe el valor armado, con relleno y escape
+         *
+         * @param ancho Positivo: alineado a la derecha; negativo: a la izquierda
+         */
+        void escribirValor(int ancho, boolean html) {
+            int relleno = Math.abs(ancho) - valor.length();
+            if (ancho > 0) {
+                espacios(relleno);
+            }
+            for (int i = 0; i < valor.length(); i++) {
+                char c = valor.charAt(i);
+                if (html) {
+                    switch (c) {
+                        case '<':
+                            ascii("&lt;");
+                            continue;
+                        case '>':
+                            ascii("&gt;");
+                            continue;
+                        case '&':
+                            ascii("&amp;");
+                            continue;
+                        case '"':
+                            ascii("&quot;");
+                            continue;
+                        case '\'':
+                            ascii("&#39;");
+                            continue;
+                        default:
+                            break;
+                    }
+                }
+                if (Character.isHighSurrogate(c) && i + 1 < valor.length()
+                        && Character.isLowSurrogate(valor.charAt(i + 1))) {
+                    codificar(Character.toCodePoint(c, valor.charAt(++i)));
+                } else {
+                    codificar(Character.isSurrogate(c) ? '?' : c);
+                }
+            }
+            if (ancho < 0) {
+                espacios(relleno);
+            }
+        }
+
+        private void espacios(int cantidad) {
+            if (cantidad <= 0) {
+                return;
+            }
+            asegurar(cantidad);
+            Arrays.fill(bytes, tamano, tamano + cantidad, (byte) ' ');
+            tamano += cantidad;
+        }
+
+        private void ascii(String texto) {
+            asegurar(texto.length());
+            for (int i = 0; i < texto.length(); i++) {
+                bytes[tamano++] = (byte) texto.charAt(i);
+            }
+        }
+
+        private void codificar(int codigo) {
+            asegurar(4);
+            if (codigo < 0x80) {
+                bytes[tamano++] = (byte) codigo;
+            } else if (codigo < 0x800) {
+                bytes[tamano++] = (byte) (0xC0 | (codigo >> 6));
+                bytes[tamano++] = (byte) (0x80 | (codigo & 0x3F));
+            } else if (codigo < 0x10000) {
+                bytes[tamano++] = (byte) (0xE0 | (codigo >> 12));
+                bytes[tamano++] = (byte) (0x80 | ((codigo >> 6) & 0x3F));
+                bytes[tamano++] = (byte) (0x80 | (codigo & 0x3F));
+            } else {
+                bytes[tamano++] = (byte) (0xF0 | (codigo >> 18));
+                bytes[tamano++] = (byte) (0x80 | ((codigo >> 12) & 0x3F));
+                bytes[tamano++] = (byte) (0x80 | ((codigo >> 6) & 0x3F));
+                bytes[tamano++] = (byte) (0x80 | (codigo & 0x3F));
+            }
+        }
+
+        private void asegurar(int adicional) {
+            if (tamano + adicional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, tamano + adicional));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, tamano);
+        }
+
+        void escribirEn(OutputStream destino) throws IOException {
+            destino.write(bytes, 0, tamano);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, 0, tamano, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.inventario.service;
+
+import com.inventario.dao.ProductoDAO;
+import com.inventario.model.Producto;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Caché en memoria del catálogo de productos activos
+ *
+ * Los lectores consultan índices concurrentes por id (ordenado) y por
+ * código, sin tomar ningún bloqueo. Cada escritura exitosa en la base de
+ * datos se propaga aquí (write-through) releyendo en una sola consulta las
+ * filas afectadas y actualizando solo esas entradas, así el costo de una
+ * escritura no depende del tamaño del catálogo. Solo la carga completa
+ * reemplaza los índices.
+ *
+ * Los productos se entregan como copias, de modo que modificar un objeto
+ * devuelto no altera el catálogo compartido.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class ProductoCache {
+
+    private static final Logger logger = Logger.getLogger(ProductoCache.class.getName());
+    private static ProductoCache instance;
+
+    private final ProductoDAO productoDAO;
+    private volatile Catalogo catalogo;
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+
+    private ProductoCache() {
+        this.productoDAO = new ProductoDAO();
+    }
+
+    /**
+     * Obtiene la instancia única de la caché (Singleton)
+     */
+    public static synchronized ProductoCache getInstance() {
+        if (instance == null) {
+            instance = new ProductoCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Obtiene todos los productos activos ordenados por ID
+     *
+     * @return Copias de los productos activos
+     */
+    public List<Producto> obtenerTodos() {
+        List<Producto> productos = new ArrayList<>();
+        for (Producto producto : actual().porId.values()) {
+            productos.add(new Producto(producto));
+        }
+        return productos;
+    }
+
+    /**
+     * Busca un producto activo por ID; si no está en caché se consulta la BD
+     *
+     * @param id ID del producto
+     * @return Copia del producto o null si no existe o está inactivo
+     */
+    public Producto obtenerPorId(int id) {
+        Producto producto = actual().porId.get(id);
+        if (producto != null) {
+            aciertos.incrementAndGet();
+            return new Producto(producto);
+        }
+
+        fallos.incrementAndGet();
+        return leerFaltante(() -> productoDAO.obtenerPorId(id));
+    }
+
+    /**
+     * Busca un producto activo por código; si no está en caché se consulta la BD
+     *
+     * @param codigo Código del producto
+     * @return Copia del producto o null si no existe o está inactivo
+     */
+    public Producto obtenerPorCodigo(String codigo) {
+        if (codigo == null) {
+            return null;
+        }
+
+        Producto producto = actual().porCodigo.get(codigo);
+        if (producto != null) {
+            aciertos.incrementAndGet();
+            return new Producto(producto);
+        }
+
+        fallos.incrementAndGet();
+        return leerFaltante(() -> productoDAO.obtenerPorCodigo(codigo));
+    }
+
+    /**
+     * Busca varios productos por código; los que falten se consultan a la BD
+     * en una sola consulta
+     *
+     * @param codigos Códigos de los productos
+     * @return Mapa código -> copia del producto (los no encontrados no aparecen)
+     */
+    public Map<String, Producto> obtenerPorCodigos(Collection<String> codigos) {
+        Map<String, Producto> productos = new LinkedHashMap<>();
+        if (codigos == null || codigos.isEmpty()) {
+            return productos;
+        }
+
+        Catalogo vista = actual();
+        List<String> faltantes = new ArrayList<>();
+        for (String codigo : codigos) {
+            Producto producto = codigo != null ? vista.porCodigo.get(codigo) : null;
+            if (producto != null) {
+                aciertos.incrementAndGet();
+                productos.put(codigo, new Producto(producto));
+            } else if (codigo != null) {
+                fallos.incrementAndGet();
+                faltantes.add(codigo);
+            }
+        }
+
+        if (!faltantes.isEmpty()) {
+            synchronized (this) {
+                Map<Integer, Producto> leidos = new HashMap<>();
+                for (Producto producto : productoDAO.obtenerPorCodigos(faltantes).values()) {
+                    leidos.put(producto.getId(), producto);
+                    productos.put(producto.getCodigo(), producto);
+                }
+                publicar(leidos);
+            }
+        }
+
+        return productos;
+    }
+
+    /**
+     * Vuelve a leer la fila de un producto después de escribirla y actualiza
+     * la caché (lo elimina si ya no existe o quedó inactivo).
+     *
+     * La lectura y la publicación se hacen dentro del mismo bloqueo, así dos
+     * escrituras concurrentes no pueden publicar sus lecturas en orden inverso.
+     *
+     * @param id ID del producto modificado
+     */
+    public void refrescar(int id) {
+        refrescar(Collections.singleton(id));
+    }
+
+    /**
+     * Refresca varios productos (por ejemplo, los de una venta) con una sola
+     * consulta
+     *
+     * @param ids IDs de los productos modificados
+     */
+    public synchronized void refrescar(Collection<Integer> ids) {
+        if (catalogo == null) {
+            // Aún no cargada: la primera lectura traerá el estado actual
+            return;
+        }
+
+        Map<Integer, Producto> leidos;
+        try {
+            leidos = productoDAO.obtenerPorIds(ids);
+        } catch (SQLException e) {
+            // Sin la lectura no se sabe qué quedó en la BD: se recarga todo en la próxima consulta
+            logger.warning("Error al refrescar productos, se invalida la caché: " + e.getMessage());
+            catalogo = null;
+            return;
+        }
+
+        Map<Integer, Producto> cambios = new HashMap<>();
+        for (Integer id : ids) {
+            if (id != null) {
+                cambios.put(id, leidos.get(id));
+            }
+        }
+        publicar(cambios);
+    }
+
+    /**
+     * Descarta el contenido y vuelve a cargar el catálogo desde la BD
+     */
+    public synchronized void recargar() {
+        long inicio = System.currentTimeMillis();
+        Catalogo nuevo = new Catalogo();
+        for (Producto producto : productoDAO.obtenerTodos()) {
+            nuevo.poner(producto);
+        }
+        catalogo = nuevo;
+        logger.info("Catálogo de productos cargado en caché: " + nuevo.tamano + " productos en " +
+                   (System.currentTimeMillis() - inicio) + " ms");
+    }
+
+    /**
+     * Invalida la caché; la siguiente lectura recargará el catálogo
+     */
+    public synchronized void invalidar() {
+        catalogo = null;
+    }
+
+    public long getAciertos() {
+        return aciertos.get();
+    }
+
+    public long getFallos() {
+        return fallos.get();
+    }
+
+    /**
+     * Proporción de consultas resueltas sin ir a la base de datos (0 a 1)
+     */
+    public double getTasaAciertos() {
+        long total = aciertos.get() + fallos.get();
+        return total == 0 ? 0.0 : (double) aciertos.get() / total;
+    }
+
+    /**
+     * Número de productos activos en caché (0 si aún no se ha cargado)
+     */
+    public int getTamano() {
+        Catalogo vista = catalogo;
+        return vista != null ? vista.tamano : 0;
+    }
+
+    public void reiniciarContadores() {
+        aciertos.set(0);
+        fallos.set(0);
+    }
+
+    /**
+     * Lee de la BD un producto que no estaba en caché (por ejemplo, creado por
+     * otro proceso) y lo incorpora. Se hace bajo el bloqueo de escritura para
+     * no publicar una lectura más antigua que un refresco concurrente.
+     */
+    private synchronized Producto leerFaltante(Supplier<Producto> lectura) {
+        Producto producto = lectura.get();
+        if (producto != null) {
+            publicar(Collections.singletonMap(producto.getId(), producto));
+        }
+        return producto;
+    }
+
+    /**
+     * Devuelve el catálogo vigente, cargándolo la primera vez
+     */
+    private Catalogo actual() {
+        Catalogo vista = catalogo;
+        if (vista == null) {
+            synchronized (this) {
+                if (catalogo == null) {
+                    recargar();
+                }
+                vista = catalogo;
+            }
+        }
+        return vista;
+    }
+
+    /**
+     * Reemplaza en el catálogo los productos leídos (o los elimina si su valor
+     * es null o están inactivos). Solo se tocan esas entradas; un lector
+     * concurrente ve cada producto antes o después del cambio, nunca a medias.
+     *
+     * @param cambios Mapa ID -> producto leído de la BD
+     */
+    private synchronized void publicar(Map<Integer, Producto> cambios) {
+        Catalogo vista = catalogo;
+        if (vista == null) {
+            // Aún no cargado: la primera lectura traerá el estado actual
+            return;
+        }
+
+        for (Map.Entry<Integer, Producto> cambio : cambios.entrySet()) {
+            Producto producto = cambio.getValue();
+            if (producto != null && producto.isActivo()) {
+                vista.poner(new Producto(producto));
+            } else {
+                vista.quitar(cambio.getKey());
+            }
+        }
+    }
+
+    /**
+     * Índices del catálogo. Los lectores los recorren sin bloqueo; solo se
+     * modifican bajo el bloqueo de la caché.
+     */
+    private static final class Catalogo {
+        private final ConcurrentSkipListMap<Integer, Producto> porId = new ConcurrentSkipListMap<>();
+        private final ConcurrentHashMap<String, Producto> porCodigo = new ConcurrentHashMap<>();
+        private volatile int tamano;
+
+        void poner(Producto producto) {
+            Producto anterior = porId.put(producto.getId(), producto);
+            if (anterior == null) {
+                tamano++;
+            } else if (anterior.getCodigo() != null && !anterior.getCodigo().equals(producto.getCodigo())) {
+                porCodigo.remove(anterior.getCodigo(), anterior);
+            }
+            if (producto.getCodigo() != null) {
+                porCodigo.put(producto.getCodigo(), producto);
+            }
+        }
+
+        void quitar(int id) {
+            Producto anterior = porId.remove(id);
+            if (anterior != null) {
+                tamano--;
+                if (anterior.getCodigo() != null) {
+                    porCodigo.remove(anterior.getCodigo(), anterior);
+                }
+            }
+        }
+    }
+}
@@ -1,23 +1,32 @@
 package com.inventario.service;
 
+import com.inventario.model.Money;
 import com.inventario.model.Producto;
 import com.inventario.dao.ProductoDAO;
-import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Servicio para la gestión de productos
  * Implementa la lógica de negocio para CRUD de productos
  * 
+ * Las lecturas del catálogo activo se sirven desde ProductoCache, y cada
+ * escritura exitosa se propaga a la caché.
+ * 
  * @author Equipo de Desarrollo
  * @version 1.0
  */
 public class ProductoService {
     
     private final ProductoDAO productoDAO;
+    private final ProductoCache cache;
 
     public ProductoService() {
         this.productoDAO = new ProductoDAO();
+        this.cache = ProductoCache.getInstance();
     }
 
     // Los productos iniciales se crean automáticamente en DatabaseManager
@@ -28,7 +37,7 @@ public class ProductoService {
      * @return Lista de productos activos
      */
     public List<Producto> obtenerTodosProductos() {
-        return productoDAO.obtenerTodos();
+        return cache.obtenerTodos();
     }
 
     /**
@@ -38,7 +47,7 @@ public class ProductoService {
      * @return Producto encontrado o null
      */
     public Producto obtenerProductoPorId(int id) {
-        return productoDAO.obtenerPorId(id);
+        return cache.obtenerPorId(id);
     }
 
     /**
@@ -52,6 +61,32 @@ public class ProductoService {
         return productoDAO.buscar(nombre, categoria);
     }
 
+    /**
+     * Búsqueda de texto completo por nombre, descripción, código o categoría,
+     * con coincidencia por prefijo y ordenada por relevancia
+     * 
+     * @param texto Texto a buscar
+     * @param categoria Categoría a filtrar (o null)
+     * @param limite Número máximo de resultados
+     * @return Productos que coinciden, del más al menos relevante
+     */
+    public List<Producto> buscarProductosTexto(String texto, String categoria, int limite) {
+        return productoDAO.buscarTexto(texto, categoria, limite);
+    }
+
+    /**
+     * Obtiene una página de productos (paginación por id descendente)
+     * 
+     * @param nombre Nombre a buscar (puede ser parcial o null)
+     * @param categoria Categoría a filtrar (o null)
+     * @param antesDeId Id exclusivo desde el que se lee
+     * @param limite Tamaño de la página
+     * @return Productos de la página
+     */
+    public List<Producto> obtenerPaginaProductos(String nombre, String categoria, int antesDeId, int limite) {
+        return productoDAO.obtenerPagina(nombre, categoria, antesDeId, limite);
+    }
+
     /**
      * Guarda un nuevo producto
      * 
@@ -63,7 +98,11 @@ public class ProductoService {
             return false;
         }
         
-        return productoDAO.crear(producto);
+        boolean creado = productoDAO.crear(producto);
+        if (creado) {
+            cache.refrescar(producto.getId());
+        }
+        return creado;
     }
 
     /**
@@ -77,7 +116,11 @@ public class ProductoService {
             return false;
         }
         
-        return productoDAO.actualizar(producto);
+        boolean actualizado = productoDAO.actualizar(producto);
+        if (actualizado) {
+            cache.refrescar(producto.getId());
+        }
+        return actualizado;
     }
 
     /**
@@ -87,7 +130,11 @@ public class ProductoService {
      * @return true si se eliminó exitosamente
      */
     public boolean eliminarProducto(int id) {
-        return productoDAO.eliminar(id);
+        boolean eliminado = productoDAO.eliminar(id);
+        if (eliminado) {
+            cache.refrescar(id);
+        }
+        return eliminado;
     }
 
     /**
@@ -105,7 +152,7 @@ public class ProductoService {
             return false;
         }
         
-        if (producto.getPrecio() == null || producto.getPrecio().compareTo(BigDecimal.ZERO) <= 0) {
+        if (producto.getPrecio() == null || !producto.getPrecio().esPositivo()) {
             return false;
         }
         
@@ -126,7 +173,10 @@ public class ProductoService {
      * @return Lista de productos con stock bajo
      */
     public List<Producto> obtenerProductosStockBajo() {
-        return productoDAO.obtenerConStockBajo(5);
+        return cache.obtenerTodos().stream()
+            .filter(p -> p.getCantidad() < 5)
+            .sorted(Comparator.comparingInt(Producto::getCantidad))
+            .collect(Collectors.toList());
     }
 
     /**
@@ -136,7 +186,10 @@ public class ProductoService {
      * @return Lista de productos de la categoría
      */
     public List<Producto> obtenerProductosPorCategoria(String categoria) {
-        return productoDAO.obtenerPorCategoria(categoria);
+        return cache.obtenerTodos().stream()
+            .filter(p -> p.getCategoria() != null && p.getCategoria().equals(categoria))
+            .sorted(Comparator.comparing(Producto::getNombre, Comparator.nullsLast(Comparator.naturalOrder())))
+            .collect(Collectors.toList());
     }
 
     /**
@@ -144,7 +197,7 @@ public class ProductoService {
      * 
      * @return Valor total del inventario
      */
-    public BigDecimal obtenerValorTotalInventario() {
+    public Money obtenerValorTotalInventario() {
         return productoDAO.obtenerValorTotalInventario();
     }
 
@@ -156,7 +209,7 @@ public class ProductoService {
     public Object[] obtenerEstadisticas() {
         List<Producto> productos = obtenerTodosProductos();
         int totalProductos = productos.size();
-        BigDecimal valorTotal = obtenerValorTotalInventario();
+        Money valorTotal = obtenerValorTotalInventario();
         int stockBajo = obtenerProductosStockBajo().size();
         
         return new Object[]{totalProductos, valorTotal, stockBajo};
@@ -170,7 +223,11 @@ public class ProductoService {
      * @return true si se redujo exitosamente
      */
     public boolean reducirCantidad(int id, int cantidadVendida) {
-        return productoDAO.reducirCantidad(id, cantidadVendida);
+        boolean reducido = productoDAO.reducirCantidad(id, cantidadVendida);
+        if (reducido) {
+            cache.refrescar(id);
+        }
+        return reducido;
     }
 
     /**
@@ -181,7 +238,11 @@ public class ProductoService {
      * @return true si se aumentó exitosamente
      */
     public boolean aumentarCantidad(int id, int cantidadReposicion) {
-        return productoDAO.aumentarCantidad(id, cantidadReposicion);
+        boolean aumentado = productoDAO.aumentarCantidad(id, cantidadReposicion);
+        if (aumentado) {
+            cache.refrescar(id);
+        }
+        return aumentado;
     }
 
     /**
@@ -190,9 +251,9 @@ public class ProductoService {
      * @return Lista de productos con stock disponible
      */
     public List<Producto> obtenerProductosDisponibles() {
-        return productoDAO.obtenerTodos().stream()
+        return cache.obtenerTodos().stream()
             .filter(p -> p.getCantidad() > 0)
-            .collect(java.util.stream.Collectors.toList());
+            .collect(Collectors.toList());
     }
 
     /**
@@ -202,10 +263,25 @@ public class ProductoService {
      * @return Producto encontrado o null
      */
     public Producto obtenerProductoPorCodigo(String codigo) {
-        return productoDAO.obtenerTodos().stream()
-            .filter(p -> p.getCodigo().equals(codigo))
-            .findFirst()
-            .orElse(null);
+        return cache.obtenerPorCodigo(codigo);
+    }
+
+    /**
+     * Obtiene varios productos por código en una sola consulta
+     * 
+     * @param codigos Códigos de los productos
+     * @return Mapa código -> producto (los códigos no encontrados no aparecen)
+     */
+    public Map<String, Producto> obtenerProductosPorCodigos(Collection<String> codigos) {
+        return cache.obtenerPorCodigos(codigos);
+    }
+
+    /**
+     * Descarta la caché del catálogo y la vuelve a cargar desde la base de datos
+     * (por ejemplo, tras modificar productos fuera de la aplicación)
+     */
+    public void recargarCatalogo() {
+        cache.recargar();
     }
 }
 
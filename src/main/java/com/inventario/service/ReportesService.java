@@ -1,16 +1,16 @@
 package com.inventario.service;
 
+import com.inventario.dao.ResumenVentasDAO;
+import com.inventario.database.DatabaseManager;
+import com.inventario.metricas.RegistroMetricas;
+import com.inventario.metricas.Temporizador;
 import com.inventario.model.Venta;
-import com.inventario.model.ItemVenta;
+import com.inventario.model.Money;
 import com.inventario.model.Producto;
+import com.inventario.model.ProductoVendido;
 
-import java.io.FileWriter;
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -22,135 +22,108 @@ import java.util.stream.Collectors;
  */
 public class ReportesService {
     
+    private static final RegistroMetricas metricas = RegistroMetricas.getInstance();
     private VentaService ventaService;
     private ProductoService productoService;
+    private ResumenVentasDAO resumenVentasDAO;
+    private ExportadorReportes exportador;
 
     public ReportesService() {
         this.ventaService = new VentaService();
         this.productoService = new ProductoService();
+        this.resumenVentasDAO = new ResumenVentasDAO();
+        this.exportador = new ExportadorReportes();
     }
 
     /**
      * Obtiene estadísticas generales del sistema
      */
     public Map<String, Object> obtenerEstadisticasGenerales() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        try {
-            // Total de ventas
-            List<Venta> todasVentas = ventaService.obtenerTodasVentas();
-            stats.put("totalVentas", todasVentas.size());
-            
-            // Ventas de hoy
-            List<Venta> ventasHoy = ventaService.obtenerVentasPorFecha(LocalDate.now());
-            stats.put("ventasHoy", ventasHoy.size());
-            
-            // Productos en stock
-            List<Producto> todosProductos = productoService.obtenerTodosProductos();
-            long productosConStock = todosProductos.stream()
-                .filter(p -> p.getCantidad() > 0)
-                .count();
-            stats.put("productosStock", productosConStock);
-            
-            // Productos con bajo stock (menos de 5 unidades)
-            long productosBajoStock = todosProductos.stream()
-                .filter(p -> p.getCantidad() > 0 && p.getCantidad() < 5)
-                .count();
-            stats.put("productosBajoStock", productosBajoStock);
-            
-            // Ingreso total
-            BigDecimal ingresoTotal = todasVentas.stream()
-                .map(Venta::getTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            stats.put("ingresoTotal", ingresoTotal);
-            
-            // Promedio por venta
-            BigDecimal promedioVenta = BigDecimal.ZERO;
-            if (!todasVentas.isEmpty()) {
-                promedioVenta = ingresoTotal.divide(
-                    BigDecimal.valueOf(todasVentas.size()), 
-                    2, 
-                    RoundingMode.HALF_UP
-                );
+        try (Temporizador.Medicion medicion = metricas.medir("ReportesService.obtenerEstadisticasGenerales")) {
+            Map<String, Object> stats = new HashMap<>();
+        
+            try {
+                // Total de ventas y ventas de hoy (desde el resumen diario)
+                int totalVentas = resumenVentasDAO.contarVentas(null, null);
+                stats.put("totalVentas", totalVentas);
+            
+                LocalDate hoy = LocalDate.now();
+                stats.put("ventasHoy", resumenVentasDAO.contarVentas(hoy, hoy));
+            
+                // Productos en stock
+                List<Producto> todosProductos = productoService.obtenerTodosProductos();
+                long productosConStock = todosProductos.stream()
+                    .filter(p -> p.getCantidad() > 0)
+                    .count();
+                stats.put("productosStock", productosConStock);
+            
+                // Productos con bajo stock (menos de 5 unidades)
+                long productosBajoStock = todosProductos.stream()
+                    .filter(p -> p.getCantidad() > 0 && p.getCantidad() < 5)
+                    .count();
+                stats.put("productosBajoStock", productosBajoStock);
+            
+                // Ingreso total
+                Money ingresoTotal = resumenVentasDAO.sumarIngresos(null, null);
+                stats.put("ingresoTotal", ingresoTotal);
+            
+                // Promedio por venta
+                Money promedioVenta = Money.CERO;
+                if (totalVentas > 0) {
+                    promedioVenta = ingresoTotal.dividir(totalVentas);
+                }
+                stats.put("promedioVenta", promedioVenta);
+            
+            } catch (Exception e) {
+                System.err.println("Error al obtener estadísticas: " + e.getMessage());
+                e.printStackTrace();
+                // Valores por defecto en caso de error
+                stats.put("totalVentas", 0);
+                stats.put("ventasHoy", 0);
+                stats.put("productosStock", 0);
+                stats.put("productosBajoStock", 0);
+                stats.put("ingresoTotal", Money.CERO);
+                stats.put("promedioVenta", Money.CERO);
             }
-            stats.put("promedioVenta", promedioVenta);
-            
-        } catch (Exception e) {
-            System.err.println("Error al obtener estadísticas: " + e.getMessage());
-            e.printStackTrace();
-            // Valores por defecto en caso de error
-            stats.put("totalVentas", 0);
-            stats.put("ventasHoy", 0);
-            stats.put("productosStock", 0);
-            stats.put("productosBajoStock", 0);
-            stats.put("ingresoTotal", BigDecimal.ZERO);
-            stats.put("promedioVenta", BigDecimal.ZERO);
-        }
         
-        return stats;
+            return stats;
+        }
     }
 
     /**
-     * Obtiene los productos más vendidos
+     * Obtiene los productos más vendidos de todo el historial
      */
-    public Map<String, Integer> obtenerProductosMasVendidos(int limite) {
-        Map<String, Integer> ventasPorProducto = new HashMap<>();
-        
-        try {
-            List<Venta> todasVentas = ventaService.obtenerTodasVentas();
-            
-            // Contar unidades vendidas por producto
-            for (Venta venta : todasVentas) {
-                for (ItemVenta item : venta.getItems()) {
-                    String codigo = item.getProducto().getCodigo();
-                    int cantidad = item.getCantidad();
-                    
-                    ventasPorProducto.put(codigo, 
-                        ventasPorProducto.getOrDefault(codigo, 0) + cantidad);
-                }
-            }
-            
-            // Ordenar por cantidad vendida (descendente) y limitar
-            return ventasPorProducto.entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .limit(limite)
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    Map.Entry::getValue,
-                    (e1, e2) -> e1,
-                    LinkedHashMap::new
-                ));
-                
-        } catch (Exception e) {
-            System.err.println("Error al obtener productos más vendidos: " + e.getMessage());
-            e.printStackTrace();
-            return new LinkedHashMap<>();
-        }
+    public List<ProductoVendido> obtenerProductosMasVendidos(int limite) {
+        return obtenerProductosMasVendidos(null, null, null, limite);
+    }
+
+    /**
+     * Obtiene los productos más vendidos en un rango de días y, opcionalmente,
+     * de un solo vendedor
+     *
+     * @param fechaInicio Primer día incluido (null = sin límite)
+     * @param fechaFin Último día incluido (null = sin límite)
+     * @param usuarioId Vendedor (null = todos)
+     */
+    public List<ProductoVendido> obtenerProductosMasVendidos(LocalDate fechaInicio, LocalDate fechaFin,
+                                                             Integer usuarioId, int limite) {
+        return resumenVentasDAO.obtenerProductosMasVendidos(fechaInicio, fechaFin, usuarioId, limite);
     }
 
     /**
      * Obtiene ventas por rango de fechas
      */
     public List<Venta> obtenerVentasPorRango(LocalDate fechaInicio, LocalDate fechaFin) {
-        List<Venta> todasVentas = ventaService.obtenerTodasVentas();
-        
-        return todasVentas.stream()
-            .filter(v -> {
-                LocalDate fechaVenta = v.getFechaVenta().toLocalDate();
-                return !fechaVenta.isBefore(fechaInicio) && !fechaVenta.isAfter(fechaFin);
-            })
-            .collect(Collectors.toList());
+        // Rango inclusivo de días -> rango semiabierto de fechas y horas
+        return ventaService.obtenerVentasPorRango(
+            fechaInicio.atStartOfDay(), fechaFin.plusDays(1).atStartOfDay(), 0);
     }
 
     /**
      * Calcula el total de ingresos por rango de fechas
      */
-    public BigDecimal calcularIngresosPorRango(LocalDate fechaInicio, LocalDate fechaFin) {
-        List<Venta> ventasRango = obtenerVentasPorRango(fechaInicio, fechaFin);
-        
-        return ventasRango.stream()
-            .map(Venta::getTotal)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public Money calcularIngresosPorRango(LocalDate fechaInicio, LocalDate fechaFin) {
+        return resumenVentasDAO.sumarIngresos(fechaInicio, fechaFin);
     }
 
     /**
@@ -179,139 +152,78 @@ public class ReportesService {
     /**
      * Calcula el valor total del inventario
      */
-    public BigDecimal calcularValorTotalInventario() {
+    public Money calcularValorTotalInventario() {
         List<Producto> todosProductos = productoService.obtenerTodosProductos();
         
-        return todosProductos.stream()
-            .map(Producto::getValorTotal)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long centavos = 0;
+        for (Producto producto : todosProductos) {
+            centavos = Math.addExact(centavos, Math.multiplyExact(producto.getPrecio().getCentavos(),
+                                                                  (long) producto.getCantidad()));
+        }
+        return Money.deCentavos(centavos);
     }
 
     /**
      * Obtiene ventas por vendedor
      */
     public Map<String, Integer> obtenerVentasPorVendedor() {
-        Map<String, Integer> ventasPorVendedor = new HashMap<>();
-        
-        try {
-            List<Venta> todasVentas = ventaService.obtenerTodasVentas();
-            
-            for (Venta venta : todasVentas) {
-                String vendedor = venta.getUsuario().getNombre();
-                ventasPorVendedor.put(vendedor, 
-                    ventasPorVendedor.getOrDefault(vendedor, 0) + 1);
-            }
-            
-        } catch (Exception e) {
-            System.err.println("Error al obtener ventas por vendedor: " + e.getMessage());
-        }
-        
-        return ventasPorVendedor;
+        return resumenVentasDAO.contarVentasPorVendedor();
     }
 
     /**
      * Obtiene ingresos por vendedor
      */
-    public Map<String, BigDecimal> obtenerIngresosPorVendedor() {
-        Map<String, BigDecimal> ingresosPorVendedor = new HashMap<>();
-        
-        try {
-            List<Venta> todasVentas = ventaService.obtenerTodasVentas();
-            
-            for (Venta venta : todasVentas) {
-                String vendedor = venta.getUsuario().getNombre();
-                BigDecimal ingresoActual = ingresosPorVendedor.getOrDefault(
-                    vendedor, BigDecimal.ZERO);
-                ingresosPorVendedor.put(vendedor, ingresoActual.add(venta.getTotal()));
-            }
-            
-        } catch (Exception e) {
-            System.err.println("Error al obtener ingresos por vendedor: " + e.getMessage());
-        }
-        
-        return ingresosPorVendedor;
+    public Map<String, Money> obtenerIngresosPorVendedor() {
+        return resumenVentasDAO.sumarIngresosPorVendedor();
+    }
+
+    /**
+     * Reconstruye los resúmenes diarios a partir del histórico de ventas
+     */
+    public boolean reconstruirResumenDiario() {
+        return DatabaseManager.getInstance().reconstruirResumenVentas();
     }
 
     /**
-     * Exporta ventas a archivo de texto
+     * Exporta todas las ventas al reporte de texto
+     *
+     * @return Ruta del archivo creado
      */
     public String exportarVentasATexto() throws IOException {
-        List<Venta> ventas = ventaService.obtenerTodasVentas();
-        String nombreArchivo = "reporte_ventas_" + 
-            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".txt";
-        
-        try (FileWriter writer = new FileWriter(nombreArchivo)) {
-            writer.write("========================================\n");
-            writer.write("    REPORTE DE VENTAS\n");
-            writer.write("========================================\n");
-            writer.write("Fecha de generación: " + 
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")) + "\n");
-            writer.write("Total de ventas: " + ventas.size() + "\n");
-            writer.write("========================================\n\n");
-            
-            for (Venta venta : ventas) {
-                writer.write(String.format("Venta #%d\n", venta.getId()));
-                writer.write(String.format("Fecha: %s\n", 
-                    venta.getFechaVenta().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))));
-                writer.write(String.format("Vendedor: %s\n", venta.getUsuario().getNombre()));
-                writer.write(String.format("Items: %d\n", venta.getCantidadItems()));
-                writer.write(String.format("Total: $%,.2f\n", venta.getTotal()));
-                writer.write("----------------------------------------\n");
-                
-                for (ItemVenta item : venta.getItems()) {
-                    writer.write(String.format("  - %s x%d = $%,.2f\n",
-                        item.getProducto().getNombre(),
-                        item.getCantidad(),
-                        item.getSubtotal()));
-                }
-                writer.write("\n");
-            }
-            
-            writer.write("========================================\n");
-            writer.write("FIN DEL REPORTE\n");
-            writer.write("========================================\n");
-        }
-        
-        return nombreArchivo;
+        return exportarVentas(ExportadorReportes.Opciones.texto(), null);
     }
 
     /**
-     * Exporta productos a archivo de texto
+     * Exporta todos los productos activos al reporte de texto
+     *
+     * @return Ruta del archivo creado
      */
     public String exportarProductosATexto() throws IOException {
-        List<Producto> productos = productoService.obtenerTodosProductos();
-        String nombreArchivo = "reporte_productos_" + 
-            LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".txt";
-        
-        try (FileWriter writer = new FileWriter(nombreArchivo)) {
-            writer.write("========================================\n");
-            writer.write("    REPORTE DE PRODUCTOS\n");
-            writer.write("========================================\n");
-            writer.write("Fecha de generación: " + 
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")) + "\n");
-            writer.write("Total de productos: " + productos.size() + "\n");
-            writer.write("========================================\n\n");
-            
-            for (Producto producto : productos) {
-                writer.write(String.format("Código: %s\n", producto.getCodigo()));
-                writer.write(String.format("Nombre: %s\n", producto.getNombre()));
-                writer.write(String.format("Categoría: %s\n", producto.getCategoria()));
-                writer.write(String.format("Stock: %d unidades\n", producto.getCantidad()));
-                writer.write(String.format("Precio: $%,.2f\n", producto.getPrecio()));
-                writer.write(String.format("Valor Total: $%,.2f\n", producto.getValorTotal()));
-                
-                String estado = producto.getCantidad() == 0 ? "SIN STOCK" :
-                               producto.getCantidad() < 5 ? "STOCK BAJO" :
-                               producto.getCantidad() < 10 ? "STOCK MEDIO" : "STOCK OK";
-                writer.write(String.format("Estado: %s\n", estado));
-                writer.write("----------------------------------------\n\n");
-            }
-            
-            writer.write("========================================\n");
-            writer.write("FIN DEL REPORTE\n");
-            writer.write("========================================\n");
-        }
-        
-        return nombreArchivo;
+        return exportarProductos(ExportadorReportes.Opciones.texto(), null);
+    }
+
+    /**
+     * Exporta ventas en el formato y con los filtros indicados, sin cargarlas
+     * en memoria
+     *
+     * @param opciones Formato, compresión y filtros de fecha y vendedor
+     * @param progreso Recibe el avance desde el hilo de la exportación (puede ser null)
+     * @return Ruta del archivo creado
+     */
+    public String exportarVentas(ExportadorReportes.Opciones opciones, ExportadorReportes.Progreso progreso)
+            throws IOException {
+        return exportador.exportarVentas(opciones, progreso);
+    }
+
+    /**
+     * Exporta los productos activos en el formato indicado
+     *
+     * @param opciones Formato y compresión
+     * @param progreso Recibe el avance desde el hilo de la exportación (puede ser null)
+     * @return Ruta del archivo creado
+     */
+    public String exportarProductos(ExportadorReportes.Opciones opciones, ExportadorReportes.Progreso progreso)
+            throws IOException {
+        return exportador.exportarProductos(opciones, progreso);
     }
 }
@@ -1,12 +1,22 @@
 package com.inventario.service;
 
 import com.inventario.dao.VentaDAO;
-import com.inventario.model.Venta;
+import com.inventario.metricas.RegistroMetricas;
+import com.inventario.metricas.Temporizador;
 import com.inventario.model.ItemVenta;
-import com.inventario.model.Producto;
+import com.inventario.model.Money;
+import com.inventario.model.ResultadoVenta;
+import com.inventario.model.Venta;
+import com.inventario.model.VentaResumen;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Servicio para la gestión de ventas
@@ -16,125 +26,120 @@ import java.util.List;
  */
 public class VentaService {
     
+    private static final Logger logger = LoggerFactory.getLogger(VentaService.class);
+    private static final RegistroMetricas metricas = RegistroMetricas.getInstance();
     private VentaDAO ventaDAO;
-    private ProductoService productoService;
 
     public VentaService() {
         this.ventaDAO = new VentaDAO();
-        this.productoService = new ProductoService();
     }
 
     /**
      * Procesa una venta completa
      */
     public boolean procesarVenta(Venta venta) {
-        try {
-            System.out.println("\n🔄 ===== INICIANDO PROCESO DE VENTA =====");
-            System.out.println("Usuario: " + venta.getUsuario().getUsername());
-            System.out.println("Total: $" + venta.getTotal());
-            System.out.println("Items: " + venta.getItems().size());
+        return registrarVenta(venta).isExitoso();
+    }
+
+    /**
+     * Procesa una venta completa y devuelve el detalle del resultado.
+     * La venta, sus items y el descuento de stock se confirman en una sola
+     * transacción; si alguna línea no tiene stock no se guarda nada.
+     * 
+     * Cada venta deja un único registro de log con su resultado, escrito
+     * después de liberar la conexión de escritura.
+     * 
+     * @param venta Venta a procesar
+     * @return Resultado indicando la línea que falló, si la hay
+     */
+    public ResultadoVenta registrarVenta(Venta venta) {
+        try (Temporizador.Medicion medicion = metricas.medir("VentaService.registrarVenta")) {
+            long inicio = System.nanoTime();
             
             // Validar que la venta tiene items
             if (!venta.tieneItems()) {
-                System.err.println("❌ Error: La venta no tiene items");
-                return false;
-            }
-            System.out.println("✅ Venta tiene items");
-            
-            // IMPORTANTE: Validar stock recargando productos desde BD
-            System.out.println("\n📦 Validando stock de productos...");
-            for (ItemVenta item : venta.getItems()) {
-                System.out.println("\n  Producto: " + item.getProducto().getNombre());
-                System.out.println("  Código: " + item.getProducto().getCodigo());
-                System.out.println("  Cantidad solicitada: " + item.getCantidad());
-                System.out.println("  Stock en memoria: " + item.getProducto().getCantidad());
-                
-                // Recargar producto desde BD para tener stock actualizado
-                Producto productoActualizado = productoService.obtenerProductoPorCodigo(
-                    item.getProducto().getCodigo()
-                );
-                
-                if (productoActualizado == null) {
-                    System.err.println("  ❌ Error: Producto no encontrado en BD - " + item.getProducto().getCodigo());
-                    return false;
-                }
-                
-                System.out.println("  Stock en BD: " + productoActualizado.getCantidad());
-                
-                // Validar stock con datos actualizados
-                if (productoActualizado.getCantidad() < item.getCantidad()) {
-                    System.err.println(String.format(
-                        "  ❌ Error: Stock insuficiente para %s\n" +
-                        "     Disponible en BD: %d\n" +
-                        "     Requerido: %d",
-                        productoActualizado.getNombre(),
-                        productoActualizado.getCantidad(),
-                        item.getCantidad()
-                    ));
-                    return false;
-                }
-                
-                System.out.println("  ✅ Stock suficiente");
-                
-                // Actualizar referencia del producto en el item con datos actualizados
-                item.setProducto(productoActualizado);
+                ResultadoVenta resultado = ResultadoVenta.fallo(ResultadoVenta.Motivo.CARRITO_VACIO, venta, null);
+                registrarEvento(resultado, inicio);
+                return resultado;
             }
             
-            System.out.println("\n✅ Validación de stock completada");
-            
-            // Guardar la venta en la base de datos
-            System.out.println("\n💾 Guardando venta en base de datos...");
-            boolean ventaGuardada = ventaDAO.crear(venta);
-            
-            if (ventaGuardada) {
-                System.out.println("✅ Venta guardada en BD con ID: " + venta.getId());
-                
-                // Actualizar inventario (descontar stock)
-                System.out.println("\n📉 Actualizando inventario...");
-                for (ItemVenta item : venta.getItems()) {
-                    Producto producto = item.getProducto();
-                    int stockAnterior = producto.getCantidad();
-                    int nuevaCantidad = producto.getCantidad() - item.getCantidad();
-                    
-                    System.out.println("\n  Producto: " + producto.getNombre());
-                    System.out.println("  Stock anterior: " + stockAnterior);
-                    System.out.println("  Cantidad vendida: " + item.getCantidad());
-                    System.out.println("  Nuevo stock: " + nuevaCantidad);
-                    
-                    if (nuevaCantidad < 0) {
-                        System.err.println("  ❌ Error: Cantidad negativa al descontar stock");
-                        return false;
-                    }
-                    
-                    producto.setCantidad(nuevaCantidad);
-                    boolean actualizado = productoService.actualizarProducto(producto);
-                    
-                    if (!actualizado) {
-                        System.err.println("  ❌ Error: No se pudo actualizar el stock del producto " + producto.getNombre());
-                        return false;
-                    }
-                    
-                    System.out.println("  ✅ Stock actualizado correctamente");
-                }
-                
-                System.out.println("\n✅✅✅ VENTA PROCESADA EXITOSAMENTE ✅✅✅");
-                System.out.println("ID de Venta: " + venta.getId());
-                System.out.println("Total: $" + venta.getTotal());
-                System.out.println("=========================================\n");
-                return true;
-            }
-            
-            System.err.println("\n❌ Error: No se pudo guardar la venta en la base de datos");
-            System.err.println("Revisa los logs del VentaDAO arriba para más detalles");
-            return false;
+            ResultadoVenta resultado = ventaDAO.registrarVenta(venta);
+            actualizarCatalogo(resultado);
+            registrarMetricas(resultado);
+            registrarEvento(resultado, inicio);
+            return resultado;
             
         } catch (Exception e) {
-            System.err.println("\n❌❌❌ EXCEPCIÓN AL PROCESAR VENTA ❌❌❌");
-            System.err.println("Mensaje: " + e.getMessage());
-            System.err.println("Tipo: " + e.getClass().getName());
-            e.printStackTrace();
-            System.err.println("=========================================\n");
-            return false;
+            logger.error("excepción al procesar venta usuario={}",
+                         venta.getUsuario() != null ? venta.getUsuario().getUsername() : null, e);
+            return ResultadoVenta.fallo(ResultadoVenta.Motivo.ERROR_BASE_DATOS, venta, e.getMessage());
+        }
+    }
+
+    /**
+     * Escribe el registro estructurado de la venta. Los rechazos de negocio
+     * (stock, carrito vacío...) van en INFO junto a las confirmadas; los
+     * errores de base de datos, en ERROR.
+     */
+    private void registrarEvento(ResultadoVenta resultado, long inicio) {
+        Venta venta = resultado.getVenta();
+        if (resultado.isExitoso()) {
+            if (logger.isInfoEnabled()) {
+                logger.info("venta resultado=confirmada id={} usuario={} lineas={} unidades={} total={} ms={}",
+                            venta.getId(), venta.getUsuario().getUsername(), venta.getItems().size(),
+                            venta.getItems().stream().mapToInt(ItemVenta::getCantidad).sum(),
+                            venta.getTotal(), milisegundosDesde(inicio));
+            }
+            return;
+        }
+
+        boolean errorBaseDatos = resultado.getMotivo() == ResultadoVenta.Motivo.ERROR_BASE_DATOS;
+        if (errorBaseDatos ? logger.isErrorEnabled() : logger.isInfoEnabled()) {
+            String formato = "venta resultado={} usuario={} lineas={} total={} ms={} detalle=\"{}\"";
+            Object[] argumentos = {
+                resultado.getMotivo().name().toLowerCase(),
+                venta.getUsuario() != null ? venta.getUsuario().getUsername() : null,
+                venta.getItems().size(), venta.getTotal(), milisegundosDesde(inicio), resultado.getMensaje()
+            };
+            if (errorBaseDatos) {
+                logger.error(formato, argumentos);
+            } else {
+                logger.info(formato, argumentos);
+            }
+        }
+    }
+
+    private static String milisegundosDesde(long inicio) {
+        return String.format("%.2f", (System.nanoTime() - inicio) / 1e6);
+    }
+
+    /**
+     * Cuenta las ventas por resultado y registra el tamaño de las confirmadas
+     */
+    private void registrarMetricas(ResultadoVenta resultado) {
+        metricas.contador("ventas." + resultado.getMotivo().name().toLowerCase()).incrementar();
+        if (resultado.isExitoso()) {
+            metricas.histograma("ventas.lineas").registrar(resultado.getVenta().getItems().size());
+        }
+    }
+
+    /**
+     * Propaga a la caché del catálogo el stock que cambió con la venta. Si la
+     * venta falló por una línea, se refresca ese producto: la caché estaba
+     * desactualizada respecto a la BD.
+     */
+    private void actualizarCatalogo(ResultadoVenta resultado) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        if (resultado.isExitoso()) {
+            for (ItemVenta item : resultado.getVenta().getItems()) {
+                ids.add(item.getProducto().getId());
+            }
+        } else if (resultado.getItemFallido() != null && resultado.getItemFallido().getProducto() != null) {
+            ids.add(resultado.getItemFallido().getProducto().getId());
+        }
+
+        if (!ids.isEmpty()) {
+            ProductoCache.getInstance().refrescar(ids);
         }
     }
 
@@ -145,6 +150,35 @@ public class VentaService {
         return ventaDAO.obtenerTodos();
     }
 
+    /**
+     * Obtiene una página de ventas (paginación por id descendente)
+     * 
+     * @param antesDeId Id exclusivo desde el que se lee
+     * @param limite Tamaño de la página
+     * @return Ventas de la página
+     */
+    public List<Venta> obtenerPaginaVentas(int antesDeId, int limite) {
+        return ventaDAO.obtenerPagina(antesDeId, limite);
+    }
+
+    /**
+     * Obtiene los ids de todas las ventas, de la más nueva a la más antigua
+     */
+    public List<Integer> obtenerIdsVentas() {
+        return ventaDAO.obtenerIds();
+    }
+
+    /**
+     * Obtiene una página de resúmenes de ventas (paginación por id descendente)
+     * 
+     * @param antesDeId Id exclusivo desde el que se lee
+     * @param limite Tamaño de la página
+     * @return Resúmenes de la página
+     */
+    public List<VentaResumen> obtenerPaginaResumenes(int antesDeId, int limite) {
+        return ventaDAO.obtenerResumenes(antesDeId, limite);
+    }
+
     /**
      * Obtiene una venta por ID
      */
@@ -152,6 +186,14 @@ public class VentaService {
         return ventaDAO.obtenerPorId(id);
     }
 
+    /**
+     * Obtiene varias ventas completas por ID (consultas por conjuntos, no una
+     * por venta)
+     */
+    public List<Venta> obtenerVentasPorIds(Collection<Integer> ids) {
+        return ventaDAO.obtenerPorIds(ids);
+    }
+
     /**
      * Obtiene ventas por fecha
      */
@@ -159,6 +201,15 @@ public class VentaService {
         return ventaDAO.obtenerPorFecha(fecha);
     }
 
+    /**
+     * Obtiene ventas del rango semiabierto [desde, hasta)
+     * 
+     * @param limite Máximo de ventas a devolver (0 = sin límite)
+     */
+    public List<Venta> obtenerVentasPorRango(LocalDateTime desde, LocalDateTime hasta, int limite) {
+        return ventaDAO.obtenerPorRango(desde, hasta, limite);
+    }
+
     /**
      * Obtiene ventas por usuario
      */
@@ -169,11 +220,13 @@ public class VentaService {
     /**
      * Obtiene el total de ventas del día
      */
-    public double obtenerTotalVentasDelDia() {
+    public Money obtenerTotalVentasDelDia() {
         List<Venta> ventasHoy = obtenerVentasPorFecha(LocalDate.now());
-        return ventasHoy.stream()
-            .mapToDouble(v -> v.getTotal().doubleValue())
-            .sum();
+        long centavos = 0;
+        for (Venta venta : ventasHoy) {
+            centavos = Math.addExact(centavos, venta.getTotal().getCentavos());
+        }
+        return Money.deCentavos(centavos);
     }
 
     /**
@@ -0,0 +1,158 @@
+package com.inventario.util;
+
+import com.inventario.model.Money;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * Formato de moneda inmutable y seguro entre hilos
+ *
+ * Produce el mismo texto que NumberFormat.getCurrencyInstance() del locale
+ * (símbolo, separadores, agrupación y decimales se toman de él una sola vez),
+ * pero trabaja sobre los centavos de Money y escribe directamente en un
+ * StringBuilder: no crea BigDecimal ni cadenas intermedias y se puede
+ * compartir entre hilos, a diferencia de NumberFormat.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public final class FormatoMoneda {
+
+    private static final FormatoMoneda PREDETERMINADO = new FormatoMoneda(Locale.getDefault(Locale.Category.FORMAT));
+
+    private final String prefijo;
+    private final String sufijo;
+    private final String prefijoNegativo;
+    private final String sufijoNegativo;
+    private final char separadorDecimal;
+    private final char separadorGrupos;
+    private final char cero;
+    private final int tamanoGrupo;
+    private final int minDecimales;
+    private final int maxDecimales;
+
+    /**
+     * @param locale Locale cuyo formato de moneda se reproduce
+     */
+    public FormatoMoneda(Locale locale) {
+        NumberFormat formato = NumberFormat.getCurrencyInstance(locale);
+        if (!(formato instanceof DecimalFormat)) {
+            throw new IllegalArgumentException("Formato de moneda no soportado para " + locale);
+        }
+        DecimalFormat decimal = (DecimalFormat) formato;
+        DecimalFormatSymbols simbolos = decimal.getDecimalFormatSymbols();
+        this.prefijo = decimal.getPositivePrefix();
+        this.sufijo = decimal.getPositiveSuffix();
+        this.prefijoNegativo = decimal.getNegativePrefix();
+        this.sufijoNegativo = decimal.getNegativeSuffix();
+        this.separadorDecimal = simbolos.getMonetaryDecimalSeparator();
+        this.separadorGrupos = simbolos.getMonetaryGroupingSeparator();
+        this.cero = simbolos.getZeroDigit();
+        this.tamanoGrupo = decimal.isGroupingUsed() ? decimal.getGroupingSize() : 0;
+        this.minDecimales = decimal.getMinimumFractionDigits();
+        this.maxDecimales = decimal.getMaximumFractionDigits();
+        if (decimal.getRoundingMode() != RoundingMode.HALF_EVEN) {
+            throw new IllegalArgumentException("Redondeo no soportado para " + locale);
+        }
+    }
+
+    /**
+     * Formato del locale predeterminado (el mismo que usa NumberFormat.getCurrencyInstance())
+     */
+    public static FormatoMoneda predeterminado() {
+        return PREDETERMINADO;
+    }
+
+    /**
+     * Formatea un valor, p. ej. "$1,500.50"
+     */
+    public String formatear(Money valor) {
+        StringBuilder sb = new StringBuilder(24);
+        escribir(valor.getCentavos(), sb);
+        return sb.toString();
+    }
+
+    /**
+     * Escribe un valor en centavos al final del StringBuilder
+     *
+     * @param centavos Valor en centavos
+     * @param destino StringBuilder donde se agrega el texto
+     */
+    public void escribir(long centavos, StringBuilder destino) {
+        boolean negativo = centavos < 0;
+        // Los centavos se llevan como negativos para cubrir también Long.MIN_VALUE
+        long valor = negativo ? centavos : -centavos;
+
+        int decimales = Math.min(maxDecimales, 2);
+        if (decimales < 2) {
+            valor = redondearNegativo(valor, decimales == 1 ? 10 : 100);
+        }
+
+        long pesos = -(valor / 100);
+        int fraccion = (int) -(valor % 100);
+        // Como DecimalFormat, un negativo que se redondea a cero conserva el signo
+        destino.append(negativo ? prefijoNegativo : prefijo);
+
+        escribirEntero(pesos, destino);
+
+        int mostrados = decimales;
+        if (decimales == 2 && minDecimales < 2 && fraccion % 10 == 0) {
+            mostrados = fraccion == 0 ? minDecimales : Math.max(minDecimales, 1);
+        } else if (decimales == 1 && minDecimales < 1 && fraccion == 0) {
+            mostrados = 0;
+        }
+        if (mostrados > 0 || minDecimales > 0) {
+            destino.append(separadorDecimal);
+            if (mostrados >= 1) {
+                destino.append((char) (cero + fraccion / 10));
+            }
+            if (mostrados >= 2) {
+                destino.append((char) (cero + fraccion % 10));
+            }
+            for (int i = Math.max(mostrados, 2); i < minDecimales; i++) {
+                destino.append(cero);
+            }
+        }
+
+        destino.append(negativo ? sufijoNegativo : sufijo);
+    }
+
+    /**
+     * Escribe la parte entera con separador de grupos
+     */
+    private void escribirEntero(long pesos, StringBuilder destino) {
+        int inicio = destino.length();
+        int digitos = 0;
+        do {
+            if (tamanoGrupo > 0 && digitos > 0 && digitos % tamanoGrupo == 0) {
+                destino.append(separadorGrupos);
+            }
+            destino.append((char) (cero + pesos % 10));
+            pesos /= 10;
+            digitos++;
+        } while (pesos > 0);
+
+        // Los dígitos se escribieron de derecha a izquierda
+        for (int i = inicio, j = destino.length() - 1; i < j; i++, j--) {
+            char c = destino.charAt(i);
+            destino.setCharAt(i, destino.charAt(j));
+            destino.setCharAt(j, c);
+        }
+    }
+
+    /**
+     * Redondea un valor negativo a múltiplos de "paso" con la mitad al par
+     * (el redondeo de DecimalFormat)
+     */
+    private static long redondearNegativo(long valor, long paso) {
+        long cociente = valor / paso;
+        long resto = -(valor % paso);
+        if (resto * 2 > paso || (resto * 2 == paso && cociente % 2 != 0)) {
+            cociente--;
+        }
+        return cociente * paso;
+    }
+}
@@ -0,0 +1,159 @@
+package com.inventario.util;
+
+/**
+ * Histograma de latencias de memoria fija, al estilo de HdrHistogram
+ *
+ * Los valores (en nanosegundos) se agrupan en cubetas log-lineales: hasta 256
+ * cada valor tiene su propia cubeta y, a partir de ahí, cada potencia de dos se
+ * divide en 128 cubetas iguales. El error relativo de cualquier percentil es
+ * menor al 0,8 % y el registro cuesta unas pocas operaciones, sin reservar
+ * memoria, por lo que puede usarse en el camino medido.
+ *
+ * No es seguro entre hilos: cada hilo registra en su propio histograma y al
+ * final se combinan con {@link #combinar(HistogramaLatencia)}.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class HistogramaLatencia {
+
+    private static final int BITS_SUBCUBETA = 8;
+    private static final int LINEALES = 1 << BITS_SUBCUBETA;
+    private static final int MITAD = LINEALES / 2;
+    private static final int CUBETAS = LINEALES + (Long.SIZE - BITS_SUBCUBETA) * MITAD;
+
+    private final long[] cuentas = new long[CUBETAS];
+    private long total;
+    private long suma;
+    private long minimo = Long.MAX_VALUE;
+    private long maximo;
+
+    /**
+     * Registra una medición
+     *
+     * @param nanos Duración en nanosegundos (los valores negativos cuentan como 0)
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        cuentas[indice(valor)]++;
+        total++;
+        suma += valor;
+        minimo = Math.min(minimo, valor);
+        maximo = Math.max(maximo, valor);
+    }
+
+    /**
+     * Suma las mediciones de otro histograma a este
+     */
+    public void combinar(HistogramaLatencia otro) {
+        for (int i = 0; i < CUBETAS; i++) {
+            cuentas[i] += otro.cuentas[i];
+        }
+        total += otro.total;
+        suma += otro.suma;
+        minimo = Math.min(minimo, otro.minimo);
+        maximo = Math.max(maximo, otro.maximo);
+    }
+
+    /**
+     * Valor por debajo del cual está el porcentaje indicado de las mediciones
+     *
+     * @param percentil Percentil entre 0 y 100 (por ejemplo 99.9)
+     * @return Límite superior de la cubeta del percentil, en nanosegundos (0 si está vacío)
+     */
+    public long getPercentil(double percentil) {
+        if (total == 0) {
+            return 0;
+        }
+
+        long objetivo = Math.max(1, (long) Math.ceil(total * Math.min(percentil, 100.0) / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += cuentas[i];
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximo);
+            }
+        }
+        return maximo;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getMinimo() {
+        return total == 0 ? 0 : minimo;
+    }
+
+    public long getMaximo() {
+        return maximo;
+    }
+
+    public double getMedia() {
+        return total == 0 ? 0.0 : (double) suma / total;
+    }
+
+    /**
+     * Representación compacta (solo cubetas no vacías) para enviar el
+     * histograma entre procesos
+     */
+    public String serializar() {
+        StringBuilder texto = new StringBuilder();
+        texto.append(total).append(';').append(suma).append(';')
+             .append(getMinimo()).append(';').append(maximo).append(';');
+        for (int i = 0; i < CUBETAS; i++) {
+            if (cuentas[i] > 0) {
+                texto.append(i).append(':').append(cuentas[i]).append(',');
+            }
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Reconstruye un histograma a partir de {@link #serializar()}
+     *
+     * @throws IllegalArgumentException Si el texto no tiene el formato esperado
+     */
+    public static HistogramaLatencia deserializar(String texto) {
+        String[] partes = texto.split(";", -1);
+        if (partes.length != 5) {
+            throw new IllegalArgumentException("Histograma con formato inválido");
+        }
+
+        HistogramaLatencia histograma = new HistogramaLatencia();
+        try {
+            histograma.total = Long.parseLong(partes[0]);
+            histograma.suma = Long.parseLong(partes[1]);
+            histograma.minimo = histograma.total == 0 ? Long.MAX_VALUE : Long.parseLong(partes[2]);
+            histograma.maximo = Long.parseLong(partes[3]);
+            for (String cubeta : partes[4].split(",")) {
+                if (!cubeta.isEmpty()) {
+                    int separador = cubeta.indexOf(':');
+                    histograma.cuentas[Integer.parseInt(cubeta.substring(0, separador))] =
+                        Long.parseLong(cubeta.substring(separador + 1));
+                }
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Histograma con formato inválido", e);
+        }
+        return histograma;
+    }
+
+    private static int indice(long valor) {
+        if (valor < LINEALES) {
+            return (int) valor;
+        }
+        // Desplazamiento que deja el valor en [MITAD, LINEALES)
+        int desplazamiento = (Long.SIZE - Long.numberOfLeadingZeros(valor)) - BITS_SUBCUBETA;
+        return LINEALES + (desplazamiento - 1) * MITAD + (int) ((valor >>> desplazamiento) - MITAD);
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < LINEALES) {
+            return indice;
+        }
+        int desplazamiento = (indice - LINEALES) / MITAD + 1;
+        long subcubeta = (indice - LINEALES) % MITAD + MITAD;
+        return ((subcubeta + 1) << desplazamiento) - 1;
+    }
+}
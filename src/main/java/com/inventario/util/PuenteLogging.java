@@ -0,0 +1,31 @@
+package com.inventario.util;
+
+import org.slf4j.bridge.SLF4JBridgeHandler;
+
+/**
+ * Envía a SLF4J/logback los registros de java.util.logging
+ *
+ * Los DAO, el pool de conexiones y el monitor SQL usan java.util.logging;
+ * el resto de la aplicación, SLF4J. Sin el puente sus mensajes iban a la
+ * consola de JUL y no llegaban a los archivos de logback. Cada punto de
+ * entrada (main) debe instalarlo antes de usar la base de datos.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public final class PuenteLogging {
+
+    private PuenteLogging() {
+    }
+
+    /**
+     * Quita los manejadores del logger raíz de JUL e instala el puente.
+     * Llamarlo más de una vez no tiene efecto.
+     */
+    public static synchronized void instalar() {
+        if (!SLF4JBridgeHandler.isInstalled()) {
+            SLF4JBridgeHandler.removeHandlersForRootLogger();
+            SLF4JBridgeHandler.install();
+        }
+    }
+}
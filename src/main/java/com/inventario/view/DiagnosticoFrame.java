@@ -0,0 +1,190 @@
+package com.inventario.view;
+
+import com.inventario.database.DatabaseManager;
+import com.inventario.database.MonitorConsultas;
+import com.inventario.metricas.RegistroMetricas;
+import com.inventario.metricas.ValorMetrica;
+import com.inventario.service.ProductoCache;
+import com.inventario.util.DesignConstants;
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+/**
+ * Panel de diagnóstico de rendimiento: tiempos de cada método de los DAO y
+ * de los servicios principales, contadores de ventas y estado de la caché
+ * de productos. Se actualiza solo mientras está abierto. Desde aquí también
+ * se consulta el reporte de planes de las sentencias SQL.
+ *
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class DiagnosticoFrame extends JFrame {
+
+    private static final int REFRESCO_MS = 2000;
+    private static final String[] COLUMNAS = {
+        "Métrica", "Tipo", "Cuenta", "Media", "p50", "p99", "p99.9", "Máx"
+    };
+
+    private final RegistroMetricas metricas = RegistroMetricas.getInstance();
+    private DefaultTableModel modeloTabla;
+    private JTable tablaMetricas;
+    private JLabel lblCache;
+    private JButton btnReiniciar;
+    private JButton btnPlanes;
+    private JButton btnCerrar;
+    private Timer temporizadorRefresco;
+
+    public DiagnosticoFrame() {
+        initializeComponents();
+        setupLayout();
+        setupEventHandlers();
+        configureFrame();
+        actualizar();
+    }
+
+    private void initializeComponents() {
+        modeloTabla = new DefaultTableModel(COLUMNAS, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        tablaMetricas = new JTable(modeloTabla);
+        tablaMetricas.setFont(DesignConstants.FONT_TABLE_CELL);
+        tablaMetricas.getTableHeader().setFont(DesignConstants.FONT_TABLE_HEADER);
+        tablaMetricas.setRowHeight(24);
+        tablaMetricas.getColumnModel().getColumn(0).setPreferredWidth(300);
+
+        lblCache = new JLabel();
+        lblCache.setFont(DesignConstants.FONT_LABEL);
+        lblCache.setForeground(DesignConstants.TEXT_SECONDARY);
+
+        btnReiniciar = new JButton("Reiniciar métricas");
+        btnReiniciar.setFont(DesignConstants.FONT_BUTTON);
+        btnPlanes = new JButton("Planes SQL");
+        btnPlanes.setFont(DesignConstants.FONT_BUTTON);
+        btnPlanes.setEnabled(DatabaseManager.getInstance().getMonitorConsultas() != null);
+        btnCerrar = new JButton("Cerrar");
+        btnCerrar.setFont(DesignConstants.FONT_BUTTON);
+
+        temporizadorRefresco = new Timer(REFRESCO_MS, e -> actualizar());
+    }
+
+    private void setupLayout() {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBackground(DesignConstants.BACKGROUND_COLOR);
+        panel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        JLabel lblTitulo = new JLabel("Diagnóstico de rendimiento");
+        lblTitulo.setFont(DesignConstants.FONT_SUBTITLE);
+        lblTitulo.setForeground(DesignConstants.SECONDARY_COLOR);
+
+        JLabel lblNota = new JLabel("Tiempos en milisegundos, acumulados desde el arranque o el último reinicio");
+        lblNota.setFont(DesignConstants.FONT_SMALL);
+        lblNota.setForeground(DesignConstants.TEXT_SECONDARY);
+
+        JPanel panelSuperior = new JPanel(new GridLayout(2, 1));
+        panelSuperior.setOpaque(false);
+        panelSuperior.add(lblTitulo);
+        panelSuperior.add(lblNota);
+
+        JPanel panelInferior = new JPanel(new BorderLayout());
+        panelInferior.setOpaque(false);
+        JPanel panelBotones = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        panelBotones.setOpaque(false);
+        panelBotones.add(btnReiniciar);
+        panelBotones.add(btnPlanes);
+        panelBotones.add(btnCerrar);
+        panelInferior.add(lblCache, BorderLayout.WEST);
+        panelInferior.add(panelBotones, BorderLayout.EAST);
+
+        panel.add(panelSuperior, BorderLayout.NORTH);
+        panel.add(new JScrollPane(tablaMetricas), BorderLayout.CENTER);
+        panel.add(panelInferior, BorderLayout.SOUTH);
+        setContentPane(panel);
+    }
+
+    private void setupEventHandlers() {
+        btnReiniciar.addActionListener(e -> {
+            metricas.reiniciar();
+            ProductoCache.getInstance().reiniciarContadores();
+            actualizar();
+        });
+        btnPlanes.addActionListener(e -> mostrarPlanes());
+        btnCerrar.addActionListener(e -> dispose());
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                temporizadorRefresco.start();
+            }
+
+            @Override
+            public void windowClosed(WindowEvent e) {
+                temporizadorRefresco.stop();
+            }
+        });
+    }
+
+    private void configureFrame() {
+        setTitle("Sistema de Inventario - Diagnóstico");
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setSize(1000, 600);
+        setLocationRelativeTo(null);
+    }
+
+    /**
+     * Vuelve a leer el registro; las instantáneas son baratas, así que se
+     * hace directamente en el EDT
+     */
+    private void actualizar() {
+        modeloTabla.setRowCount(0);
+        for (ValorMetrica metrica : metricas.obtenerInstantanea()) {
+            if (metrica.getTipo() == ValorMetrica.Tipo.CONTADOR) {
+                modeloTabla.addRow(new Object[]{
+                    metrica.getNombre(), metrica.getTipo().getDescripcion(), metrica.getCuenta(),
+                    "", "", "", "", ""
+                });
+            } else if (metrica.getTipo() == ValorMetrica.Tipo.TEMPORIZADOR) {
+                modeloTabla.addRow(new Object[]{
+                    metrica.getNombre(), metrica.getTipo().getDescripcion(), metrica.getCuenta(),
+                    ms(metrica.getMedia()), ms(metrica.getP50()), ms(metrica.getP99()),
+                    ms(metrica.getP999()), ms(metrica.getMaximo())
+                });
+            } else {
+                modeloTabla.addRow(new Object[]{
+                    metrica.getNombre(), metrica.getTipo().getDescripcion(), metrica.getCuenta(),
+                    String.format("%.2f", metrica.getMedia()), metrica.getP50(), metrica.getP99(),
+                    metrica.getP999(), metrica.getMaximo()
+                });
+            }
+        }
+
+        ProductoCache cache = ProductoCache.getInstance();
+        lblCache.setText(String.format("Caché de productos: %d productos, %.1f %% de aciertos (%d aciertos, %d fallos)",
+                                       cache.getTamano(), cache.getTasaAciertos() * 100,
+                                       cache.getAciertos(), cache.getFallos()));
+    }
+
+    /**
+     * Muestra el reporte de sentencias SQL, con las que recorren tablas completas primero
+     */
+    private void mostrarPlanes() {
+        MonitorConsultas monitor = DatabaseManager.getInstance().getMonitorConsultas();
+        JTextArea txtReporte = new JTextArea(monitor.generarReporte());
+        txtReporte.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        txtReporte.setEditable(false);
+        txtReporte.setCaretPosition(0);
+
+        JScrollPane scroll = new JScrollPane(txtReporte);
+        scroll.setPreferredSize(new Dimension(900, 500));
+        JOptionPane.showMessageDialog(this, scroll, "Planes de las sentencias SQL", JOptionPane.PLAIN_MESSAGE);
+    }
+
+    private static String ms(double nanos) {
+        return String.format("%.3f", nanos / 1e6);
+    }
+}
@@ -2,8 +2,9 @@ package com.inventario.view;
 
 import com.inventario.controller.FacturaController;
 import com.inventario.model.Usuario;
+import com.inventario.model.VentaResumen;
+import com.inventario.service.FacturaLoteService;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 
 /**
@@ -27,10 +28,13 @@ public class FacturaFrame extends JFrame {
     // Panel izquierdo - Ventas
     private JPanel panelVentas;
     private JTable tablaVentas;
-    private DefaultTableModel modeloVentas;
+    private ModeloTablaMarcable<VentaResumen> modeloVentas;
     private JScrollPane scrollVentas;
     private JButton btnActualizar;
     private JButton btnGenerarFactura;
+    private JButton btnSeleccionarTodas;
+    private JButton btnFacturarSeleccionadas;
+    private JButton btnBuscarFactura;
     
     // Panel derecho - Vista previa
     private JPanel panelVistaPrevia;
@@ -49,6 +53,8 @@ public class FacturaFrame extends JFrame {
     private JCheckBox chkIncluirIVA;
     
     private FacturaController controller;
+    private JProgressBar progressCarga;
+    private JProgressBar progressLote;
     private Usuario usuarioActual;
     private MainFrame mainFrame;
     private JButton btnRegresar;
@@ -101,18 +107,9 @@ public class FacturaFrame extends JFrame {
         ));
         
         // Tabla de ventas
-        String[] columnas = {"Seleccionar", "ID", "Fecha", "Vendedor", "Items", "Total"};
-        modeloVentas = new DefaultTableModel(columnas, 0) {
-            @Override
-            public Class<?> getColumnClass(int column) {
-                return column == 0 ? Boolean.class : Object.class;
-            }
-            
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return column == 0; // Solo la columna de checkbox es editable
-            }
-        };
+        // Se carga por páginas al desplazarse: el historial puede ser muy grande
+        String[] columnas = {"ID", "Fecha", "Vendedor", "Items", "Total"};
+        modeloVentas = new ModeloTablaMarcable<>("Seleccionar", columnas, VentaResumen::getId, this::mostrarCargando);
         
         tablaVentas = new JTable(modeloVentas);
         tablaVentas.setFont(new Font("Segoe UI", Font.PLAIN, 12));
@@ -196,9 +193,15 @@ public class FacturaFrame extends JFrame {
         
         btnActualizar = createModernButton("🔄 Actualizar", PRIMARY_COLOR);
         btnGenerarFactura = createModernButton("📄 Generar Factura", SUCCESS_COLOR);
+        btnSeleccionarTodas = createModernButton("☑ Todas", INFO_COLOR);
+        btnFacturarSeleccionadas = createModernButton("📚 Facturar Marcadas", SUCCESS_COLOR);
+        btnBuscarFactura = createModernButton("🔎 Buscar Factura", INFO_COLOR);
         
         panelBotones.add(btnActualizar);
+        panelBotones.add(btnSeleccionarTodas);
         panelBotones.add(btnGenerarFactura);
+        panelBotones.add(btnFacturarSeleccionadas);
+        panelBotones.add(btnBuscarFactura);
         
         panelVentas.add(scrollVentas, BorderLayout.CENTER);
         panelVentas.add(panelBotones, BorderLayout.SOUTH);
@@ -347,8 +350,24 @@ public class FacturaFrame extends JFrame {
         panelPrincipal.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         panelPrincipal.add(splitPane, BorderLayout.CENTER);
         
+        // Barra de estado con el indicador de carga
+        progressCarga = new JProgressBar();
+        progressCarga.setIndeterminate(true);
+        progressCarga.setStringPainted(true);
+        progressCarga.setString("Cargando ventas...");
+        progressCarga.setVisible(false);
+        
+        progressLote = new JProgressBar();
+        progressLote.setStringPainted(true);
+        progressLote.setVisible(false);
+        
+        JPanel panelEstado = new JPanel(new BorderLayout());
+        panelEstado.add(progressCarga, BorderLayout.NORTH);
+        panelEstado.add(progressLote, BorderLayout.SOUTH);
+        
         add(panelSuperior, BorderLayout.NORTH);
         add(panelPrincipal, BorderLayout.CENTER);
+        add(panelEstado, BorderLayout.SOUTH);
     }
 
     /**
@@ -359,6 +378,9 @@ public class FacturaFrame extends JFrame {
         
         btnActualizar.addActionListener(e -> controller.cargarVentas());
         btnGenerarFactura.addActionListener(e -> controller.generarVistaPrevia());
+        btnSeleccionarTodas.addActionListener(e -> controller.seleccionarTodas());
+        btnFacturarSeleccionadas.addActionListener(e -> controller.generarFacturasSeleccionadas());
+        btnBuscarFactura.addActionListener(e -> controller.buscarFactura());
         btnGuardarFactura.addActionListener(e -> controller.guardarFactura());
         btnImprimirFactura.addActionListener(e -> controller.imprimirFactura());
         btnLimpiar.addActionListener(e -> controller.limpiarVistaPrevia());
@@ -387,6 +409,7 @@ public class FacturaFrame extends JFrame {
      * Regresa al menú principal
      */
     private void regresarAlMenu() {
+        controller.cancelarCargas();
         this.dispose();
         mainFrame.mostrar();
     }
@@ -399,7 +422,7 @@ public class FacturaFrame extends JFrame {
     }
 
     // Getters para el controlador
-    public DefaultTableModel getModeloVentas() {
+    public ModeloTablaMarcable<VentaResumen> getModeloVentas() {
         return modeloVentas;
     }
 
@@ -431,6 +454,93 @@ public class FacturaFrame extends JFrame {
         return btnImprimirFactura;
     }
 
+    /**
+     * Muestra u oculta el indicador de carga
+     */
+    public void mostrarCargando(boolean cargando) {
+        progressCarga.setVisible(cargando);
+        setCursor(cargando ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+        revalidate();
+    }
+
+    /**
+     * Muestra el avance de la generación de facturas por lote
+     */
+    public void mostrarProgresoLote(int procesadas, int total) {
+        progressLote.setMaximum(Math.max(total, 1));
+        progressLote.setValue(procesadas);
+        progressLote.setString("Generando facturas... " + procesadas + " de " + total);
+        if (!progressLote.isVisible()) {
+            progressLote.setVisible(true);
+            revalidate();
+        }
+    }
+
+    public void ocultarProgresoLote() {
+        progressLote.setVisible(false);
+        revalidate();
+    }
+
+    /**
+     * Pide el formato y el destino de un lote de facturas. Los datos del
+     * cliente y el IVA se toman del panel del cliente.
+     *
+     * @param cantidad Número de ventas marcadas
+     * @return Opciones del lote, o null si el usuario canceló
+     */
+    public FacturaLoteService.Opciones pedirOpcionesLote(int cantidad) {
+        JComboBox<FacturaLoteService.Formato> cmbFormato = new JComboBox<>(FacturaLoteService.Formato.values());
+        JRadioButton rbDirectorio = new JRadioButton("Un archivo por factura en un directorio", true);
+        JRadioButton rbZip = new JRadioButton("Todas en un archivo .zip");
+        ButtonGroup grupo = new ButtonGroup();
+        grupo.add(rbDirectorio);
+        grupo.add(rbZip);
+        
+        JPanel panel = new JPanel(new GridLayout(0, 1, 5, 5));
+        panel.add(new JLabel("Se generarán " + cantidad + " factura(s) para " + getClienteNombre()));
+        panel.add(cmbFormato);
+        panel.add(rbDirectorio);
+        panel.add(rbZip);
+        
+        if (JOptionPane.showConfirmDialog(this, panel, "Facturar ventas marcadas",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) {
+            return null;
+        }
+        
+        boolean zip = rbZip.isSelected();
+        JFileChooser fileChooser = new JFileChooser();
+        if (zip) {
+            fileChooser.setDialogTitle("Guardar facturas en zip");
+            fileChooser.setSelectedFile(new java.io.File("facturas_" +
+                java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) +
+                ".zip"));
+            fileChooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("Archivos zip (*.zip)", "zip"));
+        } else {
+            fileChooser.setDialogTitle("Directorio de las facturas");
+            fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        }
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return null;
+        }
+        
+        java.nio.file.Path destino = fileChooser.getSelectedFile().toPath();
+        if (zip && !destino.getFileName().toString().toLowerCase().endsWith(".zip")) {
+            destino = destino.resolveSibling(destino.getFileName() + ".zip");
+        }
+        return new FacturaLoteService.Opciones((FacturaLoteService.Formato) cmbFormato.getSelectedItem(),
+            destino, zip, getClienteNombre(), getClienteDocumento(), isIncluirIVA());
+    }
+
+    /**
+     * Pide el número de una factura emitida
+     *
+     * @return Número escrito, o null si se canceló
+     */
+    public String pedirNumeroFactura() {
+        return JOptionPane.showInputDialog(this, "Número de factura (p. ej. FACT-20250304-0012):",
+            "Buscar Factura", JOptionPane.QUESTION_MESSAGE);
+    }
+
     public void mostrarError(String mensaje) {
         JOptionPane.showMessageDialog(this, mensaje, "Error", JOptionPane.ERROR_MESSAGE);
     }
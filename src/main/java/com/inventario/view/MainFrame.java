@@ -33,7 +33,7 @@ public class MainFrame extends JFrame {
     private JMenu menuProductos, menuVentas, menuReportes, menuUsuario;
     private JMenuItem menuItemRegistrarProducto, menuItemListarProductos;
     private JMenuItem menuItemNuevaVenta, menuItemGenerarFactura;
-    private JMenuItem menuItemReporteInventario, menuItemReporteVentas;
+    private JMenuItem menuItemReporteInventario, menuItemReporteVentas, menuItemDiagnostico;
     private JMenuItem menuItemRegistrarUsuario, menuItemCambiarPassword;
     private JMenuItem menuItemCerrarSesion, menuItemSalir;
     
@@ -153,8 +153,11 @@ public class MainFrame extends JFrame {
         menuReportes = crearMenu("Reportes");
         menuItemReporteInventario = crearMenuItem("Reporte de Inventario");
         menuItemReporteVentas = crearMenuItem("Reporte de Ventas");
+        menuItemDiagnostico = crearMenuItem("Diagnóstico de Rendimiento");
         menuReportes.add(menuItemReporteInventario);
         menuReportes.add(menuItemReporteVentas);
+        menuReportes.addSeparator();
+        menuReportes.add(menuItemDiagnostico);
         
         // Menú Usuario
         menuUsuario = crearMenu("Usuario");
@@ -315,6 +318,7 @@ public class MainFrame extends JFrame {
         menuItemGenerarFactura.addActionListener(e -> abrirGenerarFactura());
         menuItemReporteInventario.addActionListener(e -> abrirReporteInventario());
         menuItemReporteVentas.addActionListener(e -> abrirReporteVentas());
+        menuItemDiagnostico.addActionListener(e -> abrirDiagnostico());
         menuItemRegistrarUsuario.addActionListener(e -> abrirRegistrarUsuario());
         menuItemCambiarPassword.addActionListener(e -> abrirCambiarPassword());
         menuItemCerrarSesion.addActionListener(e -> cerrarSesion());
@@ -394,6 +398,21 @@ public class MainFrame extends JFrame {
         abrirReportes(1); // Índice 1 = Pestaña de Ventas
     }
 
+    private void abrirDiagnostico() {
+        if (!usuarioActual.esAdministrador() && !usuarioActual.esSuperAdministrador()) {
+            JOptionPane.showMessageDialog(this,
+                "Solo los administradores pueden ver el diagnóstico de rendimiento.",
+                "Acceso Denegado",
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        SwingUtilities.invokeLater(() -> {
+            DiagnosticoFrame diagnosticoFrame = new DiagnosticoFrame();
+            diagnosticoFrame.setVisible(true);
+        });
+    }
+
     private void abrirRegistrarUsuario() {
         if (!usuarioActual.esSuperAdministrador()) {
             JOptionPane.showMessageDialog(this,
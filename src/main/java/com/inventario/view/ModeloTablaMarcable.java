@@ -0,0 +1,123 @@
+package com.inventario.view;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Modelo paginado con una primera columna de casillas para marcar filas.
+ *
+ * Las marcas se guardan por id y no en las filas: así sobreviven a que la
+ * página salga de la caché y se vuelva a leer, y se pueden marcar registros
+ * que todavía no se cargaron.
+ *
+ * Todos los métodos deben llamarse desde el EDT.
+ *
+ * @param <T> Tipo de registro mostrado en cada fila
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class ModeloTablaMarcable<T> extends ModeloTablaPaginado<T> {
+
+    private final String columnaMarca;
+    private final ToIntFunction<T> clave;
+    // En el mismo orden que la tabla (id descendente)
+    private final Set<Integer> marcadas = new TreeSet<>(Comparator.reverseOrder());
+
+    /**
+     * @param columnaMarca Nombre de la columna de casillas
+     * @param columnas Nombres de las columnas de datos
+     * @param clave Obtiene el id (clave de paginación) de un registro
+     * @param indicadorProgreso Recibe true/false al iniciar/terminar cargas (puede ser null)
+     */
+    public ModeloTablaMarcable(String columnaMarca, String[] columnas, ToIntFunction<T> clave,
+                               Consumer<Boolean> indicadorProgreso) {
+        super(columnas, clave, indicadorProgreso);
+        this.columnaMarca = columnaMarca;
+        this.clave = clave;
+    }
+
+    /**
+     * Descarta el contenido y las marcas y empieza a cargar desde la primera página
+     */
+    @Override
+    public void cargar(ConsultaPagina<T> consulta, Consumer<Integer> alCargarPrimeraPagina,
+                       Consumer<Exception> alFallar) {
+        marcadas.clear();
+        super.cargar(consulta, alCargarPrimeraPagina, alFallar);
+    }
+
+    /**
+     * Ids marcados, en el orden de la tabla
+     */
+    public List<Integer> getMarcadas() {
+        return new ArrayList<>(marcadas);
+    }
+
+    /**
+     * Marca los ids indicados, estén o no cargados
+     */
+    public void marcar(Collection<Integer> ids) {
+        marcadas.addAll(ids);
+        repintarMarcas();
+    }
+
+    public void desmarcarTodas() {
+        marcadas.clear();
+        repintarMarcas();
+    }
+
+    private void repintarMarcas() {
+        if (getRowCount() > 0) {
+            fireTableRowsUpdated(0, getRowCount() - 1);
+        }
+    }
+
+    @Override
+    public int getColumnCount() {
+        return super.getColumnCount() + 1;
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        return columna == 0 ? columnaMarca : super.getColumnName(columna - 1);
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columna) {
+        return columna == 0 ? Boolean.class : Object.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int fila, int columna) {
+        return columna == 0 && getFila(fila) != null;
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        if (columna > 0) {
+            return super.getValueAt(fila, columna - 1);
+        }
+        T registro = getFila(fila);
+        return registro != null && marcadas.contains(clave.applyAsInt(registro));
+    }
+
+    @Override
+    public void setValueAt(Object valor, int fila, int columna) {
+        T registro = getFila(fila);
+        if (columna != 0 || registro == null) {
+            return;
+        }
+        if (Boolean.TRUE.equals(valor)) {
+            marcadas.add(clave.applyAsInt(registro));
+        } else {
+            marcadas.remove(clave.applyAsInt(registro));
+        }
+        fireTableCellUpdated(fila, columna);
+    }
+}
@@ -0,0 +1,253 @@
+package com.inventario.view;
+
+import com.inventario.controller.CargadorAsincrono;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Modelo de tabla que carga los registros por páginas a medida que el
+ * usuario se desplaza, en lugar de volcarlos todos en un DefaultTableModel.
+ *
+ * Las páginas se piden con paginación por clave (WHERE id < ? ORDER BY id DESC
+ * LIMIT ?): de cada página solo se recuerda el id que la delimita, y los datos
+ * se guardan en una caché LRU de pocas páginas. Las celdas se formatean al
+ * pintarse, por lo que la memoria no crece con el tamaño del historial.
+ *
+ * Todos los métodos deben llamarse desde el EDT.
+ *
+ * @param <T> Tipo de registro mostrado en cada fila
+ * @author Equipo de Desarrollo
+ * @version 1.0
+ */
+public class ModeloTablaPaginado<T> extends AbstractTableModel {
+
+    public static final int TAMANO_PAGINA = 100;
+    private static final int PAGINAS_EN_MEMORIA = 10;
+    // Filas antes del final a partir de las cuales se pide la página siguiente
+    private static final int UMBRAL_PRECARGA = TAMANO_PAGINA / 2;
+
+    /**
+     * Consulta que devuelve una página de registros ordenados por id descendente
+     */
+    @FunctionalInterface
+    public interface ConsultaPagina<T> {
+        List<T> obtener(int antesDeId, int limite) throws Exception;
+    }
+
+    /**
+     * Convierte un registro en el valor mostrado en una columna
+     */
+    @FunctionalInterface
+    public interface FormateadorCelda<T> {
+        Object valor(T fila, int columna);
+    }
+
+    private final String[] columnas;
+    private final ToIntFunction<T> clave;
+    private final CargadorAsincrono cargador;
+    private FormateadorCelda<T> formateador;
+
+    private ConsultaPagina<T> consulta;
+    private Consumer<Integer> alCargarPrimeraPagina;
+    private Consumer<Exception> alFallar;
+
+    // limites.get(p) = id exclusivo desde el que se lee la página p
+    private final List<Integer> limites = new ArrayList<>();
+    private final Set<Integer> paginasSolicitadas = new HashSet<>();
+    private final Map<Integer, List<T>> paginas = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+            return size() > PAGINAS_EN_MEMORIA;
+        }
+    };
+    private int filasConocidas;
+    private boolean hayMas;
+
+    /**
+     * @param columnas Nombres de las columnas
+     * @param clave Obtiene el id (clave de paginación) de un registro
+     * @param indicadorProgreso Recibe true/false al iniciar/terminar cargas (puede ser null)
+     */
+    public ModeloTablaPaginado(String[] columnas, ToIntFunction<T> clave, Consumer<Boolean> indicadorProgreso) {
+        this.columnas = columnas;
+        this.clave = clave;
+        this.cargador = new CargadorAsincrono(indicadorProgreso);
+        this.formateador = (fila, columna) -> fila;
+    }
+
+    public void setFormateador(FormateadorCelda<T> formateador) {
+        this.formateador = formateador;
+    }
+
+    /**
+     * Descarta el contenido actual y empieza a cargar desde la primera página
+     *
+     * @param consulta Consulta de páginas
+     * @param alCargarPrimeraPagina Recibe el número de filas de la primera página
+     * @param alFallar Recibe el error si una página no se puede cargar
+     */
+    public void cargar(ConsultaPagina<T> consulta, Consumer<Integer> alCargarPrimeraPagina,
+                       Consumer<Exception> alFallar) {
+        cancelarCargas();
+        this.consulta = consulta;
+        this.alCargarPrimeraPagina = alCargarPrimeraPagina;
+        this.alFallar = alFallar;
+
+        limites.clear();
+        paginas.clear();
+        limites.add(Integer.MAX_VALUE);
+        filasConocidas = 0;
+        hayMas = true;
+        fireTableDataChanged();
+
+        solicitarPagina(0);
+    }
+
+    /**
+     * Cancela las páginas en curso; se volverán a pedir al pintarse
+     */
+    public void cancelarCargas() {
+        cargador.cancelarTodas();
+        paginasSolicitadas.clear();
+    }
+
+    /**
+     * Obtiene el registro de una fila, o null si su página no está en memoria
+     *
+     * @param fila Índice de la fila
+     */
+    public T getFila(int fila) {
+        if (fila < 0 || fila >= filasConocidas) {
+            return null;
+        }
+        List<T> pagina = paginas.get(fila / TAMANO_PAGINA);
+        int indice = fila % TAMANO_PAGINA;
+        return pagina != null && indice < pagina.size() ? pagina.get(indice) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return filasConocidas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnas.length;
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        return columnas[columna];
+    }
+
+    @Override
+    public boolean isCellEditable(int fila, int columna) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        int numeroPagina = fila / TAMANO_PAGINA;
+
+        if (hayMas && fila >= filasConocidas - UMBRAL_PRECARGA) {
+            solicitarPagina(limites.size() - 1);
+        }
+
+        T registro = getFila(fila);
+        if (registro == null) {
+            solicitarPagina(numeroPagina);
+            return columna == 0 ? "Cargando..." : null;
+        }
+        return formateador.valor(registro, columna);
+    }
+
+    private void solicitarPagina(int numeroPagina) {
+        if (consulta == null || paginas.containsKey(numeroPagina)
+                || !paginasSolicitadas.add(numeroPagina)) {
+            return;
+        }
+
+        ConsultaPagina<T> consultaActual = consulta;
+        int antesDeId = limites.get(numeroPagina);
+        cargador.cargar("pagina-" + numeroPagina,
+            () -> consultaActual.obtener(antesDeId, TAMANO_PAGINA),
+            registros -> recibirPagina(numeroPagina, registros),
+            e -> {
+                paginasSolicitadas.remove(numeroPagina);
+                if (alFallar != null) {
+                    alFallar.accept(e);
+                }
+            });
+    }
+
+    private void recibirPagina(int numeroPagina, List<T> registros) {
+        paginasSolicitadas.remove(numeroPagina);
+        if (numeroPagina >= limites.size()) {
+            // La tabla se recortó mientras se cargaba
+            return;
+        }
+        int primeraFila = numeroPagina * TAMANO_PAGINA;
+        boolean llena = registros.size() == TAMANO_PAGINA;
+
+        if (numeroPagina == limites.size() - 1) {
+            // Página nueva al final: amplía la tabla
+            paginas.put(numeroPagina, registros);
+            hayMas = llena;
+            if (hayMas) {
+                limites.add(clave.applyAsInt(registros.get(registros.size() - 1)));
+            }
+            filasConocidas += registros.size();
+            if (!registros.isEmpty()) {
+                fireTableRowsInserted(primeraFila, filasConocidas - 1);
+            }
+            if (numeroPagina == 0 && alCargarPrimeraPagina != null) {
+                alCargarPrimeraPagina.accept(registros.size());
+            }
+            return;
+        }
+
+        // Página ya conocida que había salido de la caché
+        paginas.put(numeroPagina, registros);
+        if (llena && clave.applyAsInt(registros.get(registros.size() - 1)) == limites.get(numeroPagina + 1)) {
+            fireTableRowsUpdated(primeraFila, primeraFila + TAMANO_PAGINA - 1);
+            return;
+        }
+        recortarDespuesDe(numeroPagina, registros, llena);
+    }
+
+    /**
+     * Se insertaron o borraron registros desde que se leyó la página: las
+     * siguientes ya no empiezan donde se creía. La tabla se recorta al final
+     * de esta página y el resto se vuelve a pedir al desplazarse.
+     */
+    private void recortarDespuesDe(int numeroPagina, List<T> registros, boolean llena) {
+        for (int pagina = numeroPagina + 1; pagina < limites.size(); pagina++) {
+            if (paginasSolicitadas.remove(pagina)) {
+                cargador.cancelar("pagina-" + pagina);
+            }
+        }
+        paginas.keySet().removeIf(pagina -> pagina > numeroPagina);
+        limites.subList(numeroPagina + 1, limites.size()).clear();
+        hayMas = llena;
+        if (hayMas) {
+            limites.add(clave.applyAsInt(registros.get(registros.size() - 1)));
+        }
+
+        int primeraFila = numeroPagina * TAMANO_PAGINA;
+        int filasAntes = filasConocidas;
+        filasConocidas = primeraFila + registros.size();
+        if (filasConocidas > primeraFila) {
+            fireTableRowsUpdated(primeraFila, filasConocidas - 1);
+        }
+        if (filasConocidas < filasAntes) {
+            fireTableRowsDeleted(filasConocidas, filasAntes - 1);
+        }
+    }
+}
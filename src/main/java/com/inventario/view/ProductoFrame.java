@@ -3,7 +3,6 @@ package com.inventario.view;
 import com.inventario.model.Producto;
 import com.inventario.controller.ProductoController;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.math.BigDecimal;
 import java.util.List;
@@ -33,6 +32,7 @@ public class ProductoFrame extends JFrame {
     
     private MainFrame mainFrame;
     private ProductoController controller;
+    private JProgressBar progressCarga;
     private Producto productoSeleccionado;
     
     // Componentes UI
@@ -41,7 +41,7 @@ public class ProductoFrame extends JFrame {
     private ButtonGroup btnGroupCategoria;
     private JButton btnGuardar, btnActualizar, btnEliminar, btnLimpiar, btnRegresar;
     private JTable tablaProductos;
-    private DefaultTableModel modeloTabla;
+    private ModeloTablaPaginado<Producto> modeloTabla;
 
     public ProductoFrame(MainFrame mainFrame) {
         this.mainFrame = mainFrame;
@@ -81,14 +81,9 @@ public class ProductoFrame extends JFrame {
         btnLimpiar = crearBotonModerno("🔄 Limpiar", WARNING_COLOR);
         btnRegresar = crearBotonModerno("⬅️ Regresar al Menú", SECONDARY_COLOR);
         
-        // Tabla
+        // Tabla (cargada por páginas al desplazarse)
         String[] columnas = {"Código", "Nombre", "Descripción", "Precio", "Cantidad", "Categoría"};
-        modeloTabla = new DefaultTableModel(columnas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        modeloTabla = new ModeloTablaPaginado<>(columnas, Producto::getId, this::mostrarCargando);
         
         tablaProductos = new JTable(modeloTabla);
         tablaProductos.setFont(INPUT_FONT);
@@ -225,10 +220,18 @@ public class ProductoFrame extends JFrame {
         // Panel de tabla
         JPanel panelTabla = crearPanelTabla();
         
+        // Barra de estado con el indicador de carga
+        progressCarga = new JProgressBar();
+        progressCarga.setIndeterminate(true);
+        progressCarga.setStringPainted(true);
+        progressCarga.setString("Cargando productos...");
+        progressCarga.setVisible(false);
+        
         // Agregar todo
         add(panelSuperior, BorderLayout.NORTH);
         add(panelFormulario, BorderLayout.WEST);
         add(panelTabla, BorderLayout.CENTER);
+        add(progressCarga, BorderLayout.SOUTH);
     }
 
     private JPanel crearPanelFormulario() {
@@ -391,6 +394,7 @@ public class ProductoFrame extends JFrame {
     }
 
     private void regresarAlMenu() {
+        controller.cancelarCargas();
         this.dispose();
         mainFrame.mostrar();
     }
@@ -424,7 +428,7 @@ public class ProductoFrame extends JFrame {
         }
     }
 
-    public DefaultTableModel getModeloTabla() { return modeloTabla; }
+    public ModeloTablaPaginado<Producto> getModeloTabla() { return modeloTabla; }
     public JTable getTablaProductos() { return tablaProductos; }
     
     public Producto getProductoSeleccionado() { return productoSeleccionado; }
@@ -441,6 +445,15 @@ public class ProductoFrame extends JFrame {
         tablaProductos.clearSelection();
     }
 
+    /**
+     * Muestra u oculta el indicador de carga
+     */
+    public void mostrarCargando(boolean cargando) {
+        progressCarga.setVisible(cargando);
+        setCursor(cargando ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+        revalidate();
+    }
+
     public void mostrarError(String mensaje) {
         JOptionPane.showMessageDialog(this, mensaje, "Error", JOptionPane.ERROR_MESSAGE);
     }
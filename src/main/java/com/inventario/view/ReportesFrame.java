@@ -2,9 +2,15 @@ package com.inventario.view;
 
 import com.inventario.controller.ReportesController;
 import com.inventario.model.Usuario;
+import com.inventario.model.VentaResumen;
+import com.inventario.service.ExportadorReportes;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 
 /**
  * Interfaz para visualizar reportes y estadísticas
@@ -41,7 +47,7 @@ public class ReportesFrame extends JFrame {
     // Panel de ventas
     private JPanel panelVentas;
     private JTable tablaVentas;
-    private DefaultTableModel modeloVentas;
+    private ModeloTablaPaginado<VentaResumen> modeloVentas;
     private JScrollPane scrollVentas;
     private JButton btnActualizarVentas;
     private JButton btnExportarVentas;
@@ -67,6 +73,10 @@ public class ReportesFrame extends JFrame {
     private JTable tablaTopProductos;
     private DefaultTableModel modeloTopProductos;
     private JScrollPane scrollTopProductos;
+    
+    // Indicador de carga en segundo plano
+    private JProgressBar progressCarga;
+    private JProgressBar progressExportacion;
 
     public ReportesFrame(Usuario usuario, MainFrame mainFrame) {
         this(usuario, mainFrame, 0); // Por defecto muestra Dashboard
@@ -170,13 +180,9 @@ public class ReportesFrame extends JFrame {
         panelVentas.setBackground(Color.WHITE);
         
         // Tabla de ventas
+        // Se carga por páginas al desplazarse: el historial puede ser muy grande
         String[] columnasVentas = {"ID", "Fecha", "Vendedor", "Items", "Total"};
-        modeloVentas = new DefaultTableModel(columnasVentas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        modeloVentas = new ModeloTablaPaginado<>(columnasVentas, VentaResumen::getId, this::mostrarCargando);
         
         tablaVentas = new JTable(modeloVentas);
         tablaVentas.setFont(new Font("Segoe UI", Font.PLAIN, 12));
@@ -488,8 +494,24 @@ public class ReportesFrame extends JFrame {
         tabbedPane.addTab("📋 Inventario", panelInventario);
         tabbedPane.addTab("🏆 Top Ventas", panelTopProductos);
         
+        // Barra de estado con el indicador de carga
+        progressCarga = new JProgressBar();
+        progressCarga.setIndeterminate(true);
+        progressCarga.setStringPainted(true);
+        progressCarga.setString("Cargando datos...");
+        progressCarga.setVisible(false);
+        
+        progressExportacion = new JProgressBar();
+        progressExportacion.setStringPainted(true);
+        progressExportacion.setVisible(false);
+        
+        JPanel panelEstado = new JPanel(new BorderLayout());
+        panelEstado.add(progressCarga, BorderLayout.NORTH);
+        panelEstado.add(progressExportacion, BorderLayout.SOUTH);
+        
         add(panelSuperior, BorderLayout.NORTH);
         add(tabbedPane, BorderLayout.CENTER);
+        add(panelEstado, BorderLayout.SOUTH);
     }
 
     /**
@@ -500,6 +522,15 @@ public class ReportesFrame extends JFrame {
         
         btnActualizarVentas.addActionListener(e -> controller.cargarReporteVentas());
         btnExportarVentas.addActionListener(e -> controller.exportarVentas());
+        // Doble clic en una venta: muestra sus items
+        tablaVentas.addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                if (e.getClickCount() == 2) {
+                    controller.mostrarDetalleVenta(tablaVentas.rowAtPoint(e.getPoint()));
+                }
+            }
+        });
         
         btnActualizarProductos.addActionListener(e -> controller.cargarReporteProductos());
         btnExportarProductos.addActionListener(e -> controller.exportarProductos());
@@ -539,6 +570,7 @@ public class ReportesFrame extends JFrame {
      * Regresa al menú principal
      */
     private void regresarAlMenu() {
+        controller.cerrar();
         this.dispose();
         mainFrame.mostrar();
     }
@@ -551,13 +583,111 @@ public class ReportesFrame extends JFrame {
     public JLabel getLblIngresoTotal() { return lblIngresoTotal; }
     public JLabel getLblPromedioVenta() { return lblPromedioVenta; }
     
-    public DefaultTableModel getModeloVentas() { return modeloVentas; }
+    public ModeloTablaPaginado<VentaResumen> getModeloVentas() { return modeloVentas; }
     public DefaultTableModel getModeloProductos() { return modeloProductos; }
     public DefaultTableModel getModeloInventario() { return modeloInventario; }
     public DefaultTableModel getModeloTopProductos() { return modeloTopProductos; }
     
     public JProgressBar getProgressStock() { return progressStock; }
 
+    /**
+     * Muestra u oculta el indicador de carga
+     */
+    public void mostrarCargando(boolean cargando) {
+        progressCarga.setVisible(cargando);
+        setCursor(cargando ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+        revalidate();
+    }
+
+    /**
+     * Muestra el avance de la exportación en curso
+     *
+     * @param procesados Ventas o productos escritos
+     * @param total Total a escribir (0 si aún no se conoce)
+     */
+    public void mostrarProgresoExportacion(int procesados, int total) {
+        progressExportacion.setIndeterminate(total == 0);
+        progressExportacion.setMaximum(Math.max(total, 1));
+        progressExportacion.setValue(procesados);
+        progressExportacion.setString(total == 0 ? "Exportando..." :
+            "Exportando... " + procesados + " de " + total);
+        if (!progressExportacion.isVisible()) {
+            progressExportacion.setVisible(true);
+            revalidate();
+        }
+    }
+
+    public void ocultarProgresoExportacion() {
+        progressExportacion.setVisible(false);
+        revalidate();
+    }
+
+    /**
+     * Pide al usuario el formato y los filtros de una exportación
+     *
+     * @param titulo Título del diálogo
+     * @param vendedores Vendedores para filtrar, o null si la exportación no admite filtros
+     * @return Opciones elegidas, o null si el usuario canceló o ingresó una fecha inválida
+     */
+    public ExportadorReportes.Opciones pedirOpcionesExportacion(String titulo, List<Usuario> vendedores) {
+        JComboBox<ExportadorReportes.Formato> cmbFormato = new JComboBox<>(ExportadorReportes.Formato.values());
+        JCheckBox chkComprimir = new JCheckBox("Comprimir (gzip)");
+        JTextField txtDesde = new JTextField(10);
+        JTextField txtHasta = new JTextField(10);
+        JComboBox<Object> cmbVendedor = new JComboBox<>();
+        cmbVendedor.addItem("Todos");
+        cmbVendedor.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public java.awt.Component getListCellRendererComponent(
+                    JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                Object texto = value instanceof Usuario ? ((Usuario) value).getNombre() : value;
+                return super.getListCellRendererComponent(list, texto, index, isSelected, cellHasFocus);
+            }
+        });
+        
+        JPanel panel = new JPanel(new GridLayout(0, 2, 5, 5));
+        panel.add(new JLabel("Formato:"));
+        panel.add(cmbFormato);
+        panel.add(new JLabel(""));
+        panel.add(chkComprimir);
+        if (vendedores != null) {
+            for (Usuario vendedor : vendedores) {
+                cmbVendedor.addItem(vendedor);
+            }
+            panel.add(new JLabel("Desde (dd/MM/yyyy):"));
+            panel.add(txtDesde);
+            panel.add(new JLabel("Hasta (dd/MM/yyyy):"));
+            panel.add(txtHasta);
+            panel.add(new JLabel("Vendedor:"));
+            panel.add(cmbVendedor);
+        }
+        
+        int opcion = JOptionPane.showConfirmDialog(this, panel, titulo,
+            JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (opcion != JOptionPane.OK_OPTION) {
+            return null;
+        }
+        
+        LocalDate desde;
+        LocalDate hasta;
+        try {
+            desde = leerFecha(txtDesde);
+            hasta = leerFecha(txtHasta);
+        } catch (DateTimeParseException e) {
+            mostrarError("Fecha inválida: use el formato dd/MM/yyyy");
+            return null;
+        }
+        Object vendedor = cmbVendedor.getSelectedItem();
+        Integer usuarioId = vendedor instanceof Usuario ? ((Usuario) vendedor).getId() : null;
+        return new ExportadorReportes.Opciones((ExportadorReportes.Formato) cmbFormato.getSelectedItem(),
+            chkComprimir.isSelected(), desde, hasta, usuarioId);
+    }
+
+    private LocalDate leerFecha(JTextField campo) {
+        String texto = campo.getText().trim();
+        return texto.isEmpty() ? null : LocalDate.parse(texto, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+    }
+
     public void mostrarError(String mensaje) {
         JOptionPane.showMessageDialog(this, mensaje, "Error", JOptionPane.ERROR_MESSAGE);
     }
@@ -1,11 +1,11 @@
 package com.inventario.view;
 
 import com.inventario.controller.VentaController;
+import com.inventario.model.Money;
 import com.inventario.model.Usuario;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.math.BigDecimal;
 import java.text.NumberFormat;
 
 /**
@@ -351,6 +351,7 @@ public class VentaFrame extends JFrame {
      * Regresa al menú principal
      */
     private void regresarAlMenu() {
+        controller.cancelarCargas();
         this.dispose();
         mainFrame.mostrar();
     }
@@ -398,11 +399,19 @@ public class VentaFrame extends JFrame {
         return tablaCarrito;
     }
 
-    public void setTotal(BigDecimal total) {
-        txtTotal.setText(formatoMoneda.format(total));
+    public void setTotal(Money total) {
+        txtTotal.setText(formatoMoneda.format(total.toBigDecimal()));
         actualizarResumen();
     }
 
+    /**
+     * Muestra u oculta el indicador de carga
+     */
+    public void mostrarCargando(boolean cargando) {
+        cmbProductos.setEnabled(!cargando);
+        setCursor(cargando ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
+
     public void mostrarError(String mensaje) {
         JOptionPane.showMessageDialog(this, mensaje, "Error", JOptionPane.ERROR_MESSAGE);
     }
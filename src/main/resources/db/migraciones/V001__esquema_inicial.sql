@@ -1,7 +1,6 @@
--- Script de inicialización de la base de datos
--- Sistema de Inventario
+-- Tablas base del sistema de inventario
+-- Se usa IF NOT EXISTS porque las bases creadas antes del versionado ya las tienen
 
--- Crear tabla de usuarios
 CREATE TABLE IF NOT EXISTS usuarios (
     id INTEGER PRIMARY KEY AUTOINCREMENT,
     username VARCHAR(50) UNIQUE NOT NULL,
@@ -13,7 +12,6 @@ CREATE TABLE IF NOT EXISTS usuarios (
     fecha_creacion DATETIME DEFAULT CURRENT_TIMESTAMP
 );
 
--- Crear tabla de productos
 CREATE TABLE IF NOT EXISTS productos (
     id INTEGER PRIMARY KEY AUTOINCREMENT,
     codigo VARCHAR(20) NOT NULL UNIQUE,
@@ -26,7 +24,6 @@ CREATE TABLE IF NOT EXISTS productos (
     fecha_registro DATETIME DEFAULT CURRENT_TIMESTAMP
 );
 
--- Crear tabla de ventas
 CREATE TABLE IF NOT EXISTS ventas (
     id INTEGER PRIMARY KEY AUTOINCREMENT,
     usuario_id INTEGER NOT NULL,
@@ -35,7 +32,6 @@ CREATE TABLE IF NOT EXISTS ventas (
     FOREIGN KEY (usuario_id) REFERENCES usuarios(id)
 );
 
--- Crear tabla de items de venta
 CREATE TABLE IF NOT EXISTS items_venta (
     id INTEGER PRIMARY KEY AUTOINCREMENT,
     venta_id INTEGER NOT NULL,
@@ -47,23 +43,6 @@ CREATE TABLE IF NOT EXISTS items_venta (
     FOREIGN KEY (producto_id) REFERENCES productos(id)
 );
 
--- Insertar usuarios iniciales
-INSERT OR IGNORE INTO usuarios (username, password, nombre, email, rol, activo) VALUES
-('superadmin', 'superadmin123', 'Super Administrador', 'superadmin@inventario.com', 'SUPER_ADMIN', TRUE),
-('admin', 'admin123', 'Administrador', 'admin@inventario.com', 'ADMIN', TRUE),
-('vendedor', 'vendedor123', 'Vendedor', 'vendedor@inventario.com', 'VENDEDOR', TRUE),
-('juan', 'juan123', 'Juan Pérez', 'juan@inventario.com', 'VENDEDOR', TRUE);
-
--- Insertar productos iniciales
-INSERT OR IGNORE INTO productos (codigo, nombre, descripcion, precio, cantidad, categoria, activo) VALUES
-('PROD001', 'Laptop HP', 'Laptop HP Pavilion 15 pulgadas', 2500000.00, 5, 'Electrónica', TRUE),
-('PROD002', 'iPhone 13', 'Apple iPhone 13 128GB', 3500000.00, 3, 'Electrónica', TRUE),
-('PROD003', 'Camiseta Nike', 'Camiseta deportiva Nike Dri-FIT', 85000.00, 20, 'Ropa', TRUE),
-('PROD004', 'Sofá 3 Puestos', 'Sofá moderno 3 puestos color gris', 1200000.00, 2, 'Hogar', TRUE),
-('PROD005', 'Libro Java', 'Java: The Complete Reference', 150000.00, 10, 'Otros', TRUE);
-
--- Crear índices para mejorar el rendimiento
-CREATE INDEX IF NOT EXISTS idx_usuarios_username ON usuarios(username);
 CREATE INDEX IF NOT EXISTS idx_usuarios_rol ON usuarios(rol);
 CREATE INDEX IF NOT EXISTS idx_productos_categoria ON productos(categoria);
 CREATE INDEX IF NOT EXISTS idx_productos_activo ON productos(activo);
@@ -0,0 +1,13 @@
+-- Código de producto (búsqueda en caja y validación de ventas)
+-- Las bases anteriores a esta columna la reciben con ALTER TABLE y se completa
+-- por lotes, en lugar de reconstruir la tabla productos entera
+
+-- @si SELECT COUNT(*) = 0 FROM pragma_table_info('productos') WHERE name = 'codigo'
+ALTER TABLE productos ADD COLUMN codigo VARCHAR(20);
+
+-- PROD001..PROD999 y, desde el id 1000, PROD1000, PROD1001... (sin repetir códigos)
+-- @lotes
+UPDATE productos SET codigo = 'PROD' || CASE WHEN id < 1000 THEN substr('000' || id, -3) ELSE id END
+WHERE id IN (SELECT id FROM productos WHERE codigo IS NULL LIMIT {lote});
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_productos_codigo ON productos(codigo);
@@ -0,0 +1,34 @@
+-- Resúmenes diarios mantenidos en cada venta (reportes sin recorrer todas las ventas)
+
+CREATE TABLE IF NOT EXISTS ventas_diarias (
+    dia DATE NOT NULL,
+    usuario_id INTEGER NOT NULL,
+    producto_id INTEGER NOT NULL,
+    unidades INTEGER NOT NULL DEFAULT 0,
+    ingresos DECIMAL(14,2) NOT NULL DEFAULT 0,
+    lineas INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (dia, usuario_id, producto_id)
+);
+
+CREATE TABLE IF NOT EXISTS ventas_diarias_vendedor (
+    dia DATE NOT NULL,
+    usuario_id INTEGER NOT NULL,
+    num_ventas INTEGER NOT NULL DEFAULT 0,
+    ingresos DECIMAL(14,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (dia, usuario_id)
+);
+
+-- Poblar desde el histórico si hay ventas sin resumir
+-- @si SELECT EXISTS(SELECT 1 FROM ventas) AND NOT EXISTS(SELECT 1 FROM ventas_diarias)
+INSERT INTO ventas_diarias (dia, usuario_id, producto_id, unidades, ingresos, lineas)
+SELECT substr(v.fecha_venta, 1, 10), v.usuario_id, iv.producto_id,
+       SUM(iv.cantidad), SUM(iv.subtotal), COUNT(*)
+FROM items_venta iv
+JOIN ventas v ON v.id = iv.venta_id
+GROUP BY substr(v.fecha_venta, 1, 10), v.usuario_id, iv.producto_id;
+
+-- @si SELECT EXISTS(SELECT 1 FROM ventas) AND NOT EXISTS(SELECT 1 FROM ventas_diarias_vendedor)
+INSERT INTO ventas_diarias_vendedor (dia, usuario_id, num_ventas, ingresos)
+SELECT substr(fecha_venta, 1, 10), usuario_id, COUNT(*), SUM(total)
+FROM ventas
+GROUP BY substr(fecha_venta, 1, 10), usuario_id;
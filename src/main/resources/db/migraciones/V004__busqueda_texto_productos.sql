@@ -0,0 +1,33 @@
+-- Índice de texto completo de productos (FTS5). Es una tabla de contenido
+-- externo: guarda solo el índice invertido y lee los textos de productos.
+
+CREATE VIRTUAL TABLE IF NOT EXISTS productos_fts USING fts5(
+    nombre, descripcion, codigo, categoria,
+    content = 'productos',
+    content_rowid = 'id',
+    tokenize = 'unicode61 remove_diacritics 2',
+    prefix = '2 3'
+);
+
+CREATE TRIGGER IF NOT EXISTS productos_fts_insert AFTER INSERT ON productos BEGIN
+    INSERT INTO productos_fts (rowid, nombre, descripcion, codigo, categoria)
+    VALUES (new.id, new.nombre, new.descripcion, new.codigo, new.categoria);
+END;
+
+CREATE TRIGGER IF NOT EXISTS productos_fts_delete AFTER DELETE ON productos BEGIN
+    INSERT INTO productos_fts (productos_fts, rowid, nombre, descripcion, codigo, categoria)
+    VALUES ('delete', old.id, old.nombre, old.descripcion, old.codigo, old.categoria);
+END;
+
+-- Solo las columnas indexadas: los cambios de stock de cada venta no tocan el índice
+CREATE TRIGGER IF NOT EXISTS productos_fts_update
+AFTER UPDATE OF nombre, descripcion, codigo, categoria ON productos BEGIN
+    INSERT INTO productos_fts (productos_fts, rowid, nombre, descripcion, codigo, categoria)
+    VALUES ('delete', old.id, old.nombre, old.descripcion, old.codigo, old.categoria);
+    INSERT INTO productos_fts (rowid, nombre, descripcion, codigo, categoria)
+    VALUES (new.id, new.nombre, new.descripcion, new.codigo, new.categoria);
+END;
+
+-- Indexar los productos que ya existan
+-- @si SELECT EXISTS(SELECT 1 FROM productos)
+INSERT INTO productos_fts (productos_fts) VALUES ('rebuild');
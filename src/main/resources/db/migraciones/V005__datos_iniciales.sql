@@ -0,0 +1,16 @@
+-- Usuarios y productos de ejemplo para una base de datos nueva
+
+-- @si SELECT NOT EXISTS(SELECT 1 FROM usuarios)
+INSERT INTO usuarios (username, password, nombre, email, rol, activo) VALUES
+('superadmin', 'superadmin123', 'Super Administrador', 'superadmin@inventario.com', 'SUPER_ADMIN', TRUE),
+('admin', 'admin123', 'Administrador', 'admin@inventario.com', 'ADMIN', TRUE),
+('vendedor', 'vendedor123', 'Vendedor', 'vendedor@inventario.com', 'VENDEDOR', TRUE),
+('juan', 'juan123', 'Juan Pérez', 'juan@inventario.com', 'VENDEDOR', TRUE);
+
+-- @si SELECT NOT EXISTS(SELECT 1 FROM productos)
+INSERT INTO productos (codigo, nombre, descripcion, precio, cantidad, categoria, activo) VALUES
+('PROD001', 'Laptop HP', 'Laptop HP Pavilion 15 pulgadas', 2500000.00, 5, 'Electrónica', TRUE),
+('PROD002', 'iPhone 13', 'Apple iPhone 13 128GB', 3500000.00, 3, 'Electrónica', TRUE),
+('PROD003', 'Camiseta Nike', 'Camiseta deportiva Nike Dri-FIT', 85000.00, 20, 'Ropa', TRUE),
+('PROD004', 'Sofá 3 Puestos', 'Sofá moderno 3 puestos color gris', 1200000.00, 2, 'Hogar', TRUE),
+('PROD005', 'Libro Java', 'Java: The Complete Reference', 150000.00, 10, 'Otros', TRUE);
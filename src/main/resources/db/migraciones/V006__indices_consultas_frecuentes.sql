@@ -0,0 +1,20 @@
+-- Índices para las claves foráneas y los predicados más usados
+-- (ver com.inventario.main.RevisarIndices para revisar los planes)
+
+-- Items por producto: top de productos y borrado/validación por producto.
+-- Incluye cantidad y subtotal para sumar unidades e ingresos sin leer la tabla
+CREATE INDEX IF NOT EXISTS idx_items_venta_producto ON items_venta(producto_id, cantidad, subtotal);
+
+-- Ventas de un vendedor, ya ordenadas por fecha
+CREATE INDEX IF NOT EXISTS idx_ventas_usuario_fecha ON ventas(usuario_id, fecha_venta);
+
+-- Índices parciales de productos activos: las consultas del catálogo siempre
+-- filtran por activo = TRUE y así el índice no incluye los productos eliminados
+CREATE INDEX IF NOT EXISTS idx_productos_activos_stock ON productos(cantidad) WHERE activo = TRUE;
+CREATE INDEX IF NOT EXISTS idx_productos_activos_categoria ON productos(categoria, nombre) WHERE activo = TRUE;
+CREATE INDEX IF NOT EXISTS idx_productos_activos_nombre ON productos(nombre) WHERE activo = TRUE;
+
+-- Reemplazados por los parciales. Con idx_productos_activo el planificador
+-- recorría medio índice más la tabla en lugar de leer la tabla directamente
+DROP INDEX IF EXISTS idx_productos_activo;
+DROP INDEX IF EXISTS idx_productos_categoria;
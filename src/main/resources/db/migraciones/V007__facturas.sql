@@ -0,0 +1,34 @@
+-- Facturas emitidas y consecutivo de numeración
+-- (ver com.inventario.dao.FacturaDAO)
+
+-- Siguiente número libre de cada consecutivo. Se reservan bloques dentro de la
+-- misma transacción que inserta las facturas: si la emisión se revierte, el
+-- consecutivo vuelve a su valor y no quedan huecos
+CREATE TABLE IF NOT EXISTS secuencias (
+    nombre TEXT PRIMARY KEY,
+    siguiente INTEGER NOT NULL
+);
+
+INSERT OR IGNORE INTO secuencias (nombre, siguiente) VALUES ('facturas', 1);
+
+-- El id es el consecutivo de la factura. Se guarda el documento tal como se
+-- emitió (texto y HTML, en UTF-8) para reimprimirlo sin volver a generarlo
+CREATE TABLE IF NOT EXISTS facturas (
+    id INTEGER PRIMARY KEY,
+    numero_factura TEXT NOT NULL UNIQUE,
+    venta_id INTEGER NOT NULL,
+    cliente_nombre TEXT,
+    cliente_documento TEXT,
+    fecha_emision DATETIME NOT NULL,
+    incluye_iva BOOLEAN NOT NULL,
+    subtotal DECIMAL(12,2) NOT NULL,
+    iva DECIMAL(12,2) NOT NULL,
+    total DECIMAL(12,2) NOT NULL,
+    observaciones TEXT,
+    contenido_texto BLOB NOT NULL,
+    contenido_html BLOB NOT NULL,
+    FOREIGN KEY (venta_id) REFERENCES ventas(id)
+);
+
+-- Facturas de una venta, de la más reciente a la más antigua
+CREATE INDEX IF NOT EXISTS idx_facturas_venta ON facturas(venta_id, id);